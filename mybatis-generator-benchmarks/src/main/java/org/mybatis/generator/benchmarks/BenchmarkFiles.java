@@ -0,0 +1,63 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * File helpers shared by the benchmarks.
+ * 
+ * @author fury
+ */
+public class BenchmarkFiles {
+
+    private BenchmarkFiles() {
+        super();
+    }
+
+    /**
+     * Creates an empty temporary directory that is deleted on exit.
+     *
+     * @return the directory
+     * @throws IOException
+     *             if the directory cannot be created
+     */
+    public static File createTempDirectory() throws IOException {
+        File dir = File.createTempFile("mbg-benchmark", ""); //$NON-NLS-1$ //$NON-NLS-2$
+        if (!dir.delete() || !dir.mkdir()) {
+            throw new IOException("Cannot create directory " + dir); //$NON-NLS-1$
+        }
+        dir.deleteOnExit();
+        return dir;
+    }
+
+    /**
+     * Deletes a directory and everything below it.
+     *
+     * @param file
+     *            the file or directory
+     */
+    public static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
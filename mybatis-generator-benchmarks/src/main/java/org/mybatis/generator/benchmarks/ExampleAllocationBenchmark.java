@@ -0,0 +1,192 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.config.ColumnOverride;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of building one query condition with a generated Example
+ * class, with and without the <code>reusableExamples</code> property. The
+ * Example class of a synthetic table is generated and compiled during setup,
+ * together with a small workload class that calls it directly. Run with
+ * <code>-prof gc</code> and compare <code>gc.alloc.rate.norm</code>.
+ * 
+ * @author fury
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExampleAllocationBenchmark {
+
+    /** Column with a type handler, so the Example keeps a separate criteria list. */
+    private static final String TYPE_HANDLED_COLUMN = "COL_6"; //$NON-NLS-1$
+
+    private static final String WORKLOAD_CLASS = "ExampleWorkload"; //$NON-NLS-1$
+
+    @Param({ "false", "true" })
+    public boolean reusableExamples;
+
+    /** True to clear and refill one Example, false to create an Example per query. */
+    @Param({ "false", "true" })
+    public boolean reuseInstance;
+
+    private SyntheticSchema schema;
+
+    private File targetProject;
+
+    private Callable<Object> workload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        schema = new SyntheticSchema("examplealloc" + reusableExamples + reuseInstance, 1, 8); //$NON-NLS-1$
+        targetProject = BenchmarkFiles.createTempDirectory();
+        Context context = schema.createContext(targetProject, 1);
+        context.getJavaModelGeneratorConfiguration().addProperty(
+                PropertyRegistry.MODEL_GENERATOR_REUSABLE_EXAMPLES, Boolean.toString(reusableExamples));
+        ColumnOverride columnOverride = new ColumnOverride(TYPE_HANDLED_COLUMN);
+        columnOverride.setTypeHandler("benchmark.LongTypeHandler"); //$NON-NLS-1$
+        context.getTableConfigurations().get(0).addColumnOverride(columnOverride);
+
+        List<GeneratedJavaFile> generatedJavaFiles = new ArrayList<GeneratedJavaFile>();
+        List<IntrospectedTable> tables = schema.prepare(context,
+                generatedJavaFiles, new ArrayList<GeneratedXmlFile>());
+        String exampleType = tables.get(0).getExampleType();
+
+        File sourceDir = new File(targetProject, "src"); //$NON-NLS-1$
+        File classesDir = new File(targetProject, "classes"); //$NON-NLS-1$
+        classesDir.mkdirs();
+        List<String> arguments = new ArrayList<String>();
+        arguments.add("-d"); //$NON-NLS-1$
+        arguments.add(classesDir.getAbsolutePath());
+        for (GeneratedJavaFile gjf : generatedJavaFiles) {
+            if (exampleType.equals(gjf.getCompilationUnit().getType().getFullyQualifiedName())) {
+                arguments.add(write(sourceDir, gjf.getTargetPackage(), gjf.getFileName(),
+                        gjf.getFormattedContent()));
+                arguments.add(write(sourceDir, gjf.getTargetPackage(), WORKLOAD_CLASS + ".java", //$NON-NLS-1$
+                        workloadSource(gjf.getTargetPackage(),
+                                gjf.getCompilationUnit().getType().getShortName())));
+            }
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("This benchmark must run on a JDK"); //$NON-NLS-1$
+        }
+        if (compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])) != 0) {
+            throw new IllegalStateException("Cannot compile " + exampleType); //$NON-NLS-1$
+        }
+
+        URLClassLoader loader = new URLClassLoader(new URL[] { classesDir.toURI().toURL() },
+                getClass().getClassLoader());
+        Class<?> workloadClass = loader.loadClass(
+                exampleType.substring(0, exampleType.lastIndexOf('.') + 1) + WORKLOAD_CLASS);
+        @SuppressWarnings("unchecked")
+        Callable<Object> instance = (Callable<Object>) workloadClass
+                .getConstructor(boolean.class).newInstance(reuseInstance);
+        workload = instance;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        schema.close();
+        BenchmarkFiles.delete(targetProject);
+    }
+
+    @Benchmark
+    public Object buildExample() throws Exception {
+        return workload.call();
+    }
+
+    /**
+     * The workload: two ored criteria with six conditions, covering a type
+     * handled column and a JDBC DATE list, followed by the getAllCriteria()
+     * calls the mapper makes while rendering the statement.
+     */
+    private static String workloadSource(String targetPackage, String example) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(targetPackage).append(";\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append("import java.util.Arrays;\n"); //$NON-NLS-1$
+        sb.append("import java.util.Date;\n"); //$NON-NLS-1$
+        sb.append("import java.util.List;\n"); //$NON-NLS-1$
+        sb.append("import java.util.concurrent.Callable;\n"); //$NON-NLS-1$
+        sb.append("public class ").append(WORKLOAD_CLASS).append(" implements Callable<Object> {\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append("private static final List<Date> DATES = Arrays.asList(new Date(0L), new Date(86400000L));\n"); //$NON-NLS-1$
+        sb.append("private final boolean reuse;\n"); //$NON-NLS-1$
+        sb.append("private ").append(example).append(" example = new ").append(example).append("();\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        sb.append("public ").append(WORKLOAD_CLASS).append("(boolean reuse) { this.reuse = reuse; }\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append("public Object call() {\n"); //$NON-NLS-1$
+        sb.append("if (reuse) { example.clear(); } else { example = new ").append(example).append("(); }\n"); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append("example.createCriteria().andIdEqualTo(1L).andCol7Like(\"a%\").andCol6Between(1L, 100L).andCol1EqualTo(3);\n"); //$NON-NLS-1$
+        sb.append("example.or().andCol5In(DATES).andCol3IsNull();\n"); //$NON-NLS-1$
+        sb.append("for (int i = 0; i < example.getOredCriteria().size(); i++) {\n"); //$NON-NLS-1$
+        sb.append("example.getOredCriteria().get(i).getAllCriteria();\n"); //$NON-NLS-1$
+        sb.append("}\n"); //$NON-NLS-1$
+        sb.append("return example;\n"); //$NON-NLS-1$
+        sb.append("}\n"); //$NON-NLS-1$
+        sb.append("}\n"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    private static String write(File sourceDir, String targetPackage, String fileName,
+            String content) throws IOException {
+        File dir = new File(sourceDir, targetPackage.replace('.', File.separatorChar));
+        dir.mkdirs();
+        File file = new File(dir, fileName);
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8"); //$NON-NLS-1$
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+        return file.getAbsolutePath();
+    }
+}
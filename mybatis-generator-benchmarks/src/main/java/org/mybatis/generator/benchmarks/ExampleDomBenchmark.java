@@ -0,0 +1,95 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.dom.java.CompilationUnit;
+import org.mybatis.generator.codegen.mybatis3.model.ExampleGenerator;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.internal.NullProgressCallback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction of the Example class DOM of one table. Example
+ * classes contain one criterion method group per column and operator, so they
+ * are the largest DOM the generator builds.
+ * 
+ * @author fury
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExampleDomBenchmark {
+
+    @Param({ "8", "32", "128" })
+    public int columns;
+
+    private SyntheticSchema schema;
+
+    private File targetProject;
+
+    private Context context;
+
+    private IntrospectedTable introspectedTable;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        schema = new SyntheticSchema("example" + columns, 1, columns); //$NON-NLS-1$
+        targetProject = BenchmarkFiles.createTempDirectory();
+        context = schema.createContext(targetProject, 1);
+        List<IntrospectedTable> tables = schema.prepare(context,
+                new ArrayList<GeneratedJavaFile>(), new ArrayList<GeneratedXmlFile>());
+        introspectedTable = tables.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        schema.close();
+        BenchmarkFiles.delete(targetProject);
+    }
+
+    @Benchmark
+    public List<CompilationUnit> buildExampleClass() {
+        ExampleGenerator generator = new ExampleGenerator();
+        generator.setContext(context);
+        generator.setIntrospectedTable(introspectedTable);
+        generator.setProgressCallback(new NullProgressCallback());
+        generator.setWarnings(new ArrayList<String>());
+        return generator.getCompilationUnits();
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.MyBatisGenerator;
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.internal.DefaultShellCallback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the whole generator (introspection, generation, rendering and
+ * writing) against schemas of 10, 100 and 1000 tables. Every benchmark counts
+ * one operation per table, so the throughput is reported in tables per second
+ * and, with <code>-prof gc</code>, <code>gc.alloc.rate.norm</code> is the
+ * number of bytes allocated per table.
+ * 
+ * @author fury
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GenerateBenchmark {
+
+    private static final int COLUMNS = 16;
+
+    /**
+     * A schema and an empty target directory for a given number of tables.
+     */
+    public abstract static class Tables {
+
+        private SyntheticSchema schema;
+
+        private File targetProject;
+
+        protected abstract int getTableCount();
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            schema = new SyntheticSchema("generate" + getTableCount(), getTableCount(), COLUMNS); //$NON-NLS-1$
+        }
+
+        @Setup(Level.Invocation)
+        public void createTargetProject() throws Exception {
+            targetProject = BenchmarkFiles.createTempDirectory();
+        }
+
+        @TearDown(Level.Invocation)
+        public void deleteTargetProject() {
+            BenchmarkFiles.delete(targetProject);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            schema.close();
+        }
+
+        public List<String> generate() throws Exception {
+            Configuration configuration = new Configuration();
+            configuration.addContext(schema.createContext(targetProject, getTableCount()));
+            List<String> warnings = new ArrayList<String>();
+            MyBatisGenerator generator = new MyBatisGenerator(configuration,
+                    new DefaultShellCallback(true), warnings);
+            generator.generate(null);
+            return warnings;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Tables10 extends Tables {
+        @Override
+        protected int getTableCount() {
+            return 10;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Tables100 extends Tables {
+        @Override
+        protected int getTableCount() {
+            return 100;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Tables1000 extends Tables {
+        @Override
+        protected int getTableCount() {
+            return 1000;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(10)
+    public List<String> generate10Tables(Tables10 tables) throws Exception {
+        return tables.generate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public List<String> generate100Tables(Tables100 tables) throws Exception {
+        return tables.generate();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public List<String> generate1000Tables(Tables1000 tables) throws Exception {
+        return tables.generate();
+    }
+}
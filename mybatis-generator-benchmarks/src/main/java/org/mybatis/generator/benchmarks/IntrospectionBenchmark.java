@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.JavaTypeResolver;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.db.DatabaseIntrospector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the JDBC metadata introspection of one table, which dominates the
+ * introspection phase of a generator run.
+ * 
+ * @author fury
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IntrospectionBenchmark {
+
+    @Param({ "8", "32", "128" })
+    public int columns;
+
+    private SyntheticSchema schema;
+
+    private Connection connection;
+
+    private DatabaseIntrospector introspector;
+
+    private TableConfiguration tableConfiguration;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        schema = new SyntheticSchema("introspection" + columns, 1, columns); //$NON-NLS-1$
+        Context context = schema.createContext(BenchmarkFiles.createTempDirectory(), 1);
+        tableConfiguration = context.getTableConfigurations().get(0);
+
+        List<String> warnings = new ArrayList<String>();
+        connection = schema.getConnection();
+        DatabaseMetaData dmd = connection.getMetaData();
+        JavaTypeResolver resolver = ObjectFactory.createJavaTypeResolver(context, warnings);
+        introspector = new DatabaseIntrospector(context, dmd, resolver, warnings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        connection.close();
+        schema.close();
+    }
+
+    @Benchmark
+    public List<IntrospectedTable> introspectTable() throws Exception {
+        return introspector.introspectTables(tableConfiguration);
+    }
+}
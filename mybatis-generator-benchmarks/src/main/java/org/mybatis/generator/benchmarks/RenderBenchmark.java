@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.config.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rendering the generated files of one table into strings with
+ * streaming them into a writer.
+ * 
+ * @author fury
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({ "8", "32", "128" })
+    public int columns;
+
+    private SyntheticSchema schema;
+
+    private File targetProject;
+
+    private List<GeneratedJavaFile> javaFiles;
+
+    private List<GeneratedXmlFile> xmlFiles;
+
+    private final Writer sink = new NullWriter();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        schema = new SyntheticSchema("render" + columns, 1, columns); //$NON-NLS-1$
+        targetProject = BenchmarkFiles.createTempDirectory();
+        Context context = schema.createContext(targetProject, 1);
+        javaFiles = new ArrayList<GeneratedJavaFile>();
+        xmlFiles = new ArrayList<GeneratedXmlFile>();
+        schema.prepare(context, javaFiles, xmlFiles);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        schema.close();
+        BenchmarkFiles.delete(targetProject);
+    }
+
+    @Benchmark
+    public int renderToString() {
+        int length = 0;
+        for (GeneratedJavaFile gjf : javaFiles) {
+            length += gjf.getFormattedContent().length();
+        }
+        for (GeneratedXmlFile gxf : xmlFiles) {
+            length += gxf.getFormattedContent().length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public Writer renderToWriter() throws IOException {
+        for (GeneratedJavaFile gjf : javaFiles) {
+            gjf.writeFormattedContent(sink);
+        }
+        for (GeneratedXmlFile gxf : xmlFiles) {
+            gxf.writeFormattedContent(sink);
+        }
+        return sink;
+    }
+
+    /**
+     * A writer that discards everything, so only the rendering is measured.
+     */
+    private static class NullWriter extends Writer {
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            return this;
+        }
+
+        @Override
+        public Writer append(char c) {
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.JavaTypeResolver;
+import org.mybatis.generator.config.CommentGeneratorConfiguration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JDBCConnectionConfiguration;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.ModelType;
+import org.mybatis.generator.config.SqlMapGeneratorConfiguration;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.NullProgressCallback;
+import org.mybatis.generator.internal.ObjectFactory;
+import org.mybatis.generator.internal.db.DatabaseIntrospector;
+
+/**
+ * A synthetic schema in an in-memory H2 database. Every table has a BIGINT
+ * primary key followed by columns of the usual generator types (strings,
+ * numbers, dates, booleans and an occasional CLOB), so that wide tables
+ * exercise every code path of the model and mapper generators.
+ * 
+ * @author fury
+ */
+public class SyntheticSchema {
+
+    private static final String[] COLUMN_TYPES = {
+        "VARCHAR(64)", "INTEGER", "DECIMAL(12,2)", "TIMESTAMP", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+        "BOOLEAN", "DATE", "BIGINT", "VARCHAR(255)" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+    };
+
+    private final String url;
+
+    private final int tableCount;
+
+    /** Keeps the in-memory database alive while the schema is in use. */
+    private final Connection keepAlive;
+
+    /**
+     * Creates the schema.
+     *
+     * @param name
+     *            the database name, must be unique per JVM
+     * @param tableCount
+     *            the number of tables
+     * @param columnCount
+     *            the number of columns per table, including the primary key
+     * @throws SQLException
+     *             if the schema cannot be created
+     */
+    public SyntheticSchema(String name, int tableCount, int columnCount) throws SQLException {
+        this.url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1"; //$NON-NLS-1$ //$NON-NLS-2$
+        this.tableCount = tableCount;
+        this.keepAlive = DriverManager.getConnection(url, "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$
+
+        Statement st = keepAlive.createStatement();
+        try {
+            for (int i = 0; i < tableCount; i++) {
+                st.execute(createTableStatement(tableName(i), columnCount));
+            }
+        } finally {
+            st.close();
+        }
+    }
+
+    private static String createTableStatement(String tableName, int columnCount) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("CREATE TABLE ").append(tableName).append(" ("); //$NON-NLS-1$ //$NON-NLS-2$
+        sb.append("ID BIGINT NOT NULL PRIMARY KEY"); //$NON-NLS-1$
+        for (int i = 1; i < columnCount; i++) {
+            sb.append(", COL_").append(i).append(' '); //$NON-NLS-1$
+            if (i % 16 == 0) {
+                sb.append("CLOB"); //$NON-NLS-1$
+            } else {
+                sb.append(COLUMN_TYPES[i % COLUMN_TYPES.length]);
+            }
+            if (i % 3 == 0) {
+                sb.append(" NOT NULL"); //$NON-NLS-1$
+            }
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    /**
+     * Returns the name of a table of this schema.
+     *
+     * @param index
+     *            the table index
+     * @return the table name
+     */
+    public static String tableName(int index) {
+        return String.format("T%04d", index); //$NON-NLS-1$
+    }
+
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    /**
+     * Creates a MyBatis3 context for the first tables of this schema.
+     *
+     * @param targetProject
+     *            the directory generated files are saved to
+     * @param tables
+     *            the number of tables to configure
+     * @return the context
+     */
+    public Context createContext(File targetProject, int tables) {
+        Context context = new Context(ModelType.CONDITIONAL);
+        context.setId("benchmark"); //$NON-NLS-1$
+        context.setTargetRuntime("MyBatis3"); //$NON-NLS-1$
+
+        JDBCConnectionConfiguration jdbc = new JDBCConnectionConfiguration();
+        jdbc.setDriverClass("org.h2.Driver"); //$NON-NLS-1$
+        jdbc.setConnectionURL(url);
+        jdbc.setUserId("sa"); //$NON-NLS-1$
+        jdbc.setPassword(""); //$NON-NLS-1$
+        context.setJdbcConnectionConfiguration(jdbc);
+
+        CommentGeneratorConfiguration comments = new CommentGeneratorConfiguration();
+        // keep the generated files stable from run to run
+        comments.addProperty("suppressDate", "true"); //$NON-NLS-1$ //$NON-NLS-2$
+        context.setCommentGeneratorConfiguration(comments);
+
+        JavaModelGeneratorConfiguration model = new JavaModelGeneratorConfiguration();
+        model.setTargetProject(targetProject.getAbsolutePath());
+        model.setTargetPackage("benchmark.model"); //$NON-NLS-1$
+        context.setJavaModelGeneratorConfiguration(model);
+
+        SqlMapGeneratorConfiguration sqlMap = new SqlMapGeneratorConfiguration();
+        sqlMap.setTargetProject(targetProject.getAbsolutePath());
+        sqlMap.setTargetPackage("benchmark.mapper"); //$NON-NLS-1$
+        context.setSqlMapGeneratorConfiguration(sqlMap);
+
+        JavaClientGeneratorConfiguration client = new JavaClientGeneratorConfiguration();
+        client.setConfigurationType("XMLMAPPER"); //$NON-NLS-1$
+        client.setTargetProject(targetProject.getAbsolutePath());
+        client.setTargetPackage("benchmark.mapper"); //$NON-NLS-1$
+        context.setJavaClientGeneratorConfiguration(client);
+
+        for (int i = 0; i < tables; i++) {
+            TableConfiguration tc = new TableConfiguration(context);
+            tc.setTableName(tableName(i));
+            context.addTableConfiguration(tc);
+        }
+
+        return context;
+    }
+
+    /**
+     * Opens a new connection to the schema.
+     *
+     * @return the connection
+     * @throws SQLException
+     *             if the connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        return DriverManager.getConnection(url, "sa", ""); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Introspects and generates all tables of a context, and returns the
+     * initialized introspected tables. After this call the plugins of the
+     * context are set up, so the generators can be used directly.
+     *
+     * @param context
+     *            the context
+     * @param generatedJavaFiles
+     *            receives the generated Java files
+     * @param generatedXmlFiles
+     *            receives the generated XML files
+     * @return the initialized tables
+     * @throws Exception
+     *             if the schema cannot be introspected
+     */
+    public List<IntrospectedTable> prepare(Context context,
+            List<GeneratedJavaFile> generatedJavaFiles,
+            List<GeneratedXmlFile> generatedXmlFiles) throws Exception {
+        List<String> warnings = new ArrayList<String>();
+        NullProgressCallback callback = new NullProgressCallback();
+        context.introspectTables(callback, warnings, null);
+        context.generateFiles(callback, generatedJavaFiles, generatedXmlFiles, warnings);
+
+        List<IntrospectedTable> tables = new ArrayList<IntrospectedTable>();
+        Connection connection = getConnection();
+        try {
+            DatabaseMetaData dmd = connection.getMetaData();
+            JavaTypeResolver resolver = ObjectFactory.createJavaTypeResolver(context, warnings);
+            DatabaseIntrospector introspector = new DatabaseIntrospector(context, dmd, resolver, warnings);
+            for (TableConfiguration tc : context.getTableConfigurations()) {
+                tables.addAll(introspector.introspectTables(tc));
+            }
+        } finally {
+            connection.close();
+        }
+
+        for (IntrospectedTable table : tables) {
+            table.initialize();
+        }
+
+        return tables;
+    }
+
+    /**
+     * Drops the database.
+     *
+     * @throws SQLException
+     *             if the database cannot be dropped
+     */
+    public void close() throws SQLException {
+        Statement st = keepAlive.createStatement();
+        try {
+            st.execute("DROP ALL OBJECTS"); //$NON-NLS-1$
+        } finally {
+            st.close();
+            keepAlive.close();
+        }
+    }
+}
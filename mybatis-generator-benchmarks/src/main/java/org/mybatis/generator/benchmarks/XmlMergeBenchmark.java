@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.exception.ShellException;
+import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures merging a freshly generated mapper XML file into an existing one,
+ * as happens on every regeneration of an existing project.
+ * 
+ * @author fury
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class XmlMergeBenchmark {
+
+    @Param({ "8", "32", "128" })
+    public int columns;
+
+    private SyntheticSchema schema;
+
+    private File targetProject;
+
+    private GeneratedXmlFile mapperFile;
+
+    private File existingFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        schema = new SyntheticSchema("merge" + columns, 1, columns); //$NON-NLS-1$
+        targetProject = BenchmarkFiles.createTempDirectory();
+        Context context = schema.createContext(targetProject, 1);
+        List<GeneratedXmlFile> xmlFiles = new ArrayList<GeneratedXmlFile>();
+        schema.prepare(context, new ArrayList<GeneratedJavaFile>(), xmlFiles);
+        mapperFile = xmlFiles.get(0);
+
+        existingFile = new File(targetProject, mapperFile.getFileName());
+        Writer writer = new OutputStreamWriter(new FileOutputStream(existingFile), "UTF-8"); //$NON-NLS-1$
+        try {
+            mapperFile.writeFormattedContent(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        schema.close();
+        BenchmarkFiles.delete(targetProject);
+    }
+
+    @Benchmark
+    public String mergeMapper() throws ShellException {
+        return XmlFileMergerJaxp.getMergedSource(mapperFile, existingFile);
+    }
+}
@@ -22,7 +22,10 @@ import java.util.Properties;
 public interface ConnectionFactory {
     /**
      * Should return a connection to the database in use for this context.
-     * The generator will call this method only one time for each context.
+     * The generator will call this method only one time for each context,
+     * unless the context property "introspectionThreads" is greater than one -
+     * in that case it is called once per introspection thread, possibly
+     * concurrently.
      * The generator will close the connection.
      * 
      * @return
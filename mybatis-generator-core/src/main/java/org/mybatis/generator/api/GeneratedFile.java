@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 
 /**
  * Abstract class that holds information common to all generated files.
@@ -48,6 +50,20 @@ public abstract class GeneratedFile {
      */
     public abstract String getFormattedContent();
 
+    /**
+     * Writes the entire contents of the generated file to an appendable. The
+     * written content is the same as returned by {@link #getFormattedContent()},
+     * but subclasses can stream it without building a String first.
+     * 
+     * @param out
+     *            the appendable to write to
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void writeFormattedContent(Appendable out) throws IOException {
+        out.append(getFormattedContent());
+    }
+
     /**
      * Get the file name (without any path). Clients should use this method to
      * determine how to save the results.
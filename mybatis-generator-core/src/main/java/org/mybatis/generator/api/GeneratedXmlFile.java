@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.xml.Document;
 
 /**
@@ -74,6 +76,31 @@ public class GeneratedXmlFile extends GeneratedFile {
         return xmlFormatter.getFormattedContent(document);
     }
 
+    @Override
+    public void writeFormattedContent(Appendable out) throws IOException {
+        xmlFormatter.writeFormattedContent(document, out);
+    }
+
+    /**
+     * Gets the document. The built in XML file merger renders the generated
+     * elements from the document directly instead of parsing the formatted
+     * content.
+     *
+     * @return the document
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Gets the xml formatter.
+     *
+     * @return the xml formatter
+     */
+    public XmlFormatter getXmlFormatter() {
+        return xmlFormatter;
+    }
+
     /**
      * Gets the file name.
      *
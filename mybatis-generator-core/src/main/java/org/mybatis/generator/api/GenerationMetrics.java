@@ -0,0 +1,329 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class collects timing, allocation and file statistics of one run of
+ * the generator. It is filled by the generator when the progress callback
+ * implements {@link MetricsProgressCallback}, and handed to the callback when
+ * the run completes.
+ * <p>
+ * Phase times are wall clock times measured on the thread calling the
+ * generator. Allocated bytes are the bytes allocated by the calling thread
+ * plus the bytes allocated by the worker threads of the phase, or -1 if the
+ * JVM cannot measure thread allocations. Table and plugin times are the sum of
+ * the times spent in the table or plugin on all threads.
+ * <p>
+ * All methods are thread safe.
+ * 
+ * @author fury
+ */
+public class GenerationMetrics {
+
+    /** The database introspection phase. */
+    public static final String INTROSPECTION = "introspection"; //$NON-NLS-1$
+
+    /** The code generation phase, including the plugins. */
+    public static final String GENERATION = "generation"; //$NON-NLS-1$
+
+    /** The merge and save phase. */
+    public static final String SAVE = "save"; //$NON-NLS-1$
+
+    private final Map<String, long[]> phases = new LinkedHashMap<String, long[]>();
+
+    private final Map<String, Map<String, Long>> tables = new LinkedHashMap<String, Map<String, Long>>();
+
+    private final Map<String, long[]> plugins = new LinkedHashMap<String, long[]>();
+
+    private int filesWritten;
+
+    private int filesUnchanged;
+
+    private long bytesWritten;
+
+    private int javaMerges;
+
+    private int xmlMerges;
+
+    /**
+     * Constructs an empty metrics object.
+     */
+    public GenerationMetrics() {
+        super();
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread.
+     *
+     * @return the allocated bytes, or -1 if the JVM does not support
+     *         allocation measurement
+     */
+    public static long getAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported()
+                    && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Records the completion of a phase on the calling thread.
+     *
+     * @param phase
+     *            the phase
+     * @param startNanos
+     *            the value of <code>System.nanoTime()</code> when the phase
+     *            started
+     * @param startAllocatedBytes
+     *            the value of {@link #getAllocatedBytes()} when the phase
+     *            started
+     */
+    public synchronized void phaseCompleted(String phase, long startNanos, long startAllocatedBytes) {
+        long[] values = getPhase(phase);
+        values[0] += System.nanoTime() - startNanos;
+        addAllocatedBytes(values, startAllocatedBytes);
+    }
+
+    /**
+     * Records the bytes allocated by a worker thread during a phase. This
+     * method must be called on the worker thread.
+     *
+     * @param phase
+     *            the phase
+     * @param startAllocatedBytes
+     *            the value of {@link #getAllocatedBytes()} when the worker
+     *            started
+     */
+    public synchronized void workerCompleted(String phase, long startAllocatedBytes) {
+        addAllocatedBytes(getPhase(phase), startAllocatedBytes);
+    }
+
+    private long[] getPhase(String phase) {
+        long[] values = phases.get(phase);
+        if (values == null) {
+            values = new long[2];
+            phases.put(phase, values);
+        }
+        return values;
+    }
+
+    private static void addAllocatedBytes(long[] values, long startAllocatedBytes) {
+        if (startAllocatedBytes < 0 || values[1] < 0) {
+            values[1] = -1;
+        } else {
+            values[1] += getAllocatedBytes() - startAllocatedBytes;
+        }
+    }
+
+    /**
+     * Records the time spent on a table during a phase.
+     *
+     * @param phase
+     *            the phase
+     * @param tableName
+     *            the fully qualified table name
+     * @param nanos
+     *            the elapsed time in nanoseconds
+     */
+    public synchronized void addTableTime(String phase, String tableName, long nanos) {
+        Map<String, Long> times = tables.get(tableName);
+        if (times == null) {
+            times = new LinkedHashMap<String, Long>();
+            tables.put(tableName, times);
+        }
+
+        Long time = times.get(phase);
+        times.put(phase, time == null ? nanos : time + nanos);
+    }
+
+    /**
+     * Records one call of a plugin method.
+     *
+     * @param pluginName
+     *            the class name of the plugin
+     * @param nanos
+     *            the elapsed time in nanoseconds
+     */
+    public synchronized void addPluginTime(String pluginName, long nanos) {
+        long[] values = plugins.get(pluginName);
+        if (values == null) {
+            values = new long[2];
+            plugins.put(pluginName, values);
+        }
+        values[0]++;
+        values[1] += nanos;
+    }
+
+    /**
+     * Records a file written to disk.
+     *
+     * @param bytes
+     *            the size of the file
+     */
+    public synchronized void fileWritten(long bytes) {
+        filesWritten++;
+        bytesWritten += bytes;
+    }
+
+    /**
+     * Records a file that was not written because its content did not change.
+     */
+    public synchronized void fileUnchanged() {
+        filesUnchanged++;
+    }
+
+    /**
+     * Records a Java file merged with an existing file.
+     */
+    public synchronized void javaFileMerged() {
+        javaMerges++;
+    }
+
+    /**
+     * Records an XML file merged with an existing file.
+     */
+    public synchronized void xmlFileMerged() {
+        xmlMerges++;
+    }
+
+    /**
+     * Returns the wall time of a phase.
+     *
+     * @param phase
+     *            the phase
+     * @return the time in nanoseconds
+     */
+    public synchronized long getPhaseNanos(String phase) {
+        long[] values = phases.get(phase);
+        return values == null ? 0 : values[0];
+    }
+
+    /**
+     * Returns the bytes allocated during a phase.
+     *
+     * @param phase
+     *            the phase
+     * @return the allocated bytes, or -1 if unknown
+     */
+    public synchronized long getPhaseAllocatedBytes(String phase) {
+        long[] values = phases.get(phase);
+        return values == null ? 0 : values[1];
+    }
+
+    public synchronized int getFilesWritten() {
+        return filesWritten;
+    }
+
+    public synchronized int getFilesUnchanged() {
+        return filesUnchanged;
+    }
+
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public synchronized int getJavaMerges() {
+        return javaMerges;
+    }
+
+    public synchronized int getXmlMerges() {
+        return xmlMerges;
+    }
+
+    /**
+     * Returns the metrics as a JSON document. Times are in nanoseconds.
+     *
+     * @return the JSON document
+     */
+    public synchronized String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"phases\": {"); //$NON-NLS-1$
+        boolean first = true;
+        for (Map.Entry<String, long[]> entry : phases.entrySet()) {
+            first = appendKey(sb, entry.getKey(), first, 4);
+            sb.append("{\"nanos\": ").append(entry.getValue()[0]); //$NON-NLS-1$
+            sb.append(", \"allocatedBytes\": ").append(entry.getValue()[1]).append('}'); //$NON-NLS-1$
+        }
+        sb.append("\n  },\n  \"tables\": {"); //$NON-NLS-1$
+        first = true;
+        for (Map.Entry<String, Map<String, Long>> entry : tables.entrySet()) {
+            first = appendKey(sb, entry.getKey(), first, 4);
+            sb.append('{');
+            boolean firstTime = true;
+            for (Map.Entry<String, Long> time : entry.getValue().entrySet()) {
+                if (!firstTime) {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+                firstTime = false;
+                appendString(sb, time.getKey() + "Nanos"); //$NON-NLS-1$
+                sb.append(": ").append(time.getValue()); //$NON-NLS-1$
+            }
+            sb.append('}');
+        }
+        sb.append("\n  },\n  \"plugins\": {"); //$NON-NLS-1$
+        first = true;
+        for (Map.Entry<String, long[]> entry : plugins.entrySet()) {
+            first = appendKey(sb, entry.getKey(), first, 4);
+            sb.append("{\"calls\": ").append(entry.getValue()[0]); //$NON-NLS-1$
+            sb.append(", \"nanos\": ").append(entry.getValue()[1]).append('}'); //$NON-NLS-1$
+        }
+        sb.append("\n  },\n  \"files\": {"); //$NON-NLS-1$
+        sb.append("\"written\": ").append(filesWritten); //$NON-NLS-1$
+        sb.append(", \"unchanged\": ").append(filesUnchanged); //$NON-NLS-1$
+        sb.append(", \"bytesWritten\": ").append(bytesWritten); //$NON-NLS-1$
+        sb.append(", \"javaMerges\": ").append(javaMerges); //$NON-NLS-1$
+        sb.append(", \"xmlMerges\": ").append(xmlMerges); //$NON-NLS-1$
+        sb.append("}\n}"); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    private static boolean appendKey(StringBuilder sb, String key, boolean first, int indent) {
+        if (!first) {
+            sb.append(',');
+        }
+        sb.append('\n');
+        for (int i = 0; i < indent; i++) {
+            sb.append(' ');
+        }
+        appendString(sb, key);
+        sb.append(": "); //$NON-NLS-1$
+        return false;
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
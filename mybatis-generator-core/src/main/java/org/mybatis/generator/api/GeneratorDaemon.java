@@ -0,0 +1,465 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.mybatis.generator.config.Configuration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.xml.ConfigurationParser;
+import org.mybatis.generator.exception.InvalidConfigurationException;
+import org.mybatis.generator.exception.XMLParserException;
+import org.mybatis.generator.internal.ResidentConnectionFactory;
+
+/**
+ * Runs the generator again and again in one JVM, so that repeated runs do not
+ * pay for JVM startup, class loading and database connections.
+ *
+ * <p>The daemon generates all tables once, then watches the configuration file
+ * and the properties files it references. When one of them changes, the
+ * configuration is parsed again and all tables are generated. In between, the
+ * database schema of the tables is checked on an interval (see
+ * {@link Context#calculateSchemaFingerprints(List, Set)}), and only the tables
+ * whose schema changed are generated again. With bulk introspection a check
+ * reads every schema once, and the generation that follows a check uses the
+ * metadata and tables of the check instead of reading the database again.
+ *
+ * <p>The connections of every context are kept open while the daemon runs, and
+ * across configuration changes that do not change the connection settings.
+ *
+ * <p>The daemon runs in the thread calling {@link #run()} until {@link #stop()}
+ * is called.
+ */
+public class GeneratorDaemon {
+
+    /** The default interval, in milliseconds, of the file checks. */
+    public static final long DEFAULT_FILE_POLL_INTERVAL = 250;
+
+    /** The default interval, in milliseconds, of the schema checks. */
+    public static final long DEFAULT_SCHEMA_POLL_INTERVAL = 2000;
+
+    private final File configurationFile;
+
+    private final ShellCallback shellCallback;
+
+    private final PrintStream out;
+
+    private ProgressCallback progressCallback;
+
+    private Set<String> contextIds = Collections.emptySet();
+
+    private Set<String> fullyQualifiedTableNames = Collections.emptySet();
+
+    private int saveThreads = 1;
+
+    private long filePollInterval = DEFAULT_FILE_POLL_INTERVAL;
+
+    private long schemaPollInterval = DEFAULT_SCHEMA_POLL_INTERVAL;
+
+    private final Object lock = new Object();
+
+    /** Guarded by lock. */
+    private boolean stopped;
+
+    private final List<String> warnings = new ArrayList<String>();
+
+    private MyBatisGenerator myBatisGenerator;
+
+    private Configuration configuration;
+
+    /** The watched files and their last seen modification stamps. */
+    private Map<File, String> fileStamps = new LinkedHashMap<File, String>();
+
+    /** The schema fingerprints of the last check, by context id. */
+    private final Map<String, Map<String, String>> schemaFingerprints = new HashMap<String, Map<String, String>>();
+
+    /** The resident connection factories, by connection key. */
+    private final Map<String, ResidentConnectionFactory> connectionFactories = new HashMap<String, ResidentConnectionFactory>();
+
+    /**
+     * Constructs a daemon.
+     *
+     * @param configurationFile
+     *            the XML configuration file
+     * @param shellCallback
+     *            the shell callback used by every run
+     * @param out
+     *            the stream warnings and progress messages are written to
+     */
+    public GeneratorDaemon(File configurationFile, ShellCallback shellCallback,
+            PrintStream out) {
+        super();
+        this.configurationFile = configurationFile;
+        this.shellCallback = shellCallback;
+        this.out = out;
+        // watched until a configuration is loaded
+        fileStamps.put(configurationFile, ""); //$NON-NLS-1$
+    }
+
+    /**
+     * Sets the progress callback used by every run.
+     *
+     * @param progressCallback
+     *            the progress callback, or null
+     */
+    public void setProgressCallback(ProgressCallback progressCallback) {
+        this.progressCallback = progressCallback;
+    }
+
+    /**
+     * Sets the contexts to run. If the set is empty (the default), all
+     * contexts are run.
+     *
+     * @param contextIds
+     *            the context ids
+     */
+    public void setContextIds(Set<String> contextIds) {
+        this.contextIds = contextIds;
+    }
+
+    /**
+     * Sets the tables to generate. If the set is empty (the default), all
+     * tables are generated.
+     *
+     * @param fullyQualifiedTableNames
+     *            the fully qualified table names, as specified in the
+     *            configuration
+     */
+    public void setFullyQualifiedTableNames(Set<String> fullyQualifiedTableNames) {
+        this.fullyQualifiedTableNames = fullyQualifiedTableNames;
+    }
+
+    /**
+     * Sets the number of threads used to save the generated files.
+     *
+     * @param saveThreads
+     *            the number of threads
+     */
+    public void setSaveThreads(int saveThreads) {
+        this.saveThreads = saveThreads;
+    }
+
+    /**
+     * Sets how often the configuration and properties files are checked for
+     * changes.
+     *
+     * @param filePollInterval
+     *            the interval in milliseconds
+     */
+    public void setFilePollInterval(long filePollInterval) {
+        this.filePollInterval = filePollInterval;
+    }
+
+    /**
+     * Sets how often the database schema of the tables is checked for changes.
+     *
+     * @param schemaPollInterval
+     *            the interval in milliseconds
+     */
+    public void setSchemaPollInterval(long schemaPollInterval) {
+        this.schemaPollInterval = schemaPollInterval;
+    }
+
+    /**
+     * Runs the daemon until {@link #stop()} is called. All connections are
+     * closed when this method returns.
+     */
+    public void run() {
+        try {
+            boolean reload = true;
+            long nextSchemaCheck = 0;
+            while (!isStopped()) {
+                if (reload || filesChanged()) {
+                    if (!reload) {
+                        writeLine(getString("Progress.21")); //$NON-NLS-1$
+                    }
+                    reload = false;
+                    if (loadConfiguration()) {
+                        schemaFingerprints.clear();
+                        checkSchema(false);
+                        generate(contextIds, fullyQualifiedTableNames);
+                        writeLine(getString("Progress.20", //$NON-NLS-1$
+                                configurationFile.getPath()));
+                    }
+                    nextSchemaCheck = System.currentTimeMillis() + schemaPollInterval;
+                } else if (configuration != null
+                        && System.currentTimeMillis() >= nextSchemaCheck) {
+                    checkSchema(true);
+                    nextSchemaCheck = System.currentTimeMillis() + schemaPollInterval;
+                }
+
+                synchronized (lock) {
+                    if (!stopped) {
+                        lock.wait(filePollInterval);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // stop running
+        } finally {
+            for (ResidentConnectionFactory connectionFactory : connectionFactories.values()) {
+                connectionFactory.close();
+            }
+            connectionFactories.clear();
+        }
+    }
+
+    /**
+     * Stops the daemon. A run in progress is finished first.
+     */
+    public void stop() {
+        synchronized (lock) {
+            stopped = true;
+            lock.notifyAll();
+        }
+    }
+
+    private boolean isStopped() {
+        synchronized (lock) {
+            return stopped;
+        }
+    }
+
+    /**
+     * Parses the configuration file and prepares the generator for the new
+     * configuration. The previous configuration is kept if the file is not
+     * valid.
+     *
+     * @return true if the configuration was loaded
+     */
+    private boolean loadConfiguration() {
+        warnings.clear();
+        Configuration newConfiguration;
+        MyBatisGenerator newGenerator;
+        try {
+            newConfiguration = new ConfigurationParser(warnings)
+                    .parseConfiguration(configurationFile);
+            newGenerator = new MyBatisGenerator(newConfiguration, shellCallback, warnings);
+        } catch (IOException e) {
+            writeLine(getString("Warning.37", //$NON-NLS-1$
+                    configurationFile.getPath(), e.getMessage()));
+            fileStamps = stampFiles(fileStamps.keySet());
+            return false;
+        } catch (XMLParserException e) {
+            writeLine(getString("Progress.3")); //$NON-NLS-1$
+            writeLine();
+            writeLines(e.getErrors());
+            fileStamps = stampFiles(fileStamps.keySet());
+            return false;
+        } catch (InvalidConfigurationException e) {
+            writeLine(getString("Progress.16")); //$NON-NLS-1$
+            writeLines(e.getErrors());
+            fileStamps = stampFiles(fileStamps.keySet());
+            return false;
+        } catch (RuntimeException e) {
+            e.printStackTrace(out);
+            fileStamps = stampFiles(fileStamps.keySet());
+            return false;
+        }
+
+        newGenerator.setSaveThreads(saveThreads);
+        myBatisGenerator = newGenerator;
+        configuration = newConfiguration;
+
+        Set<File> files = new LinkedHashSet<File>();
+        files.add(configurationFile);
+        for (URL url : configuration.getPropertiesUrls()) {
+            if ("file".equals(url.getProtocol())) { //$NON-NLS-1$
+                try {
+                    files.add(new File(url.toURI()));
+                } catch (URISyntaxException e) {
+                    // not watched
+                }
+            }
+        }
+        fileStamps = stampFiles(files);
+
+        Map<String, ResidentConnectionFactory> unusedFactories = new HashMap<String, ResidentConnectionFactory>(
+                connectionFactories);
+        for (Context context : configuration.getContexts()) {
+            String key = getConnectionKey(context);
+            ResidentConnectionFactory connectionFactory = connectionFactories.get(key);
+            if (connectionFactory == null) {
+                connectionFactory = new ResidentConnectionFactory(context);
+                connectionFactories.put(key, connectionFactory);
+            }
+            unusedFactories.remove(key);
+            context.setConnectionFactory(connectionFactory);
+        }
+        for (Map.Entry<String, ResidentConnectionFactory> entry : unusedFactories.entrySet()) {
+            entry.getValue().close();
+            connectionFactories.remove(entry.getKey());
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a key that is equal for two contexts if, and only if, their
+     * connections can be shared.
+     *
+     * @param context
+     *            the context
+     * @return the key
+     */
+    private String getConnectionKey(Context context) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(context.getId());
+        sb.append('\n').append(configuration.getClassPathEntries());
+        if (context.getJdbcConnectionConfiguration() != null) {
+            sb.append('\n').append(context.getJdbcConnectionConfiguration()
+                    .toXmlElement().getFormattedContent(0));
+        }
+        if (context.getConnectionFactoryConfiguration() != null) {
+            sb.append('\n').append(context.getConnectionFactoryConfiguration()
+                    .toXmlElement().getFormattedContent(0));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Calculates the schema fingerprints of the tables of the contexts to run.
+     *
+     * @param generateChanges
+     *            if true, the tables whose fingerprint changed since the last
+     *            check are generated
+     * @throws InterruptedException
+     *             if the introspection was canceled
+     */
+    private void checkSchema(boolean generateChanges) throws InterruptedException {
+        // the JDBC driver may come from a class path entry
+        myBatisGenerator.setUpClassLoaders();
+        for (Context context : configuration.getContexts()) {
+            if (!contextIds.isEmpty() && !contextIds.contains(context.getId())) {
+                continue;
+            }
+
+            Map<String, String> fingerprints;
+            try {
+                fingerprints = context.calculateSchemaFingerprints(
+                        new ArrayList<String>(), fullyQualifiedTableNames);
+            } catch (SQLException e) {
+                writeLine(getString("Warning.38", //$NON-NLS-1$
+                        context.getId(), e.getMessage()));
+                continue;
+            } catch (RuntimeException e) {
+                // keep watching - the next change may fix the problem
+                e.printStackTrace(out);
+                continue;
+            }
+
+            Map<String, String> previousFingerprints = schemaFingerprints.put(
+                    context.getId(), fingerprints);
+            if (!generateChanges) {
+                continue;
+            }
+
+            Set<String> changedTables = new LinkedHashSet<String>();
+            for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+                if (previousFingerprints == null
+                        || !entry.getValue().equals(previousFingerprints.get(entry.getKey()))) {
+                    changedTables.add(entry.getKey());
+                }
+            }
+
+            if (!changedTables.isEmpty()) {
+                for (String table : changedTables) {
+                    writeLine(getString("Progress.22", table)); //$NON-NLS-1$
+                }
+                generate(Collections.singleton(context.getId()), changedTables);
+            }
+        }
+    }
+
+    /**
+     * Runs the generator and writes the warnings.
+     *
+     * @param contextIdsToRun
+     *            the contexts to run, or an empty set for all contexts
+     * @param tables
+     *            the tables to generate, or an empty set for all tables
+     * @throws InterruptedException
+     *             if the generation was canceled
+     */
+    private void generate(Set<String> contextIdsToRun, Set<String> tables)
+            throws InterruptedException {
+        long start = System.currentTimeMillis();
+        warnings.clear();
+        try {
+            myBatisGenerator.generate(progressCallback, contextIdsToRun, tables);
+        } catch (SQLException e) {
+            e.printStackTrace(out);
+        } catch (IOException e) {
+            e.printStackTrace(out);
+        } catch (RuntimeException e) {
+            // keep watching - the next change may fix the problem
+            e.printStackTrace(out);
+        }
+
+        writeLines(warnings);
+        if (myBatisGenerator.getGenerationMetrics() != null) {
+            writeLine(myBatisGenerator.getGenerationMetrics().toJson());
+        }
+        writeLine(getString("Progress.23", //$NON-NLS-1$
+                Long.toString(System.currentTimeMillis() - start)));
+    }
+
+    /**
+     * Returns true if a watched file was changed since it was last stamped.
+     *
+     * @return true if a file changed
+     */
+    private boolean filesChanged() {
+        return !stampFiles(fileStamps.keySet()).equals(fileStamps);
+    }
+
+    private static Map<File, String> stampFiles(Set<File> files) {
+        Map<File, String> stamps = new LinkedHashMap<File, String>();
+        for (File file : files) {
+            stamps.put(file, file.lastModified() + ":" + file.length()); //$NON-NLS-1$
+        }
+        return stamps;
+    }
+
+    private void writeLines(List<String> lines) {
+        for (String line : lines) {
+            writeLine(line);
+        }
+    }
+
+    private void writeLine(String message) {
+        out.println(message);
+    }
+
+    private void writeLine() {
+        out.println();
+    }
+}
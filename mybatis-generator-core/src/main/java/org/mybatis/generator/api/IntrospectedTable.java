@@ -38,6 +38,7 @@ import org.mybatis.generator.internal.rules.ConditionalModelRules;
 import org.mybatis.generator.internal.rules.FlatModelRules;
 import org.mybatis.generator.internal.rules.HierarchicalModelRules;
 import org.mybatis.generator.internal.rules.Rules;
+import org.mybatis.generator.internal.util.ColumnNameIndex;
 
 /**
  * Base class for all code generator implementations. This class provides many
@@ -201,6 +202,12 @@ public abstract class IntrospectedTable {
     /** The target runtime. */
     protected TargetRuntime targetRuntime;
 
+    /**
+     * Index of the columns by name, built by the first call of getColumn and
+     * rebuilt when the column lists change or a column is renamed or replaced.
+     */
+    private volatile ColumnIndex columnIndex;
+
     /**
      * Attributes may be used by plugins to capture table related state between
      * the different plugin calls.
@@ -282,53 +289,75 @@ public abstract class IntrospectedTable {
     public IntrospectedColumn getColumn(String columnName) {
         if (columnName == null) {
             return null;
-        } else {
-            // search primary key columns
-            for (IntrospectedColumn introspectedColumn : primaryKeyColumns) {
-                if (introspectedColumn.isColumnNameDelimited()) {
-                    if (introspectedColumn.getActualColumnName().equals(
-                            columnName)) {
-                        return introspectedColumn;
-                    }
-                } else {
-                    if (introspectedColumn.getActualColumnName()
-                            .equalsIgnoreCase(columnName)) {
-                        return introspectedColumn;
-                    }
-                }
+        }
+
+        ColumnIndex index = columnIndex;
+        if (index == null || !index.isCurrent()) {
+            index = buildColumnIndex();
+        }
+
+        Integer position = index.positions.get(columnName);
+        if (position != null) {
+            IntrospectedColumn introspectedColumn = index.getColumn(position.intValue());
+            if (matches(introspectedColumn, columnName)) {
+                return introspectedColumn;
             }
+        }
 
-            // search base columns
-            for (IntrospectedColumn introspectedColumn : baseColumns) {
-                if (introspectedColumn.isColumnNameDelimited()) {
-                    if (introspectedColumn.getActualColumnName().equals(
-                            columnName)) {
-                        return introspectedColumn;
-                    }
-                } else {
-                    if (introspectedColumn.getActualColumnName()
-                            .equalsIgnoreCase(columnName)) {
-                        return introspectedColumn;
-                    }
-                }
+        // a column may have been renamed, or replaced in one of the lists,
+        // after the index was built
+        IntrospectedColumn introspectedColumn = findColumn(columnName);
+        if (introspectedColumn != null || position != null) {
+            buildColumnIndex();
+        }
+
+        return introspectedColumn;
+    }
+
+    private IntrospectedColumn findColumn(String columnName) {
+        for (IntrospectedColumn introspectedColumn : primaryKeyColumns) {
+            if (matches(introspectedColumn, columnName)) {
+                return introspectedColumn;
             }
+        }
 
-            // search blob columns
-            for (IntrospectedColumn introspectedColumn : blobColumns) {
-                if (introspectedColumn.isColumnNameDelimited()) {
-                    if (introspectedColumn.getActualColumnName().equals(
-                            columnName)) {
-                        return introspectedColumn;
-                    }
-                } else {
-                    if (introspectedColumn.getActualColumnName()
-                            .equalsIgnoreCase(columnName)) {
-                        return introspectedColumn;
-                    }
-                }
+        for (IntrospectedColumn introspectedColumn : baseColumns) {
+            if (matches(introspectedColumn, columnName)) {
+                return introspectedColumn;
             }
+        }
 
-            return null;
+        for (IntrospectedColumn introspectedColumn : blobColumns) {
+            if (matches(introspectedColumn, columnName)) {
+                return introspectedColumn;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean matches(IntrospectedColumn introspectedColumn, String columnName) {
+        if (introspectedColumn.isColumnNameDelimited()) {
+            return columnName.equals(introspectedColumn.getActualColumnName());
+        } else {
+            return columnName.equalsIgnoreCase(introspectedColumn.getActualColumnName());
+        }
+    }
+
+    private ColumnIndex buildColumnIndex() {
+        ColumnIndex index = new ColumnIndex(this);
+        // primary key columns first, then base columns, then BLOB columns
+        addToIndex(index, primaryKeyColumns);
+        addToIndex(index, baseColumns);
+        addToIndex(index, blobColumns);
+        columnIndex = index;
+        return index;
+    }
+
+    private static void addToIndex(ColumnIndex index, List<IntrospectedColumn> columns) {
+        for (IntrospectedColumn introspectedColumn : columns) {
+            index.positions.add(introspectedColumn.getActualColumnName(),
+                    introspectedColumn.isColumnNameDelimited(), index.positions.size());
         }
     }
 
@@ -1909,4 +1938,53 @@ public abstract class IntrospectedTable {
 	public void setTableType(String tableType) {
 		this.tableType = tableType;
 	}
+
+    /**
+     * The column index together with the state of the column lists it was
+     * built from. Plugins may change the lists returned by the getters, so the
+     * index is checked before every lookup.
+     * <p>
+     * The index maps a name to the position of the column in the primary key,
+     * base and BLOB columns, in this order. The column at that position is
+     * read from the lists on lookup, so a column replaced in place is found.
+     */
+    private static class ColumnIndex {
+        private final ColumnNameIndex<Integer> positions = new ColumnNameIndex<Integer>();
+        private final IntrospectedTable introspectedTable;
+        private final List<IntrospectedColumn> primaryKeyColumns;
+        private final List<IntrospectedColumn> baseColumns;
+        private final List<IntrospectedColumn> blobColumns;
+        private final int primaryKeyColumnCount;
+        private final int baseColumnCount;
+        private final int blobColumnCount;
+
+        ColumnIndex(IntrospectedTable introspectedTable) {
+            this.introspectedTable = introspectedTable;
+            primaryKeyColumns = introspectedTable.primaryKeyColumns;
+            baseColumns = introspectedTable.baseColumns;
+            blobColumns = introspectedTable.blobColumns;
+            primaryKeyColumnCount = primaryKeyColumns.size();
+            baseColumnCount = baseColumns.size();
+            blobColumnCount = blobColumns.size();
+        }
+
+        boolean isCurrent() {
+            return primaryKeyColumns == introspectedTable.primaryKeyColumns
+                    && baseColumns == introspectedTable.baseColumns
+                    && blobColumns == introspectedTable.blobColumns
+                    && primaryKeyColumnCount == primaryKeyColumns.size()
+                    && baseColumnCount == baseColumns.size()
+                    && blobColumnCount == blobColumns.size();
+        }
+
+        IntrospectedColumn getColumn(int position) {
+            if (position < primaryKeyColumnCount) {
+                return primaryKeyColumns.get(position);
+            } else if (position < primaryKeyColumnCount + baseColumnCount) {
+                return baseColumns.get(position - primaryKeyColumnCount);
+            } else {
+                return blobColumns.get(position - primaryKeyColumnCount - baseColumnCount);
+            }
+        }
+    }
 }
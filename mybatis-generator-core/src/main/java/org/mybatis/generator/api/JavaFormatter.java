@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.java.CompilationUnit;
 import org.mybatis.generator.config.Context;
 
@@ -33,4 +35,19 @@ import org.mybatis.generator.config.Context;
 public interface JavaFormatter {
     void setContext(Context context);
     String getFormattedContent(CompilationUnit compilationUnit);
+
+    /**
+     * Writes the formatted content of a compilation unit to an appendable. The
+     * content must be the same as returned by
+     * {@link #getFormattedContent(CompilationUnit)}.
+     *
+     * @param compilationUnit
+     *            the compilation unit
+     * @param out
+     *            the appendable to write to - usually the writer of the
+     *            generated file
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    void writeFormattedContent(CompilationUnit compilationUnit, Appendable out) throws IOException;
 }
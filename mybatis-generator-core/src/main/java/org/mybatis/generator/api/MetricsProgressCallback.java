@@ -0,0 +1,35 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.api;
+
+/**
+ * A progress callback that also receives the timing, allocation and file
+ * statistics of the run. Collecting the statistics costs some time (every
+ * plugin call is timed), so the generator only collects them when the
+ * progress callback implements this interface.
+ * 
+ * @author fury
+ */
+public interface MetricsProgressCallback extends ProgressCallback {
+
+    /**
+     * Called once all files have been saved, before <code>done()</code>.
+     * 
+     * @param metrics
+     *            the statistics of the run
+     */
+    void metricsCollected(GenerationMetrics metrics);
+}
@@ -18,16 +18,28 @@ package org.mybatis.generator.api;
 import static org.mybatis.generator.internal.util.ClassloaderUtility.getCustomClassloader;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.mybatis.generator.codegen.RootClassInfo;
 import org.mybatis.generator.config.Configuration;
@@ -38,7 +50,7 @@ import org.mybatis.generator.exception.ShellException;
 import org.mybatis.generator.internal.DefaultShellCallback;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.NullProgressCallback;
-import org.mybatis.generator.internal.XmlFileMergerJaxp;
+import org.mybatis.generator.internal.XmlFileMergerStax;
 
 /**
  * This class is the main interface to MyBatis generator. A typical execution of the tool involves these steps:
@@ -73,6 +85,15 @@ public class MyBatisGenerator {
     /** The projects. */
     private Set<String> projects;
 
+    /** The number of threads used to save the generated files. */
+    private int saveThreads = 1;
+
+    /** The metrics of the current run, or null if they are not collected. */
+    private GenerationMetrics metrics;
+
+    /** The class loader of the class path entries, reused by every run of this generator. */
+    private ClassLoader customClassLoader;
+
     /**
      * Constructs a MyBatisGenerator object.
      * 
@@ -222,9 +243,15 @@ public class MyBatisGenerator {
             callback = new NullProgressCallback();
         }
 
+        if (callback instanceof MetricsProgressCallback) {
+            metrics = new GenerationMetrics();
+        } else {
+            metrics = null;
+        }
+
         generatedJavaFiles.clear();
         generatedXmlFiles.clear();
-        ObjectFactory.reset();
+        setUpClassLoaders();
         RootClassInfo.reset();
 
         // calculate the contexts to run
@@ -240,13 +267,68 @@ public class MyBatisGenerator {
             }
         }
 
+        for (Context context : contextsToRun) {
+            context.setGenerationMetrics(metrics);
+        }
+
+        try {
+            runPhases(callback, contextsToRun, fullyQualifiedTableNames, writeFiles);
+        } finally {
+            for (Context context : contextsToRun) {
+                context.setGenerationMetrics(null);
+            }
+        }
+
+        if (metrics != null) {
+            ((MetricsProgressCallback) callback).metricsCollected(metrics);
+        }
+
+        callback.done();
+    }
+
+    /**
+     * Resets the object factory and registers the class loader of the class
+     * path entries, so that JDBC drivers, plugins and other configured classes
+     * can be loaded. This is done at the start of every run, and by
+     * {@link GeneratorDaemon} before it introspects the database between runs.
+     */
+    void setUpClassLoaders() {
+        ObjectFactory.reset();
+
         // setup custom classloader if required
         if (configuration.getClassPathEntries().size() > 0) {
-            ClassLoader classLoader = getCustomClassloader(configuration.getClassPathEntries());
-            ObjectFactory.addExternalClassLoader(classLoader);
+            if (customClassLoader == null) {
+                customClassLoader = getCustomClassloader(configuration.getClassPathEntries());
+            }
+            ObjectFactory.addExternalClassLoader(customClassLoader);
         }
+    }
+
+    /**
+     * Runs the introspection, generation and save phases for the contexts.
+     *
+     * @param callback
+     *            the progress callback
+     * @param contextsToRun
+     *            the contexts to run
+     * @param fullyQualifiedTableNames
+     *            the tables to run, or an empty set for all tables
+     * @param writeFiles
+     *            if true, then the generated files will be written to disk
+     * @throws SQLException
+     *             the SQL exception
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     * @throws InterruptedException
+     *             if the method is canceled through the ProgressCallback
+     */
+    private void runPhases(ProgressCallback callback, List<Context> contextsToRun,
+            Set<String> fullyQualifiedTableNames, boolean writeFiles) throws SQLException,
+            IOException, InterruptedException {
 
         // now run the introspections...
+        long startNanos = System.nanoTime();
+        long startAllocatedBytes = getAllocatedBytes();
         int totalSteps = 0;
         for (Context context : contextsToRun) {
             totalSteps += context.getIntrospectionSteps();
@@ -257,8 +339,11 @@ public class MyBatisGenerator {
             context.introspectTables(callback, warnings,
                     fullyQualifiedTableNames);
         }
+        phaseCompleted(GenerationMetrics.INTROSPECTION, startNanos, startAllocatedBytes);
 
         // now run the generates
+        startNanos = System.nanoTime();
+        startAllocatedBytes = getAllocatedBytes();
         totalSteps = 0;
         for (Context context : contextsToRun) {
             totalSteps += context.getGenerationSteps();
@@ -269,107 +354,324 @@ public class MyBatisGenerator {
             context.generateFiles(callback, generatedJavaFiles,
                     generatedXmlFiles, warnings);
         }
+        phaseCompleted(GenerationMetrics.GENERATION, startNanos, startAllocatedBytes);
 
         // now save the files
         if (writeFiles) {
+            startNanos = System.nanoTime();
+            startAllocatedBytes = getAllocatedBytes();
             callback.saveStarted(generatedXmlFiles.size()
                 + generatedJavaFiles.size());
 
+            List<FileSaveTask> tasks = new ArrayList<FileSaveTask>();
             for (GeneratedXmlFile gxf : generatedXmlFiles) {
                 projects.add(gxf.getTargetProject());
-                writeGeneratedXmlFile(gxf, callback);
+                tasks.add(new FileSaveTask(gxf));
             }
 
             for (GeneratedJavaFile gjf : generatedJavaFiles) {
                 projects.add(gjf.getTargetProject());
-                writeGeneratedJavaFile(gjf, callback);
+                tasks.add(new FileSaveTask(gjf));
+            }
+
+            if (saveThreads > 1 && tasks.size() > 1) {
+                saveFilesInParallel(tasks, callback);
+            } else {
+                saveFilesSerially(tasks, callback);
             }
 
             for (String project : projects) {
                 shellCallback.refreshProject(project);
             }
+
+            for (Context context : contextsToRun) {
+                context.saveGenerationManifest(warnings);
+            }
+            phaseCompleted(GenerationMetrics.SAVE, startNanos, startAllocatedBytes);
         }
+    }
 
-        callback.done();
+    /**
+     * Returns the bytes allocated by the current thread if metrics are
+     * collected.
+     *
+     * @return the allocated bytes, or -1
+     */
+    private long getAllocatedBytes() {
+        return metrics == null ? -1 : GenerationMetrics.getAllocatedBytes();
+    }
+
+    /**
+     * Records the completion of a phase if metrics are collected.
+     *
+     * @param phase
+     *            the phase
+     * @param startNanos
+     *            the start time of the phase
+     * @param startAllocatedBytes
+     *            the bytes allocated by the current thread when the phase
+     *            started
+     */
+    private void phaseCompleted(String phase, long startNanos, long startAllocatedBytes) {
+        if (metrics != null) {
+            metrics.phaseCompleted(phase, startNanos, startAllocatedBytes);
+        }
     }
 
-    private void writeGeneratedJavaFile(GeneratedJavaFile gjf, ProgressCallback callback)
+    /**
+     * Saves the generated files one after the other on the calling thread.
+     *
+     * @param tasks
+     *            the files to save, in order
+     * @param callback
+     *            the progress callback
+     * @throws InterruptedException
+     *             if the method is canceled through the ProgressCallback
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void saveFilesSerially(List<FileSaveTask> tasks, ProgressCallback callback)
             throws InterruptedException, IOException {
-        File targetFile;
-        String source;
-        try {
-            File directory = shellCallback.getDirectory(gjf
-                    .getTargetProject(), gjf.getTargetPackage());
-            targetFile = new File(directory, gjf.getFileName());
-            if (targetFile.exists()) {
-                if (shellCallback.isMergeSupported()) {
-                    source = shellCallback.mergeJavaFile(gjf
-                            .getFormattedContent(), targetFile
-                            .getAbsolutePath(),
-                            MergeConstants.OLD_ELEMENT_TAGS,
-                            gjf.getFileEncoding());
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gjf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
-                } else {
-                    source = gjf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gjf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
-                }
-            } else {
-                source = gjf.getFormattedContent();
-            }
+        for (FileSaveTask task : tasks) {
+            task.locate();
+            task.render();
 
             callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, gjf.getFileEncoding());
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
+            if (task.isWritable()) {
+                callback.startTask(getString(
+                        "Progress.15", task.getTargetFile().getName())); //$NON-NLS-1$
+                task.write();
+            }
+
+            warnings.addAll(task.getWarnings());
         }
     }
 
-    private void writeGeneratedXmlFile(GeneratedXmlFile gxf, ProgressCallback callback)
+    /**
+     * Renders, merges and writes the generated files on a pool of worker
+     * threads. Target directories are created on the calling thread, and files
+     * with the same target are saved by the same worker in order, so the
+     * results are the same as for a serial save. Progress messages and
+     * warnings are reported in file order on the calling thread.
+     * <p>
+     * Java file merging runs on the worker threads, so the shell callback must
+     * be thread safe when it supports merging.
+     *
+     * @param tasks
+     *            the files to save, in order
+     * @param callback
+     *            the progress callback
+     * @throws InterruptedException
+     *             if the method is canceled through the ProgressCallback
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private void saveFilesInParallel(List<FileSaveTask> tasks, ProgressCallback callback)
             throws InterruptedException, IOException {
-        File targetFile;
-        String source;
+        // group the files by target, so that the merge and unique file name
+        // logic sees the files written before
+        Map<String, List<FileSaveTask>> groups = new LinkedHashMap<String, List<FileSaveTask>>();
+        for (FileSaveTask task : tasks) {
+            callback.checkCancel();
+            task.locate();
+            String key = task.getTargetKey();
+            List<FileSaveTask> group = groups.get(key);
+            if (group == null) {
+                group = new ArrayList<FileSaveTask>();
+                groups.put(key, group);
+            }
+            group.add(task);
+        }
+
+        final AtomicBoolean cancelled = new AtomicBoolean();
+        Map<FileSaveTask, Future<Void>> futures = new HashMap<FileSaveTask, Future<Void>>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(saveThreads, groups.size()));
         try {
-            File directory = shellCallback.getDirectory(gxf
-                    .getTargetProject(), gxf.getTargetPackage());
-            targetFile = new File(directory, gxf.getFileName());
-            if (targetFile.exists()) {
-                if (gxf.isMergeable()) {
-                    source = XmlFileMergerJaxp.getMergedSource(gxf,
-                            targetFile);
-                } else if (shellCallback.isOverwriteEnabled()) {
-                    source = gxf.getFormattedContent();
-                    warnings.add(getString("Warning.11", //$NON-NLS-1$
-                            targetFile.getAbsolutePath()));
+            for (final List<FileSaveTask> group : groups.values()) {
+                Future<Void> future = executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        long startAllocatedBytes = getAllocatedBytes();
+                        for (FileSaveTask task : group) {
+                            if (cancelled.get()) {
+                                break;
+                            }
+
+                            task.render();
+                            if (cancelled.get()) {
+                                break;
+                            }
+
+                            if (task.isWritable()) {
+                                task.write();
+                            }
+                        }
+
+                        if (metrics != null) {
+                            metrics.workerCompleted(GenerationMetrics.SAVE, startAllocatedBytes);
+                        }
+                        return null;
+                    }
+                });
+
+                for (FileSaveTask task : group) {
+                    futures.put(task, future);
+                }
+            }
+
+            for (FileSaveTask task : tasks) {
+                callback.checkCancel();
+                futures.get(task).get();
+
+                if (task.isWritable()) {
+                    callback.startTask(getString(
+                            "Progress.15", task.getTargetFile().getName())); //$NON-NLS-1$
+                }
+
+                warnings.addAll(task.getWarnings());
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        } finally {
+            cancelled.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The save operation of a single generated file. The target directory is
+     * located first (this may create directories), then the content is
+     * rendered and merged with an existing file, and finally the file is
+     * written. Warnings are collected per file, so that they can be reported
+     * in file order.
+     */
+    private class FileSaveTask {
+        private final GeneratedFile generatedFile;
+        private final List<String> fileWarnings = new ArrayList<String>();
+        private File directory;
+        private File targetFile;
+        private String source;
+        private boolean writable;
+
+        /** True when an existing file is replaced without merging. */
+        private boolean overwrite;
+
+        FileSaveTask(GeneratedFile generatedFile) {
+            this.generatedFile = generatedFile;
+        }
+
+        void locate() {
+            try {
+                directory = shellCallback.getDirectory(generatedFile
+                        .getTargetProject(), generatedFile.getTargetPackage());
+            } catch (ShellException e) {
+                fileWarnings.add(e.getMessage());
+            }
+        }
+
+        String getTargetKey() {
+            if (directory == null) {
+                // nothing will be written - a group of its own
+                return "#" + System.identityHashCode(this); //$NON-NLS-1$
+            }
+
+            return new File(directory, generatedFile.getFileName()).getAbsolutePath();
+        }
+
+        void render() {
+            if (directory == null) {
+                return;
+            }
+
+            try {
+                targetFile = new File(directory, generatedFile.getFileName());
+                if (targetFile.exists()) {
+                    if (generatedFile instanceof GeneratedJavaFile
+                            && shellCallback.isMergeSupported()) {
+                        GeneratedJavaFile gjf = (GeneratedJavaFile) generatedFile;
+                        source = shellCallback.mergeJavaFile(gjf
+                                .getFormattedContent(), targetFile
+                                .getAbsolutePath(),
+                                MergeConstants.OLD_ELEMENT_TAGS,
+                                gjf.getFileEncoding());
+                        if (metrics != null) {
+                            metrics.javaFileMerged();
+                        }
+                    } else if (generatedFile instanceof GeneratedXmlFile
+                            && generatedFile.isMergeable()) {
+                        source = XmlFileMergerStax.getMergedSource(
+                                (GeneratedXmlFile) generatedFile, targetFile);
+                        if (metrics != null) {
+                            metrics.xmlFileMerged();
+                        }
+                    } else if (shellCallback.isOverwriteEnabled()) {
+                        source = generatedFile.getFormattedContent();
+                        // Warning.11 is added by write() if the content differs
+                        overwrite = true;
+                    } else {
+                        source = generatedFile.getFormattedContent();
+                        targetFile = getUniqueFileName(directory, generatedFile
+                                .getFileName());
+                        fileWarnings.add(getString(
+                                "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+                    }
                 } else {
-                    source = gxf.getFormattedContent();
-                    targetFile = getUniqueFileName(directory, gxf
-                            .getFileName());
-                    warnings.add(getString(
-                            "Warning.2", targetFile.getAbsolutePath())); //$NON-NLS-1$
+                    // new file - the content is streamed to the file by write()
+                    source = null;
                 }
+                writable = true;
+            } catch (ShellException e) {
+                fileWarnings.add(e.getMessage());
+            }
+        }
+
+        boolean isWritable() {
+            return writable;
+        }
+
+        void write() throws IOException {
+            String fileEncoding;
+            if (generatedFile instanceof GeneratedJavaFile) {
+                fileEncoding = ((GeneratedJavaFile) generatedFile).getFileEncoding();
             } else {
-                source = gxf.getFormattedContent();
+                fileEncoding = "UTF-8"; //$NON-NLS-1$
             }
 
-            callback.checkCancel();
-            callback.startTask(getString(
-                    "Progress.15", targetFile.getName())); //$NON-NLS-1$
-            writeFile(targetFile, source, "UTF-8"); //$NON-NLS-1$
-        } catch (ShellException e) {
-            warnings.add(e.getMessage());
+            if (source == null) {
+                streamFile(targetFile, generatedFile, fileEncoding);
+                return;
+            }
+
+            if (writeFile(targetFile, source, fileEncoding) && overwrite) {
+                fileWarnings.add(getString("Warning.11", //$NON-NLS-1$
+                        targetFile.getAbsolutePath()));
+            }
+            // release the content as soon as it is written
+            source = null;
+        }
+
+        File getTargetFile() {
+            return targetFile;
+        }
+
+        List<String> getWarnings() {
+            return fileWarnings;
         }
     }
     
     /**
-     * Writes, or overwrites, the contents of the specified file.
+     * Writes, or overwrites, the contents of the specified file. The file is
+     * left untouched if it already has exactly the same contents, so that the
+     * file modification time only changes when the file really changes (this
+     * keeps incremental builds and file watchers quiet).
      *
      * @param file
      *            the file
@@ -377,10 +679,53 @@ public class MyBatisGenerator {
      *            the content
      * @param fileEncoding
      *            the file encoding
+     * @return true if the file was written, false if it already had the
+     *         contents
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private boolean writeFile(File file, String content, String fileEncoding) throws IOException {
+        byte[] bytes;
+        if (fileEncoding == null) {
+            bytes = content.getBytes();
+        } else {
+            bytes = content.getBytes(fileEncoding);
+        }
+
+        if (hasContent(file, bytes)) {
+            if (metrics != null) {
+                metrics.fileUnchanged();
+            }
+            return false;
+        }
+
+        FileOutputStream fos = new FileOutputStream(file, false);
+        try {
+            fos.write(bytes);
+        } finally {
+            fos.close();
+        }
+
+        if (metrics != null) {
+            metrics.fileWritten(bytes.length);
+        }
+        return true;
+    }
+
+    /**
+     * Writes a new file by streaming the generated content straight into it,
+     * without building the content as a String first.
+     *
+     * @param file
+     *            the file
+     * @param generatedFile
+     *            the generated file
+     * @param fileEncoding
+     *            the file encoding
      * @throws IOException
      *             Signals that an I/O exception has occurred.
      */
-    private void writeFile(File file, String content, String fileEncoding) throws IOException {
+    private void streamFile(File file, GeneratedFile generatedFile, String fileEncoding) throws IOException {
         FileOutputStream fos = new FileOutputStream(file, false);
         OutputStreamWriter osw;
         if (fileEncoding == null) {
@@ -388,10 +733,58 @@ public class MyBatisGenerator {
         } else {
             osw = new OutputStreamWriter(fos, fileEncoding);
         }
-        
+
         BufferedWriter bw = new BufferedWriter(osw);
-        bw.write(content);
-        bw.close();
+        try {
+            generatedFile.writeFormattedContent(bw);
+        } finally {
+            bw.close();
+        }
+
+        if (metrics != null) {
+            metrics.fileWritten(file.length());
+        }
+    }
+
+    /**
+     * Returns true if the file exists and contains exactly the specified
+     * bytes. The file length is checked first, so files that changed size are
+     * never read.
+     *
+     * @param file
+     *            the file
+     * @param bytes
+     *            the expected content
+     * @return true if the file content equals the bytes
+     * @throws IOException
+     *             Signals that an I/O exception has occurred.
+     */
+    private boolean hasContent(File file, byte[] bytes) throws IOException {
+        if (!file.isFile() || file.length() != bytes.length) {
+            return false;
+        }
+
+        InputStream is = new BufferedInputStream(new FileInputStream(file));
+        try {
+            byte[] buffer = new byte[8192];
+            int offset = 0;
+            int count;
+            while ((count = is.read(buffer)) != -1) {
+                if (offset + count > bytes.length) {
+                    return false;
+                }
+                for (int i = 0; i < count; i++) {
+                    if (buffer[i] != bytes[offset + i]) {
+                        return false;
+                    }
+                }
+                offset += count;
+            }
+
+            return offset == bytes.length;
+        } finally {
+            is.close();
+        }
     }
 
     /**
@@ -450,4 +843,29 @@ public class MyBatisGenerator {
     public List<GeneratedXmlFile> getGeneratedXmlFiles() {
         return generatedXmlFiles;
     }
+
+    /**
+     * Sets the number of threads used to render, merge and write the
+     * generated files. The default is 1, which saves the files on the thread
+     * calling one of the generate methods. If more than one thread is used
+     * and the shell callback supports Java file merging, the shell callback
+     * must be thread safe.
+     *
+     * @param saveThreads
+     *            the number of threads
+     */
+    public void setSaveThreads(int saveThreads) {
+        this.saveThreads = saveThreads;
+    }
+
+    /**
+     * Returns the metrics of the last call to one of the generate methods.
+     * Metrics are only collected when the progress callback implements
+     * {@link MetricsProgressCallback}.
+     *
+     * @return the metrics, or null if they were not collected
+     */
+    public GenerationMetrics getGenerationMetrics() {
+        return metrics;
+    }
 }
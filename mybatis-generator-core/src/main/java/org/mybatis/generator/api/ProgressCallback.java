@@ -38,6 +38,9 @@ package org.mybatis.generator.api;
  * <p>
  * For planning purposes, the most common use case will have a ratio of 20%
  * introspection tasks, 40% generation tasks, and 40% save tasks.
+ * <p>
+ * Implement {@link MetricsProgressCallback} to also receive the timing and
+ * file statistics of the run.
  * 
  * @author Jeff Butler
  */
@@ -33,6 +33,7 @@ import org.mybatis.generator.config.xml.ConfigurationParser;
 import org.mybatis.generator.exception.InvalidConfigurationException;
 import org.mybatis.generator.exception.XMLParserException;
 import org.mybatis.generator.internal.DefaultShellCallback;
+import org.mybatis.generator.internal.NullProgressCallback;
 import org.mybatis.generator.logging.LogFactory;
 
 /**
@@ -47,9 +48,16 @@ public class ShellRunner {
     private static final String TABLES = "-tables"; //$NON-NLS-1$
     private static final String VERBOSE = "-verbose"; //$NON-NLS-1$
     private static final String FORCE_JAVA_LOGGING = "-forceJavaLogging"; //$NON-NLS-1$
+    private static final String SAVE_THREADS = "-saveThreads"; //$NON-NLS-1$
+    private static final String STATS = "-stats"; //$NON-NLS-1$
+    private static final String WATCH = "-watch"; //$NON-NLS-1$
+    private static final String WATCH_INTERVAL = "-watchInterval"; //$NON-NLS-1$
     private static final String HELP_1 = "-?"; //$NON-NLS-1$
     private static final String HELP_2 = "-h"; //$NON-NLS-1$
 
+    /** Milliseconds to wait for the watch mode to finish a run on shutdown. */
+    private static final long SHUTDOWN_TIMEOUT = 30000;
+
     public static void main(String[] args) {
         if (args.length == 0) {
             usage();
@@ -102,6 +110,11 @@ public class ShellRunner {
             }
         }
 
+        if (arguments.containsKey(WATCH)) {
+            watch(arguments, configurationFile, contexts, fullyqualifiedTables);
+            return;
+        }
+
         try {
             ConfigurationParser cp = new ConfigurationParser(warnings);
             Configuration config = cp.parseConfiguration(configurationFile);
@@ -110,11 +123,16 @@ public class ShellRunner {
                     arguments.containsKey(OVERWRITE));
 
             MyBatisGenerator myBatisGenerator = new MyBatisGenerator(config, shellCallback, warnings);
+            if (arguments.containsKey(SAVE_THREADS)) {
+                myBatisGenerator.setSaveThreads(Integer.parseInt(arguments.get(SAVE_THREADS)));
+            }
 
-            ProgressCallback progressCallback = arguments.containsKey(VERBOSE) ? new VerboseProgressCallback()
-                    : null;
+            myBatisGenerator.generate(createProgressCallback(arguments),
+                    contexts, fullyqualifiedTables);
 
-            myBatisGenerator.generate(progressCallback, contexts, fullyqualifiedTables);
+            if (myBatisGenerator.getGenerationMetrics() != null) {
+                writeLine(myBatisGenerator.getGenerationMetrics().toJson());
+            }
 
         } catch (XMLParserException e) {
             writeLine(getString("Progress.3")); //$NON-NLS-1$
@@ -152,6 +170,58 @@ public class ShellRunner {
         }
     }
 
+    /**
+     * Runs the generator in watch mode until the JVM is stopped.
+     *
+     * @param arguments
+     *            the command line arguments
+     * @param configurationFile
+     *            the configuration file
+     * @param contexts
+     *            the contexts to run
+     * @param fullyqualifiedTables
+     *            the tables to generate
+     */
+    private static void watch(Map<String, String> arguments, File configurationFile,
+            Set<String> contexts, Set<String> fullyqualifiedTables) {
+        final GeneratorDaemon daemon = new GeneratorDaemon(configurationFile,
+                new DefaultShellCallback(arguments.containsKey(OVERWRITE)), System.out);
+        daemon.setProgressCallback(createProgressCallback(arguments));
+        daemon.setContextIds(contexts);
+        daemon.setFullyQualifiedTableNames(fullyqualifiedTables);
+        if (arguments.containsKey(SAVE_THREADS)) {
+            daemon.setSaveThreads(Integer.parseInt(arguments.get(SAVE_THREADS)));
+        }
+        if (arguments.containsKey(WATCH_INTERVAL)) {
+            daemon.setSchemaPollInterval(Long.parseLong(arguments.get(WATCH_INTERVAL)));
+        }
+
+        // let a running generation finish, and close the connections, on Ctrl+C
+        final Thread daemonThread = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread() {
+            @Override
+            public void run() {
+                daemon.stop();
+                try {
+                    daemonThread.join(SHUTDOWN_TIMEOUT);
+                } catch (InterruptedException e) {
+                    // exit anyway
+                }
+            }
+        });
+
+        daemon.run();
+    }
+
+    private static ProgressCallback createProgressCallback(Map<String, String> arguments) {
+        if (arguments.containsKey(STATS)) {
+            return new StatisticsCallback(arguments.containsKey(VERBOSE));
+        } else {
+            return arguments.containsKey(VERBOSE) ? new VerboseProgressCallback()
+                    : null;
+        }
+    }
+
     private static void usage() {
         String lines = getString("Usage.Lines"); //$NON-NLS-1$
         int iLines = Integer.parseInt(lines);
@@ -186,6 +256,10 @@ public class ShellRunner {
                 arguments.put(OVERWRITE, "Y"); //$NON-NLS-1$
             } else if (VERBOSE.equalsIgnoreCase(args[i])) {
                 arguments.put(VERBOSE, "Y"); //$NON-NLS-1$
+            } else if (STATS.equalsIgnoreCase(args[i])) {
+                arguments.put(STATS, "Y"); //$NON-NLS-1$
+            } else if (WATCH.equalsIgnoreCase(args[i])) {
+                arguments.put(WATCH, "Y"); //$NON-NLS-1$
             } else if (HELP_1.equalsIgnoreCase(args[i])) {
                 arguments.put(HELP_1, "Y"); //$NON-NLS-1$
             } else if (HELP_2.equalsIgnoreCase(args[i])) {
@@ -202,6 +276,30 @@ public class ShellRunner {
                             "RuntimeError.19", CONTEXT_IDS)); //$NON-NLS-1$
                 }
                 i++;
+            } else if (SAVE_THREADS.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    if (isPositiveInteger(args[i + 1])) {
+                        arguments.put(SAVE_THREADS, args[i + 1]);
+                    } else {
+                        errors.add(getString("RuntimeError.23", //$NON-NLS-1$
+                                SAVE_THREADS, args[i + 1]));
+                    }
+                } else {
+                    errors.add(getString("RuntimeError.19", SAVE_THREADS)); //$NON-NLS-1$
+                }
+                i++;
+            } else if (WATCH_INTERVAL.equalsIgnoreCase(args[i])) {
+                if ((i + 1) < args.length) {
+                    if (isPositiveInteger(args[i + 1])) {
+                        arguments.put(WATCH_INTERVAL, args[i + 1]);
+                    } else {
+                        errors.add(getString("RuntimeError.23", //$NON-NLS-1$
+                                WATCH_INTERVAL, args[i + 1]));
+                    }
+                } else {
+                    errors.add(getString("RuntimeError.19", WATCH_INTERVAL)); //$NON-NLS-1$
+                }
+                i++;
             } else if (TABLES.equalsIgnoreCase(args[i])) {
                 if ((i + 1) < args.length) {
                     arguments.put(TABLES, args[i + 1]);
@@ -224,4 +322,37 @@ public class ShellRunner {
 
         return arguments;
     }
+
+    /**
+     * A progress callback that turns on metrics collection, and optionally
+     * writes progress messages to the console.
+     */
+    private static class StatisticsCallback extends NullProgressCallback
+            implements MetricsProgressCallback {
+        private final boolean verbose;
+
+        StatisticsCallback(boolean verbose) {
+            super();
+            this.verbose = verbose;
+        }
+
+        @Override
+        public void startTask(String taskName) {
+            if (verbose) {
+                writeLine(taskName);
+            }
+        }
+
+        public void metricsCollected(GenerationMetrics metrics) {
+            // printed by main once the run completes
+        }
+    }
+
+    private static boolean isPositiveInteger(String value) {
+        try {
+            return Integer.parseInt(value) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
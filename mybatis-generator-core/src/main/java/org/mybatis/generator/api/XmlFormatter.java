@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.config.Context;
 
@@ -33,4 +35,19 @@ import org.mybatis.generator.config.Context;
 public interface XmlFormatter {
     void setContext(Context context);
     String getFormattedContent(Document document);
+
+    /**
+     * Writes the formatted content of a document to an appendable. The
+     * content must be the same as returned by
+     * {@link #getFormattedContent(Document)}.
+     *
+     * @param document
+     *            the document
+     * @param out
+     *            the appendable to write to - usually the writer of the
+     *            generated file
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    void writeFormattedContent(Document document, Appendable out) throws IOException;
 }
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.XmlFormatter;
 import org.mybatis.generator.api.dom.xml.Document;
 import org.mybatis.generator.config.Context;
@@ -33,6 +35,11 @@ public class DefaultXmlFormatter implements XmlFormatter {
         return document.getFormattedContent();
     }
 
+    public void writeFormattedContent(Document document, Appendable out)
+            throws IOException {
+        document.render(out);
+    }
+
     public void setContext(Context context) {
         this.context = context;
     }
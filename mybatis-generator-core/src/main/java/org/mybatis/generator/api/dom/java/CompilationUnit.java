@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.java;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 
@@ -33,6 +34,17 @@ public interface CompilationUnit {
      */
     String getFormattedContent();
 
+    /**
+     * Writes the formatted content to an appendable, without building the
+     * whole content in memory first.
+     *
+     * @param out
+     *            the appendable to write to
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    void render(Appendable out) throws IOException;
+
     /**
      * Gets the imported types.
      *
@@ -19,8 +19,11 @@ import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The Class FullyQualifiedJavaType.
@@ -32,27 +35,17 @@ public class FullyQualifiedJavaType implements
     
     /** The Constant JAVA_LANG. */
     private static final String JAVA_LANG = "java.lang"; //$NON-NLS-1$
-    
-    /** The int instance. */
-    private static FullyQualifiedJavaType intInstance = null;
-    
-    /** The string instance. */
-    private static FullyQualifiedJavaType stringInstance = null;
-    
-    /** The boolean primitive instance. */
-    private static FullyQualifiedJavaType booleanPrimitiveInstance = null;
-    
-    /** The object instance. */
-    private static FullyQualifiedJavaType objectInstance = null;
-    
-    /** The date instance. */
-    private static FullyQualifiedJavaType dateInstance = null;
-    
-    /** The criteria instance. */
-    private static FullyQualifiedJavaType criteriaInstance = null;
-    
-    /** The generated criteria instance. */
-    private static FullyQualifiedJavaType generatedCriteriaInstance = null;
+
+    /** Upper bound for the parse cache, type specifications are normally a small set. */
+    private static final int MAX_CACHED_TYPES = 10000;
+
+    /**
+     * Parsed, immutable instances by type specification. They are returned by
+     * getInstance() and copied by the public constructor, so every
+     * specification is parsed once per run.
+     */
+    private static final ConcurrentMap<String, FullyQualifiedJavaType> INSTANCES =
+            new ConcurrentHashMap<String, FullyQualifiedJavaType>();
 
     /** The short name without any generic arguments. */
     private String baseShortName;
@@ -88,16 +81,124 @@ public class FullyQualifiedJavaType implements
     /** The extends bounded wildcard. */
     private boolean extendsBoundedWildcard;
 
+    /** True for the shared instances returned by getInstance(). */
+    private boolean immutable;
+
+    // the following values are only calculated for immutable instances
+    /** The cached fully qualified name. */
+    private String fullyQualifiedName;
+
+    /** The cached short name. */
+    private String shortName;
+
+    /** The cached import list. */
+    private List<String> importList;
+
     /**
      * Use this constructor to construct a generic type with the specified type parameters.
      *
+     * <p>The new instance may be changed with addTypeArgument(). Use
+     * {@link #getInstance(String)} for types that are not changed - the
+     * instance is shared, and nothing is allocated.
+     *
      * @param fullTypeSpecification
      *            the full type specification
      */
     public FullyQualifiedJavaType(String fullTypeSpecification) {
+        super();
+        copy(getInstance(fullTypeSpecification));
+    }
+
+    /**
+     * Creates an immutable instance by parsing the specification.
+     *
+     * @param fullTypeSpecification
+     *            the full type specification
+     * @param immutable
+     *            always true
+     */
+    private FullyQualifiedJavaType(String fullTypeSpecification, boolean immutable) {
         super();
         typeArguments = new ArrayList<FullyQualifiedJavaType>();
         parse(fullTypeSpecification);
+        typeArguments = Collections.unmodifiableList(typeArguments);
+        fullyQualifiedName = calculateFullyQualifiedName();
+        shortName = calculateShortName();
+        importList = Collections.unmodifiableList(calculateImportList());
+        this.immutable = immutable;
+    }
+
+    /**
+     * Creates a mutable copy of a type.
+     *
+     * @param type
+     *            the type
+     */
+    private FullyQualifiedJavaType(FullyQualifiedJavaType type) {
+        super();
+        copy(type);
+    }
+
+    private void copy(FullyQualifiedJavaType type) {
+        baseShortName = type.baseShortName;
+        baseQualifiedName = type.baseQualifiedName;
+        explicitlyImported = type.explicitlyImported;
+        packageName = type.packageName;
+        primitive = type.primitive;
+        isArray = type.isArray;
+        primitiveTypeWrapper = type.primitiveTypeWrapper;
+        wildcardType = type.wildcardType;
+        boundedWildcard = type.boundedWildcard;
+        extendsBoundedWildcard = type.extendsBoundedWildcard;
+        typeArguments = new ArrayList<FullyQualifiedJavaType>(type.typeArguments.size());
+        for (FullyQualifiedJavaType typeArgument : type.typeArguments) {
+            typeArguments.add(new FullyQualifiedJavaType(typeArgument));
+        }
+    }
+
+    /**
+     * Returns the shared, immutable instance for a type specification. The
+     * specification is parsed once, later calls - from any table - return the
+     * same instance. addTypeArgument() throws an exception for these instances,
+     * use {@link #builder(String)} or the constructor to compose generic types.
+     *
+     * @param fullTypeSpecification
+     *            the full type specification
+     * @return the type
+     */
+    public static FullyQualifiedJavaType getInstance(String fullTypeSpecification) {
+        FullyQualifiedJavaType answer = INSTANCES.get(fullTypeSpecification);
+        if (answer == null) {
+            answer = new FullyQualifiedJavaType(fullTypeSpecification, true);
+            if (INSTANCES.size() < MAX_CACHED_TYPES) {
+                FullyQualifiedJavaType existing = INSTANCES.putIfAbsent(fullTypeSpecification, answer);
+                if (existing != null) {
+                    answer = existing;
+                }
+            }
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns a builder for a generic type.
+     *
+     * @param baseTypeSpecification
+     *            the type without type arguments, for example java.util.List
+     * @return the builder
+     */
+    public static Builder builder(String baseTypeSpecification) {
+        return new Builder(baseTypeSpecification);
+    }
+
+    /**
+     * Checks if this is a shared instance returned by getInstance().
+     *
+     * @return true if the type cannot be changed
+     */
+    public boolean isImmutable() {
+        return immutable;
     }
 
     /**
@@ -115,6 +216,18 @@ public class FullyQualifiedJavaType implements
      * @return Returns the fullyQualifiedName.
      */
     public String getFullyQualifiedName() {
+        if (fullyQualifiedName != null) {
+            return fullyQualifiedName;
+        }
+
+        return calculateFullyQualifiedName();
+    }
+
+    private String calculateFullyQualifiedName() {
+        if (!wildcardType && typeArguments.isEmpty()) {
+            return baseQualifiedName;
+        }
+
         StringBuilder sb = new StringBuilder();
         if (wildcardType) {
             sb.append('?');
@@ -160,6 +273,14 @@ public class FullyQualifiedJavaType implements
      * @return the import list
      */
     public List<String> getImportList() {
+        if (importList != null) {
+            return importList;
+        }
+
+        return calculateImportList();
+    }
+
+    private List<String> calculateImportList() {
         List<String> answer = new ArrayList<String>();
         if (isExplicitlyImported()) {
             int index = baseShortName.indexOf('.');
@@ -198,6 +319,18 @@ public class FullyQualifiedJavaType implements
      * @return Returns the shortName - including any type arguments.
      */
     public String getShortName() {
+        if (shortName != null) {
+            return shortName;
+        }
+
+        return calculateShortName();
+    }
+
+    private String calculateShortName() {
+        if (!wildcardType && typeArguments.isEmpty()) {
+            return baseShortName;
+        }
+
         StringBuilder sb = new StringBuilder();
         if (wildcardType) {
             sb.append('?');
@@ -300,11 +433,7 @@ public class FullyQualifiedJavaType implements
      * @return the int instance
      */
     public static final FullyQualifiedJavaType getIntInstance() {
-        if (intInstance == null) {
-            intInstance = new FullyQualifiedJavaType("int"); //$NON-NLS-1$
-        }
-
-        return intInstance;
+        return getInstance("int"); //$NON-NLS-1$
     }
 
     /**
@@ -363,11 +492,7 @@ public class FullyQualifiedJavaType implements
      * @return the string instance
      */
     public static final FullyQualifiedJavaType getStringInstance() {
-        if (stringInstance == null) {
-            stringInstance = new FullyQualifiedJavaType("java.lang.String"); //$NON-NLS-1$
-        }
-
-        return stringInstance;
+        return getInstance("java.lang.String"); //$NON-NLS-1$
     }
 
     /**
@@ -376,11 +501,7 @@ public class FullyQualifiedJavaType implements
      * @return the boolean primitive instance
      */
     public static final FullyQualifiedJavaType getBooleanPrimitiveInstance() {
-        if (booleanPrimitiveInstance == null) {
-            booleanPrimitiveInstance = new FullyQualifiedJavaType("boolean"); //$NON-NLS-1$
-        }
-
-        return booleanPrimitiveInstance;
+        return getInstance("boolean"); //$NON-NLS-1$
     }
 
     /**
@@ -389,11 +510,7 @@ public class FullyQualifiedJavaType implements
      * @return the object instance
      */
     public static final FullyQualifiedJavaType getObjectInstance() {
-        if (objectInstance == null) {
-            objectInstance = new FullyQualifiedJavaType("java.lang.Object"); //$NON-NLS-1$
-        }
-
-        return objectInstance;
+        return getInstance("java.lang.Object"); //$NON-NLS-1$
     }
 
     /**
@@ -402,11 +519,7 @@ public class FullyQualifiedJavaType implements
      * @return the date instance
      */
     public static final FullyQualifiedJavaType getDateInstance() {
-        if (dateInstance == null) {
-            dateInstance = new FullyQualifiedJavaType("java.util.Date"); //$NON-NLS-1$
-        }
-
-        return dateInstance;
+        return getInstance("java.util.Date"); //$NON-NLS-1$
     }
 
     /**
@@ -415,11 +528,7 @@ public class FullyQualifiedJavaType implements
      * @return the criteria instance
      */
     public static final FullyQualifiedJavaType getCriteriaInstance() {
-        if (criteriaInstance == null) {
-            criteriaInstance = new FullyQualifiedJavaType("Criteria"); //$NON-NLS-1$
-        }
-
-        return criteriaInstance;
+        return getInstance("Criteria"); //$NON-NLS-1$
     }
 
     /**
@@ -428,12 +537,7 @@ public class FullyQualifiedJavaType implements
      * @return the generated criteria instance
      */
     public static final FullyQualifiedJavaType getGeneratedCriteriaInstance() {
-        if (generatedCriteriaInstance == null) {
-            generatedCriteriaInstance = new FullyQualifiedJavaType(
-                    "GeneratedCriteria"); //$NON-NLS-1$
-        }
-
-        return generatedCriteriaInstance;
+        return getInstance("GeneratedCriteria"); //$NON-NLS-1$
     }
 
     /*
@@ -452,6 +556,10 @@ public class FullyQualifiedJavaType implements
      *            the type
      */
     public void addTypeArgument(FullyQualifiedJavaType type) {
+        if (immutable) {
+            throw new UnsupportedOperationException(getString(
+                    "RuntimeError.24", getFullyQualifiedName())); //$NON-NLS-1$
+        }
         typeArguments.add(type);
     }
 
@@ -591,7 +699,7 @@ public class FullyQualifiedJavaType implements
             } else if (",".equals(token)) { //$NON-NLS-1$
                 if (openCount == 0) {
                     typeArguments
-                            .add(new FullyQualifiedJavaType(sb.toString()));
+                            .add(getInstance(sb.toString()));
                     sb.setLength(0);
                 } else {
                     sb.append(token);
@@ -608,7 +716,7 @@ public class FullyQualifiedJavaType implements
 
         String finalType = sb.toString();
         if (stringHasValue(finalType)) {
-            typeArguments.add(new FullyQualifiedJavaType(finalType));
+            typeArguments.add(getInstance(finalType));
         }
     }
 
@@ -640,4 +748,47 @@ public class FullyQualifiedJavaType implements
     public List<FullyQualifiedJavaType> getTypeArguments() {
         return typeArguments;
     }
+
+    /**
+     * Composes generic types from a base type and type arguments. The built
+     * type is the shared instance for the composed specification.
+     */
+    public static class Builder {
+        private final String baseTypeSpecification;
+        private final List<FullyQualifiedJavaType> typeArguments = new ArrayList<FullyQualifiedJavaType>();
+
+        private Builder(String baseTypeSpecification) {
+            this.baseTypeSpecification = baseTypeSpecification.trim();
+        }
+
+        public Builder addTypeArgument(FullyQualifiedJavaType type) {
+            typeArguments.add(type);
+            return this;
+        }
+
+        public Builder addTypeArgument(String typeSpecification) {
+            typeArguments.add(getInstance(typeSpecification));
+            return this;
+        }
+
+        public FullyQualifiedJavaType build() {
+            if (typeArguments.isEmpty()) {
+                return getInstance(baseTypeSpecification);
+            }
+
+            StringBuilder sb = new StringBuilder(baseTypeSpecification);
+            sb.append('<');
+            boolean first = true;
+            for (FullyQualifiedJavaType typeArgument : typeArguments) {
+                if (first) {
+                    first = false;
+                } else {
+                    sb.append(", "); //$NON-NLS-1$
+                }
+                sb.append(typeArgument.getFullyQualifiedName());
+            }
+            sb.append('>');
+            return getInstance(sb.toString());
+        }
+    }
 }
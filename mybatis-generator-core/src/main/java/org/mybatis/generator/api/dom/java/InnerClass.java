@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.java;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -200,122 +201,142 @@ public class InnerClass extends JavaElement {
      */
     public String getFormattedContent(int indentLevel, CompilationUnit compilationUnit) {
         StringBuilder sb = new StringBuilder();
+        try {
+            render(sb, indentLevel, compilationUnit);
+        } catch (IOException e) {
+            // cannot happen - StringBuilder does not throw IOException
+            throw new RuntimeException(e);
+        }
 
-        addFormattedJavadoc(sb, indentLevel);
-        addFormattedAnnotations(sb, indentLevel);
+        return sb.toString();
+    }
 
-        OutputUtilities.javaIndent(sb, indentLevel);
-        sb.append(getVisibility().getValue());
+    /**
+     * Writes the formatted content of this class to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @param compilationUnit
+     *            the compilation unit, used to shorten type names
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void render(Appendable out, int indentLevel, CompilationUnit compilationUnit) throws IOException {
+        addFormattedJavadoc(out, indentLevel);
+        addFormattedAnnotations(out, indentLevel);
+
+        OutputUtilities.javaIndent(out, indentLevel);
+        out.append(getVisibility().getValue());
 
         if (isAbstract()) {
-            sb.append("abstract "); //$NON-NLS-1$
+            out.append("abstract "); //$NON-NLS-1$
         }
 
         if (isStatic()) {
-            sb.append("static "); //$NON-NLS-1$
+            out.append("static "); //$NON-NLS-1$
         }
 
         if (isFinal()) {
-            sb.append("final "); //$NON-NLS-1$
+            out.append("final "); //$NON-NLS-1$
         }
 
-        sb.append("class "); //$NON-NLS-1$
-        sb.append(getType().getShortName());
+        out.append("class "); //$NON-NLS-1$
+        out.append(getType().getShortName());
 
         if (superClass != null) {
-            sb.append(" extends "); //$NON-NLS-1$
-            sb.append(JavaDomUtils.calculateTypeName(compilationUnit, superClass));
+            out.append(" extends "); //$NON-NLS-1$
+            out.append(JavaDomUtils.calculateTypeName(compilationUnit, superClass));
         }
 
         if (superInterfaceTypes.size() > 0) {
-            sb.append(" implements "); //$NON-NLS-1$
+            out.append(" implements "); //$NON-NLS-1$
 
             boolean comma = false;
             for (FullyQualifiedJavaType fqjt : superInterfaceTypes) {
                 if (comma) {
-                    sb.append(", "); //$NON-NLS-1$
+                    out.append(", "); //$NON-NLS-1$
                 } else {
                     comma = true;
                 }
 
-                sb.append(JavaDomUtils.calculateTypeName(compilationUnit, fqjt));
+                out.append(JavaDomUtils.calculateTypeName(compilationUnit, fqjt));
             }
         }
 
-        sb.append(" {"); //$NON-NLS-1$
+        out.append(" {"); //$NON-NLS-1$
         indentLevel++;
         
         Iterator<Field> fldIter = fields.iterator();
         while (fldIter.hasNext()) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
             Field field = fldIter.next();
-            sb.append(field.getFormattedContent(indentLevel, compilationUnit));
+            field.render(out, indentLevel, compilationUnit);
             if (fldIter.hasNext()) {
-                OutputUtilities.newLine(sb);
+                OutputUtilities.newLine(out);
             }
         }
 
         if (initializationBlocks.size() > 0) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
         }
 
         Iterator<InitializationBlock> blkIter = initializationBlocks.iterator();
         while (blkIter.hasNext()) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
             InitializationBlock initializationBlock = blkIter.next();
-            sb.append(initializationBlock.getFormattedContent(indentLevel));
+            initializationBlock.render(out, indentLevel);
             if (blkIter.hasNext()) {
-                OutputUtilities.newLine(sb);
+                OutputUtilities.newLine(out);
             }
         }
 
         if (methods.size() > 0) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
         }
 
         Iterator<Method> mtdIter = methods.iterator();
         while (mtdIter.hasNext()) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
             Method method = mtdIter.next();
-            sb.append(method.getFormattedContent(indentLevel, false, compilationUnit));
+            method.render(out, indentLevel, false, compilationUnit);
             if (mtdIter.hasNext()) {
-                OutputUtilities.newLine(sb);
+                OutputUtilities.newLine(out);
             }
         }
 
         if (innerClasses.size() > 0) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
         }
         Iterator<InnerClass> icIter = innerClasses.iterator();
         while (icIter.hasNext()) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
             InnerClass innerClass = icIter.next();
-            sb.append(innerClass.getFormattedContent(indentLevel, compilationUnit));
+            innerClass.render(out, indentLevel, compilationUnit);
             if (icIter.hasNext()) {
-                OutputUtilities.newLine(sb);
+                OutputUtilities.newLine(out);
             }
         }
 
         if (innerEnums.size() > 0) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
         }
 
         Iterator<InnerEnum> ieIter = innerEnums.iterator();
         while (ieIter.hasNext()) {
-            OutputUtilities.newLine(sb);
+            OutputUtilities.newLine(out);
             InnerEnum innerEnum = ieIter.next();
-            sb.append(innerEnum.getFormattedContent(indentLevel, compilationUnit));
+            innerEnum.render(out, indentLevel, compilationUnit);
             if (ieIter.hasNext()) {
-                OutputUtilities.newLine(sb);
+                OutputUtilities.newLine(out);
             }
         }
 
         indentLevel--;
-        OutputUtilities.newLine(sb);
-        OutputUtilities.javaIndent(sb, indentLevel);
-        sb.append('}');
-
-        return sb.toString();
+        OutputUtilities.newLine(out);
+        OutputUtilities.javaIndent(out, indentLevel);
+        out.append('}');
     }
 
     /**
@@ -20,6 +20,7 @@ import static org.mybatis.generator.api.dom.OutputUtilities.javaIndent;
 import static org.mybatis.generator.api.dom.OutputUtilities.newLine;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -101,93 +102,109 @@ public class Interface extends JavaElement implements CompilationUnit {
      */
     public String getFormattedContent() {
         StringBuilder sb = new StringBuilder();
+        try {
+            render(sb);
+        } catch (IOException e) {
+            // cannot happen - StringBuilder does not throw IOException
+            throw new RuntimeException(e);
+        }
 
+        return sb.toString();
+    }
+
+    /**
+     * Writes the formatted content of this compilation unit to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void render(Appendable out) throws IOException {
         for (String commentLine : fileCommentLines) {
-            sb.append(commentLine);
-            newLine(sb);
+            out.append(commentLine);
+            newLine(out);
         }
 
         if (stringHasValue(getType().getPackageName())) {
-            sb.append("package "); //$NON-NLS-1$
-            sb.append(getType().getPackageName());
-            sb.append(';');
-            newLine(sb);
-            newLine(sb);
+            out.append("package "); //$NON-NLS-1$
+            out.append(getType().getPackageName());
+            out.append(';');
+            newLine(out);
+            newLine(out);
         }
 
         for (String staticImport : staticImports) {
-            sb.append("import static "); //$NON-NLS-1$
-            sb.append(staticImport);
-            sb.append(';');
-            newLine(sb);
+            out.append("import static "); //$NON-NLS-1$
+            out.append(staticImport);
+            out.append(';');
+            newLine(out);
         }
         
         if (staticImports.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
         
         Set<String> importStrings = calculateImports(importedTypes);
         for (String importString : importStrings) {
-            sb.append(importString);
-            newLine(sb);
+            out.append(importString);
+            newLine(out);
         }
 
         if (importStrings.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
 
         int indentLevel = 0;
 
-        addFormattedJavadoc(sb, indentLevel);
-        addFormattedAnnotations(sb, indentLevel);
+        addFormattedJavadoc(out, indentLevel);
+        addFormattedAnnotations(out, indentLevel);
 
-        sb.append(getVisibility().getValue());
+        out.append(getVisibility().getValue());
 
         if (isStatic()) {
-            sb.append("static "); //$NON-NLS-1$
+            out.append("static "); //$NON-NLS-1$
         }
 
         if (isFinal()) {
-            sb.append("final "); //$NON-NLS-1$
+            out.append("final "); //$NON-NLS-1$
         }
 
-        sb.append("interface "); //$NON-NLS-1$
-        sb.append(getType().getShortName());
+        out.append("interface "); //$NON-NLS-1$
+        out.append(getType().getShortName());
 
         if (getSuperInterfaceTypes().size() > 0) {
-            sb.append(" extends "); //$NON-NLS-1$
+            out.append(" extends "); //$NON-NLS-1$
 
             boolean comma = false;
             for (FullyQualifiedJavaType fqjt : getSuperInterfaceTypes()) {
                 if (comma) {
-                    sb.append(", "); //$NON-NLS-1$
+                    out.append(", "); //$NON-NLS-1$
                 } else {
                     comma = true;
                 }
 
-                sb.append(JavaDomUtils.calculateTypeName(this, fqjt));
+                out.append(JavaDomUtils.calculateTypeName(this, fqjt));
             }
         }
 
-        sb.append(" {"); //$NON-NLS-1$
+        out.append(" {"); //$NON-NLS-1$
         indentLevel++;
 
         Iterator<Method> mtdIter = getMethods().iterator();
         while (mtdIter.hasNext()) {
-            newLine(sb);
+            newLine(out);
             Method method = mtdIter.next();
-            sb.append(method.getFormattedContent(indentLevel, true, this));
+            method.render(out, indentLevel, true, this);
             if (mtdIter.hasNext()) {
-                newLine(sb);
+                newLine(out);
             }
         }
 
         indentLevel--;
-        newLine(sb);
-        javaIndent(sb, indentLevel);
-        sb.append('}');
-
-        return sb.toString();
+        newLine(out);
+        javaIndent(out, indentLevel);
+        out.append('}');
     }
 
     /**
@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.java;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -162,6 +163,42 @@ public abstract class JavaElement {
         }
     }
 
+    /**
+     * Writes the javadoc lines of this element to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void addFormattedJavadoc(Appendable out, int indentLevel) throws IOException {
+        for (String javaDocLine : javaDocLines) {
+            OutputUtilities.javaIndent(out, indentLevel);
+            out.append(javaDocLine);
+            OutputUtilities.newLine(out);
+        }
+    }
+
+    /**
+     * Writes the annotations of this element to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void addFormattedAnnotations(Appendable out, int indentLevel) throws IOException {
+        for (String annotation : annotations) {
+            OutputUtilities.javaIndent(out, indentLevel);
+            out.append(annotation);
+            OutputUtilities.newLine(out);
+        }
+    }
+
     /**
      * Checks if is final.
      *
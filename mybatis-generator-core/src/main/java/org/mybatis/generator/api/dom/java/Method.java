@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.java;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -161,78 +162,102 @@ public class Method extends JavaElement {
      */
     public String getFormattedContent(int indentLevel, boolean interfaceMethod, CompilationUnit compilationUnit) {
         StringBuilder sb = new StringBuilder();
+        try {
+            render(sb, indentLevel, interfaceMethod, compilationUnit);
+        } catch (IOException e) {
+            // cannot happen - StringBuilder does not throw IOException
+            throw new RuntimeException(e);
+        }
+
+        return sb.toString();
+    }
 
-        addFormattedJavadoc(sb, indentLevel);
-        addFormattedAnnotations(sb, indentLevel);
+    /**
+     * Writes the formatted content of this method to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @param interfaceMethod
+     *            true if the method is declared in an interface
+     * @param compilationUnit
+     *            the compilation unit, used to shorten type names
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void render(Appendable out, int indentLevel, boolean interfaceMethod, CompilationUnit compilationUnit) throws IOException {
+        addFormattedJavadoc(out, indentLevel);
+        addFormattedAnnotations(out, indentLevel);
 
-        OutputUtilities.javaIndent(sb, indentLevel);
+        OutputUtilities.javaIndent(out, indentLevel);
 
         if (!interfaceMethod) {
-            sb.append(getVisibility().getValue());
+            out.append(getVisibility().getValue());
 
             if (isStatic()) {
-                sb.append("static "); //$NON-NLS-1$
+                out.append("static "); //$NON-NLS-1$
             }
 
             if (isFinal()) {
-                sb.append("final "); //$NON-NLS-1$
+                out.append("final "); //$NON-NLS-1$
             }
             
             if (isSynchronized()) {
-                sb.append("synchronized "); //$NON-NLS-1$
+                out.append("synchronized "); //$NON-NLS-1$
             }
             
             if (isNative()) {
-                sb.append("native "); //$NON-NLS-1$
+                out.append("native "); //$NON-NLS-1$
             } else if (bodyLines.size() == 0) {
-                sb.append("abstract "); //$NON-NLS-1$
+                out.append("abstract "); //$NON-NLS-1$
             }
         }
 
         if (!constructor) {
             if (getReturnType() == null) {
-                sb.append("void"); //$NON-NLS-1$
+                out.append("void"); //$NON-NLS-1$
             } else {
-                sb.append(JavaDomUtils.calculateTypeName(compilationUnit, getReturnType()));
+                out.append(JavaDomUtils.calculateTypeName(compilationUnit, getReturnType()));
             }
-            sb.append(' ');
+            out.append(' ');
         }
 
-        sb.append(getName());
-        sb.append('(');
+        out.append(getName());
+        out.append('(');
 
         boolean comma = false;
         for (Parameter parameter : getParameters()) {
             if (comma) {
-                sb.append(", "); //$NON-NLS-1$
+                out.append(", "); //$NON-NLS-1$
             } else {
                 comma = true;
             }
 
-            sb.append(parameter.getFormattedContent(compilationUnit));
+            parameter.render(out, compilationUnit);
         }
 
-        sb.append(')');
+        out.append(')');
 
         if (getExceptions().size() > 0) {
-            sb.append(" throws "); //$NON-NLS-1$
+            out.append(" throws "); //$NON-NLS-1$
             comma = false;
             for (FullyQualifiedJavaType fqjt : getExceptions()) {
                 if (comma) {
-                    sb.append(", "); //$NON-NLS-1$
+                    out.append(", "); //$NON-NLS-1$
                 } else {
                     comma = true;
                 }
 
-                sb.append(JavaDomUtils.calculateTypeName(compilationUnit, fqjt));
+                out.append(JavaDomUtils.calculateTypeName(compilationUnit, fqjt));
             }
         }
 
         // if no body lines, then this is an abstract method
         if (bodyLines.size() == 0 || isNative()) {
-            sb.append(';');
+            out.append(';');
         } else {
-            sb.append(" {"); //$NON-NLS-1$
+            out.append(" {"); //$NON-NLS-1$
             indentLevel++;
 
             ListIterator<String> listIter = bodyLines.listIterator();
@@ -242,9 +267,9 @@ public class Method extends JavaElement {
                     indentLevel--;
                 }
 
-                OutputUtilities.newLine(sb);
-                OutputUtilities.javaIndent(sb, indentLevel);
-                sb.append(line);
+                OutputUtilities.newLine(out);
+                OutputUtilities.javaIndent(out, indentLevel);
+                out.append(line);
 
                 if ((line.endsWith("{") && !line.startsWith("switch")) //$NON-NLS-1$ //$NON-NLS-2$
                         || line.endsWith(":")) { //$NON-NLS-1$
@@ -267,12 +292,10 @@ public class Method extends JavaElement {
             }
 
             indentLevel--;
-            OutputUtilities.newLine(sb);
-            OutputUtilities.javaIndent(sb, indentLevel);
-            sb.append('}');
+            OutputUtilities.newLine(out);
+            OutputUtilities.javaIndent(out, indentLevel);
+            out.append('}');
         }
-
-        return sb.toString();
     }
 
     /**
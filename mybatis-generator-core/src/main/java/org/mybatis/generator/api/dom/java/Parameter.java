@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.java;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -74,21 +75,39 @@ public class Parameter {
 
     public String getFormattedContent(CompilationUnit compilationUnit) {
         StringBuilder sb = new StringBuilder();
+        try {
+            render(sb, compilationUnit);
+        } catch (IOException e) {
+            // cannot happen - StringBuilder does not throw IOException
+            throw new RuntimeException(e);
+        }
+
+        return sb.toString();
+    }
 
+    /**
+     * Writes the formatted content of this parameter to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @param compilationUnit
+     *            the compilation unit, used to shorten type names
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void render(Appendable out, CompilationUnit compilationUnit) throws IOException {
         for (String annotation : annotations) {
-            sb.append(annotation);
-            sb.append(' ');
+            out.append(annotation);
+            out.append(' ');
         }
 
-        sb.append(JavaDomUtils.calculateTypeName(compilationUnit, type));
+        out.append(JavaDomUtils.calculateTypeName(compilationUnit, type));
         
-        sb.append(' ');
+        out.append(' ');
         if (isVarargs) {
-            sb.append("... "); //$NON-NLS-1$
+            out.append("... "); //$NON-NLS-1$
         }
-        sb.append(name);
-
-        return sb.toString();
+        out.append(name);
     }
 
     @Override
@@ -19,6 +19,7 @@ import static org.mybatis.generator.api.dom.OutputUtilities.calculateImports;
 import static org.mybatis.generator.api.dom.OutputUtilities.newLine;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -101,44 +102,60 @@ public class TopLevelClass extends InnerClass implements CompilationUnit {
      */
     public String getFormattedContent() {
         StringBuilder sb = new StringBuilder();
+        try {
+            render(sb);
+        } catch (IOException e) {
+            // cannot happen - StringBuilder does not throw IOException
+            throw new RuntimeException(e);
+        }
 
+        return sb.toString();
+    }
+
+    /**
+     * Writes the formatted content of this compilation unit to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void render(Appendable out) throws IOException {
         for (String fileCommentLine : fileCommentLines) {
-            sb.append(fileCommentLine);
-            newLine(sb);
+            out.append(fileCommentLine);
+            newLine(out);
         }
 
         if (stringHasValue(getType().getPackageName())) {
-            sb.append("package "); //$NON-NLS-1$
-            sb.append(getType().getPackageName());
-            sb.append(';');
-            newLine(sb);
-            newLine(sb);
+            out.append("package "); //$NON-NLS-1$
+            out.append(getType().getPackageName());
+            out.append(';');
+            newLine(out);
+            newLine(out);
         }
 
         for (String staticImport : staticImports) {
-            sb.append("import static "); //$NON-NLS-1$
-            sb.append(staticImport);
-            sb.append(';');
-            newLine(sb);
+            out.append("import static "); //$NON-NLS-1$
+            out.append(staticImport);
+            out.append(';');
+            newLine(out);
         }
         
         if (staticImports.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
         
         Set<String> importStrings = calculateImports(importedTypes);
         for (String importString : importStrings) {
-            sb.append(importString);
-            newLine(sb);
+            out.append(importString);
+            newLine(out);
         }
 
         if (importStrings.size() > 0) {
-            newLine(sb);
+            newLine(out);
         }
 
-        sb.append(super.getFormattedContent(0, this));
-
-        return sb.toString();
+        super.render(out, 0, this);
     }
 
     /* (non-Javadoc)
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.OutputUtilities;
 
 /**
@@ -98,23 +100,39 @@ public class Document {
      */
     public String getFormattedContent() {
         StringBuilder sb = new StringBuilder();
+        try {
+            render(sb);
+        } catch (IOException e) {
+            // cannot happen - StringBuilder does not throw IOException
+            throw new RuntimeException(e);
+        }
+
+        return sb.toString();
+    }
 
-        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
+    /**
+     * Writes the formatted content of this document to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void render(Appendable out) throws IOException {
+        out.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
 
         if (publicId != null && systemId != null) {
-            OutputUtilities.newLine(sb);
-            sb.append("<!DOCTYPE "); //$NON-NLS-1$
-            sb.append(rootElement.getName());
-            sb.append(" PUBLIC \""); //$NON-NLS-1$
-            sb.append(publicId);
-            sb.append("\" \""); //$NON-NLS-1$
-            sb.append(systemId);
-            sb.append("\">"); //$NON-NLS-1$
+            OutputUtilities.newLine(out);
+            out.append("<!DOCTYPE "); //$NON-NLS-1$
+            out.append(rootElement.getName());
+            out.append(" PUBLIC \""); //$NON-NLS-1$
+            out.append(publicId);
+            out.append("\" \""); //$NON-NLS-1$
+            out.append(systemId);
+            out.append("\">"); //$NON-NLS-1$
         }
 
-        OutputUtilities.newLine(sb);
-        sb.append(rootElement.getFormattedContent(0));
-
-        return sb.toString();
+        OutputUtilities.newLine(out);
+        rootElement.render(out, 0);
     }
 }
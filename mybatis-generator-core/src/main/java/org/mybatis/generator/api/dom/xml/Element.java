@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
+
 /**
  * @author Jeff Butler
  */
@@ -28,4 +30,21 @@ public abstract class Element {
     }
 
     public abstract String getFormattedContent(int indentLevel);
+
+    /**
+     * Writes the formatted content of this element to an appendable. The
+     * built in elements write their content directly; this default
+     * implementation appends the result of
+     * {@link #getFormattedContent(int)} so that other subclasses keep working.
+     *
+     * @param out
+     *            the appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    public void render(Appendable out, int indentLevel) throws IOException {
+        out.append(getFormattedContent(indentLevel));
+    }
 }
@@ -15,6 +15,8 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
+
 import org.mybatis.generator.api.dom.OutputUtilities;
 
 /**
@@ -44,11 +46,32 @@ public class TextElement extends Element {
     @Override
     public String getFormattedContent(int indentLevel) {
         StringBuilder sb = new StringBuilder();
-        OutputUtilities.xmlIndent(sb, indentLevel);
-        sb.append(content);
+        try {
+            render(sb, indentLevel);
+        } catch (IOException e) {
+            // cannot happen - StringBuilder does not throw IOException
+            throw new RuntimeException(e);
+        }
+
         return sb.toString();
     }
 
+    /**
+     * Writes the formatted content of this element to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    @Override
+    public void render(Appendable out, int indentLevel) throws IOException {
+        OutputUtilities.xmlIndent(out, indentLevel);
+        out.append(content);
+    }
+
     /**
      * Gets the content.
      *
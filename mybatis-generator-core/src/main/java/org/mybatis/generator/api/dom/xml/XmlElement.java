@@ -15,6 +15,7 @@
  */
 package org.mybatis.generator.api.dom.xml;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -130,34 +131,53 @@ public class XmlElement extends Element {
     @Override
     public String getFormattedContent(int indentLevel) {
         StringBuilder sb = new StringBuilder();
+        try {
+            render(sb, indentLevel);
+        } catch (IOException e) {
+            // cannot happen - StringBuilder does not throw IOException
+            throw new RuntimeException(e);
+        }
 
-        OutputUtilities.xmlIndent(sb, indentLevel);
-        sb.append('<');
-        sb.append(name);
+        return sb.toString();
+    }
+
+    /**
+     * Writes the formatted content of this element to an appendable.
+     *
+     * @param out
+     *            the appendable to write to
+     * @param indentLevel
+     *            the indent level
+     * @throws IOException
+     *             if the appendable throws an IOException
+     */
+    @Override
+    public void render(Appendable out, int indentLevel) throws IOException {
+        OutputUtilities.xmlIndent(out, indentLevel);
+        out.append('<');
+        out.append(name);
 
         Collections.sort(attributes);
         for (Attribute att : attributes) {
-            sb.append(' ');
-            sb.append(att.getFormattedContent());
+            out.append(' ');
+            att.render(out);
         }
 
         if (elements.size() > 0) {
-            sb.append(">"); //$NON-NLS-1$
+            out.append(">"); //$NON-NLS-1$
             for (Element element : elements) {
-                OutputUtilities.newLine(sb);
-                sb.append(element.getFormattedContent(indentLevel + 1));
+                OutputUtilities.newLine(out);
+                element.render(out, indentLevel + 1);
             }
-            OutputUtilities.newLine(sb);
-            OutputUtilities.xmlIndent(sb, indentLevel);
-            sb.append("</"); //$NON-NLS-1$
-            sb.append(name);
-            sb.append('>');
+            OutputUtilities.newLine(out);
+            OutputUtilities.xmlIndent(out, indentLevel);
+            out.append("</"); //$NON-NLS-1$
+            out.append(name);
+            out.append('>');
 
         } else {
-            sb.append(" />"); //$NON-NLS-1$
+            out.append(" />"); //$NON-NLS-1$
         }
-
-        return sb.toString();
     }
 
     /**
@@ -43,12 +43,31 @@ public class RootClassInfo {
                 .synchronizedMap(new HashMap<String, RootClassInfo>());
     }
 
+    /**
+     * Returns the root class info of a class. The class is introspected only
+     * once per generation run, but the returned instance reports its warnings
+     * to the specified list - so tables generated on different threads never
+     * share a warnings list.
+     *
+     * @param className
+     *            the root class name
+     * @param warnings
+     *            the warnings list of the caller
+     * @return the root class info
+     */
     public static RootClassInfo getInstance(String className,
             List<String> warnings) {
-        RootClassInfo classInfo = rootClassInfoMap.get(className);
-        if (classInfo == null) {
-            classInfo = new RootClassInfo(className, warnings);
-            rootClassInfoMap.put(className, classInfo);
+        RootClassInfo classInfo;
+        synchronized (rootClassInfoMap) {
+            classInfo = rootClassInfoMap.get(className);
+            if (classInfo == null) {
+                classInfo = new RootClassInfo(className, warnings);
+                rootClassInfoMap.put(className, classInfo);
+            }
+        }
+
+        if (classInfo.warnings != warnings) {
+            classInfo = new RootClassInfo(classInfo, warnings);
         }
 
         return classInfo;
@@ -70,6 +89,14 @@ public class RootClassInfo {
     private List<String> warnings;
     private boolean genericMode = false;
 
+    private RootClassInfo(RootClassInfo classInfo, List<String> warnings) {
+        super();
+        this.className = classInfo.className;
+        this.warnings = warnings;
+        this.genericMode = classInfo.genericMode;
+        this.propertyDescriptors = classInfo.propertyDescriptors;
+    }
+
     private RootClassInfo(String className, List<String> warnings) {
         super();
         this.className = className;
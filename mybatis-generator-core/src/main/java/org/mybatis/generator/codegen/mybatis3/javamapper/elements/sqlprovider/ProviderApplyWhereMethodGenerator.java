@@ -18,43 +18,65 @@ package org.mybatis.generator.codegen.mybatis3.javamapper.elements.sqlprovider;
 import java.util.Set;
 import java.util.TreeSet;
 
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerClass;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 
+/**
+ * Generates the applyWhere method of the SQL provider. The where clause is
+ * rendered with plain StringBuilder appends, and memoized per example shape:
+ * the valid criteria, their conditions, type handlers and list sizes. A
+ * repeated shape reuses the rendered clause without rebuilding it. With the
+ * <code>inListPadding</code> context property, IN lists are rendered in padded
+ * chunks like the XML where clause.
+ */
 public class ProviderApplyWhereMethodGenerator extends
         AbstractJavaProviderMethodGenerator {
 
+    private static final String SHAPE_CLASS = "WhereShape"; //$NON-NLS-1$
+
+    /**
+     * Upper bound of memoized where clauses per provider. List sizes are part
+     * of the shape, so the number of shapes is not bounded by the code.
+     */
+    private static final String WHERE_CACHE_LIMIT = "256"; //$NON-NLS-1$
+
     private static final String[] BEGINNING_METHOD_LINES = {
         "if (example == null) {", //$NON-NLS-1$
         "return;", //$NON-NLS-1$
         "}", //$NON-NLS-1$
         "", //$NON-NLS-1$
-        "String parmPhrase1;", //$NON-NLS-1$
-        "String parmPhrase1_th;", //$NON-NLS-1$
-        "String parmPhrase2;", //$NON-NLS-1$
-        "String parmPhrase2_th;", //$NON-NLS-1$
-        "String parmPhrase3;", //$NON-NLS-1$
-        "String parmPhrase3_th;", //$NON-NLS-1$
-        "if (includeExamplePhrase) {", //$NON-NLS-1$
-        "parmPhrase1 = \"%s #{example.oredCriteria[%d].allCriteria[%d].value}\";", //$NON-NLS-1$
-        "parmPhrase1_th = \"%s #{example.oredCriteria[%d].allCriteria[%d].value,typeHandler=%s}\";", //$NON-NLS-1$
-        "parmPhrase2 = \"%s #{example.oredCriteria[%d].allCriteria[%d].value} and #{example.oredCriteria[%d].criteria[%d].secondValue}\";", //$NON-NLS-1$
-        "parmPhrase2_th = \"%s #{example.oredCriteria[%d].allCriteria[%d].value,typeHandler=%s} and #{example.oredCriteria[%d].criteria[%d].secondValue,typeHandler=%s}\";", //$NON-NLS-1$
-        "parmPhrase3 = \"#{example.oredCriteria[%d].allCriteria[%d].value[%d]}\";", //$NON-NLS-1$
-        "parmPhrase3_th = \"#{example.oredCriteria[%d].allCriteria[%d].value[%d],typeHandler=%s}\";", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "parmPhrase1 = \"%s #{oredCriteria[%d].allCriteria[%d].value}\";", //$NON-NLS-1$
-        "parmPhrase1_th = \"%s #{oredCriteria[%d].allCriteria[%d].value,typeHandler=%s}\";", //$NON-NLS-1$
-        "parmPhrase2 = \"%s #{oredCriteria[%d].allCriteria[%d].value} and #{oredCriteria[%d].criteria[%d].secondValue}\";", //$NON-NLS-1$
-        "parmPhrase2_th = \"%s #{oredCriteria[%d].allCriteria[%d].value,typeHandler=%s} and #{oredCriteria[%d].criteria[%d].secondValue,typeHandler=%s}\";", //$NON-NLS-1$
-        "parmPhrase3 = \"#{oredCriteria[%d].allCriteria[%d].value[%d]}\";", //$NON-NLS-1$
-        "parmPhrase3_th = \"#{oredCriteria[%d].allCriteria[%d].value[%d],typeHandler=%s}\";", //$NON-NLS-1$
+        "WhereShape shape = new WhereShape(example, includeExamplePhrase);", //$NON-NLS-1$
+        "String where = WHERE_CACHE.get(shape);", //$NON-NLS-1$
+        "if (where == null) {", //$NON-NLS-1$
+        "where = buildWhere(example, includeExamplePhrase);", //$NON-NLS-1$
+        "if (WHERE_CACHE.size() < WHERE_CACHE_LIMIT) {", //$NON-NLS-1$
+        "WHERE_CACHE.putIfAbsent(shape, where);", //$NON-NLS-1$
         "}", //$NON-NLS-1$
-        "", //$NON-NLS-1$
-        "StringBuilder sb = new StringBuilder();", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "" //$NON-NLS-1$
+    };
+    
+    private static final String[] LEGACY_ENDING_METHOD_LINES = {
+        "if (where.length() > 0) {", //$NON-NLS-1$
+        "WHERE(where);", //$NON-NLS-1$
+        "}" //$NON-NLS-1$
+    };
+    
+    private static final String[] ENDING_METHOD_LINES = {
+        "if (where.length() > 0) {", //$NON-NLS-1$
+        "sql.WHERE(where);", //$NON-NLS-1$
+        "}" //$NON-NLS-1$
+    };
+
+    private static final String[] BUILD_WHERE_METHOD_LINES = {
+        "String parmPrefix = includeExamplePhrase ? \"#{example.oredCriteria[\" : \"#{oredCriteria[\";", //$NON-NLS-1$
+        "StringBuilder sb = new StringBuilder(256);", //$NON-NLS-1$
         "List<Criteria> oredCriteria = example.getOredCriteria();", //$NON-NLS-1$
         "boolean firstCriteria = true;", //$NON-NLS-1$
         "for (int i = 0; i < oredCriteria.size(); i++) {", //$NON-NLS-1$
@@ -65,68 +87,146 @@ public class ProviderApplyWhereMethodGenerator extends
         "} else {", //$NON-NLS-1$
         "sb.append(\" or \");", //$NON-NLS-1$
         "}", //$NON-NLS-1$
-        "", //$NON-NLS-1$        
+        "", //$NON-NLS-1$
         "sb.append('(');", //$NON-NLS-1$
         "List<Criterion> criterions = criteria.getAllCriteria();", //$NON-NLS-1$
-        "boolean firstCriterion = true;", //$NON-NLS-1$
         "for (int j = 0; j < criterions.size(); j++) {", //$NON-NLS-1$
         "Criterion criterion = criterions.get(j);", //$NON-NLS-1$
-        "if (firstCriterion) {", //$NON-NLS-1$
-        "firstCriterion = false;", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
+        "if (j > 0) {", //$NON-NLS-1$
         "sb.append(\" and \");", //$NON-NLS-1$
         "}", //$NON-NLS-1$
         "", //$NON-NLS-1$
-        "if (criterion.isNoValue()) {", //$NON-NLS-1$
+        "if (criterion.isListValue()) {" //$NON-NLS-1$
+    };
+
+    private static final String[] LIST_VALUE_LINES = {
         "sb.append(criterion.getCondition());", //$NON-NLS-1$
-        "} else if (criterion.isSingleValue()) {", //$NON-NLS-1$
-        "if (criterion.getTypeHandler() == null) {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase1, criterion.getCondition(), i, j));", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase1_th, criterion.getCondition(), i, j,criterion.getTypeHandler()));", //$NON-NLS-1$
+        "sb.append(\" (\");", //$NON-NLS-1$
+        "List<?> listItems = (List<?>) criterion.getValue();", //$NON-NLS-1$
+        "for (int k = 0; k < listItems.size(); k++) {", //$NON-NLS-1$
+        "if (k > 0) {", //$NON-NLS-1$
+        "sb.append(\", \");", //$NON-NLS-1$
         "}", //$NON-NLS-1$
-        "} else if (criterion.isBetweenValue()) {", //$NON-NLS-1$
-        "if (criterion.getTypeHandler() == null) {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase2, criterion.getCondition(), i, j, i, j));", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase2_th, criterion.getCondition(), i, j, criterion.getTypeHandler(), i, j, criterion.getTypeHandler()));", //$NON-NLS-1$
+        "sb.append(parmPrefix).append(i).append(\"].allCriteria[\").append(j).append(\"].value[\").append(k).append(']');", //$NON-NLS-1$
+        "if (criterion.getTypeHandler() != null) {", //$NON-NLS-1$
+        "sb.append(\",typeHandler=\").append(criterion.getTypeHandler());", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "sb.append('}');", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "sb.append(')');" //$NON-NLS-1$
+    };
+
+    private static final String[] PADDED_LIST_VALUE_LINES = {
+        "List<?> listItems = (List<?>) criterion.getValue();", //$NON-NLS-1$
+        "sb.append('(');", //$NON-NLS-1$
+        "for (int from = 0; from < listItems.size(); from += Criterion.IN_LIST_CHUNK_SIZE) {", //$NON-NLS-1$
+        "int to = Math.min(from + Criterion.IN_LIST_CHUNK_SIZE, listItems.size());", //$NON-NLS-1$
+        "if (from > 0) {", //$NON-NLS-1$
+        "sb.append(criterion.getListSeparator());", //$NON-NLS-1$
         "}", //$NON-NLS-1$
-        "} else if (criterion.isListValue()) {", //$NON-NLS-1$
         "sb.append(criterion.getCondition());", //$NON-NLS-1$
         "sb.append(\" (\");", //$NON-NLS-1$
-        "List<?> listItems = (List<?>) criterion.getValue();", //$NON-NLS-1$
-        "boolean comma = false;", //$NON-NLS-1$
-        "for (int k = 0; k < listItems.size(); k++) {", //$NON-NLS-1$
-        "if (comma) {", //$NON-NLS-1$
+        "int padded = Criterion.paddedSize(to - from);", //$NON-NLS-1$
+        "for (int k = 0; k < padded; k++) {", //$NON-NLS-1$
+        "if (k > 0) {", //$NON-NLS-1$
         "sb.append(\", \");", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "comma = true;", //$NON-NLS-1$
         "}", //$NON-NLS-1$
-        "if (criterion.getTypeHandler() == null) {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase3, i, j, k));", //$NON-NLS-1$
-        "} else {", //$NON-NLS-1$
-        "sb.append(String.format(parmPhrase3_th, i, j, k, criterion.getTypeHandler()));", //$NON-NLS-1$
+        "// the padding repeats the last value of the chunk", //$NON-NLS-1$
+        "sb.append(parmPrefix).append(i).append(\"].allCriteria[\").append(j).append(\"].value[\").append(Math.min(from + k, to - 1)).append(']');", //$NON-NLS-1$
+        "if (criterion.getTypeHandler() != null) {", //$NON-NLS-1$
+        "sb.append(\",typeHandler=\").append(criterion.getTypeHandler());", //$NON-NLS-1$
         "}", //$NON-NLS-1$
+        "sb.append('}');", //$NON-NLS-1$
         "}", //$NON-NLS-1$
         "sb.append(')');", //$NON-NLS-1$
         "}", //$NON-NLS-1$
+        "sb.append(')');" //$NON-NLS-1$
+    };
+
+    private static final String[] BUILD_WHERE_ENDING_LINES = {
+        "} else {", //$NON-NLS-1$
+        "sb.append(criterion.getCondition());", //$NON-NLS-1$
+        "if (criterion.isSingleValue()) {", //$NON-NLS-1$
+        "sb.append(' ');", //$NON-NLS-1$
+        "appendParameter(sb, parmPrefix, i, j, \"value\", criterion.getTypeHandler());", //$NON-NLS-1$
+        "} else if (criterion.isBetweenValue()) {", //$NON-NLS-1$
+        "sb.append(' ');", //$NON-NLS-1$
+        "appendParameter(sb, parmPrefix, i, j, \"value\", criterion.getTypeHandler());", //$NON-NLS-1$
+        "sb.append(\" and \");", //$NON-NLS-1$
+        "appendParameter(sb, parmPrefix, i, j, \"secondValue\", criterion.getTypeHandler());", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
         "}", //$NON-NLS-1$
         "sb.append(')');", //$NON-NLS-1$
         "}", //$NON-NLS-1$
         "}", //$NON-NLS-1$
-        "" //$NON-NLS-1$
+        "return sb.toString();" //$NON-NLS-1$
     };
-    
-    private static final String[] LEGACY_ENDING_METHOD_LINES = {
-        "if (sb.length() > 0) {", //$NON-NLS-1$
-        "WHERE(sb.toString());", //$NON-NLS-1$
-        "}" //$NON-NLS-1$
+
+    private static final String[] APPEND_PARAMETER_METHOD_LINES = {
+        "sb.append(parmPrefix).append(i).append(\"].allCriteria[\").append(j).append(\"].\").append(property);", //$NON-NLS-1$
+        "if (typeHandler != null) {", //$NON-NLS-1$
+        "sb.append(\",typeHandler=\").append(typeHandler);", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "sb.append('}');" //$NON-NLS-1$
     };
-    
-    private static final String[] ENDING_METHOD_LINES = {
-        "if (sb.length() > 0) {", //$NON-NLS-1$
-        "sql.WHERE(sb.toString());", //$NON-NLS-1$
-        "}" //$NON-NLS-1$
+
+    private static final String[] SHAPE_CONSTRUCTOR_LINES = {
+        "this.includeExamplePhrase = includeExamplePhrase;", //$NON-NLS-1$
+        "List<Criteria> oredCriteria = example.getOredCriteria();", //$NON-NLS-1$
+        "int size = 0;", //$NON-NLS-1$
+        "for (int i = 0; i < oredCriteria.size(); i++) {", //$NON-NLS-1$
+        "Criteria criteria = oredCriteria.get(i);", //$NON-NLS-1$
+        "if (criteria.isValid()) {", //$NON-NLS-1$
+        "size += criteria.getAllCriteria().size() + 1;", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "", //$NON-NLS-1$
+        "conditions = new String[size];", //$NON-NLS-1$
+        "typeHandlers = new String[size];", //$NON-NLS-1$
+        "codes = new int[size];", //$NON-NLS-1$
+        "int n = 0;", //$NON-NLS-1$
+        "for (int i = 0; i < oredCriteria.size(); i++) {", //$NON-NLS-1$
+        "Criteria criteria = oredCriteria.get(i);", //$NON-NLS-1$
+        "if (criteria.isValid()) {", //$NON-NLS-1$
+        "// a negative code starts the criteria at index i", //$NON-NLS-1$
+        "codes[n++] = -1 - i;", //$NON-NLS-1$
+        "List<Criterion> criterions = criteria.getAllCriteria();", //$NON-NLS-1$
+        "for (int j = 0; j < criterions.size(); j++) {", //$NON-NLS-1$
+        "Criterion criterion = criterions.get(j);", //$NON-NLS-1$
+        "conditions[n] = criterion.getCondition();", //$NON-NLS-1$
+        "typeHandlers[n] = criterion.getTypeHandler();", //$NON-NLS-1$
+        "if (criterion.isSingleValue()) {", //$NON-NLS-1$
+        "codes[n] = 1;", //$NON-NLS-1$
+        "} else if (criterion.isBetweenValue()) {", //$NON-NLS-1$
+        "codes[n] = 2;", //$NON-NLS-1$
+        "} else if (criterion.isListValue()) {", //$NON-NLS-1$
+        "codes[n] = 3 + listSize((List<?>) criterion.getValue());", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "n++;", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "", //$NON-NLS-1$
+        "int h = includeExamplePhrase ? 1 : 0;", //$NON-NLS-1$
+        "h = 31 * h + Arrays.hashCode(codes);", //$NON-NLS-1$
+        "h = 31 * h + Arrays.hashCode(conditions);", //$NON-NLS-1$
+        "hashCode = 31 * h + Arrays.hashCode(typeHandlers);" //$NON-NLS-1$
+    };
+
+    private static final String[] SHAPE_EQUALS_LINES = {
+        "if (this == obj) {", //$NON-NLS-1$
+        "return true;", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "if (!(obj instanceof WhereShape)) {", //$NON-NLS-1$
+        "return false;", //$NON-NLS-1$
+        "}", //$NON-NLS-1$
+        "WhereShape other = (WhereShape) obj;", //$NON-NLS-1$
+        "return hashCode == other.hashCode", //$NON-NLS-1$
+        "        && includeExamplePhrase == other.includeExamplePhrase", //$NON-NLS-1$
+        "        && Arrays.equals(codes, other.codes)", //$NON-NLS-1$
+        "        && Arrays.equals(conditions, other.conditions)", //$NON-NLS-1$
+        "        && Arrays.equals(typeHandlers, other.typeHandlers);" //$NON-NLS-1$
     };
     
     public ProviderApplyWhereMethodGenerator(boolean useLegacyBuilder) {
@@ -146,6 +246,12 @@ public class ProviderApplyWhereMethodGenerator extends
         
         importedTypes.add(new FullyQualifiedJavaType(
                 "java.util.List")); //$NON-NLS-1$
+        importedTypes.add(new FullyQualifiedJavaType(
+                "java.util.Arrays")); //$NON-NLS-1$
+        importedTypes.add(new FullyQualifiedJavaType(
+                "java.util.concurrent.ConcurrentHashMap")); //$NON-NLS-1$
+        importedTypes.add(new FullyQualifiedJavaType(
+                "java.util.concurrent.ConcurrentMap")); //$NON-NLS-1$
         
         FullyQualifiedJavaType fqjt = new FullyQualifiedJavaType(introspectedTable.getExampleType());
         importedTypes.add(fqjt);
@@ -183,7 +289,135 @@ public class ProviderApplyWhereMethodGenerator extends
                 introspectedTable)) {
             topLevelClass.addStaticImports(staticImports);
             topLevelClass.addImportedTypes(importedTypes);
+            addWhereCache(topLevelClass);
             topLevelClass.addMethod(method);
+            topLevelClass.addMethod(getBuildWhereMethod(fqjt));
+            topLevelClass.addMethod(getAppendParameterMethod());
+            topLevelClass.addInnerClass(getWhereShapeClass(fqjt));
+        }
+    }
+
+    private void addWhereCache(TopLevelClass topLevelClass) {
+        CommentGenerator commentGenerator = context.getCommentGenerator();
+
+        Field field = new Field("WHERE_CACHE_LIMIT", FullyQualifiedJavaType.getIntInstance()); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString(WHERE_CACHE_LIMIT);
+        commentGenerator.addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+
+        String mapType = String.format("%s<%s, String>", "ConcurrentMap", SHAPE_CLASS); //$NON-NLS-1$ //$NON-NLS-2$
+        field = new Field("WHERE_CACHE", new FullyQualifiedJavaType(mapType)); //$NON-NLS-1$
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString(String.format("new ConcurrentHashMap<%s, String>()", SHAPE_CLASS)); //$NON-NLS-1$
+        commentGenerator.addFieldComment(field, introspectedTable);
+        topLevelClass.addField(field);
+    }
+
+    private Method getBuildWhereMethod(FullyQualifiedJavaType exampleType) {
+        Method method = new Method("buildWhere"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addParameter(new Parameter(exampleType, "example")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(), "includeExamplePhrase")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+        for (String methodLine : BUILD_WHERE_METHOD_LINES) {
+            method.addBodyLine(methodLine);
+        }
+        for (String methodLine : context.isInListPadding()
+                ? PADDED_LIST_VALUE_LINES : LIST_VALUE_LINES) {
+            method.addBodyLine(methodLine);
+        }
+        for (String methodLine : BUILD_WHERE_ENDING_LINES) {
+            method.addBodyLine(methodLine);
+        }
+        return method;
+    }
+
+    private Method getAppendParameterMethod() {
+        Method method = new Method("appendParameter"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("StringBuilder"), "sb")); //$NON-NLS-1$ //$NON-NLS-2$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "parmPrefix")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "i")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "j")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "property")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getStringInstance(), "typeHandler")); //$NON-NLS-1$
+        context.getCommentGenerator().addGeneralMethodComment(method,
+                introspectedTable);
+        for (String methodLine : APPEND_PARAMETER_METHOD_LINES) {
+            method.addBodyLine(methodLine);
         }
+        return method;
+    }
+
+    private InnerClass getWhereShapeClass(FullyQualifiedJavaType exampleType) {
+        InnerClass answer = new InnerClass(SHAPE_CLASS);
+        answer.setVisibility(JavaVisibility.PRIVATE);
+        answer.setStatic(true);
+        answer.setFinal(true);
+        context.getCommentGenerator().addClassComment(answer,
+                introspectedTable);
+
+        answer.addField(getFinalField("includeExamplePhrase", FullyQualifiedJavaType.getBooleanPrimitiveInstance())); //$NON-NLS-1$
+        answer.addField(getFinalField("conditions", new FullyQualifiedJavaType("String[]"))); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addField(getFinalField("typeHandlers", new FullyQualifiedJavaType("String[]"))); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addField(getFinalField("codes", new FullyQualifiedJavaType("int[]"))); //$NON-NLS-1$ //$NON-NLS-2$
+        answer.addField(getFinalField("hashCode", FullyQualifiedJavaType.getIntInstance())); //$NON-NLS-1$
+
+        Method method = new Method(SHAPE_CLASS);
+        method.setConstructor(true);
+        method.addParameter(new Parameter(exampleType, "example")); //$NON-NLS-1$
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(), "includeExamplePhrase")); //$NON-NLS-1$
+        for (String methodLine : SHAPE_CONSTRUCTOR_LINES) {
+            method.addBodyLine(methodLine);
+        }
+        answer.addMethod(method);
+
+        method = new Method("listSize"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PRIVATE);
+        method.setStatic(true);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(new FullyQualifiedJavaType("List<?>"), "values")); //$NON-NLS-1$ //$NON-NLS-2$
+        if (context.isInListPadding()) {
+            // lists rendered with the same number of parameters share a shape
+            method.addBodyLine("return Criterion.paddedListSize(values.size());"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("return values.size();"); //$NON-NLS-1$
+        }
+        answer.addMethod(method);
+
+        method = new Method("hashCode"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addAnnotation("@Override"); //$NON-NLS-1$
+        method.addBodyLine("return hashCode;"); //$NON-NLS-1$
+        answer.addMethod(method);
+
+        method = new Method("equals"); //$NON-NLS-1$
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setReturnType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getObjectInstance(), "obj")); //$NON-NLS-1$
+        method.addAnnotation("@Override"); //$NON-NLS-1$
+        for (String methodLine : SHAPE_EQUALS_LINES) {
+            method.addBodyLine(methodLine);
+        }
+        answer.addMethod(method);
+
+        return answer;
+    }
+
+    private static Field getFinalField(String name, FullyQualifiedJavaType type) {
+        Field field = new Field(name, type);
+        field.setVisibility(JavaVisibility.PRIVATE);
+        field.setFinal(true);
+        return field;
     }
 }
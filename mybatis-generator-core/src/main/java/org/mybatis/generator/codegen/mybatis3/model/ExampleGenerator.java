@@ -16,6 +16,7 @@
 package org.mybatis.generator.codegen.mybatis3.model;
 
 import static org.mybatis.generator.internal.util.JavaBeansUtil.getGetterMethodName;
+import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
@@ -36,6 +37,7 @@ import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
 import org.mybatis.generator.api.dom.java.TopLevelClass;
 import org.mybatis.generator.codegen.AbstractJavaGenerator;
+import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
 
 /**
@@ -45,6 +47,13 @@ import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
  */
 public class ExampleGenerator extends AbstractJavaGenerator {
 
+    /**
+     * True if the generated Example recycles its Criteria on clear() and
+     * keeps the capacity of its lists, see
+     * {@link PropertyRegistry#MODEL_GENERATOR_REUSABLE_EXAMPLES}.
+     */
+    private boolean reusable;
+
     public ExampleGenerator() {
         super();
     }
@@ -55,6 +64,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         progressCallback.startTask(getString(
                 "Progress.6", table.toString())); //$NON-NLS-1$
         CommentGenerator commentGenerator = context.getCommentGenerator();
+        reusable = isReusableExamplesEnabled();
 
         FullyQualifiedJavaType type = new FullyQualifiedJavaType(
                 introspectedTable.getExampleType());
@@ -67,7 +77,12 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method.setVisibility(JavaVisibility.PUBLIC);
         method.setConstructor(true);
         method.setName(type.getShortName());
-        method.addBodyLine("oredCriteria = new ArrayList<Criteria>();"); //$NON-NLS-1$
+        if (reusable) {
+            // most examples hold a single criteria
+            method.addBodyLine("oredCriteria = new ArrayList<Criteria>(1);"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("oredCriteria = new ArrayList<Criteria>();"); //$NON-NLS-1$
+        }
 
         commentGenerator.addGeneralMethodComment(method, introspectedTable);
         topLevelClass.addMethod(method);
@@ -134,6 +149,16 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         commentGenerator.addFieldComment(field, introspectedTable);
         topLevelClass.addField(field);
 
+        if (reusable) {
+            // criteria released by clear(), handed out again by createCriteriaInternal()
+            field = new Field();
+            field.setVisibility(JavaVisibility.PROTECTED);
+            field.setType(fqjt);
+            field.setName("spareCriteria"); //$NON-NLS-1$
+            commentGenerator.addFieldComment(field, introspectedTable);
+            topLevelClass.addField(field);
+        }
+
         method = new Method();
         method.setVisibility(JavaVisibility.PUBLIC);
         method.setReturnType(fqjt);
@@ -177,7 +202,17 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method.setVisibility(JavaVisibility.PROTECTED);
         method.setName("createCriteriaInternal"); //$NON-NLS-1$
         method.setReturnType(FullyQualifiedJavaType.getCriteriaInstance());
-        method.addBodyLine("Criteria criteria = new Criteria();"); //$NON-NLS-1$
+        if (reusable) {
+            method.addBodyLine("Criteria criteria;"); //$NON-NLS-1$
+            method.addBodyLine("if (spareCriteria != null && !spareCriteria.isEmpty()) {"); //$NON-NLS-1$
+            method.addBodyLine("criteria = spareCriteria.remove(spareCriteria.size() - 1);"); //$NON-NLS-1$
+            method.addBodyLine("} else {"); //$NON-NLS-1$
+            method.addBodyLine("criteria = new Criteria();"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("criteria.reusable = true;"); //$NON-NLS-1$
+        } else {
+            method.addBodyLine("Criteria criteria = new Criteria();"); //$NON-NLS-1$
+        }
         method.addBodyLine("return criteria;"); //$NON-NLS-1$
         commentGenerator.addGeneralMethodComment(method, introspectedTable);
         topLevelClass.addMethod(method);
@@ -185,6 +220,21 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method = new Method();
         method.setVisibility(JavaVisibility.PUBLIC);
         method.setName("clear"); //$NON-NLS-1$
+        if (reusable) {
+            // only criteria created by this example are recycled, criteria
+            // passed to or(Criteria) belong to the caller
+            method.addBodyLine("for (int i = 0; i < oredCriteria.size(); i++) {"); //$NON-NLS-1$
+            method.addBodyLine("Criteria criteria = oredCriteria.get(i);"); //$NON-NLS-1$
+            method.addBodyLine("if (criteria.reusable) {"); //$NON-NLS-1$
+            method.addBodyLine("criteria.reusable = false;"); //$NON-NLS-1$
+            method.addBodyLine("criteria.clear();"); //$NON-NLS-1$
+            method.addBodyLine("if (spareCriteria == null) {"); //$NON-NLS-1$
+            method.addBodyLine("spareCriteria = new ArrayList<Criteria>(oredCriteria.size());"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("spareCriteria.add(criteria);"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+        }
         method.addBodyLine("oredCriteria.clear();"); //$NON-NLS-1$
         method.addBodyLine("orderByClause = null;"); //$NON-NLS-1$
         method.addBodyLine("distinct = false;"); //$NON-NLS-1$
@@ -351,9 +401,81 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method.addBodyLine("this(condition, value, secondValue, null);"); //$NON-NLS-1$
         answer.addMethod(method);
 
+        if (context.isInListPadding()) {
+            addInListPaddingElements(answer);
+        }
+
         return answer;
     }
 
+    /**
+     * Adds the helpers of padded IN lists to the Criterion class. The where
+     * clauses render the list in chunks of at most
+     * <code>IN_LIST_CHUNK_SIZE</code> values, and every chunk is padded to
+     * a power of two by repeating its last value.
+     *
+     * @param criterion
+     *            the Criterion inner class
+     */
+    private void addInListPaddingElements(InnerClass criterion) {
+        Field field = new Field();
+        field.setName("IN_LIST_CHUNK_SIZE"); //$NON-NLS-1$
+        field.setType(FullyQualifiedJavaType.getIntInstance());
+        field.setVisibility(JavaVisibility.PUBLIC);
+        field.setStatic(true);
+        field.setFinal(true);
+        field.setInitializationString(Integer.toString(context.getInListChunkSize()));
+        criterion.addField(field);
+
+        Method method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setName("paddedSize"); //$NON-NLS-1$
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "size")); //$NON-NLS-1$
+        method.addBodyLine("int padded = size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;"); //$NON-NLS-1$
+        method.addBodyLine("return Math.min(padded, IN_LIST_CHUNK_SIZE);"); //$NON-NLS-1$
+        criterion.addMethod(method);
+
+        method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setStatic(true);
+        method.setName("paddedListSize"); //$NON-NLS-1$
+        method.setReturnType(FullyQualifiedJavaType.getIntInstance());
+        method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "size")); //$NON-NLS-1$
+        method.addBodyLine("return size / IN_LIST_CHUNK_SIZE * IN_LIST_CHUNK_SIZE + paddedSize(size % IN_LIST_CHUNK_SIZE);"); //$NON-NLS-1$
+        criterion.addMethod(method);
+
+        method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName("getListChunks"); //$NON-NLS-1$
+        method.setReturnType(FullyQualifiedJavaType.getInstance("java.util.List<java.util.List<?>>")); //$NON-NLS-1$
+        method.addBodyLine("List<?> values = (List<?>) value;"); //$NON-NLS-1$
+        method.addBodyLine("List<List<?>> chunks = new ArrayList<List<?>>(values.size() / IN_LIST_CHUNK_SIZE + 1);"); //$NON-NLS-1$
+        method.addBodyLine("for (int from = 0; from < values.size(); from += IN_LIST_CHUNK_SIZE) {"); //$NON-NLS-1$
+        method.addBodyLine("int to = Math.min(from + IN_LIST_CHUNK_SIZE, values.size());"); //$NON-NLS-1$
+        method.addBodyLine("int padded = paddedSize(to - from);"); //$NON-NLS-1$
+        method.addBodyLine("List<Object> chunk = new ArrayList<Object>(padded);"); //$NON-NLS-1$
+        method.addBodyLine("chunk.addAll(values.subList(from, to));"); //$NON-NLS-1$
+        method.addBodyLine("Object last = values.get(to - 1);"); //$NON-NLS-1$
+        method.addBodyLine("while (chunk.size() < padded) {"); //$NON-NLS-1$
+        method.addBodyLine("chunk.add(last);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("chunks.add(chunk);"); //$NON-NLS-1$
+        method.addBodyLine("}"); //$NON-NLS-1$
+        method.addBodyLine("return chunks;"); //$NON-NLS-1$
+        criterion.addMethod(method);
+
+        // the chunks of a "not in" condition must all hold
+        method = new Method();
+        method.setVisibility(JavaVisibility.PUBLIC);
+        method.setName("getListSeparator"); //$NON-NLS-1$
+        method.setReturnType(FullyQualifiedJavaType.getStringInstance());
+        method.addBodyLine("String trimmed = condition.trim();"); //$NON-NLS-1$
+        method.addBodyLine("return trimmed.regionMatches(true, trimmed.length() - 6, \"not in\", 0, 6) ? \" and \" : \" or \";"); //$NON-NLS-1$
+        criterion.addMethod(method);
+    }
+
     private InnerClass getCriteriaInnerClass() {
         Method method;
 
@@ -445,7 +567,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         if (criteriaLists.size() > 1) {
             field = new Field();
             field.setName("allCriteria"); //$NON-NLS-1$
-            field.setType(new FullyQualifiedJavaType("List<Criterion>")); //$NON-NLS-1$
+            field.setType(FullyQualifiedJavaType.getInstance("List<Criterion>")); //$NON-NLS-1$
             field.setVisibility(JavaVisibility.PROTECTED);
             answer.addField(field);
         }
@@ -453,9 +575,40 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method = new Method();
         method.setVisibility(JavaVisibility.PUBLIC);
         method.setName("getAllCriteria"); //$NON-NLS-1$
-        method.setReturnType(new FullyQualifiedJavaType("List<Criterion>")); //$NON-NLS-1$
+        method.setReturnType(FullyQualifiedJavaType.getInstance("List<Criterion>")); //$NON-NLS-1$
         if (criteriaLists.size() < 2) {
             method.addBodyLine("return criteria;"); //$NON-NLS-1$
+        } else if (reusable) {
+            // refill the same list, and only when a criterion was added
+            // since the last call
+            sb.setLength(0);
+            sb.append("int size = "); //$NON-NLS-1$
+            strIter = criteriaLists.iterator();
+            while (strIter.hasNext()) {
+                sb.append(strIter.next());
+                sb.append(".size()"); //$NON-NLS-1$
+                if (strIter.hasNext()) {
+                    sb.append(" + "); //$NON-NLS-1$
+                }
+            }
+            sb.append(';');
+            method.addBodyLine(sb.toString());
+            method.addBodyLine("if (allCriteria == null) {"); //$NON-NLS-1$
+            method.addBodyLine("allCriteria = new ArrayList<Criterion>(size);"); //$NON-NLS-1$
+            method.addBodyLine("} else if (allCriteria.size() == size) {"); //$NON-NLS-1$
+            method.addBodyLine("return allCriteria;"); //$NON-NLS-1$
+            method.addBodyLine("} else {"); //$NON-NLS-1$
+            method.addBodyLine("allCriteria.clear();"); //$NON-NLS-1$
+            method.addBodyLine("}"); //$NON-NLS-1$
+
+            strIter = criteriaLists.iterator();
+            while (strIter.hasNext()) {
+                String list = strIter.next();
+                method.addBodyLine(String.format("for (int i = 0; i < %s.size(); i++) {", list)); //$NON-NLS-1$
+                method.addBodyLine(String.format("allCriteria.add(%s.get(i));", list)); //$NON-NLS-1$
+                method.addBodyLine("}"); //$NON-NLS-1$
+            }
+            method.addBodyLine("return allCriteria;"); //$NON-NLS-1$
         } else {
             method.addBodyLine("if (allCriteria == null) {"); //$NON-NLS-1$
             method.addBodyLine("allCriteria = new ArrayList<Criterion>();"); //$NON-NLS-1$
@@ -469,6 +622,28 @@ public class ExampleGenerator extends AbstractJavaGenerator {
             method.addBodyLine("return allCriteria;"); //$NON-NLS-1$
         }
         answer.addMethod(method);
+
+        if (reusable) {
+            field = new Field();
+            field.setName("reusable"); //$NON-NLS-1$
+            field.setType(FullyQualifiedJavaType.getBooleanPrimitiveInstance());
+            field.setVisibility(JavaVisibility.PROTECTED);
+            answer.addField(field);
+
+            method = new Method();
+            method.setVisibility(JavaVisibility.PROTECTED);
+            method.setName("clear"); //$NON-NLS-1$
+            strIter = criteriaLists.iterator();
+            while (strIter.hasNext()) {
+                method.addBodyLine(String.format("%s.clear();", strIter.next())); //$NON-NLS-1$
+            }
+            if (criteriaLists.size() > 1) {
+                method.addBodyLine("if (allCriteria != null) {"); //$NON-NLS-1$
+                method.addBodyLine("allCriteria.clear();"); //$NON-NLS-1$
+                method.addBodyLine("}"); //$NON-NLS-1$
+            }
+            answer.addMethod(method);
+        }
         
         // now we need to generate the methods that will be used in the SqlMap
         // to generate the dynamic where clause
@@ -479,7 +654,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         field = new Field();
         field.setVisibility(JavaVisibility.PROTECTED);
-        FullyQualifiedJavaType listOfCriterion = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType listOfCriterion = FullyQualifiedJavaType.getInstance(
                 "java.util.List<Criterion>"); //$NON-NLS-1$
         field.setType(listOfCriterion);
         field.setName("criteria"); //$NON-NLS-1$
@@ -504,7 +679,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
                 .addBodyLine("throw new RuntimeException(\"Value for condition cannot be null\");"); //$NON-NLS-1$
         method.addBodyLine("}"); //$NON-NLS-1$
         method.addBodyLine("criteria.add(new Criterion(condition));"); //$NON-NLS-1$
-        if (criteriaLists.size() > 1) {
+        if (criteriaLists.size() > 1 && !reusable) {
             method.addBodyLine("allCriteria = null;"); //$NON-NLS-1$
         }
         answer.addMethod(method);
@@ -523,7 +698,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
                 .addBodyLine("throw new RuntimeException(\"Value for \" + property + \" cannot be null\");"); //$NON-NLS-1$
         method.addBodyLine("}"); //$NON-NLS-1$
         method.addBodyLine("criteria.add(new Criterion(condition, value));"); //$NON-NLS-1$
-        if (criteriaLists.size() > 1) {
+        if (criteriaLists.size() > 1 && !reusable) {
             method.addBodyLine("allCriteria = null;"); //$NON-NLS-1$
         }
         answer.addMethod(method);
@@ -545,19 +720,21 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method.addBodyLine("}"); //$NON-NLS-1$
         method
                 .addBodyLine("criteria.add(new Criterion(condition, value1, value2));"); //$NON-NLS-1$
-        if (criteriaLists.size() > 1) {
+        if (criteriaLists.size() > 1 && !reusable) {
             method.addBodyLine("allCriteria = null;"); //$NON-NLS-1$
         }
         answer.addMethod(method);
 
-        FullyQualifiedJavaType listOfDates = new FullyQualifiedJavaType(
+        FullyQualifiedJavaType listOfDates = FullyQualifiedJavaType.getInstance(
                 "java.util.List<java.util.Date>"); //$NON-NLS-1$
 
         if (introspectedTable.hasJDBCDateColumns()) {
             topLevelClass.addImportedType(FullyQualifiedJavaType
                     .getDateInstance());
-            topLevelClass.addImportedType(FullyQualifiedJavaType
-                    .getNewIteratorInstance());
+            if (!reusable) {
+                topLevelClass.addImportedType(FullyQualifiedJavaType
+                        .getNewIteratorInstance());
+            }
             method = new Method();
             method.setVisibility(JavaVisibility.PROTECTED);
             method.setName("addCriterionForJDBCDate"); //$NON-NLS-1$
@@ -587,13 +764,22 @@ public class ExampleGenerator extends AbstractJavaGenerator {
             method
                     .addBodyLine("throw new RuntimeException(\"Value list for \" + property + \" cannot be null or empty\");"); //$NON-NLS-1$
             method.addBodyLine("}"); //$NON-NLS-1$
-            method
-                    .addBodyLine("List<java.sql.Date> dateList = new ArrayList<java.sql.Date>();"); //$NON-NLS-1$
-            method.addBodyLine("Iterator<Date> iter = values.iterator();"); //$NON-NLS-1$
-            method.addBodyLine("while (iter.hasNext()) {"); //$NON-NLS-1$
-            method
-                    .addBodyLine("dateList.add(new java.sql.Date(iter.next().getTime()));"); //$NON-NLS-1$
-            method.addBodyLine("}"); //$NON-NLS-1$
+            if (reusable) {
+                method
+                        .addBodyLine("List<java.sql.Date> dateList = new ArrayList<java.sql.Date>(values.size());"); //$NON-NLS-1$
+                method.addBodyLine("for (Date value : values) {"); //$NON-NLS-1$
+                method
+                        .addBodyLine("dateList.add(new java.sql.Date(value.getTime()));"); //$NON-NLS-1$
+                method.addBodyLine("}"); //$NON-NLS-1$
+            } else {
+                method
+                        .addBodyLine("List<java.sql.Date> dateList = new ArrayList<java.sql.Date>();"); //$NON-NLS-1$
+                method.addBodyLine("Iterator<Date> iter = values.iterator();"); //$NON-NLS-1$
+                method.addBodyLine("while (iter.hasNext()) {"); //$NON-NLS-1$
+                method
+                        .addBodyLine("dateList.add(new java.sql.Date(iter.next().getTime()));"); //$NON-NLS-1$
+                method.addBodyLine("}"); //$NON-NLS-1$
+            }
             method.addBodyLine("addCriterion(condition, dateList, property);"); //$NON-NLS-1$
             answer.addMethod(method);
 
@@ -620,8 +806,10 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         if (introspectedTable.hasJDBCTimeColumns()) {
             topLevelClass.addImportedType(FullyQualifiedJavaType
                     .getDateInstance());
-            topLevelClass.addImportedType(FullyQualifiedJavaType
-                    .getNewIteratorInstance());
+            if (!reusable) {
+                topLevelClass.addImportedType(FullyQualifiedJavaType
+                        .getNewIteratorInstance());
+            }
             method = new Method();
             method.setVisibility(JavaVisibility.PROTECTED);
             method.setName("addCriterionForJDBCTime"); //$NON-NLS-1$
@@ -651,13 +839,22 @@ public class ExampleGenerator extends AbstractJavaGenerator {
             method
                     .addBodyLine("throw new RuntimeException(\"Value list for \" + property + \" cannot be null or empty\");"); //$NON-NLS-1$
             method.addBodyLine("}"); //$NON-NLS-1$
-            method
-                    .addBodyLine("List<java.sql.Time> timeList = new ArrayList<java.sql.Time>();"); //$NON-NLS-1$
-            method.addBodyLine("Iterator<Date> iter = values.iterator();"); //$NON-NLS-1$
-            method.addBodyLine("while (iter.hasNext()) {"); //$NON-NLS-1$
-            method
-                    .addBodyLine("timeList.add(new java.sql.Time(iter.next().getTime()));"); //$NON-NLS-1$
-            method.addBodyLine("}"); //$NON-NLS-1$
+            if (reusable) {
+                method
+                        .addBodyLine("List<java.sql.Time> timeList = new ArrayList<java.sql.Time>(values.size());"); //$NON-NLS-1$
+                method.addBodyLine("for (Date value : values) {"); //$NON-NLS-1$
+                method
+                        .addBodyLine("timeList.add(new java.sql.Time(value.getTime()));"); //$NON-NLS-1$
+                method.addBodyLine("}"); //$NON-NLS-1$
+            } else {
+                method
+                        .addBodyLine("List<java.sql.Time> timeList = new ArrayList<java.sql.Time>();"); //$NON-NLS-1$
+                method.addBodyLine("Iterator<Date> iter = values.iterator();"); //$NON-NLS-1$
+                method.addBodyLine("while (iter.hasNext()) {"); //$NON-NLS-1$
+                method
+                        .addBodyLine("timeList.add(new java.sql.Time(iter.next().getTime()));"); //$NON-NLS-1$
+                method.addBodyLine("}"); //$NON-NLS-1$
+            }
             method.addBodyLine("addCriterion(condition, timeList, property);"); //$NON-NLS-1$
             answer.addMethod(method);
 
@@ -977,7 +1174,7 @@ public class ExampleGenerator extends AbstractJavaGenerator {
 
         Field field = new Field();
         field.setVisibility(JavaVisibility.PROTECTED);
-        field.setType(new FullyQualifiedJavaType("java.util.List<Criterion>")); //$NON-NLS-1$
+        field.setType(FullyQualifiedJavaType.getInstance("java.util.List<Criterion>")); //$NON-NLS-1$
         field.setName(answer);
         innerClass.addField(field);
 
@@ -1021,7 +1218,9 @@ public class ExampleGenerator extends AbstractJavaGenerator {
         method.addBodyLine(
                 String.format("%s.add(new Criterion(condition, value, \"%s\"));", //$NON-NLS-1$
                         field.getName(), introspectedColumn.getTypeHandler()));
-        method.addBodyLine("allCriteria = null;"); //$NON-NLS-1$
+        if (!reusable) {
+            method.addBodyLine("allCriteria = null;"); //$NON-NLS-1$
+        }
         innerClass.addMethod(method);
 
         sb.setLength(0);
@@ -1052,9 +1251,27 @@ public class ExampleGenerator extends AbstractJavaGenerator {
                 String.format("%s.add(new Criterion(condition, value1, value2, \"%s\"));", //$NON-NLS-1$
                         field.getName(), introspectedColumn.getTypeHandler()));
         
-        method.addBodyLine("allCriteria = null;"); //$NON-NLS-1$
+        if (!reusable) {
+            method.addBodyLine("allCriteria = null;"); //$NON-NLS-1$
+        }
         innerClass.addMethod(method);
 
         return answer;
     }
+
+    /**
+     * Checks if reusable examples are enabled. The table property overrides
+     * the property of the java model generator.
+     *
+     * @return true, if reusable examples are enabled
+     */
+    private boolean isReusableExamplesEnabled() {
+        String value = introspectedTable.getTableConfigurationProperty(
+                PropertyRegistry.MODEL_GENERATOR_REUSABLE_EXAMPLES);
+        if (value == null) {
+            value = context.getJavaModelGeneratorConfiguration().getProperty(
+                    PropertyRegistry.MODEL_GENERATOR_REUSABLE_EXAMPLES);
+        }
+        return isTrue(value);
+    }
 }
@@ -162,10 +162,31 @@ public class ExampleWhereClauseElementGenerator extends
 
         when = new XmlElement("when"); //$NON-NLS-1$
         when.addAttribute(new Attribute("test", "criterion.listValue")); //$NON-NLS-1$ //$NON-NLS-2$
-        when.addElement(new TextElement("and ${criterion.condition}")); //$NON-NLS-1$
         XmlElement innerForEach = new XmlElement("foreach"); //$NON-NLS-1$
-        innerForEach
-                .addAttribute(new Attribute("collection", "criterion.value")); //$NON-NLS-1$ //$NON-NLS-2$
+        if (context.isInListPadding()) {
+            // padded chunks, so the statement only changes when the number
+            // of parameters crosses a power of two
+            when.addElement(new TextElement("and")); //$NON-NLS-1$
+            XmlElement chunkForEach = new XmlElement("foreach"); //$NON-NLS-1$
+            chunkForEach.addAttribute(new Attribute("collection", "criterion.listChunks")); //$NON-NLS-1$ //$NON-NLS-2$
+            chunkForEach.addAttribute(new Attribute("item", "listChunk")); //$NON-NLS-1$ //$NON-NLS-2$
+            chunkForEach.addAttribute(new Attribute("index", "chunkIndex")); //$NON-NLS-1$ //$NON-NLS-2$
+            chunkForEach.addAttribute(new Attribute("open", "(")); //$NON-NLS-1$ //$NON-NLS-2$
+            chunkForEach.addAttribute(new Attribute("close", ")")); //$NON-NLS-1$ //$NON-NLS-2$
+            XmlElement separatorElement = new XmlElement("if"); //$NON-NLS-1$
+            separatorElement.addAttribute(new Attribute("test", "chunkIndex > 0")); //$NON-NLS-1$ //$NON-NLS-2$
+            separatorElement.addElement(new TextElement("${criterion.listSeparator}")); //$NON-NLS-1$
+            chunkForEach.addElement(separatorElement);
+            chunkForEach.addElement(new TextElement("${criterion.condition}")); //$NON-NLS-1$
+            chunkForEach.addElement(innerForEach);
+            when.addElement(chunkForEach);
+            innerForEach.addAttribute(new Attribute("collection", "listChunk")); //$NON-NLS-1$ //$NON-NLS-2$
+        } else {
+            when.addElement(new TextElement("and ${criterion.condition}")); //$NON-NLS-1$
+            when.addElement(innerForEach);
+            innerForEach
+                    .addAttribute(new Attribute("collection", "criterion.value")); //$NON-NLS-1$ //$NON-NLS-2$
+        }
         innerForEach.addAttribute(new Attribute("item", "listItem")); //$NON-NLS-1$ //$NON-NLS-2$
         innerForEach.addAttribute(new Attribute("open", "(")); //$NON-NLS-1$ //$NON-NLS-2$
         innerForEach.addAttribute(new Attribute("close", ")")); //$NON-NLS-1$ //$NON-NLS-2$
@@ -177,7 +198,6 @@ public class ExampleWhereClauseElementGenerator extends
         }
         sb.append('}');
         innerForEach.addElement(new TextElement(sb.toString()));
-        when.addElement(innerForEach);
         chooseElement.addElement(when);
 
         return middleForEachElement;
@@ -18,6 +18,7 @@ package org.mybatis.generator.config;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,6 +41,9 @@ public class Configuration {
     /** The class path entries. */
     private List<String> classPathEntries;
 
+    /** The properties files loaded while parsing the configuration. */
+    private List<URL> propertiesUrls;
+
     /**
      * Instantiates a new configuration.
      */
@@ -47,6 +51,7 @@ public class Configuration {
         super();
         contexts = new ArrayList<Context>();
         classPathEntries = new ArrayList<String>();
+        propertiesUrls = new ArrayList<URL>();
     }
 
     /**
@@ -68,6 +73,28 @@ public class Configuration {
         return classPathEntries;
     }
 
+    /**
+     * Adds the URL of a properties file referenced by a properties element of
+     * the configuration file.
+     *
+     * @param url
+     *            the url
+     */
+    public void addPropertiesUrl(URL url) {
+        propertiesUrls.add(url);
+    }
+
+    /**
+     * Gets the URLs of the properties files referenced by the configuration
+     * file. The generator does not use them after parsing, but long running
+     * callers may watch them for changes.
+     *
+     * @return the properties URLs
+     */
+    public List<URL> getPropertiesUrls() {
+        return propertiesUrls;
+    }
+
     /**
      * This method does a simple validate, it makes sure that all required fields have been filled in and that all
      * implementation classes exist and are of the proper type. It does not do any more complex operations such as:
@@ -20,16 +20,34 @@ import static org.mybatis.generator.internal.util.StringUtility.isTrue;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.ConnectionFactory;
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.GenerationMetrics;
 import org.mybatis.generator.api.JavaFormatter;
 import org.mybatis.generator.api.Plugin;
 import org.mybatis.generator.api.IntrospectedTable;
@@ -37,11 +55,18 @@ import org.mybatis.generator.api.JavaTypeResolver;
 import org.mybatis.generator.api.ProgressCallback;
 import org.mybatis.generator.api.XmlFormatter;
 import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Element;
 import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.internal.BufferedProgressCallback;
+import org.mybatis.generator.internal.GenerationManifest;
 import org.mybatis.generator.internal.JDBCConnectionFactory;
+import org.mybatis.generator.internal.NullProgressCallback;
 import org.mybatis.generator.internal.ObjectFactory;
 import org.mybatis.generator.internal.PluginAggregator;
+import org.mybatis.generator.internal.PluginTimer;
 import org.mybatis.generator.internal.db.DatabaseIntrospector;
+import org.mybatis.generator.internal.db.IntrospectionSnapshot;
+import org.mybatis.generator.internal.db.SchemaMetadataCache;
 
 /**
  * The Class Context.
@@ -108,6 +133,18 @@ public class Context extends PropertyHolder {
     
     /** The xml formatter. */
     private XmlFormatter xmlFormatter;
+
+    /** The number of connections used to introspect tables. */
+    private int introspectionThreads = 1;
+
+    /** The number of threads used to generate the files of the tables. */
+    private int generationThreads = 1;
+
+    /** True if the IN lists of the example where clauses are padded to power of two sizes. */
+    private boolean inListPadding;
+
+    /** The largest padded IN list, longer lists are split into several IN lists. */
+    private int inListChunkSize = 512;
     
     /**
      * Constructs a Context object.
@@ -256,6 +293,23 @@ public class Context extends PropertyHolder {
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             pluginConfiguration.validate(errors, id);
         }
+
+        if (introspectionThreads < 1) {
+            errors.add(getString("ValidationError.28", id)); //$NON-NLS-1$
+        }
+
+        if (generationThreads < 1) {
+            errors.add(getString("ValidationError.30", id)); //$NON-NLS-1$
+        }
+
+        if (inListChunkSize < 1) {
+            errors.add(getString("ValidationError.31", id)); //$NON-NLS-1$
+        }
+
+        if (isTrue(getProperty(PropertyRegistry.CONTEXT_OFFLINE_INTROSPECTION))
+                && !stringHasValue(getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT))) {
+            errors.add(getString("ValidationError.29", id)); //$NON-NLS-1$
+        }
     }
 
     /**
@@ -451,15 +505,62 @@ public class Context extends PropertyHolder {
         } else if (PropertyRegistry.CONTEXT_AUTO_DELIMIT_KEYWORDS.equals(name)
                 && stringHasValue(value)) {
             autoDelimitKeywords = isTrue(value);
+        } else if (PropertyRegistry.CONTEXT_INTROSPECTION_THREADS.equals(name)
+                && stringHasValue(value)) {
+            try {
+                introspectionThreads = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                // reported by validate()
+                introspectionThreads = 0;
+            }
+        } else if (PropertyRegistry.CONTEXT_GENERATION_THREADS.equals(name)
+                && stringHasValue(value)) {
+            try {
+                generationThreads = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                // reported by validate()
+                generationThreads = 0;
+            }
+        } else if (PropertyRegistry.CONTEXT_IN_LIST_PADDING.equals(name)) {
+            inListPadding = isTrue(value);
+        } else if (PropertyRegistry.CONTEXT_IN_LIST_CHUNK_SIZE.equals(name)
+                && stringHasValue(value)) {
+            try {
+                inListChunkSize = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                // reported by validate()
+                inListChunkSize = 0;
+            }
         }
     }
 
+    /**
+     * Checks if the IN lists of the example where clauses are padded. A padded
+     * IN list repeats its last value up to the next power of two, and lists
+     * longer than {@link #getInListChunkSize()} are split into several IN
+     * lists, so the number of distinct statements stays small.
+     *
+     * @return true, if IN lists are padded
+     */
+    public boolean isInListPadding() {
+        return inListPadding;
+    }
+
+    /**
+     * Gets the largest number of values of one padded IN list.
+     *
+     * @return the IN list chunk size
+     */
+    public int getInListChunkSize() {
+        return inListChunkSize;
+    }
+
     /**
      * Gets the comment generator.
      *
      * @return the comment generator
      */
-    public CommentGenerator getCommentGenerator() {
+    public synchronized CommentGenerator getCommentGenerator() {
         if (commentGenerator == null) {
             commentGenerator = ObjectFactory.createCommentGenerator(this);
         }
@@ -472,7 +573,7 @@ public class Context extends PropertyHolder {
      *
      * @return the java formatter
      */
-    public JavaFormatter getJavaFormatter() {
+    public synchronized JavaFormatter getJavaFormatter() {
         if (javaFormatter == null) {
             javaFormatter = ObjectFactory.createJavaFormatter(this);
         }
@@ -485,7 +586,7 @@ public class Context extends PropertyHolder {
      *
      * @return the xml formatter
      */
-    public XmlFormatter getXmlFormatter() {
+    public synchronized XmlFormatter getXmlFormatter() {
         if (xmlFormatter == null) {
             xmlFormatter = ObjectFactory.createXmlFormatter(this);
         }
@@ -573,6 +674,54 @@ public class Context extends PropertyHolder {
     /** The introspected tables. */
     private List<IntrospectedTable> introspectedTables;
 
+    /** The schema metadata cache of the current introspection, or null. */
+    private SchemaMetadataCache schemaMetadataCache;
+
+    /** The snapshot loaded from the previous introspection, or null. */
+    private IntrospectionSnapshot referenceSnapshot;
+
+    /** The snapshot recording the current introspection, or null. */
+    private IntrospectionSnapshot recordingSnapshot;
+
+    /** The schema metadata cache read by the last schema check, or null. */
+    private SchemaMetadataCache checkedSchemaMetadataCache;
+
+    /** The tables introspected by the last schema check, or null. */
+    private Map<String, CheckedTable> checkedTables;
+
+    /** The manifest of the current generation, or null. */
+    private GenerationManifest generationManifest;
+
+    /** The metrics of the current run, or null. */
+    private GenerationMetrics generationMetrics;
+
+    /** The connection factory that replaces the configured one, or null. */
+    private ConnectionFactory connectionFactory;
+
+    /**
+     * Sets a connection factory that is used instead of the connection
+     * factory configured for this context. Long running callers use this to
+     * keep connections open across runs.
+     *
+     * @param connectionFactory
+     *            the connection factory, or null to use the configured one
+     */
+    public void setConnectionFactory(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Sets the metrics the introspection and generation statistics are added
+     * to. When the metrics are null (the default) no statistics are
+     * collected.
+     *
+     * @param generationMetrics
+     *            the metrics, or null
+     */
+    public void setGenerationMetrics(GenerationMetrics generationMetrics) {
+        this.generationMetrics = generationMetrics;
+    }
+
     /**
      * Gets the introspection steps.
      *
@@ -621,41 +770,371 @@ public class Context extends PropertyHolder {
             throws SQLException, InterruptedException {
 
         introspectedTables = new ArrayList<IntrospectedTable>();
-        JavaTypeResolver javaTypeResolver = ObjectFactory
-                .createJavaTypeResolver(this, warnings);
 
+        List<TableConfiguration> configuredTables = getTablesToIntrospect(
+                warnings, fullyQualifiedTableNames);
+        List<TableConfiguration> tablesToIntrospect = configuredTables;
+
+        // the metadata of a schema check is used once, by the introspection
+        // right after it
+        Map<String, CheckedTable> tablesOfCheck = checkedTables;
+        SchemaMetadataCache schemaMetadataCacheOfCheck = checkedSchemaMetadataCache;
+        checkedTables = null;
+        checkedSchemaMetadataCache = null;
+
+        schemaMetadataCache = null;
+        if (isTrue(getProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION))) {
+            schemaMetadataCache = schemaMetadataCacheOfCheck == null ? new SchemaMetadataCache()
+                    : schemaMetadataCacheOfCheck;
+        }
+
+        referenceSnapshot = null;
+        recordingSnapshot = null;
+        File snapshotFile = null;
+        String snapshotFileName = getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT);
+        if (stringHasValue(snapshotFileName)) {
+            snapshotFile = new File(snapshotFileName);
+            if (snapshotFile.exists()) {
+                try {
+                    referenceSnapshot = IntrospectionSnapshot.load(snapshotFile);
+                } catch (IOException e) {
+                    warnings.add(getString("Warning.29", //$NON-NLS-1$
+                            snapshotFile.getAbsolutePath(), e.getMessage()));
+                }
+            }
+            recordingSnapshot = new IntrospectionSnapshot();
+        }
+
+        if (tablesOfCheck != null && recordingSnapshot == null) {
+            // tables introspected by the schema check are not introspected
+            // again. They are not reused when a snapshot is recorded, because
+            // the snapshot is recorded by the introspector.
+            tablesToIntrospect = new ArrayList<TableConfiguration>();
+            for (TableConfiguration tc : configuredTables) {
+                CheckedTable checkedTable = tablesOfCheck.get(composeFullyQualifiedTableName(
+                        tc.getCatalog(), tc.getSchema(), tc.getTableName(), '.'));
+                if (checkedTable == null) {
+                    tablesToIntrospect.add(tc);
+                } else {
+                    introspectedTables.addAll(checkedTable.tables);
+                    warnings.addAll(checkedTable.warnings);
+                }
+            }
+        }
+
+        try {
+            if (isTrue(getProperty(PropertyRegistry.CONTEXT_OFFLINE_INTROSPECTION))) {
+                if (referenceSnapshot == null) {
+                    warnings.add(getString("Warning.31", id, snapshotFileName)); //$NON-NLS-1$
+                } else {
+                    introspectTablesOffline(callback, warnings, tablesToIntrospect);
+                    sortIntrospectedTables(configuredTables);
+                }
+                return;
+            }
+
+            if (introspectionThreads > 1 && tablesToIntrospect.size() > 1) {
+                introspectTablesInParallel(callback, warnings, tablesToIntrospect, null);
+            } else {
+                introspectTablesSerially(callback, warnings, tablesToIntrospect, null);
+            }
+            sortIntrospectedTables(configuredTables);
+
+            if (recordingSnapshot != null) {
+                if (referenceSnapshot != null) {
+                    // keep the tables that were not introspected in this run
+                    recordingSnapshot.addMissingTables(referenceSnapshot);
+                }
+
+                try {
+                    recordingSnapshot.save(snapshotFile);
+                } catch (IOException e) {
+                    warnings.add(getString("Warning.30", //$NON-NLS-1$
+                            snapshotFile.getAbsolutePath(), e.getMessage()));
+                }
+            }
+        } finally {
+            schemaMetadataCache = null;
+            referenceSnapshot = null;
+            recordingSnapshot = null;
+        }
+    }
+
+    /**
+     * Returns the configurations of the tables to introspect.
+     *
+     * @param warnings
+     *            the warnings
+     * @param fullyQualifiedTableNames
+     *            the table names to introspect, or null or empty for all
+     *            tables
+     * @return the table configurations, in configuration order
+     */
+    private List<TableConfiguration> getTablesToIntrospect(List<String> warnings,
+            Set<String> fullyQualifiedTableNames) {
+        List<TableConfiguration> tablesToIntrospect = new ArrayList<TableConfiguration>();
+        for (TableConfiguration tc : tableConfigurations) {
+            String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                            .getSchema(), tc.getTableName(), '.');
+
+            if (fullyQualifiedTableNames != null
+                    && fullyQualifiedTableNames.size() > 0
+                    && !fullyQualifiedTableNames.contains(tableName)) {
+                continue;
+            }
+
+            if (!tc.areAnyStatementsEnabled()) {
+                warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
+                continue;
+            }
+
+            tablesToIntrospect.add(tc);
+        }
+
+        return tablesToIntrospect;
+    }
+
+    /**
+     * Calculates a fingerprint of the database schema of every table. Nothing
+     * is recorded in the introspection snapshot and no code is generated. Long
+     * running callers compare the fingerprints of two calls to find the tables
+     * that must be generated again.
+     * <p>
+     * With bulk introspection, the fingerprints are calculated from a single
+     * read of every schema; only the tables the schema read does not fully
+     * describe are introspected like in
+     * {@link #introspectTables(ProgressCallback, List, Set)}. The schema
+     * metadata and the introspected tables are kept until the next call of
+     * <code>introspectTables</code>, which uses them instead of reading the
+     * database again. Callers must therefore introspect right after the
+     * check, or check again first.
+     *
+     * @param warnings
+     *            any warning generated from this method will be added to the
+     *            List. Warnings are always Strings.
+     * @param fullyQualifiedTableNames
+     *            the table names to check, or null or empty for all tables
+     * @return the fingerprints, keyed by the fully qualified table name of
+     *         the table configuration. A table that does not exist has an
+     *         empty fingerprint.
+     * @throws SQLException
+     *             if some error arises while introspecting the tables.
+     * @throws InterruptedException
+     *             never thrown in practice, declared by the introspection
+     */
+    public Map<String, String> calculateSchemaFingerprints(List<String> warnings,
+            Set<String> fullyQualifiedTableNames) throws SQLException,
+            InterruptedException {
+        checkedTables = null;
+        checkedSchemaMetadataCache = null;
+
+        List<TableConfiguration> tablesToIntrospect = getTablesToIntrospect(
+                warnings, fullyQualifiedTableNames);
+
+        Map<String, StringBuilder> fingerprints = new LinkedHashMap<String, StringBuilder>();
+        for (TableConfiguration tc : tablesToIntrospect) {
+            fingerprints.put(composeFullyQualifiedTableName(tc.getCatalog(), tc
+                    .getSchema(), tc.getTableName(), '.'), new StringBuilder());
+        }
+
+        introspectedTables = new ArrayList<IntrospectedTable>();
+        schemaMetadataCache = null;
+        if (isTrue(getProperty(PropertyRegistry.CONTEXT_BULK_INTROSPECTION))) {
+            schemaMetadataCache = new SchemaMetadataCache();
+        }
+
+        Map<TableConfiguration, List<String>> warningsByTable = new IdentityHashMap<TableConfiguration, List<String>>();
+        Map<String, CheckedTable> tablesOfCheck = new HashMap<String, CheckedTable>();
+        ProgressCallback callback = new NullProgressCallback();
+        try {
+            if (isTrue(getProperty(PropertyRegistry.CONTEXT_OFFLINE_INTROSPECTION))) {
+                File snapshotFile = new File(getProperty(PropertyRegistry.CONTEXT_INTROSPECTION_SNAPSHOT));
+                if (snapshotFile.exists()) {
+                    try {
+                        referenceSnapshot = IntrospectionSnapshot.load(snapshotFile);
+                        introspectTablesOffline(callback, warnings, tablesToIntrospect);
+                    } catch (IOException e) {
+                        warnings.add(getString("Warning.29", //$NON-NLS-1$
+                                snapshotFile.getAbsolutePath(), e.getMessage()));
+                    }
+                }
+            } else {
+                if (schemaMetadataCache != null) {
+                    tablesToIntrospect = calculateCachedSchemaFingerprints(
+                            warnings, tablesToIntrospect, fingerprints);
+                }
+
+                if (introspectionThreads > 1 && tablesToIntrospect.size() > 1) {
+                    introspectTablesInParallel(callback, warnings, tablesToIntrospect,
+                            warningsByTable);
+                } else {
+                    introspectTablesSerially(callback, warnings, tablesToIntrospect,
+                            warningsByTable);
+                }
+
+                for (TableConfiguration tc : tablesToIntrospect) {
+                    CheckedTable checkedTable = new CheckedTable();
+                    checkedTable.warnings = warningsByTable.get(tc);
+                    tablesOfCheck.put(composeFullyQualifiedTableName(tc.getCatalog(),
+                            tc.getSchema(), tc.getTableName(), '.'), checkedTable);
+                }
+            }
+
+            for (IntrospectedTable introspectedTable : introspectedTables) {
+                TableConfiguration tc = introspectedTable.getTableConfiguration();
+                String tableName = composeFullyQualifiedTableName(
+                        tc.getCatalog(), tc.getSchema(), tc.getTableName(), '.');
+                StringBuilder sb = fingerprints.get(tableName);
+                if (sb != null) {
+                    // the hash must be calculated before the table is initialized
+                    sb.append(GenerationManifest.calculateHash(introspectedTable, "", "")); //$NON-NLS-1$ //$NON-NLS-2$
+                    sb.append(' ');
+                }
+
+                if (tablesOfCheck.containsKey(tableName)) {
+                    tablesOfCheck.get(tableName).tables.add(introspectedTable);
+                }
+            }
+
+            if (!isTrue(getProperty(PropertyRegistry.CONTEXT_OFFLINE_INTROSPECTION))) {
+                checkedTables = tablesOfCheck;
+                checkedSchemaMetadataCache = schemaMetadataCache;
+            }
+        } finally {
+            introspectedTables = null;
+            schemaMetadataCache = null;
+            referenceSnapshot = null;
+        }
+
+        Map<String, String> answer = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, StringBuilder> entry : fingerprints.entrySet()) {
+            answer.put(entry.getKey(), entry.getValue().toString());
+        }
+        return answer;
+    }
+
+    /**
+     * Calculates the fingerprints of the tables that the schema metadata cache
+     * fully describes, reading every schema once over a single connection.
+     *
+     * @param warnings
+     *            the warnings
+     * @param tablesToIntrospect
+     *            the table configurations to check
+     * @param fingerprints
+     *            the fingerprints, keyed by fully qualified table name
+     * @return the table configurations that must be introspected to calculate
+     *         their fingerprint
+     * @throws SQLException
+     *             if some error arises while reading the schemas
+     */
+    private List<TableConfiguration> calculateCachedSchemaFingerprints(
+            List<String> warnings, List<TableConfiguration> tablesToIntrospect,
+            Map<String, StringBuilder> fingerprints) throws SQLException {
+        List<TableConfiguration> answer = new ArrayList<TableConfiguration>();
+        Connection connection = null;
+        try {
+            connection = getConnection();
+            DatabaseIntrospector databaseIntrospector = createDatabaseIntrospector(
+                    connection.getMetaData(), warnings);
+
+            for (TableConfiguration tc : tablesToIntrospect) {
+                String fingerprint = databaseIntrospector.calculateSchemaFingerprint(tc);
+                if (fingerprint == null) {
+                    answer.add(tc);
+                } else {
+                    fingerprints.get(composeFullyQualifiedTableName(tc.getCatalog(),
+                            tc.getSchema(), tc.getTableName(), '.')).append(fingerprint);
+                }
+            }
+        } finally {
+            closeConnection(connection);
+        }
+
+        return answer;
+    }
+
+    /**
+     * Sorts the introspected tables in configuration order. Tables of the
+     * same configuration keep their order.
+     *
+     * @param configuredTables
+     *            the table configurations, in configuration order
+     */
+    private void sortIntrospectedTables(List<TableConfiguration> configuredTables) {
+        final Map<TableConfiguration, Integer> positions = new IdentityHashMap<TableConfiguration, Integer>();
+        for (int i = 0; i < configuredTables.size(); i++) {
+            positions.put(configuredTables.get(i), i);
+        }
+
+        Collections.sort(introspectedTables, new Comparator<IntrospectedTable>() {
+            public int compare(IntrospectedTable t1, IntrospectedTable t2) {
+                return positions.get(t1.getTableConfiguration()).compareTo(
+                        positions.get(t2.getTableConfiguration()));
+            }
+        });
+    }
+
+    /**
+     * The tables and warnings of one table configuration, introspected by a
+     * schema check.
+     */
+    private static class CheckedTable {
+        private final List<IntrospectedTable> tables = new ArrayList<IntrospectedTable>();
+        private List<String> warnings;
+    }
+
+    /**
+     * Introspects the tables one after the other over a single connection.
+     *
+     * @param callback
+     *            the progress callback
+     * @param warnings
+     *            the warnings
+     * @param tablesToIntrospect
+     *            the table configurations to introspect, in configuration order
+     * @param warningsByTable
+     *            if not null, the warnings of every table configuration are
+     *            also put in this map
+     * @throws SQLException
+     *             if some error arises while introspecting the specified
+     *             database tables.
+     * @throws InterruptedException
+     *             if the progress callback reports a cancel
+     */
+    private void introspectTablesSerially(ProgressCallback callback,
+            List<String> warnings, List<TableConfiguration> tablesToIntrospect,
+            Map<TableConfiguration, List<String>> warningsByTable)
+            throws SQLException, InterruptedException {
         Connection connection = null;
 
         try {
             callback.startTask(getString("Progress.0")); //$NON-NLS-1$
             connection = getConnection();
 
-            DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
-                    this, connection.getMetaData(), javaTypeResolver, warnings);
+            DatabaseIntrospector databaseIntrospector = createDatabaseIntrospector(
+                    connection.getMetaData(), warnings);
 
-            for (TableConfiguration tc : tableConfigurations) {
+            for (TableConfiguration tc : tablesToIntrospect) {
                 String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
                                 .getSchema(), tc.getTableName(), '.');
 
-                if (fullyQualifiedTableNames != null
-                        && fullyQualifiedTableNames.size() > 0
-                        && !fullyQualifiedTableNames.contains(tableName)) {
-                    continue;
-                }
-
-                if (!tc.areAnyStatementsEnabled()) {
-                    warnings.add(getString("Warning.0", tableName)); //$NON-NLS-1$
-                    continue;
-                }
-
                 callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+                int warningCount = warnings.size();
+                long start = System.nanoTime();
                 List<IntrospectedTable> tables = databaseIntrospector
                         .introspectTables(tc);
+                addTableTime(GenerationMetrics.INTROSPECTION, tableName, start);
 
                 if (tables != null) {
                     introspectedTables.addAll(tables);
                 }
 
+                if (warningsByTable != null) {
+                    warningsByTable.put(tc, new ArrayList<String>(
+                            warnings.subList(warningCount, warnings.size())));
+                }
+
                 callback.checkCancel();
             }
         } finally {
@@ -663,6 +1142,215 @@ public class Context extends PropertyHolder {
         }
     }
 
+    /**
+     * Introspects the tables from the snapshot of a previous run only, without
+     * connecting to the database.
+     *
+     * @param callback
+     *            the progress callback
+     * @param warnings
+     *            the warnings
+     * @param tablesToIntrospect
+     *            the table configurations to introspect, in configuration order
+     * @throws SQLException
+     *             never thrown in practice, declared by the introspector
+     * @throws InterruptedException
+     *             if the progress callback reports a cancel
+     */
+    private void introspectTablesOffline(ProgressCallback callback,
+            List<String> warnings, List<TableConfiguration> tablesToIntrospect)
+            throws SQLException, InterruptedException {
+        DatabaseIntrospector databaseIntrospector = createDatabaseIntrospector(
+                null, warnings);
+
+        for (TableConfiguration tc : tablesToIntrospect) {
+            String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                            .getSchema(), tc.getTableName(), '.');
+
+            callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+            long start = System.nanoTime();
+            List<IntrospectedTable> tables = databaseIntrospector
+                    .introspectTables(tc);
+            addTableTime(GenerationMetrics.INTROSPECTION, tableName, start);
+
+            if (tables != null) {
+                introspectedTables.addAll(tables);
+            }
+
+            callback.checkCancel();
+        }
+    }
+
+    /**
+     * Creates a database introspector wired to the schema metadata cache and
+     * snapshots of the current introspection.
+     *
+     * @param databaseMetaData
+     *            the database meta data, or null when introspecting offline
+     * @param warnings
+     *            the warnings
+     * @return the database introspector
+     * @throws SQLException
+     *             the SQL exception
+     */
+    private DatabaseIntrospector createDatabaseIntrospector(
+            DatabaseMetaData databaseMetaData, List<String> warnings)
+            throws SQLException {
+        JavaTypeResolver javaTypeResolver = ObjectFactory
+                .createJavaTypeResolver(this, warnings);
+
+        DatabaseIntrospector databaseIntrospector = new DatabaseIntrospector(
+                this, databaseMetaData, javaTypeResolver, warnings,
+                schemaMetadataCache);
+
+        if (databaseMetaData == null) {
+            databaseIntrospector.setOfflineSnapshot(referenceSnapshot);
+        } else {
+            if (referenceSnapshot != null) {
+                databaseIntrospector.setReferenceSnapshot(referenceSnapshot);
+            }
+
+            if (recordingSnapshot != null) {
+                recordingSnapshot.setIdentifierCase(
+                        databaseMetaData.storesLowerCaseIdentifiers(),
+                        databaseMetaData.storesUpperCaseIdentifiers());
+                databaseIntrospector.setRecordingSnapshot(recordingSnapshot);
+            }
+        }
+
+        return databaseIntrospector;
+    }
+
+    /**
+     * Introspects the tables on a pool of worker threads, each holding its own
+     * connection from the connection factory. Every table is introspected with
+     * its own warning list; tables and warnings are merged afterwards in
+     * configuration order so the result does not depend on thread scheduling.
+     *
+     * @param callback
+     *            the progress callback. Calls are serialized on the callback
+     *            instance.
+     * @param warnings
+     *            the warnings
+     * @param tablesToIntrospect
+     *            the table configurations to introspect, in configuration order
+     * @param warningsByTable
+     *            if not null, the warnings of every table configuration are
+     *            also put in this map
+     * @throws SQLException
+     *             if some error arises while introspecting the specified
+     *             database tables.
+     * @throws InterruptedException
+     *             if the progress callback reports a cancel
+     */
+    private void introspectTablesInParallel(final ProgressCallback callback,
+            List<String> warnings, final List<TableConfiguration> tablesToIntrospect,
+            Map<TableConfiguration, List<String>> warningsByTable)
+            throws SQLException, InterruptedException {
+
+        final int tableCount = tablesToIntrospect.size();
+        final List<List<IntrospectedTable>> tableResults = new ArrayList<List<IntrospectedTable>>(tableCount);
+        final List<List<String>> tableWarnings = new ArrayList<List<String>>(tableCount);
+        for (int i = 0; i < tableCount; i++) {
+            tableResults.add(null);
+            tableWarnings.add(null);
+        }
+
+        final ConnectionFactory connectionFactory = getConnectionFactory();
+        final AtomicInteger nextTable = new AtomicInteger();
+        final AtomicBoolean aborted = new AtomicBoolean();
+
+        callback.startTask(getString("Progress.0")); //$NON-NLS-1$
+
+        int threadCount = Math.min(introspectionThreads, tableCount);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(threadCount);
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        long startAllocatedBytes = generationMetrics != null
+                                ? GenerationMetrics.getAllocatedBytes() : -1;
+                        Connection connection = null;
+                        try {
+                            connection = connectionFactory.getConnection();
+                            DatabaseMetaData databaseMetaData = connection.getMetaData();
+
+                            int index;
+                            while (!aborted.get()
+                                    && (index = nextTable.getAndIncrement()) < tableCount) {
+                                TableConfiguration tc = tablesToIntrospect.get(index);
+                                String tableName = composeFullyQualifiedTableName(tc.getCatalog(), tc
+                                        .getSchema(), tc.getTableName(), '.');
+
+                                synchronized (callback) {
+                                    callback.startTask(getString("Progress.1", tableName)); //$NON-NLS-1$
+                                }
+
+                                List<String> localWarnings = new ArrayList<String>();
+                                DatabaseIntrospector databaseIntrospector = createDatabaseIntrospector(
+                                        databaseMetaData, localWarnings);
+
+                                long start = System.nanoTime();
+                                tableResults.set(index, databaseIntrospector.introspectTables(tc));
+                                addTableTime(GenerationMetrics.INTROSPECTION, tableName, start);
+                                tableWarnings.set(index, localWarnings);
+
+                                synchronized (callback) {
+                                    callback.checkCancel();
+                                }
+                            }
+                        } catch (Exception e) {
+                            aborted.set(true);
+                            throw e;
+                        } finally {
+                            closeConnection(connection);
+                            if (generationMetrics != null) {
+                                generationMetrics.workerCompleted(
+                                        GenerationMetrics.INTROSPECTION, startAllocatedBytes);
+                            }
+                        }
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            } else if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        } finally {
+            aborted.set(true);
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < tableCount; i++) {
+            if (tableWarnings.get(i) != null) {
+                warnings.addAll(tableWarnings.get(i));
+                if (warningsByTable != null) {
+                    warningsByTable.put(tablesToIntrospect.get(i), tableWarnings.get(i));
+                }
+            }
+
+            if (tableResults.get(i) != null) {
+                introspectedTables.addAll(tableResults.get(i));
+            }
+        }
+    }
+
     /**
      * Gets the generation steps.
      *
@@ -700,10 +1388,15 @@ public class Context extends PropertyHolder {
             throws InterruptedException {
 
         pluginAggregator = new PluginAggregator();
+        List<Class<?>> pluginClasses = new ArrayList<Class<?>>();
         for (PluginConfiguration pluginConfiguration : pluginConfigurations) {
             Plugin plugin = ObjectFactory.createPlugin(this,
                     pluginConfiguration);
+            pluginClasses.add(plugin.getClass());
             if (plugin.validate(warnings)) {
+                if (generationMetrics != null) {
+                    plugin = PluginTimer.wrap(plugin, generationMetrics);
+                }
                 pluginAggregator.addPlugin(plugin);
             } else {
                 warnings.add(getString("Warning.24", //$NON-NLS-1$
@@ -711,30 +1404,349 @@ public class Context extends PropertyHolder {
             }
         }
 
+        GenerationManifest previousManifest = null;
+        String contextConfiguration = null;
+        String codeFingerprint = null;
+        generationManifest = null;
+        if (isTrue(getProperty(PropertyRegistry.CONTEXT_INCREMENTAL_GENERATION))) {
+            generationManifest = new GenerationManifest();
+            contextConfiguration = getConfigurationWithoutTables();
+            codeFingerprint = calculateCodeFingerprint(pluginClasses);
+            previousManifest = loadPreviousGenerationManifest(warnings);
+        }
+
         if (introspectedTables != null) {
+            List<String> tableKeys = new ArrayList<String>(introspectedTables.size());
+            List<String> tableHashes = new ArrayList<String>(introspectedTables.size());
             for (IntrospectedTable introspectedTable : introspectedTables) {
-                callback.checkCancel();
+                String tableKey = null;
+                String tableHash = null;
+                if (generationManifest != null) {
+                    // the hash must be calculated before the table is initialized
+                    tableKey = GenerationManifest.getTableKey(introspectedTable);
+                    tableHash = GenerationManifest.calculateHash(
+                            introspectedTable, contextConfiguration,
+                            codeFingerprint);
+                    if (previousManifest != null
+                            && previousManifest.isUpToDate(tableKey, tableHash)) {
+                        // nothing to generate
+                        tableHash = null;
+                    }
+                }
+                tableKeys.add(tableKey);
+                tableHashes.add(tableHash);
+            }
 
-                introspectedTable.initialize();
-                introspectedTable.calculateGenerators(warnings, callback);
-                generatedJavaFiles.addAll(introspectedTable
-                        .getGeneratedJavaFiles());
-                generatedXmlFiles.addAll(introspectedTable
-                        .getGeneratedXmlFiles());
+            List<Future<TableFiles>> futures = null;
+            ExecutorService executor = null;
+            if (generationThreads > 1 && introspectedTables.size() > 1) {
+                Plugin plugin = pluginAggregator.getContextFileGeneratingPlugin();
+                if (plugin == null) {
+                    executor = Executors.newFixedThreadPool(
+                            Math.min(generationThreads, introspectedTables.size()));
+                    futures = submitTableGenerations(executor, callback, tableKeys, tableHashes);
+                } else {
+                    warnings.add(getString("Warning.35", //$NON-NLS-1$
+                            id, plugin.getClass().getName()));
+                }
+            }
 
-                generatedJavaFiles.addAll(pluginAggregator
-                        .contextGenerateAdditionalJavaFiles(introspectedTable));
-                generatedXmlFiles.addAll(pluginAggregator
-                        .contextGenerateAdditionalXmlFiles(introspectedTable));
+            try {
+                for (int i = 0; i < introspectedTables.size(); i++) {
+                    IntrospectedTable introspectedTable = introspectedTables.get(i);
+                    String tableKey = tableKeys.get(i);
+                    String tableHash = tableHashes.get(i);
+
+                    callback.checkCancel();
+
+                    if (tableKey != null && tableHash == null) {
+                        callback.startTask(getString("Progress.19", //$NON-NLS-1$
+                                introspectedTable.getFullyQualifiedTable().toString()));
+                        generationManifest.copyTable(tableKey, previousManifest);
+                        continue;
+                    }
+
+                    TableFiles tableFiles;
+                    if (futures == null) {
+                        tableFiles = generateTableFiles(introspectedTable, callback, warnings);
+                    } else {
+                        tableFiles = getTableFiles(futures.get(i));
+                        tableFiles.callback.replay();
+                        warnings.addAll(tableFiles.warnings);
+                    }
+
+                    generatedJavaFiles.addAll(tableFiles.javaFiles);
+                    generatedXmlFiles.addAll(tableFiles.xmlFiles);
+
+                    if (generationManifest != null) {
+                        generationManifest.addTable(tableKey, tableHash, tableFiles.javaFiles);
+                        generationManifest.addTable(tableKey, tableHash, tableFiles.xmlFiles);
+                    }
+                }
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
             }
         }
 
+        if (previousManifest != null) {
+            // keep the tables that were not generated in this run
+            generationManifest.addMissingTables(previousManifest);
+        }
+
         generatedJavaFiles.addAll(pluginAggregator
                 .contextGenerateAdditionalJavaFiles());
         generatedXmlFiles.addAll(pluginAggregator
                 .contextGenerateAdditionalXmlFiles());
     }
 
+    /**
+     * Generates the files of one table.
+     *
+     * @param introspectedTable
+     *            the table
+     * @param callback
+     *            the progress callback
+     * @param warnings
+     *            the warnings
+     * @return the generated files
+     * @throws InterruptedException
+     *             if the progress callback reports a cancel
+     */
+    private TableFiles generateTableFiles(IntrospectedTable introspectedTable,
+            ProgressCallback callback, List<String> warnings)
+            throws InterruptedException {
+        TableFiles tableFiles = new TableFiles();
+        long start = System.nanoTime();
+
+        introspectedTable.initialize();
+        introspectedTable.calculateGenerators(warnings, callback);
+        tableFiles.javaFiles.addAll(introspectedTable
+                .getGeneratedJavaFiles());
+        tableFiles.xmlFiles.addAll(introspectedTable
+                .getGeneratedXmlFiles());
+
+        tableFiles.javaFiles.addAll(pluginAggregator
+                .contextGenerateAdditionalJavaFiles(introspectedTable));
+        tableFiles.xmlFiles.addAll(pluginAggregator
+                .contextGenerateAdditionalXmlFiles(introspectedTable));
+
+        addTableTime(GenerationMetrics.GENERATION,
+                introspectedTable.getFullyQualifiedTable().toString(), start);
+
+        return tableFiles;
+    }
+
+    /**
+     * Submits the generation of every table that must be generated to the
+     * executor. Every table gets its own warnings and a buffered progress
+     * callback, so the results can be merged in table order.
+     *
+     * @param executor
+     *            the executor
+     * @param callback
+     *            the progress callback
+     * @param tableKeys
+     *            the manifest keys of the tables, or nulls
+     * @param tableHashes
+     *            the manifest hashes of the tables. A null hash with a non
+     *            null key marks an unchanged table.
+     * @return the futures, in table order. Unchanged tables have a null
+     *         future.
+     */
+    private List<Future<TableFiles>> submitTableGenerations(ExecutorService executor,
+            ProgressCallback callback, List<String> tableKeys, List<String> tableHashes) {
+        List<Future<TableFiles>> futures = new ArrayList<Future<TableFiles>>(introspectedTables.size());
+        for (int i = 0; i < introspectedTables.size(); i++) {
+            if (tableKeys.get(i) != null && tableHashes.get(i) == null) {
+                futures.add(null);
+                continue;
+            }
+
+            final IntrospectedTable introspectedTable = introspectedTables.get(i);
+            final BufferedProgressCallback tableCallback = new BufferedProgressCallback(callback);
+            futures.add(executor.submit(new Callable<TableFiles>() {
+                public TableFiles call() throws Exception {
+                    long startAllocatedBytes = generationMetrics != null
+                            ? GenerationMetrics.getAllocatedBytes() : -1;
+                    List<String> tableWarnings = new ArrayList<String>();
+                    TableFiles tableFiles = generateTableFiles(introspectedTable,
+                            tableCallback, tableWarnings);
+                    tableFiles.warnings = tableWarnings;
+                    tableFiles.callback = tableCallback;
+                    if (generationMetrics != null) {
+                        generationMetrics.workerCompleted(
+                                GenerationMetrics.GENERATION, startAllocatedBytes);
+                    }
+                    return tableFiles;
+                }
+            }));
+        }
+
+        return futures;
+    }
+
+    /**
+     * Waits for the generation of a table.
+     *
+     * @param future
+     *            the future of the table generation
+     * @return the generated files
+     * @throws InterruptedException
+     *             if the generation was canceled
+     */
+    private TableFiles getTableFiles(Future<TableFiles> future)
+            throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw new RuntimeException(cause);
+            }
+        }
+    }
+
+    /**
+     * Adds the time spent on a table to the metrics of the current run, if
+     * any.
+     *
+     * @param phase
+     *            the phase
+     * @param tableName
+     *            the fully qualified table name
+     * @param startNanos
+     *            the value of <code>System.nanoTime()</code> when the work on
+     *            the table started
+     */
+    private void addTableTime(String phase, String tableName, long startNanos) {
+        if (generationMetrics != null) {
+            generationMetrics.addTableTime(phase, tableName, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * The files generated for one table.
+     */
+    private static class TableFiles {
+        private final List<GeneratedJavaFile> javaFiles = new ArrayList<GeneratedJavaFile>();
+        private final List<GeneratedXmlFile> xmlFiles = new ArrayList<GeneratedXmlFile>();
+        private List<String> warnings;
+        private BufferedProgressCallback callback;
+    }
+
+    /**
+     * Saves the generation manifest of the last call to
+     * {@link #generateFiles(ProgressCallback, List, List, List)}. This method
+     * should be called after the generated files have been written, and does
+     * nothing if incremental generation is not enabled.
+     *
+     * @param warnings
+     *            any warning generated from this method will be added to the
+     *            List. Warnings are always Strings.
+     */
+    public void saveGenerationManifest(List<String> warnings) {
+        if (generationManifest == null) {
+            return;
+        }
+
+        File manifestFile = getGenerationManifestFile();
+        try {
+            generationManifest.save(manifestFile);
+        } catch (IOException e) {
+            warnings.add(getString("Warning.34", //$NON-NLS-1$
+                    manifestFile.getAbsolutePath(), e.getMessage()));
+        }
+        generationManifest = null;
+    }
+
+    /**
+     * Loads the manifest written by the previous run of this context.
+     *
+     * @param warnings
+     *            the warnings
+     * @return the manifest, or null if every table must be generated
+     */
+    private GenerationManifest loadPreviousGenerationManifest(List<String> warnings) {
+        Plugin plugin = pluginAggregator.getContextFileGeneratingPlugin();
+        if (plugin != null) {
+            warnings.add(getString("Warning.32", //$NON-NLS-1$
+                    id, plugin.getClass().getName()));
+            return null;
+        }
+
+        File manifestFile = getGenerationManifestFile();
+        if (!manifestFile.exists()) {
+            return null;
+        }
+
+        try {
+            return GenerationManifest.load(manifestFile);
+        } catch (IOException e) {
+            warnings.add(getString("Warning.33", //$NON-NLS-1$
+                    manifestFile.getAbsolutePath(), e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Returns the generation manifest file of this context. The manifest is
+     * stored in the target project of the java model generator.
+     *
+     * @return the manifest file
+     */
+    private File getGenerationManifestFile() {
+        return new File(javaModelGeneratorConfiguration.getTargetProject(),
+                ".mybatis-generator-" + id + ".manifest"); //$NON-NLS-1$ //$NON-NLS-2$
+    }
+
+    /**
+     * Returns the formatted configuration of this context without the table
+     * elements. Any change to it (plugins, generators, type resolver,
+     * properties...) may change the code generated for every table.
+     *
+     * @return the formatted configuration
+     */
+    private String getConfigurationWithoutTables() {
+        XmlElement xmlElement = toXmlElement();
+        Iterator<Element> iter = xmlElement.getElements().iterator();
+        while (iter.hasNext()) {
+            Element element = iter.next();
+            if (element instanceof XmlElement
+                    && "table".equals(((XmlElement) element).getName())) { //$NON-NLS-1$
+                iter.remove();
+            }
+        }
+
+        return xmlElement.getFormattedContent(0);
+    }
+
+    /**
+     * Returns the fingerprint of the code that generates the files of this
+     * context: the generator itself, the plugins, the comment generator and
+     * the formatters.
+     *
+     * @param pluginClasses
+     *            the classes of the configured plugins
+     * @return the fingerprint
+     */
+    private String calculateCodeFingerprint(List<Class<?>> pluginClasses) {
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(GenerationManifest.class);
+        classes.addAll(pluginClasses);
+        classes.add(getCommentGenerator().getClass());
+        classes.add(getJavaFormatter().getClass());
+        classes.add(getXmlFormatter().getClass());
+        return GenerationManifest.calculateCodeFingerprint(classes);
+    }
+
     /**
      * Gets the connection.
      *
@@ -743,14 +1755,36 @@ public class Context extends PropertyHolder {
      *             the SQL exception
      */
     private Connection getConnection() throws SQLException {
-        ConnectionFactory connectionFactory;
+        return getConnectionFactory().getConnection();
+    }
+
+    /**
+     * Gets the connection factory of this context.
+     *
+     * @return the connection factory
+     */
+    private ConnectionFactory getConnectionFactory() {
+        if (connectionFactory != null) {
+            return connectionFactory;
+        }
+
+        return createConnectionFactory();
+    }
+
+    /**
+     * Creates the connection factory configured for this context.
+     *
+     * @return the connection factory
+     */
+    public ConnectionFactory createConnectionFactory() {
+        ConnectionFactory answer;
         if (jdbcConnectionConfiguration != null) {
-            connectionFactory = new JDBCConnectionFactory(jdbcConnectionConfiguration);
+            answer = new JDBCConnectionFactory(jdbcConnectionConfiguration);
         } else {
-            connectionFactory = ObjectFactory.createConnectionFactory(this);
+            answer = ObjectFactory.createConnectionFactory(this);
         }
-        
-        return connectionFactory.getConnection();
+
+        return answer;
     }
 
     /**
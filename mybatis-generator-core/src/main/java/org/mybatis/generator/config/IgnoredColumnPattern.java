@@ -36,6 +36,14 @@ public class IgnoredColumnPattern {
         pattern = Pattern.compile(patternRegex);
     }
     
+    public String getPatternRegex() {
+        return patternRegex;
+    }
+
+    public boolean hasExceptions() {
+        return !exceptions.isEmpty();
+    }
+
     public void addException(IgnoredColumnException exception) {
         exceptions.add(exception);
     }
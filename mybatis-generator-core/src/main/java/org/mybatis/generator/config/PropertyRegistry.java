@@ -54,6 +54,14 @@ public class PropertyRegistry {
     public static final String CONTEXT_JAVA_FILE_ENCODING = "javaFileEncoding"; //$NON-NLS-1$
     public static final String CONTEXT_JAVA_FORMATTER = "javaFormatter"; //$NON-NLS-1$
     public static final String CONTEXT_XML_FORMATTER = "xmlFormatter"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_THREADS = "introspectionThreads"; //$NON-NLS-1$
+    public static final String CONTEXT_BULK_INTROSPECTION = "bulkIntrospection"; //$NON-NLS-1$
+    public static final String CONTEXT_INTROSPECTION_SNAPSHOT = "introspectionSnapshot"; //$NON-NLS-1$
+    public static final String CONTEXT_OFFLINE_INTROSPECTION = "offlineIntrospection"; //$NON-NLS-1$
+    public static final String CONTEXT_INCREMENTAL_GENERATION = "incrementalGeneration"; //$NON-NLS-1$
+    public static final String CONTEXT_GENERATION_THREADS = "generationThreads"; //$NON-NLS-1$
+    public static final String CONTEXT_IN_LIST_PADDING = "inListPadding"; //$NON-NLS-1$
+    public static final String CONTEXT_IN_LIST_CHUNK_SIZE = "inListChunkSize"; //$NON-NLS-1$
 
     public static final String CLIENT_USE_LEGACY_BUILDER = "useLegacyBuilder"; //$NON-NLS-1$
     
@@ -63,6 +71,7 @@ public class PropertyRegistry {
     public static final String TYPE_RESOLVER_FORCE_BIG_DECIMALS = "forceBigDecimals"; //$NON-NLS-1$
 
     public static final String MODEL_GENERATOR_TRIM_STRINGS = "trimStrings"; //$NON-NLS-1$
+    public static final String MODEL_GENERATOR_REUSABLE_EXAMPLES = "reusableExamples"; //$NON-NLS-1$
 
     public static final String COMMENT_GENERATOR_SUPPRESS_DATE = "suppressDate"; //$NON-NLS-1$
     public static final String COMMENT_GENERATOR_SUPPRESS_ALL_COMMENTS = "suppressAllComments"; //$NON-NLS-1$
@@ -27,9 +27,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.mybatis.generator.api.dom.xml.Attribute;
 import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.internal.util.ColumnNameIndex;
 
 /**
  * The Class TableConfiguration.
@@ -115,6 +118,16 @@ public class TableConfiguration extends PropertyHolder {
     
     private List<IgnoredColumnPattern> ignoredColumnPatterns = new ArrayList<IgnoredColumnPattern>();
 
+    /**
+     * Hash indexes of the column overrides and ignored columns, and the
+     * combined ignore pattern. Built on first use, so that the introspector
+     * does not scan every rule for every column.
+     */
+    private volatile ColumnRules columnRules;
+
+    /** Numbered or named back references in an ignore pattern. */
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\(?:[1-9]|k<)"); //$NON-NLS-1$
+
     /**
      * Instantiates a new table configuration.
      *
@@ -226,21 +239,14 @@ public class TableConfiguration extends PropertyHolder {
      * @return true, if is column ignored
      */
     public boolean isColumnIgnored(String columnName) {
-        for (Map.Entry<IgnoredColumn, Boolean> entry : ignoredColumns
-                .entrySet()) {
-            if (entry.getKey().matches(columnName)) {
-                entry.setValue(Boolean.TRUE);
-                return true;
-            }
-        }
-        
-        for (IgnoredColumnPattern ignoredColumnPattern : ignoredColumnPatterns) {
-            if (ignoredColumnPattern.matches(columnName)) {
-                return true;
-            }
+        ColumnRules rules = getColumnRules();
+        IgnoredColumn ignoredColumn = rules.ignoredColumns.get(columnName);
+        if (ignoredColumn != null) {
+            ignoredColumns.put(ignoredColumn, Boolean.TRUE);
+            return true;
         }
 
-        return false;
+        return rules.matchesIgnoredColumnPattern(columnName);
     }
 
     /**
@@ -251,10 +257,12 @@ public class TableConfiguration extends PropertyHolder {
      */
     public void addIgnoredColumn(IgnoredColumn ignoredColumn) {
         ignoredColumns.put(ignoredColumn, Boolean.FALSE);
+        columnRules = null;
     }
 
     public void addIgnoredColumnPattern(IgnoredColumnPattern ignoredColumnPattern) {
         ignoredColumnPatterns.add(ignoredColumnPattern);
+        columnRules = null;
     }
 
     /**
@@ -265,6 +273,7 @@ public class TableConfiguration extends PropertyHolder {
      */
     public void addColumnOverride(ColumnOverride columnOverride) {
         columnOverrides.add(columnOverride);
+        columnRules = null;
     }
 
     /* (non-Javadoc)
@@ -328,19 +337,16 @@ public class TableConfiguration extends PropertyHolder {
      * @return the column override (if any) related to this column
      */
     public ColumnOverride getColumnOverride(String columnName) {
-        for (ColumnOverride co : columnOverrides) {
-            if (co.isColumnNameDelimited()) {
-                if (columnName.equals(co.getColumnName())) {
-                    return co;
-                }
-            } else {
-                if (columnName.equalsIgnoreCase(co.getColumnName())) {
-                    return co;
-                }
-            }
-        }
+        return getColumnRules().columnOverrides.get(columnName);
+    }
 
-        return null;
+    private ColumnRules getColumnRules() {
+        ColumnRules rules = columnRules;
+        if (rules == null || !rules.isCurrent(this)) {
+            rules = new ColumnRules(this);
+            columnRules = rules;
+        }
+        return rules;
     }
 
     /**
@@ -905,4 +911,81 @@ public class TableConfiguration extends PropertyHolder {
     public void setSqlProviderName(String sqlProviderName) {
         this.sqlProviderName = sqlProviderName;
     }
+
+    /**
+     * The lookup structures for the column rules of a table.
+     */
+    private static class ColumnRules {
+        private final ColumnNameIndex<ColumnOverride> columnOverrides = new ColumnNameIndex<ColumnOverride>();
+        private final ColumnNameIndex<IgnoredColumn> ignoredColumns = new ColumnNameIndex<IgnoredColumn>();
+
+        /** All ignore patterns without exceptions, as one alternation. */
+        private Pattern combinedPattern;
+
+        /** The ignore patterns that must be matched one by one. */
+        private final List<IgnoredColumnPattern> separatePatterns = new ArrayList<IgnoredColumnPattern>();
+
+        private final int ignoredColumnPatternCount;
+
+        ColumnRules(TableConfiguration tc) {
+            for (ColumnOverride columnOverride : tc.columnOverrides) {
+                columnOverrides.add(columnOverride.getColumnName(),
+                        columnOverride.isColumnNameDelimited(), columnOverride);
+            }
+
+            for (IgnoredColumn ignoredColumn : tc.ignoredColumns.keySet()) {
+                ignoredColumns.add(ignoredColumn.getColumnName(),
+                        ignoredColumn.isColumnNameDelimited(), ignoredColumn);
+            }
+
+            ignoredColumnPatternCount = tc.ignoredColumnPatterns.size();
+            StringBuilder sb = new StringBuilder();
+            List<IgnoredColumnPattern> combined = new ArrayList<IgnoredColumnPattern>();
+            for (IgnoredColumnPattern ignoredColumnPattern : tc.ignoredColumnPatterns) {
+                String regex = ignoredColumnPattern.getPatternRegex();
+                // exceptions belong to a single pattern, and group numbers
+                // change in an alternation
+                if (ignoredColumnPattern.hasExceptions() || BACK_REFERENCE.matcher(regex).find()) {
+                    separatePatterns.add(ignoredColumnPattern);
+                } else {
+                    if (sb.length() > 0) {
+                        sb.append('|');
+                    }
+                    sb.append("(?:").append(regex).append(')'); //$NON-NLS-1$
+                    combined.add(ignoredColumnPattern);
+                }
+            }
+
+            if (combined.size() == 1) {
+                separatePatterns.add(combined.get(0));
+            } else if (combined.size() > 1) {
+                try {
+                    combinedPattern = Pattern.compile(sb.toString());
+                } catch (PatternSyntaxException e) {
+                    // for example duplicate group names - match one by one
+                    separatePatterns.addAll(combined);
+                }
+            }
+        }
+
+        boolean isCurrent(TableConfiguration tc) {
+            return columnOverrides.size() == tc.columnOverrides.size()
+                    && ignoredColumns.size() == tc.ignoredColumns.size()
+                    && ignoredColumnPatternCount == tc.ignoredColumnPatterns.size();
+        }
+
+        boolean matchesIgnoredColumnPattern(String columnName) {
+            if (combinedPattern != null && combinedPattern.matcher(columnName).matches()) {
+                return true;
+            }
+
+            for (IgnoredColumnPattern ignoredColumnPattern : separatePatterns) {
+                if (ignoredColumnPattern.matches(columnName)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
 }
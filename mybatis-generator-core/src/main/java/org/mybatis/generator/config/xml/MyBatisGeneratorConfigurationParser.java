@@ -141,6 +141,8 @@ public class MyBatisGeneratorConfigurationParser {
 
             configurationProperties.load(inputStream);
             inputStream.close();
+
+            configuration.addPropertiesUrl(resourceUrl);
         } catch (IOException e) {
             if (stringHasValue(resource)) {
                 throw new XMLParserException(getString(
@@ -0,0 +1,80 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.ProgressCallback;
+
+/**
+ * This class implements a progress callback that records the task names of
+ * one unit of work running on a worker thread. The recorded tasks are
+ * replayed to the real callback on the calling thread, so progress is reported
+ * in a deterministic order. Cancel checks are passed to the real callback
+ * immediately.
+ * 
+ * @author fury
+ */
+public class BufferedProgressCallback implements ProgressCallback {
+
+    private final ProgressCallback delegate;
+
+    private final List<String> taskNames = new ArrayList<String>();
+
+    /**
+     * Constructs a buffered callback.
+     *
+     * @param delegate
+     *            the real callback. Cancel checks are synchronized on it.
+     */
+    public BufferedProgressCallback(ProgressCallback delegate) {
+        super();
+        this.delegate = delegate;
+    }
+
+    public void introspectionStarted(int totalTasks) {
+    }
+
+    public void generationStarted(int totalTasks) {
+    }
+
+    public void saveStarted(int totalTasks) {
+    }
+
+    public void startTask(String taskName) {
+        taskNames.add(taskName);
+    }
+
+    public void done() {
+    }
+
+    public void checkCancel() throws InterruptedException {
+        synchronized (delegate) {
+            delegate.checkCancel();
+        }
+    }
+
+    /**
+     * Reports the recorded tasks to the real callback.
+     */
+    public void replay() {
+        for (String taskName : taskNames) {
+            delegate.startTask(taskName);
+        }
+        taskNames.clear();
+    }
+}
@@ -33,15 +33,35 @@ public class DefaultShellCallback implements ShellCallback {
     /** The overwrite. */
     private boolean overwrite;
 
+    /** The merge. */
+    private boolean merge;
+
     /**
-     * Instantiates a new default shell callback.
+     * Instantiates a new default shell callback. Java files are merged with
+     * the built in {@link JavaFileMerger}.
      *
      * @param overwrite
      *            the overwrite
      */
     public DefaultShellCallback(boolean overwrite) {
+        this(overwrite, true);
+    }
+
+    /**
+     * Instantiates a new default shell callback.
+     *
+     * @param overwrite
+     *            the overwrite
+     * @param merge
+     *            if true, existing Java files are merged with the built in
+     *            {@link JavaFileMerger}. If false, existing files are
+     *            overwritten or saved under a unique name like in previous
+     *            versions
+     */
+    public DefaultShellCallback(boolean overwrite, boolean merge) {
         super();
         this.overwrite = overwrite;
+        this.merge = merge;
     }
 
     /* (non-Javadoc)
@@ -92,7 +112,7 @@ public class DefaultShellCallback implements ShellCallback {
      * @see org.mybatis.generator.api.ShellCallback#isMergeSupported()
      */
     public boolean isMergeSupported() {
-        return false;
+        return merge;
     }
 
     /* (non-Javadoc)
@@ -108,6 +128,15 @@ public class DefaultShellCallback implements ShellCallback {
     public String mergeJavaFile(String newFileSource,
             String existingFileFullPath, String[] javadocTags, String fileEncoding)
             throws ShellException {
-        throw new UnsupportedOperationException();
+        try {
+            return JavaFileMerger.getMergedSource(newFileSource,
+                    new File(existingFileFullPath), javadocTags, fileEncoding);
+        } catch (ShellException e) {
+            if (overwrite) {
+                // the file could not be merged - fall back to overwriting it
+                return newFileSource;
+            }
+            throw e;
+        }
     }
 }
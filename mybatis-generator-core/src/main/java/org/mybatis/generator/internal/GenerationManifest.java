@@ -0,0 +1,467 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.DigestUtility.sha1;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+
+import org.mybatis.generator.api.GeneratedFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.MyBatisGenerator;
+
+/**
+ * This class records, for every table of a context, a hash of everything that
+ * influences the generated code together with the files that were generated
+ * from it. A later run can skip the code generation of a table when the hash
+ * is unchanged and all of its files still exist.
+ * <p>
+ * The hash covers the introspected model of the table (columns, primary key,
+ * remarks and table type), the table configuration, the rest of the context
+ * configuration (including plugins and generator settings, but without the
+ * other tables) and a fingerprint of the generator and plugin code. The code
+ * fingerprint covers the size and modification time of the jar files and class
+ * directories the code is loaded from, so a rebuilt generator or plugin
+ * invalidates the manifest even when its version number is unchanged.
+ * <p>
+ * The manifest is stored as a tab separated text file:
+ * 
+ * <pre>
+ * version  1
+ * table    &lt;table key&gt;  &lt;hash&gt;
+ * file     &lt;path of a generated file&gt;
+ * </pre>
+ * 
+ * <code>file</code> lines belong to the preceding <code>table</code> line.
+ * <p>
+ * This class is thread safe.
+ * 
+ * @author fury
+ */
+public class GenerationManifest {
+
+    private static final String VERSION = "1"; //$NON-NLS-1$
+
+    private static final String TAB = "\t"; //$NON-NLS-1$
+
+    /**
+     * The described code locations by class loader. A class loader never
+     * reloads a class, so a location is only described (and a class directory
+     * only walked) once per loader, not on every run of a resident generator.
+     */
+    private static final Map<ClassLoader, Map<String, String>> LOCATION_DESCRIPTIONS =
+            new WeakHashMap<ClassLoader, Map<String, String>>();
+
+    private final Map<String, Entry> entries = new TreeMap<String, Entry>();
+
+    /**
+     * Returns the key of a table in the manifest.
+     * 
+     * @param introspectedTable
+     *            the introspected table
+     * @return the key
+     */
+    public static String getTableKey(IntrospectedTable introspectedTable) {
+        return introspectedTable.getFullyQualifiedTable().toString()
+                + " -> " //$NON-NLS-1$
+                + introspectedTable.getFullyQualifiedTable()
+                        .getDomainObjectName();
+    }
+
+    /**
+     * Calculates the hash of all inputs of the code generation of a table.
+     * This method must be called before the table is initialized.
+     * 
+     * @param introspectedTable
+     *            the introspected table
+     * @param contextConfiguration
+     *            the formatted context configuration, without any table
+     *            elements
+     * @param codeFingerprint
+     *            the fingerprint of the generator and plugin code, see
+     *            {@link #calculateCodeFingerprint(Collection)}
+     * @return the hash
+     */
+    public static String calculateHash(IntrospectedTable introspectedTable,
+            String contextConfiguration, String codeFingerprint) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(codeFingerprint).append('\n');
+        sb.append(contextConfiguration).append('\n');
+        sb.append(introspectedTable.getTableConfiguration().toXmlElement()
+                .getFormattedContent(0)).append('\n');
+        sb.append(introspectedTable.getFullyQualifiedTable()).append('\n');
+        sb.append(introspectedTable.getRemarks()).append('\n');
+        sb.append(introspectedTable.getTableType()).append('\n');
+
+        for (IntrospectedColumn column : introspectedTable.getAllColumns()) {
+            sb.append(column.getActualColumnName());
+            sb.append('|').append(column.getJdbcType());
+            sb.append('|').append(column.getJdbcTypeName());
+            sb.append('|').append(column.getLength());
+            sb.append('|').append(column.getScale());
+            sb.append('|').append(column.isNullable());
+            sb.append('|').append(column.isIdentity());
+            sb.append('|').append(column.isSequenceColumn());
+            sb.append('|').append(column.isAutoIncrement());
+            sb.append('|').append(column.isGeneratedColumn());
+            sb.append('|').append(column.isGeneratedAlways());
+            sb.append('|').append(column.isColumnNameDelimited());
+            sb.append('|').append(column.getFullyQualifiedJavaType());
+            sb.append('|').append(column.getJavaProperty());
+            sb.append('|').append(column.getTypeHandler());
+            sb.append('|').append(column.getDefaultValue());
+            sb.append('|').append(column.getRemarks());
+            sb.append('|').append(
+                    new TreeMap<Object, Object>(column.getProperties()));
+            sb.append('\n');
+        }
+
+        sb.append("primary key:"); //$NON-NLS-1$
+        for (IntrospectedColumn column : introspectedTable
+                .getPrimaryKeyColumns()) {
+            sb.append(' ').append(column.getActualColumnName());
+        }
+
+        return sha1(sb.toString());
+    }
+
+    /**
+     * Calculates a fingerprint of the code that generates the files: the
+     * generator version, the names of the given classes and, for every jar
+     * file or class directory they are loaded from, its size and last
+     * modification time. The location descriptions are cached per class
+     * loader.
+     * 
+     * @param classes
+     *            the classes taking part in the code generation, such as the
+     *            generator and the configured plugins
+     * @return the fingerprint
+     */
+    public static String calculateCodeFingerprint(
+            Collection<Class<?>> classes) {
+        Set<String> classNames = new TreeSet<String>();
+        Set<String> locations = new TreeSet<String>();
+        for (Class<?> clazz : classes) {
+            classNames.add(clazz.getName());
+            CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+            if (codeSource != null && codeSource.getLocation() != null) {
+                locations.add(describeLocation(clazz.getClassLoader(),
+                        codeSource.getLocation()));
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(getGeneratorVersion());
+        for (String className : classNames) {
+            sb.append('\n').append(className);
+        }
+        for (String location : locations) {
+            sb.append('\n').append(location);
+        }
+
+        return sha1(sb.toString());
+    }
+
+    private static String describeLocation(ClassLoader classLoader, URL url) {
+        String key = url.toString();
+        Map<String, String> descriptions;
+        synchronized (LOCATION_DESCRIPTIONS) {
+            descriptions = LOCATION_DESCRIPTIONS.get(classLoader);
+            if (descriptions == null) {
+                descriptions = new TreeMap<String, String>();
+                LOCATION_DESCRIPTIONS.put(classLoader, descriptions);
+            }
+        }
+
+        synchronized (descriptions) {
+            String description = descriptions.get(key);
+            if (description == null) {
+                description = describeLocation(url);
+                descriptions.put(key, description);
+            }
+            return description;
+        }
+    }
+
+    /**
+     * Describes a jar file by its size and modification time, and a class
+     * directory by the total size and newest modification time of its files.
+     */
+    private static String describeLocation(URL url) {
+        File file;
+        try {
+            file = new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return url.toString();
+        } catch (IllegalArgumentException e) {
+            // not a file URL
+            return url.toString();
+        }
+
+        long[] sizeAndLastModified = new long[2];
+        addSizeAndLastModified(file, sizeAndLastModified);
+        return file.getPath() + '|' + sizeAndLastModified[0] + '|'
+                + sizeAndLastModified[1];
+    }
+
+    private static void addSizeAndLastModified(File file,
+            long[] sizeAndLastModified) {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    addSizeAndLastModified(child, sizeAndLastModified);
+                }
+            }
+        } else {
+            sizeAndLastModified[0] += file.length();
+            sizeAndLastModified[1] = Math.max(sizeAndLastModified[1],
+                    file.lastModified());
+        }
+    }
+
+    /**
+     * Returns the version of the running generator, or "unknown" if the
+     * version cannot be determined (for example when running from the
+     * classes directory of an IDE).
+     * 
+     * @return the generator version
+     */
+    public static String getGeneratorVersion() {
+        Package p = MyBatisGenerator.class.getPackage();
+        String version = p == null ? null : p.getImplementationVersion();
+        return version == null ? "unknown" : version; //$NON-NLS-1$
+    }
+
+    /**
+     * Returns the file a generated file is saved to. This mirrors the
+     * directory calculation of the default shell callback.
+     * 
+     * @param generatedFile
+     *            the generated file
+     * @return the path of the file
+     */
+    public static String getFilePath(GeneratedFile generatedFile) {
+        File directory = new File(generatedFile.getTargetProject());
+        String targetPackage = generatedFile.getTargetPackage();
+        if (targetPackage != null && targetPackage.length() > 0) {
+            StringTokenizer st = new StringTokenizer(targetPackage, "."); //$NON-NLS-1$
+            while (st.hasMoreTokens()) {
+                directory = new File(directory, st.nextToken());
+            }
+        }
+
+        return new File(directory, generatedFile.getFileName()).getPath();
+    }
+
+    /**
+     * Returns true if the table was generated from the same inputs by the run
+     * that wrote this manifest, and all files generated for the table still
+     * exist.
+     * 
+     * @param tableKey
+     *            the table key
+     * @param hash
+     *            the current hash of the table
+     * @return true if the code generation of the table can be skipped
+     */
+    public synchronized boolean isUpToDate(String tableKey, String hash) {
+        Entry entry = entries.get(tableKey);
+        if (entry == null || !entry.hash.equals(hash)) {
+            return false;
+        }
+
+        for (String path : entry.files) {
+            if (!new File(path).isFile()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Records the files generated for a table.
+     * 
+     * @param tableKey
+     *            the table key
+     * @param hash
+     *            the hash of the table
+     * @param generatedFiles
+     *            the files generated for the table
+     */
+    public synchronized void addTable(String tableKey, String hash,
+            List<? extends GeneratedFile> generatedFiles) {
+        Entry entry = entries.get(tableKey);
+        if (entry == null || !entry.hash.equals(hash)) {
+            entry = new Entry(hash);
+            entries.put(tableKey, entry);
+        }
+
+        for (GeneratedFile generatedFile : generatedFiles) {
+            entry.files.add(getFilePath(generatedFile));
+        }
+    }
+
+    /**
+     * Copies the entry of an unchanged table from another manifest.
+     * 
+     * @param tableKey
+     *            the table key
+     * @param other
+     *            the manifest to copy from
+     */
+    public void copyTable(String tableKey, GenerationManifest other) {
+        Entry entry;
+        synchronized (other) {
+            entry = other.entries.get(tableKey);
+        }
+
+        if (entry != null) {
+            synchronized (this) {
+                entries.put(tableKey, entry);
+            }
+        }
+    }
+
+    /**
+     * Copies the entries of all tables that are not part of this manifest
+     * from another manifest. This keeps the entries of tables that were not
+     * generated in the current run.
+     * 
+     * @param other
+     *            the manifest to copy from
+     */
+    public void addMissingTables(GenerationManifest other) {
+        Map<String, Entry> otherEntries;
+        synchronized (other) {
+            otherEntries = new TreeMap<String, Entry>(other.entries);
+        }
+
+        synchronized (this) {
+            for (Map.Entry<String, Entry> e : otherEntries.entrySet()) {
+                if (!entries.containsKey(e.getKey())) {
+                    entries.put(e.getKey(), e.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves the manifest to a file.
+     * 
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public synchronized void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory()) {
+            parent.mkdirs();
+        }
+
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), "UTF-8")); //$NON-NLS-1$
+        try {
+            bw.write("version" + TAB + VERSION); //$NON-NLS-1$
+            bw.newLine();
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                bw.write("table" + TAB + e.getKey() + TAB //$NON-NLS-1$
+                        + e.getValue().hash);
+                bw.newLine();
+                for (String path : e.getValue().files) {
+                    bw.write("file" + TAB + path); //$NON-NLS-1$
+                    bw.newLine();
+                }
+            }
+        } finally {
+            bw.close();
+        }
+    }
+
+    /**
+     * Loads a manifest saved by {@link #save(File)}.
+     * 
+     * @param file
+     *            the file
+     * @return the manifest
+     * @throws IOException
+     *             if the file cannot be read or has an unknown format
+     */
+    public static GenerationManifest load(File file) throws IOException {
+        GenerationManifest manifest = new GenerationManifest();
+        BufferedReader br = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), "UTF-8")); //$NON-NLS-1$
+        try {
+            String line = br.readLine();
+            if (line == null || !line.equals("version" + TAB + VERSION)) { //$NON-NLS-1$
+                throw new IOException("Unsupported manifest version"); //$NON-NLS-1$
+            }
+
+            Entry current = null;
+            while ((line = br.readLine()) != null) {
+                if (line.length() == 0) {
+                    continue;
+                }
+
+                String[] fields = line.split(TAB, -1);
+                if ("table".equals(fields[0]) && fields.length == 3) { //$NON-NLS-1$
+                    current = new Entry(fields[2]);
+                    manifest.entries.put(fields[1], current);
+                } else if ("file".equals(fields[0]) && fields.length == 2 //$NON-NLS-1$
+                        && current != null) {
+                    current.files.add(fields[1]);
+                } else {
+                    throw new IOException("Invalid manifest line: " + line); //$NON-NLS-1$
+                }
+            }
+        } finally {
+            br.close();
+        }
+
+        return manifest;
+    }
+
+    private static class Entry {
+        private final String hash;
+        private final List<String> files = new ArrayList<String>();
+
+        Entry(String hash) {
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,854 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.mybatis.generator.exception.ShellException;
+
+/**
+ * This class merges a newly generated Java file into an existing Java file
+ * without the help of an IDE.
+ *
+ * <p>Both sources are scanned once by a small tokenizer that understands
+ * comments, string and character literals and brace nesting. That is enough to
+ * find the members of the top level type - no syntax tree is built. A member
+ * is a generated member if a comment in front of its declaration contains one
+ * of the javadoc tags (normally <code>MergeConstants.OLD_ELEMENT_TAGS</code>).
+ *
+ * <p>The merge works like the Eclipse merger:
+ * <ul>
+ * <li>Everything in the existing file is kept, except its generated members</li>
+ * <li>The members of the new file are inserted where the first generated
+ * member of the existing file was, or at the end of the type</li>
+ * <li>A member of the new file is skipped if the existing file has a member
+ * with the same signature that is not generated (the tag was removed to
+ * preserve a customized version), or that is tagged with
+ * <code>do_not_delete_during_merge</code></li>
+ * <li>Imports and super types of the new file that are missing in the existing
+ * file are added</li>
+ * </ul>
+ */
+public class JavaFileMerger {
+
+    private static final String DO_NOT_DELETE_DURING_MERGE = "do_not_delete_during_merge"; //$NON-NLS-1$
+
+    /**
+     * Utility class - no instances allowed
+     */
+    private JavaFileMerger() {
+        super();
+    }
+
+    /**
+     * Merges the new source into the existing file.
+     *
+     * @param newFileSource
+     *            the source of the newly generated file
+     * @param existingFile
+     *            the existing file
+     * @param javadocTags
+     *            the tags that mark generated members
+     * @param fileEncoding
+     *            the encoding of the existing file, or null for the platform
+     *            encoding
+     * @return the merged source
+     * @throws ShellException
+     *             if the files cannot be merged. The existing file should not
+     *             be changed in this case
+     */
+    public static String getMergedSource(String newFileSource, File existingFile, String[] javadocTags,
+            String fileEncoding) throws ShellException {
+        String existingSource;
+        try {
+            existingSource = readFile(existingFile, fileEncoding);
+        } catch (IOException e) {
+            throw new ShellException(getString("Warning.36", //$NON-NLS-1$
+                    existingFile.getName(), e.getMessage()), e);
+        }
+
+        return getMergedSource(newFileSource, existingSource, javadocTags, existingFile.getName());
+    }
+
+    /**
+     * Merges the new source into the existing source.
+     *
+     * @param newFileSource
+     *            the source of the newly generated file
+     * @param existingFileSource
+     *            the source of the existing file
+     * @param javadocTags
+     *            the tags that mark generated members
+     * @param existingFileName
+     *            the name of the existing file, used in messages
+     * @return the merged source
+     * @throws ShellException
+     *             if the sources cannot be merged
+     */
+    public static String getMergedSource(String newFileSource, String existingFileSource, String[] javadocTags,
+            String existingFileName) throws ShellException {
+        CompilationUnit newUnit = parse(newFileSource, javadocTags, existingFileName);
+        CompilationUnit existingUnit = parse(existingFileSource, javadocTags, existingFileName);
+
+        if (!newUnit.typeName.equals(existingUnit.typeName)) {
+            throw new ShellException(getString("Warning.36", existingFileName, //$NON-NLS-1$
+                    "the existing file declares " + existingUnit.typeName //$NON-NLS-1$
+                            + " instead of " + newUnit.typeName)); //$NON-NLS-1$
+        }
+
+        boolean newHasGeneratedMembers = false;
+        for (Member member : newUnit.members) {
+            if (member.generated) {
+                newHasGeneratedMembers = true;
+                break;
+            }
+        }
+        if (!newHasGeneratedMembers) {
+            // without tags every member of the existing file looks custom,
+            // merging would duplicate all of them
+            throw new ShellException(getString("Warning.36", existingFileName, //$NON-NLS-1$
+                    "the generated file has no tagged members (are comments suppressed?)")); //$NON-NLS-1$
+        }
+
+        String existing = existingUnit.source;
+        StringBuilder sb = new StringBuilder(existing.length() + newFileSource.length());
+
+        // 1. everything up to the type body, with the missing imports and
+        // super types added
+        int position = appendImports(sb, existingUnit, newUnit);
+        position = appendSuperTypes(sb, position, existingUnit, newUnit);
+        sb.append(existing, position, existingUnit.bodyStart);
+
+        // 2. the members
+        Set<String> preservedKeys = new HashSet<String>();
+        for (Member member : existingUnit.members) {
+            if (member.key != null && (!member.generated || member.doNotDelete)) {
+                preservedKeys.add(member.key);
+            }
+        }
+
+        position = existingUnit.bodyStart;
+        boolean inserted = false;
+        for (Member member : existingUnit.members) {
+            sb.append(existing, position, member.start);
+            position = member.end;
+            if (member.generated && !member.doNotDelete) {
+                if (!inserted) {
+                    appendNewMembers(sb, newUnit, preservedKeys);
+                    inserted = true;
+                }
+            } else {
+                sb.append(existing, member.start, member.end);
+            }
+        }
+        if (!inserted) {
+            appendNewMembers(sb, newUnit, preservedKeys);
+        }
+
+        // 3. the end of the type and anything after it
+        sb.append(existing, position, existing.length());
+        return sb.toString();
+    }
+
+    private static void appendNewMembers(StringBuilder sb, CompilationUnit newUnit, Set<String> preservedKeys) {
+        for (Member member : newUnit.members) {
+            if (member.key == null || !preservedKeys.contains(member.key)) {
+                sb.append(newUnit.source, member.start, member.end);
+            }
+        }
+    }
+
+    private static int appendImports(StringBuilder sb, CompilationUnit existingUnit, CompilationUnit newUnit) {
+        StringBuilder missing = new StringBuilder();
+        for (String importText : newUnit.imports) {
+            if (!existingUnit.imports.contains(importText)) {
+                missing.append("import ").append(importText).append(';'); //$NON-NLS-1$
+                missing.append(existingUnit.lineSeparator);
+            }
+        }
+        if (missing.length() == 0) {
+            return 0;
+        }
+
+        String existing = existingUnit.source;
+        if (existingUnit.importsEnd >= 0) {
+            sb.append(existing, 0, existingUnit.importsEnd);
+            sb.append(existingUnit.lineSeparator);
+            sb.append(missing, 0, missing.length() - existingUnit.lineSeparator.length());
+            return existingUnit.importsEnd;
+        } else if (existingUnit.packageEnd >= 0) {
+            sb.append(existing, 0, existingUnit.packageEnd);
+            sb.append(existingUnit.lineSeparator).append(existingUnit.lineSeparator);
+            sb.append(missing, 0, missing.length() - existingUnit.lineSeparator.length());
+            return existingUnit.packageEnd;
+        } else {
+            sb.append(missing).append(existingUnit.lineSeparator);
+            return 0;
+        }
+    }
+
+    private static int appendSuperTypes(StringBuilder sb, int position, CompilationUnit existingUnit,
+            CompilationUnit newUnit) {
+        String existing = existingUnit.source;
+        boolean singleExtends = !existingUnit.isInterface;
+
+        // a class has a single super class - a customized one is kept
+        if (singleExtends && existingUnit.extendsClause == null && newUnit.extendsClause != null) {
+            int insertAt = existingUnit.implementsClause == null ? existingUnit.headerEnd
+                    : existingUnit.implementsClause.keywordStart;
+            sb.append(existing, position, insertAt);
+            position = insertAt;
+            if (existingUnit.implementsClause == null) {
+                sb.append(" extends ").append(join(newUnit.extendsClause.types)); //$NON-NLS-1$
+            } else {
+                sb.append("extends ").append(join(newUnit.extendsClause.types)).append(' '); //$NON-NLS-1$
+            }
+        }
+
+        if (!singleExtends) {
+            position = appendMissingTypes(sb, position, existingUnit, existingUnit.extendsClause,
+                    newUnit.extendsClause, "extends"); //$NON-NLS-1$
+        }
+        return appendMissingTypes(sb, position, existingUnit, existingUnit.implementsClause,
+                newUnit.implementsClause, "implements"); //$NON-NLS-1$
+    }
+
+    private static int appendMissingTypes(StringBuilder sb, int position, CompilationUnit existingUnit,
+            TypeClause existingClause, TypeClause newClause, String keyword) {
+        if (newClause == null) {
+            return position;
+        }
+
+        List<String> missing = new ArrayList<String>();
+        for (String type : newClause.types) {
+            if (existingClause == null || !existingClause.types.contains(type)) {
+                missing.add(type);
+            }
+        }
+        if (missing.isEmpty()) {
+            return position;
+        }
+
+        int insertAt = existingClause == null ? existingUnit.headerEnd : existingClause.end;
+        sb.append(existingUnit.source, position, insertAt);
+        sb.append(existingClause == null ? " " + keyword + " " : ", "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        sb.append(join(missing));
+        return insertAt;
+    }
+
+    private static String join(List<String> types) {
+        StringBuilder sb = new StringBuilder();
+        for (String type : types) {
+            if (sb.length() > 0) {
+                sb.append(", "); //$NON-NLS-1$
+            }
+            sb.append(type);
+        }
+        return sb.toString();
+    }
+
+    private static String readFile(File file, String fileEncoding) throws IOException {
+        Reader reader;
+        if (fileEncoding == null) {
+            reader = new InputStreamReader(new FileInputStream(file));
+        } else {
+            reader = new InputStreamReader(new FileInputStream(file), fileEncoding);
+        }
+        try {
+            StringBuilder sb = new StringBuilder((int) Math.min(file.length(), Integer.MAX_VALUE));
+            char[] buffer = new char[8192];
+            int count;
+            while ((count = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, count);
+            }
+            return sb.toString();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Splits a source into its imports, the header of the top level type and
+     * the members of the type.
+     */
+    private static CompilationUnit parse(String source, String[] javadocTags, String fileName)
+            throws ShellException {
+        CompilationUnit unit = new CompilationUnit(source);
+        Tokenizer tokenizer = new Tokenizer(source);
+
+        // 1. package, imports and the type declaration
+        String previous = null;
+        int parenDepth = 0;
+        while (unit.typeName == null) {
+            if (!tokenizer.next()) {
+                throw parseError(fileName, "no type declaration found"); //$NON-NLS-1$
+            }
+            if (tokenizer.type == Tokenizer.COMMENT) {
+                continue;
+            }
+            String token = tokenizer.text();
+            if (parenDepth == 0 && "package".equals(token)) { //$NON-NLS-1$
+                skipStatement(tokenizer, fileName);
+                unit.packageEnd = tokenizer.end;
+            } else if (parenDepth == 0 && "import".equals(token)) { //$NON-NLS-1$
+                unit.imports.add(readStatement(tokenizer, fileName));
+                unit.importsEnd = tokenizer.end;
+            } else if ("(".equals(token)) { //$NON-NLS-1$
+                parenDepth++;
+            } else if (")".equals(token)) { //$NON-NLS-1$
+                parenDepth--;
+            } else if (parenDepth == 0 && !".".equals(previous) && !"@".equals(previous) //$NON-NLS-1$ //$NON-NLS-2$
+                    && ("class".equals(token) || "interface".equals(token) || "enum".equals(token))) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                unit.isInterface = "interface".equals(token); //$NON-NLS-1$
+                unit.isEnum = "enum".equals(token); //$NON-NLS-1$
+                if (!tokenizer.nextSignificant() || tokenizer.type != Tokenizer.WORD) {
+                    throw parseError(fileName, "type name expected"); //$NON-NLS-1$
+                }
+                unit.typeName = tokenizer.text();
+            }
+            previous = token;
+        }
+        parseHeader(unit, tokenizer, fileName);
+
+        // 2. the members of the type
+        if (unit.isEnum) {
+            skipEnumConstants(unit, tokenizer, fileName);
+        }
+        parseMembers(unit, tokenizer, javadocTags, fileName);
+        return unit;
+    }
+
+    /**
+     * Reads the type parameters and super types, up to the opening brace of the
+     * type body.
+     */
+    private static void parseHeader(CompilationUnit unit, Tokenizer tokenizer, String fileName)
+            throws ShellException {
+        int angleDepth = 0;
+        TypeClause clause = null;
+        int typeStart = -1;
+        int typeEnd = -1;
+        unit.headerEnd = tokenizer.end;
+        while (true) {
+            if (!tokenizer.nextSignificant()) {
+                throw parseError(fileName, "type body expected"); //$NON-NLS-1$
+            }
+            String token = tokenizer.text();
+            if (angleDepth == 0 && ("{".equals(token) || ",".equals(token) //$NON-NLS-1$ //$NON-NLS-2$
+                    || "extends".equals(token) || "implements".equals(token))) { //$NON-NLS-1$ //$NON-NLS-2$
+                if (clause != null && typeStart >= 0) {
+                    clause.types.add(normalize(unit.source.substring(typeStart, typeEnd)));
+                    clause.end = typeEnd;
+                }
+                typeStart = -1;
+                if ("{".equals(token)) { //$NON-NLS-1$
+                    unit.bodyStart = tokenizer.end;
+                    return;
+                } else if (!",".equals(token)) { //$NON-NLS-1$
+                    clause = new TypeClause(tokenizer.start);
+                    if ("extends".equals(token)) { //$NON-NLS-1$
+                        unit.extendsClause = clause;
+                    } else {
+                        unit.implementsClause = clause;
+                    }
+                }
+            } else {
+                if ("<".equals(token)) { //$NON-NLS-1$
+                    angleDepth++;
+                } else if (">".equals(token)) { //$NON-NLS-1$
+                    angleDepth--;
+                }
+                if (clause != null && typeStart < 0) {
+                    typeStart = tokenizer.start;
+                }
+                typeEnd = tokenizer.end;
+            }
+            unit.headerEnd = tokenizer.end;
+        }
+    }
+
+    /**
+     * Moves the start of the enum body behind the enum constants.
+     */
+    private static void skipEnumConstants(CompilationUnit unit, Tokenizer tokenizer, String fileName)
+            throws ShellException {
+        int depth = 0;
+        int position = tokenizer.position;
+        while (tokenizer.nextSignificant()) {
+            String token = tokenizer.text();
+            if ("{".equals(token) || "(".equals(token)) { //$NON-NLS-1$ //$NON-NLS-2$
+                depth++;
+            } else if (")".equals(token) || ("}".equals(token) && depth > 0)) { //$NON-NLS-1$ //$NON-NLS-2$
+                depth--;
+            } else if (depth == 0 && ";".equals(token)) { //$NON-NLS-1$
+                unit.bodyStart = tokenizer.end;
+                return;
+            } else if (depth == 0 && "}".equals(token)) { //$NON-NLS-1$
+                // no members - leave the constants alone
+                break;
+            }
+        }
+        tokenizer.position = position;
+    }
+
+    private static void parseMembers(CompilationUnit unit, Tokenizer tokenizer, String[] javadocTags,
+            String fileName) throws ShellException {
+        int memberStart = unit.bodyStart;
+        while (true) {
+            Member member = parseMember(unit, tokenizer, memberStart, javadocTags, fileName);
+            if (member == null) {
+                return;
+            }
+            unit.members.add(member);
+            memberStart = member.end;
+        }
+    }
+
+    /**
+     * Reads one member, or returns null at the closing brace of the type.
+     */
+    private static Member parseMember(CompilationUnit unit, Tokenizer tokenizer, int memberStart,
+            String[] javadocTags, String fileName) throws ShellException {
+        Member member = new Member(memberStart);
+        boolean inDeclaration = true;
+        boolean sawAssignment = false;
+        boolean empty = true;
+        int parenDepth = 0;
+        int angleDepth = 0;
+        String previousWord = null;
+        String typeKeyword = null;
+        StringBuilder parameters = null;
+        int parameterStart = -1;
+        // 0 - no annotation, 1 - an annotation name is expected, 2 - after the name
+        int annotationState = 0;
+        while (tokenizer.next()) {
+            if (tokenizer.type == Tokenizer.COMMENT) {
+                if (inDeclaration) {
+                    checkTags(member, tokenizer, javadocTags);
+                }
+                continue;
+            }
+            String token = tokenizer.text();
+            if (empty && "}".equals(token)) { //$NON-NLS-1$
+                // the end of the type body
+                return null;
+            }
+            empty = false;
+
+            if (parenDepth > 0) {
+                if ("(".equals(token)) { //$NON-NLS-1$
+                    parenDepth++;
+                } else if (")".equals(token)) { //$NON-NLS-1$
+                    parenDepth--;
+                    if (parenDepth == 0 && parameters != null && member.key == null) {
+                        parameters.append(parameterTypes(unit.source.substring(parameterStart, tokenizer.start)));
+                        member.key = parameters.append(')').toString();
+                    }
+                } else if ("{".equals(token)) { //$NON-NLS-1$
+                    skipBlock(tokenizer, fileName);
+                }
+                continue;
+            }
+
+            // annotations, with their arguments, are not part of the key
+            if (annotationState == 1 && tokenizer.type == Tokenizer.WORD
+                    && !"interface".equals(token)) { //$NON-NLS-1$
+                annotationState = 2;
+                continue;
+            } else if (annotationState == 2 && ".".equals(token)) { //$NON-NLS-1$
+                annotationState = 1;
+                continue;
+            } else if (annotationState == 2 && "(".equals(token)) { //$NON-NLS-1$
+                annotationState = 0;
+                skipParentheses(tokenizer, fileName);
+                continue;
+            }
+            annotationState = 0;
+            if ("@".equals(token) && !sawAssignment) { //$NON-NLS-1$
+                annotationState = 1;
+                continue;
+            }
+
+            if ("(".equals(token)) { //$NON-NLS-1$
+                parenDepth++;
+                if (inDeclaration && !sawAssignment && member.key == null && previousWord != null) {
+                    // a method or constructor - the key is the name before the parameter list
+                    parameters = new StringBuilder("m:").append(previousWord).append('('); //$NON-NLS-1$
+                    parameterStart = tokenizer.end;
+                }
+            } else if ("<".equals(token)) { //$NON-NLS-1$
+                angleDepth++;
+            } else if (">".equals(token)) { //$NON-NLS-1$
+                angleDepth--;
+            } else if (";".equals(token)) { //$NON-NLS-1$
+                if (member.key == null && typeKeyword == null && previousWord != null) {
+                    member.key = "f:" + previousWord; //$NON-NLS-1$
+                }
+                member.end = tokenizer.end;
+                return finish(unit, member);
+            } else if ("=".equals(token)) { //$NON-NLS-1$
+                if (!sawAssignment && member.key == null && typeKeyword == null && previousWord != null) {
+                    member.key = "f:" + previousWord; //$NON-NLS-1$
+                }
+                sawAssignment = true;
+                inDeclaration = false;
+            } else if (",".equals(token) && angleDepth == 0 && !sawAssignment) { //$NON-NLS-1$
+                // int a, b; - the key is the last name
+                previousWord = null;
+            } else if ("{".equals(token)) { //$NON-NLS-1$
+                inDeclaration = false;
+                skipBlock(tokenizer, fileName);
+                if (!sawAssignment) {
+                    // the body of a method, a nested type or an initializer
+                    member.end = tokenizer.end;
+                    return finish(unit, member);
+                }
+            } else if ("}".equals(token)) { //$NON-NLS-1$
+                throw parseError(fileName, "unexpected }"); //$NON-NLS-1$
+            } else if (tokenizer.type == Tokenizer.WORD) {
+                if (typeKeyword != null && member.key == null) {
+                    member.key = "t:" + token; //$NON-NLS-1$
+                } else if (!"@".equals(tokenizer.previousSignificant) && !sawAssignment //$NON-NLS-1$
+                        && ("class".equals(token) || "interface".equals(token) || "enum".equals(token))) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                    typeKeyword = token;
+                }
+                if (!sawAssignment && angleDepth == 0) {
+                    previousWord = token;
+                }
+            }
+        }
+        throw parseError(fileName, "unexpected end of file"); //$NON-NLS-1$
+    }
+
+    private static Member finish(CompilationUnit unit, Member member) {
+        if (member.key == null) {
+            // an initializer - identified by its text
+            member.key = "x:" + normalize(unit.source.substring(member.start, member.end)); //$NON-NLS-1$
+        }
+        return member;
+    }
+
+    private static void checkTags(Member member, Tokenizer tokenizer, String[] javadocTags) {
+        String comment = tokenizer.text();
+        for (String tag : javadocTags) {
+            if (comment.contains(tag)) {
+                member.generated = true;
+                if (comment.contains(DO_NOT_DELETE_DURING_MERGE)) {
+                    member.doNotDelete = true;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the parameter types of a parameter list, without annotations,
+     * modifiers and names.
+     */
+    private static String parameterTypes(String parameterList) {
+        StringBuilder sb = new StringBuilder();
+        Tokenizer tokenizer = new Tokenizer(parameterList);
+        StringBuilder type = new StringBuilder();
+        String lastWord = null;
+        int depth = 0;
+        boolean annotation = false;
+        while (tokenizer.nextSignificant()) {
+            String token = tokenizer.text();
+            if (annotation) {
+                // skip the annotation name and its arguments
+                if ("(".equals(token)) { //$NON-NLS-1$
+                    depth++;
+                    continue;
+                } else if (")".equals(token)) { //$NON-NLS-1$
+                    depth--;
+                    annotation = depth > 0;
+                    continue;
+                } else if (depth > 0 || tokenizer.type != Tokenizer.WORD
+                        || ".".equals(tokenizer.previousSignificant) || "@".equals(tokenizer.previousSignificant)) { //$NON-NLS-1$ //$NON-NLS-2$
+                    continue;
+                }
+                // the annotation had no arguments - this word is the type
+                annotation = false;
+            }
+            if ("@".equals(token)) { //$NON-NLS-1$
+                annotation = true;
+            } else if ("<".equals(token) || "(".equals(token)) { //$NON-NLS-1$ //$NON-NLS-2$
+                depth++;
+                type.append(token);
+            } else if (">".equals(token) || ")".equals(token)) { //$NON-NLS-1$ //$NON-NLS-2$
+                depth--;
+                type.append(token);
+            } else if (depth == 0 && ",".equals(token)) { //$NON-NLS-1$
+                appendParameterType(sb, type, lastWord);
+                type.setLength(0);
+                lastWord = null;
+            } else if (depth == 0 && tokenizer.type == Tokenizer.WORD && !"final".equals(token)) { //$NON-NLS-1$
+                if (lastWord != null) {
+                    type.append(lastWord);
+                }
+                lastWord = token;
+            } else if (!"final".equals(token)) { //$NON-NLS-1$
+                if (lastWord != null && depth > 0) {
+                    type.append(lastWord);
+                    lastWord = null;
+                }
+                type.append(token);
+            }
+        }
+        appendParameterType(sb, type, lastWord);
+        return sb.toString();
+    }
+
+    private static void appendParameterType(StringBuilder sb, StringBuilder type, String name) {
+        if (type.length() == 0 && name == null) {
+            return;
+        }
+        if (sb.length() > 0) {
+            sb.append(',');
+        }
+        // the last word is the parameter name - the rest is the type
+        sb.append(type);
+    }
+
+    private static void skipStatement(Tokenizer tokenizer, String fileName) throws ShellException {
+        readStatement(tokenizer, fileName);
+    }
+
+    /**
+     * Reads the tokens up to the next semicolon, separated by single spaces
+     * where needed.
+     */
+    private static String readStatement(Tokenizer tokenizer, String fileName) throws ShellException {
+        StringBuilder sb = new StringBuilder();
+        while (tokenizer.nextSignificant()) {
+            String token = tokenizer.text();
+            if (";".equals(token)) { //$NON-NLS-1$
+                return sb.toString();
+            }
+            if (sb.length() > 0 && tokenizer.type == Tokenizer.WORD
+                    && Character.isJavaIdentifierPart(sb.charAt(sb.length() - 1))) {
+                sb.append(' ');
+            }
+            sb.append(token);
+        }
+        throw parseError(fileName, "; expected"); //$NON-NLS-1$
+    }
+
+    /**
+     * Skips a brace block. The opening brace has been read.
+     */
+    private static void skipBlock(Tokenizer tokenizer, String fileName) throws ShellException {
+        int depth = 1;
+        while (tokenizer.nextSignificant()) {
+            char c = tokenizer.firstChar();
+            if (tokenizer.type == Tokenizer.SYMBOL) {
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}' && --depth == 0) {
+                    return;
+                }
+            }
+        }
+        throw parseError(fileName, "unbalanced braces"); //$NON-NLS-1$
+    }
+
+    /**
+     * Skips a parenthesized list. The opening parenthesis has been read.
+     */
+    private static void skipParentheses(Tokenizer tokenizer, String fileName) throws ShellException {
+        int depth = 1;
+        while (tokenizer.nextSignificant()) {
+            char c = tokenizer.firstChar();
+            if (tokenizer.type == Tokenizer.SYMBOL) {
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return;
+                }
+            }
+        }
+        throw parseError(fileName, "unbalanced parentheses"); //$NON-NLS-1$
+    }
+
+    private static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static ShellException parseError(String fileName, String reason) {
+        return new ShellException(getString("Warning.36", fileName, reason)); //$NON-NLS-1$
+    }
+
+    private static class CompilationUnit {
+        private final String source;
+        private final String lineSeparator;
+        private final Set<String> imports = new HashSet<String>();
+        private int packageEnd = -1;
+        private int importsEnd = -1;
+        private String typeName;
+        private boolean isInterface;
+        private boolean isEnum;
+        private TypeClause extendsClause;
+        private TypeClause implementsClause;
+        /** End of the last token of the type header, before the body brace. */
+        private int headerEnd;
+        private int bodyStart;
+        private final List<Member> members = new ArrayList<Member>();
+
+        CompilationUnit(String source) {
+            this.source = source;
+            this.lineSeparator = source.contains("\r\n") ? "\r\n" : "\n"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+        }
+    }
+
+    private static class TypeClause {
+        private final int keywordStart;
+        private int end;
+        private final List<String> types = new ArrayList<String>();
+
+        TypeClause(int keywordStart) {
+            this.keywordStart = keywordStart;
+        }
+    }
+
+    private static class Member {
+        /** Start of the member, including the white space and comments in front of it. */
+        private final int start;
+        private int end;
+        /** Identifies the member: name and parameter types of a method, name of a field or type. */
+        private String key;
+        private boolean generated;
+        private boolean doNotDelete;
+
+        Member(int start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * A minimal Java tokenizer: words (identifiers, keywords and numbers),
+     * string and character literals, comments and single character symbols.
+     */
+    private static class Tokenizer {
+        static final int WORD = 1;
+        static final int LITERAL = 2;
+        static final int COMMENT = 3;
+        static final int SYMBOL = 4;
+
+        private final String source;
+        private int position;
+        private int start;
+        private int end;
+        private int type;
+        private String previousSignificant;
+        private String current;
+
+        Tokenizer(String source) {
+            this.source = source;
+        }
+
+        String text() {
+            if (current == null) {
+                current = source.substring(start, end);
+            }
+            return current;
+        }
+
+        char firstChar() {
+            return source.charAt(start);
+        }
+
+        boolean nextSignificant() {
+            while (next()) {
+                if (type != COMMENT) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean next() {
+            if (current != null || (end > start && type != COMMENT)) {
+                if (type != COMMENT) {
+                    previousSignificant = text();
+                }
+            }
+            current = null;
+            int length = source.length();
+            while (position < length && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+            if (position >= length) {
+                start = end = length;
+                return false;
+            }
+
+            start = position;
+            char c = source.charAt(position);
+            char next = position + 1 < length ? source.charAt(position + 1) : 0;
+            if (c == '/' && next == '/') {
+                int eol = source.indexOf('\n', position);
+                position = eol < 0 ? length : eol;
+                type = COMMENT;
+            } else if (c == '/' && next == '*') {
+                int close = source.indexOf("*/", position + 2); //$NON-NLS-1$
+                position = close < 0 ? length : close + 2;
+                type = COMMENT;
+            } else if (c == '"' || c == '\'') {
+                if (c == '"' && source.startsWith("\"\"\"", position)) { //$NON-NLS-1$
+                    int close = source.indexOf("\"\"\"", position + 3); //$NON-NLS-1$
+                    position = close < 0 ? length : close + 3;
+                } else {
+                    position++;
+                    while (position < length && source.charAt(position) != c) {
+                        if (source.charAt(position) == '\\') {
+                            position++;
+                        }
+                        position++;
+                    }
+                    position = Math.min(position + 1, length);
+                }
+                type = LITERAL;
+            } else if (Character.isJavaIdentifierPart(c)) {
+                while (position < length && Character.isJavaIdentifierPart(source.charAt(position))) {
+                    position++;
+                }
+                type = WORD;
+            } else {
+                position++;
+                type = SYMBOL;
+            }
+            end = position;
+            return true;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.ConnectionFactory;
@@ -60,8 +61,9 @@ public class ObjectFactory {
     private static List<ClassLoader> resourceClassLoaders;
     
     static {
-    	externalClassLoaders = new ArrayList<ClassLoader>();
-        resourceClassLoaders = new ArrayList<ClassLoader>();
+        // the lists are read by every generator thread
+    	externalClassLoaders = new CopyOnWriteArrayList<ClassLoader>();
+        resourceClassLoaders = new CopyOnWriteArrayList<ClassLoader>();
     }
     
     /**
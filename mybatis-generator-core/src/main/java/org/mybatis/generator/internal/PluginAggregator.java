@@ -22,6 +22,7 @@ import java.util.Properties;
 import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.GeneratedXmlFile;
 import org.mybatis.generator.api.Plugin;
+import org.mybatis.generator.api.PluginAdapter;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.dom.java.Field;
@@ -40,12 +41,17 @@ import org.mybatis.generator.config.Context;
  * <p>
  * This class does not follow the normal plugin lifecycle and should not be
  * subclassed by clients.
+ * <p>
+ * Plugins are only added before code generation starts, and the aggregator
+ * keeps no state of its own. When the tables of a context are generated in
+ * parallel, the plugin methods are called concurrently for different tables,
+ * so the configured plugins must be thread safe in that mode.
  * 
  * @author Jeff Butler
  * 
  */
 public final class PluginAggregator implements Plugin {
-    private List<Plugin> plugins;
+    private final List<Plugin> plugins;
 
     public PluginAggregator() {
         plugins = new ArrayList<Plugin>();
@@ -1192,4 +1198,36 @@ public final class PluginAggregator implements Plugin {
 
         return rc;
     }
+
+    /**
+     * Returns the first plugin that generates files for the context as a
+     * whole (by overriding the no-argument
+     * <code>contextGenerateAdditionalJavaFiles</code> or
+     * <code>contextGenerateAdditionalXmlFiles</code> methods). Such plugins
+     * usually collect information from every table, so every table must be
+     * generated when they are active.
+     * 
+     * @return the plugin, or null if no plugin generates context level files
+     */
+    public Plugin getContextFileGeneratingPlugin() {
+        for (Plugin plugin : plugins) {
+            plugin = PluginTimer.unwrap(plugin);
+            if (overrides(plugin, "contextGenerateAdditionalJavaFiles") //$NON-NLS-1$
+                    || overrides(plugin, "contextGenerateAdditionalXmlFiles")) { //$NON-NLS-1$
+                return plugin;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean overrides(Plugin plugin, String methodName) {
+        try {
+            return plugin.getClass().getMethod(methodName)
+                    .getDeclaringClass() != PluginAdapter.class;
+        } catch (NoSuchMethodException e) {
+            // cannot happen - the method is declared by the Plugin interface
+            return true;
+        }
+    }
 }
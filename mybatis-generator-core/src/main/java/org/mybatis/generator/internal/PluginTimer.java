@@ -0,0 +1,89 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.mybatis.generator.api.GenerationMetrics;
+import org.mybatis.generator.api.Plugin;
+
+/**
+ * This class is for internal use only. It wraps a plugin in a proxy that
+ * records the time spent in every plugin method.
+ * 
+ * @author fury
+ */
+public class PluginTimer implements InvocationHandler {
+
+    private final Plugin plugin;
+
+    private final String pluginName;
+
+    private final GenerationMetrics metrics;
+
+    private PluginTimer(Plugin plugin, GenerationMetrics metrics) {
+        super();
+        this.plugin = plugin;
+        this.pluginName = plugin.getClass().getName();
+        this.metrics = metrics;
+    }
+
+    /**
+     * Wraps a plugin.
+     *
+     * @param plugin
+     *            the plugin
+     * @param metrics
+     *            the metrics the plugin times are added to
+     * @return the timed plugin
+     */
+    public static Plugin wrap(Plugin plugin, GenerationMetrics metrics) {
+        return (Plugin) Proxy.newProxyInstance(plugin.getClass().getClassLoader(),
+                new Class<?>[] { Plugin.class }, new PluginTimer(plugin, metrics));
+    }
+
+    /**
+     * Returns the plugin wrapped by {@link #wrap(Plugin, GenerationMetrics)}.
+     *
+     * @param plugin
+     *            a plugin, wrapped or not
+     * @return the original plugin
+     */
+    public static Plugin unwrap(Plugin plugin) {
+        if (Proxy.isProxyClass(plugin.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(plugin);
+            if (handler instanceof PluginTimer) {
+                return ((PluginTimer) handler).plugin;
+            }
+        }
+
+        return plugin;
+    }
+
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return method.invoke(plugin, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            metrics.addPluginTime(pluginName, System.nanoTime() - start);
+        }
+    }
+}
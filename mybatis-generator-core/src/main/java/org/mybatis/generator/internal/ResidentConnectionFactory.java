@@ -0,0 +1,187 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Properties;
+
+import org.mybatis.generator.api.ConnectionFactory;
+import org.mybatis.generator.config.Context;
+
+/**
+ * A connection factory that keeps the connections of a context open. The
+ * generator closes every connection it gets; the connections returned by this
+ * factory are only given back to the factory on close, and are reused by the
+ * next call to {@link #getConnection()}. A connection that is no longer valid
+ * is discarded and replaced.
+ *
+ * <p>The connections are opened with the connection factory configured for the
+ * context. That factory is created on first use, when the class path entries
+ * of the configuration are available.
+ *
+ * <p>The connections are really closed by {@link #close()}.
+ *
+ * <p>This class is thread safe.
+ */
+public class ResidentConnectionFactory implements ConnectionFactory {
+
+    /** Seconds to wait for a connection to validate before it is replaced. */
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    private final Context context;
+
+    private ConnectionFactory connectionFactory;
+
+    /** The open connections that are not in use, most recently used first. */
+    private final LinkedList<Connection> idleConnections = new LinkedList<Connection>();
+
+    /** All open connections. */
+    private final List<Connection> connections = new ArrayList<Connection>();
+
+    public ResidentConnectionFactory(Context context) {
+        super();
+        this.context = context;
+    }
+
+    public Connection getConnection() throws SQLException {
+        Connection connection;
+        while ((connection = takeIdleConnection()) != null) {
+            if (isValid(connection)) {
+                return wrap(connection);
+            }
+            discard(connection);
+        }
+
+        connection = getConnectionFactory().getConnection();
+        synchronized (this) {
+            connections.add(connection);
+        }
+        return wrap(connection);
+    }
+
+    public void addConfigurationProperties(Properties properties) {
+        // the configured factory gets the properties of the context
+    }
+
+    /**
+     * Closes all connections of this factory. Connections in use are closed
+     * as well; the factory may be used again afterwards.
+     */
+    public void close() {
+        List<Connection> connectionsToClose;
+        synchronized (this) {
+            connectionsToClose = new ArrayList<Connection>(connections);
+            connections.clear();
+            idleConnections.clear();
+        }
+
+        for (Connection connection : connectionsToClose) {
+            closeQuietly(connection);
+        }
+    }
+
+    private synchronized ConnectionFactory getConnectionFactory() {
+        if (connectionFactory == null) {
+            connectionFactory = context.createConnectionFactory();
+        }
+        return connectionFactory;
+    }
+
+    private synchronized Connection takeIdleConnection() {
+        return idleConnections.poll();
+    }
+
+    private synchronized void release(Connection connection) {
+        // ignore connections closed by close() while in use
+        if (connections.contains(connection)) {
+            idleConnections.addFirst(connection);
+        }
+    }
+
+    private void discard(Connection connection) {
+        synchronized (this) {
+            connections.remove(connection);
+        }
+        closeQuietly(connection);
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return !connection.isClosed() && connection.isValid(VALIDATION_TIMEOUT);
+        } catch (SQLException e) {
+            return false;
+        } catch (AbstractMethodError e) {
+            // a pre JDBC 4 driver - trust the connection
+            return true;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // ignore
+        }
+    }
+
+    /**
+     * Wraps a connection so that closing the wrapper gives the connection
+     * back to this factory.
+     *
+     * @param connection
+     *            the connection
+     * @return the wrapper
+     */
+    private Connection wrap(final Connection connection) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean closed;
+
+            public Object invoke(Object proxy, Method method, Object[] args)
+                    throws Throwable {
+                String name = method.getName();
+                if ("close".equals(name) && method.getParameterTypes().length == 0) { //$NON-NLS-1$
+                    if (!closed) {
+                        closed = true;
+                        release(connection);
+                    }
+                    return null;
+                } else if ("isClosed".equals(name) && method.getParameterTypes().length == 0) { //$NON-NLS-1$
+                    return closed || connection.isClosed();
+                } else if (closed && method.getDeclaringClass() == Connection.class) {
+                    throw new SQLException("Connection is closed"); //$NON-NLS-1$
+                }
+
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, handler);
+    }
+}
@@ -65,6 +65,16 @@ public class XmlFileMergerJaxp {
         }
     }
 
+    /** Shared by all merges - creating a factory means a service lookup. */
+    private static final DocumentBuilderFactory FACTORY = createFactory();
+
+    private static DocumentBuilderFactory createFactory() {
+        DocumentBuilderFactory factory = DocumentBuilderFactory
+                .newInstance();
+        factory.setExpandEntityReferences(false);
+        return factory;
+    }
+
     /**
      * Utility class - no instances allowed
      */
@@ -95,10 +105,10 @@ public class XmlFileMergerJaxp {
             InputSource existingFile, String existingFileName) throws IOException, SAXException,
             ParserConfigurationException, ShellException {
 
-        DocumentBuilderFactory factory = DocumentBuilderFactory
-                .newInstance();
-        factory.setExpandEntityReferences(false);
-        DocumentBuilder builder = factory.newDocumentBuilder();
+        DocumentBuilder builder;
+        synchronized (FACTORY) {
+            builder = FACTORY.newDocumentBuilder();
+        }
         builder.setEntityResolver(new NullEntityResolver());
 
         Document existingDocument = builder.parse(existingFile);
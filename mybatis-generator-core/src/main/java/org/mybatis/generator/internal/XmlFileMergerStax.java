@@ -0,0 +1,460 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.mybatis.generator.internal.util.messages.Messages.getString;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.mybatis.generator.api.GeneratedXmlFile;
+import org.mybatis.generator.api.dom.DefaultXmlFormatter;
+import org.mybatis.generator.api.dom.OutputUtilities;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.MergeConstants;
+import org.mybatis.generator.exception.ShellException;
+
+/**
+ * This class handles the task of merging changes into an existing XML file in
+ * a single streaming pass.
+ *
+ * <p>The existing file is read with a StAX pull parser and written back event by
+ * event. Generated elements - recognized the same way as in
+ * {@link XmlFileMergerJaxp}: an id with one of the old prefixes, or a first
+ * child comment containing one of the old element tags - are dropped together
+ * with the white space in front of them. The new generated elements are
+ * rendered straight from the {@link Document} of the generated file, so the
+ * generated XML is never formatted to a String and parsed again, and no DOM is
+ * built for either file.
+ *
+ * <p>Files with a custom {@link org.mybatis.generator.api.XmlFormatter} are
+ * passed to {@link XmlFileMergerJaxp} so that the formatter still decides how
+ * the generated elements look.
+ */
+public class XmlFileMergerStax {
+
+    private static final String CDATA_EVENT_PROPERTY = "http://java.sun.com/xml/stream/properties/report-cdata-event"; //$NON-NLS-1$
+
+    /** Shared by all merges - creating a factory means a service lookup. */
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    /**
+     * Utility class - no instances allowed
+     */
+    private XmlFileMergerStax() {
+        super();
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // the DTD is not needed for the merge, and reading it can cause problems
+        // on systems that aren't Internet connected
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        if (factory.isPropertySupported(CDATA_EVENT_PROPERTY)) {
+            factory.setProperty(CDATA_EVENT_PROPERTY, Boolean.TRUE);
+        }
+        return factory;
+    }
+
+    public static String getMergedSource(GeneratedXmlFile generatedXmlFile,
+            File existingFile) throws ShellException {
+        if (generatedXmlFile.getXmlFormatter() == null
+                || generatedXmlFile.getXmlFormatter().getClass() != DefaultXmlFormatter.class) {
+            return XmlFileMergerJaxp.getMergedSource(generatedXmlFile, existingFile);
+        }
+
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader(new FileInputStream(existingFile), "UTF-8"); //$NON-NLS-1$
+            return getMergedSource(generatedXmlFile.getDocument(), reader,
+                    existingFile.getName());
+        } catch (IOException e) {
+            throw new ShellException(getString("Warning.13", //$NON-NLS-1$
+                    existingFile.getName()), e);
+        } catch (XMLStreamException e) {
+            throw new ShellException(getString("Warning.13", //$NON-NLS-1$
+                    existingFile.getName()), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    public static String getMergedSource(Document newDocument, Reader existingFile,
+            String existingFileName) throws IOException, XMLStreamException, ShellException {
+        XMLStreamReader reader;
+        synchronized (INPUT_FACTORY) {
+            reader = INPUT_FACTORY.createXMLStreamReader(existingFile);
+        }
+
+        try {
+            return new Merger(newDocument, reader, existingFileName).merge();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * The state of one merge.
+     */
+    private static class Merger {
+        private final Document newDocument;
+        private final XMLStreamReader reader;
+        private final String existingFileName;
+        private final StringBuilder out = new StringBuilder();
+        private final String lineSeparator = System.getProperty("line.separator"); //$NON-NLS-1$
+
+        /** Depth of the current element, the root element is depth 1. */
+        private int depth;
+        private boolean sawDocType;
+
+        /** True when the last start tag has not been closed with '>' yet. */
+        private boolean startTagOpen;
+
+        /** White space between two children of the root element. */
+        private final StringBuilder pendingWhiteSpace = new StringBuilder();
+
+        /**
+         * Output length before a child of the root element that may still turn
+         * out to be generated, or -1.
+         */
+        private int candidateMark = -1;
+
+        /** Depth of the generated element being skipped, or 0. */
+        private int skipDepth;
+
+        Merger(Document newDocument, XMLStreamReader reader, String existingFileName) {
+            this.newDocument = newDocument;
+            this.reader = reader;
+            this.existingFileName = existingFileName;
+        }
+
+        String merge() throws IOException, XMLStreamException, ShellException {
+            String version = reader.getVersion();
+            out.append("<?xml version=\""); //$NON-NLS-1$
+            out.append("1.1".equals(version) ? "1.1" : "1.0"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+            out.append("\" encoding=\"UTF-8\"?>"); //$NON-NLS-1$
+            out.append(lineSeparator);
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (skipDepth > 0) {
+                    skip(event);
+                } else {
+                    write(event);
+                }
+            }
+
+            return out.toString();
+        }
+
+        private void skip(int event) {
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth-- == skipDepth) {
+                    skipDepth = 0;
+                }
+            }
+        }
+
+        private void write(int event) throws IOException, ShellException {
+            if (candidateMark >= 0 && !isWhiteSpace(event)) {
+                // the leading comments of a root element child decide whether
+                // it is generated, like XmlFileMergerJaxp.isGeneratedNode
+                if (event == XMLStreamConstants.COMMENT) {
+                    if (containsTag(reader.getText())) {
+                        out.setLength(candidateMark);
+                        candidateMark = -1;
+                        startTagOpen = false;
+                        skipDepth = depth;
+                        return;
+                    }
+                } else {
+                    candidateMark = -1;
+                }
+            }
+
+            switch (event) {
+            case XMLStreamConstants.DTD:
+                writeDocType();
+                break;
+            case XMLStreamConstants.START_ELEMENT:
+                writeStartElement();
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                writeEndElement();
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+                writeCharacters();
+                break;
+            case XMLStreamConstants.CDATA:
+                writeContent("<![CDATA[", reader.getText(), "]]>"); //$NON-NLS-1$ //$NON-NLS-2$
+                break;
+            case XMLStreamConstants.COMMENT:
+                writeContent("<!--", reader.getText(), "-->"); //$NON-NLS-1$ //$NON-NLS-2$
+                break;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                String data = reader.getPIData();
+                writeContent("<?" + reader.getPITarget(), //$NON-NLS-1$
+                        data == null || data.length() == 0 ? "" : " " + data, "?>"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+                break;
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                closeStartTag();
+                out.append('&').append(reader.getLocalName()).append(';');
+                break;
+            default:
+                break;
+            }
+        }
+
+        private void writeDocType() throws ShellException {
+            String docType = reader.getText();
+            // <!DOCTYPE name ...
+            int start = "<!DOCTYPE".length(); //$NON-NLS-1$
+            while (start < docType.length() && Character.isWhitespace(docType.charAt(start))) {
+                start++;
+            }
+            int end = start;
+            while (end < docType.length() && !Character.isWhitespace(docType.charAt(end))
+                    && docType.charAt(end) != '>' && docType.charAt(end) != '[') {
+                end++;
+            }
+            if (!docType.substring(start, end).equals(newDocument.getRootElement().getName())) {
+                throw new ShellException(getString("Warning.12", //$NON-NLS-1$
+                        existingFileName));
+            }
+
+            sawDocType = true;
+            out.append(docType.replace("\n", lineSeparator)); //$NON-NLS-1$
+            out.append(lineSeparator);
+        }
+
+        private void writeStartElement() throws IOException, ShellException {
+            depth++;
+            if (depth == 1) {
+                writeRootElement();
+                return;
+            }
+
+            if (depth == 2) {
+                if (hasGeneratedId()) {
+                    // drop the element and the white space in front of it
+                    pendingWhiteSpace.setLength(0);
+                    skipDepth = depth;
+                    return;
+                }
+                candidateMark = out.length();
+                flushWhiteSpace();
+            }
+
+            closeStartTag();
+            out.append('<').append(getName());
+            // sorted like DomWriter does
+            int count = reader.getNamespaceCount();
+            String[] attributes = new String[count + reader.getAttributeCount()];
+            for (int i = 0; i < count; i++) {
+                String prefix = reader.getNamespacePrefix(i);
+                attributes[i] = (prefix == null || prefix.length() == 0 ? "xmlns" : "xmlns:" + prefix) //$NON-NLS-1$ //$NON-NLS-2$
+                        + '\u0000' + reader.getNamespaceURI(i);
+            }
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                String prefix = reader.getAttributePrefix(i);
+                String name = prefix == null || prefix.length() == 0 ? reader.getAttributeLocalName(i)
+                        : prefix + ':' + reader.getAttributeLocalName(i);
+                attributes[count + i] = name + '\u0000' + reader.getAttributeValue(i);
+            }
+            Arrays.sort(attributes);
+            for (String attribute : attributes) {
+                int separator = attribute.indexOf('\u0000');
+                out.append(' ').append(attribute, 0, separator).append("=\""); //$NON-NLS-1$
+                escape(attribute.substring(separator + 1), true);
+                out.append('"');
+            }
+            startTagOpen = true;
+        }
+
+        private void writeRootElement() throws IOException, ShellException {
+            XmlElement newRootElement = newDocument.getRootElement();
+            if (!sawDocType || !newRootElement.getName().equals(getName())) {
+                throw new ShellException(getString("Warning.12", //$NON-NLS-1$
+                        existingFileName));
+            }
+
+            // the attributes of the root element are taken from the new file,
+            // the new generated elements are added in front of the existing
+            // children
+            out.append('<').append(newRootElement.getName());
+            for (Attribute attribute : newRootElement.getAttributes()) {
+                out.append(' ');
+                attribute.render(out);
+            }
+            if (newRootElement.getElements().isEmpty()) {
+                startTagOpen = true;
+            } else {
+                out.append('>');
+                for (Element element : newRootElement.getElements()) {
+                    OutputUtilities.newLine(out);
+                    element.render(out, 1);
+                }
+            }
+        }
+
+        private void writeEndElement() {
+            if (depth == 1) {
+                flushWhiteSpace();
+            }
+            depth--;
+            if (startTagOpen) {
+                out.append(" />"); //$NON-NLS-1$
+                startTagOpen = false;
+            } else {
+                out.append("</").append(getName()).append('>'); //$NON-NLS-1$
+            }
+            if (depth == 1) {
+                candidateMark = -1;
+            }
+        }
+
+        private void writeCharacters() {
+            if (depth == 1 && reader.isWhiteSpace()) {
+                pendingWhiteSpace.append(reader.getTextCharacters(), reader.getTextStart(),
+                        reader.getTextLength());
+                return;
+            }
+            if (depth == 0) {
+                // white space outside the root element
+                return;
+            }
+            flushWhiteSpace();
+            closeStartTag();
+            escape(reader.getText(), false);
+        }
+
+        private void writeContent(String prefix, String content, String suffix) {
+            flushWhiteSpace();
+            closeStartTag();
+            out.append(prefix);
+            out.append(content.replace("\n", lineSeparator)); //$NON-NLS-1$
+            out.append(suffix);
+            if (depth == 0) {
+                out.append(lineSeparator);
+            }
+        }
+
+        private void flushWhiteSpace() {
+            if (pendingWhiteSpace.length() > 0) {
+                closeStartTag();
+                escape(pendingWhiteSpace, false);
+                pendingWhiteSpace.setLength(0);
+            }
+        }
+
+        private void closeStartTag() {
+            if (startTagOpen) {
+                out.append('>');
+                startTagOpen = false;
+            }
+        }
+
+        private String getName() {
+            String prefix = reader.getPrefix();
+            return prefix == null || prefix.length() == 0 ? reader.getLocalName()
+                    : prefix + ':' + reader.getLocalName();
+        }
+
+        private boolean isWhiteSpace(int event) {
+            return (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE)
+                    && reader.isWhiteSpace();
+        }
+
+        private boolean hasGeneratedId() {
+            String id = reader.getAttributeValue(null, "id"); //$NON-NLS-1$
+            if (id != null) {
+                for (String prefix : MergeConstants.OLD_XML_ELEMENT_PREFIXES) {
+                    if (id.startsWith(prefix)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean containsTag(String comment) {
+            for (String tag : MergeConstants.OLD_ELEMENT_TAGS) {
+                if (comment.contains(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Escapes text the same way as {@link DomWriter}.
+         */
+        private void escape(CharSequence s, boolean isAttValue) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                case '<':
+                    out.append("&lt;"); //$NON-NLS-1$
+                    break;
+                case '>':
+                    out.append("&gt;"); //$NON-NLS-1$
+                    break;
+                case '&':
+                    out.append("&amp;"); //$NON-NLS-1$
+                    break;
+                case '"':
+                    out.append(isAttValue ? "&quot;" : "\""); //$NON-NLS-1$ //$NON-NLS-2$
+                    break;
+                case '\r':
+                    out.append("&#xD;"); //$NON-NLS-1$
+                    break;
+                case '\n':
+                    out.append(isAttValue ? "&#xA;" : lineSeparator); //$NON-NLS-1$
+                    break;
+                case '\t':
+                    out.append(isAttValue ? "&#x9;" : "\t"); //$NON-NLS-1$ //$NON-NLS-2$
+                    break;
+                default:
+                    out.append(c);
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the raw values of one row returned by
+ * <code>DatabaseMetaData.getColumns</code>. Rows are kept in this form
+ * so that they can be cached and turned into new IntrospectedColumn
+ * instances as often as needed.
+ * 
+ * @author fury
+ */
+public class ColumnRow {
+
+    private ActualTableName actualTableName;
+    private int jdbcType;
+    private int length;
+    private String columnName;
+    private boolean nullable;
+    private int scale;
+    private String remarks;
+    private String defaultValue;
+    private Boolean autoIncrement;
+    private Boolean generatedColumn;
+
+    private ColumnRow() {
+        super();
+    }
+
+    public ColumnRow(ActualTableName actualTableName, int jdbcType, int length,
+            String columnName, boolean nullable, int scale, String remarks,
+            String defaultValue, Boolean autoIncrement, Boolean generatedColumn) {
+        super();
+        this.actualTableName = actualTableName;
+        this.jdbcType = jdbcType;
+        this.length = length;
+        this.columnName = columnName;
+        this.nullable = nullable;
+        this.scale = scale;
+        this.remarks = remarks;
+        this.defaultValue = defaultValue;
+        this.autoIncrement = autoIncrement;
+        this.generatedColumn = generatedColumn;
+    }
+
+    public ActualTableName getActualTableName() {
+        return actualTableName;
+    }
+
+    public int getJdbcType() {
+        return jdbcType;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * @return the IS_AUTOINCREMENT value, or null if the driver does not
+     *         report it
+     */
+    public Boolean getAutoIncrement() {
+        return autoIncrement;
+    }
+
+    /**
+     * @return the IS_GENERATEDCOLUMN value, or null if the driver does not
+     *         report it
+     */
+    public Boolean getGeneratedColumn() {
+        return generatedColumn;
+    }
+
+    /**
+     * Reads every row of a result set returned by
+     * <code>DatabaseMetaData.getColumns</code>. The result set is not closed.
+     * 
+     * @param rs
+     *            the result set
+     * @return the rows, in result set order
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static List<ColumnRow> readAll(ResultSet rs) throws SQLException {
+        boolean supportsIsAutoIncrement = false;
+        boolean supportsIsGeneratedColumn = false;
+        ResultSetMetaData rsmd = rs.getMetaData();
+        int colCount = rsmd.getColumnCount();
+        for (int i = 1; i <= colCount; i++) {
+            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
+                supportsIsAutoIncrement = true;
+            }
+            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
+                supportsIsGeneratedColumn = true;
+            }
+        }
+
+        List<ColumnRow> answer = new ArrayList<ColumnRow>();
+        while (rs.next()) {
+            ColumnRow row = new ColumnRow();
+            row.jdbcType = rs.getInt("DATA_TYPE"); //$NON-NLS-1$
+            row.length = rs.getInt("COLUMN_SIZE"); //$NON-NLS-1$
+            row.columnName = rs.getString("COLUMN_NAME"); //$NON-NLS-1$
+            row.nullable = rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable; //$NON-NLS-1$
+            row.scale = rs.getInt("DECIMAL_DIGITS"); //$NON-NLS-1$
+            row.remarks = rs.getString("REMARKS"); //$NON-NLS-1$
+            row.defaultValue = rs.getString("COLUMN_DEF"); //$NON-NLS-1$
+
+            if (supportsIsAutoIncrement) {
+                row.autoIncrement = "YES".equals(rs.getString("IS_AUTOINCREMENT")); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            if (supportsIsGeneratedColumn) {
+                row.generatedColumn = "YES".equals(rs.getString("IS_GENERATEDCOLUMN")); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            row.actualTableName = new ActualTableName(
+                    rs.getString("TABLE_CAT"), //$NON-NLS-1$
+                    rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
+                    rs.getString("TABLE_NAME")); //$NON-NLS-1$
+
+            answer.add(row);
+        }
+
+        return answer;
+    }
+}
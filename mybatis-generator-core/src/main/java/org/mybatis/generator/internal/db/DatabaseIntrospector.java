@@ -26,7 +26,6 @@ import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -72,6 +71,24 @@ public class DatabaseIntrospector {
     /** The context. */
     private Context context;
     
+    /** The schema metadata cache, or null if tables are introspected one by one. */
+    private SchemaMetadataCache schemaMetadataCache;
+
+    /** The snapshot of a previous run, or null. */
+    private IntrospectionSnapshot referenceSnapshot;
+
+    /** If true, all metadata is read from the reference snapshot. */
+    private boolean offline;
+
+    /** The snapshot that records the metadata read by this introspector, or null. */
+    private IntrospectionSnapshot recordingSnapshot;
+
+    /** The raw column rows of the table configuration being introspected. */
+    private Map<ActualTableName, List<ColumnRow>> columnRows;
+
+    /** The catalog, schema and table name the column rows were read with. */
+    private ActualTableName columnScope;
+
     /** The logger. */
     private Log logger;
 
@@ -90,24 +107,198 @@ public class DatabaseIntrospector {
     public DatabaseIntrospector(Context context,
             DatabaseMetaData databaseMetaData,
             JavaTypeResolver javaTypeResolver, List<String> warnings) {
+        this(context, databaseMetaData, javaTypeResolver, warnings, null);
+    }
+
+    /**
+     * Instantiates a new database introspector that serves column, primary key
+     * and table metadata from a schema metadata cache when possible.
+     *
+     * @param context
+     *            the context
+     * @param databaseMetaData
+     *            the database meta data
+     * @param javaTypeResolver
+     *            the java type resolver
+     * @param warnings
+     *            the warnings
+     * @param schemaMetadataCache
+     *            the schema metadata cache, may be null
+     */
+    public DatabaseIntrospector(Context context,
+            DatabaseMetaData databaseMetaData,
+            JavaTypeResolver javaTypeResolver, List<String> warnings,
+            SchemaMetadataCache schemaMetadataCache) {
         super();
         this.context = context;
         this.databaseMetaData = databaseMetaData;
         this.javaTypeResolver = javaTypeResolver;
         this.warnings = warnings;
+        this.schemaMetadataCache = schemaMetadataCache;
         logger = LogFactory.getLog(getClass());
     }
 
+    /**
+     * Sets the snapshot of a previous run as the only source of metadata
+     * (offline introspection). The database metadata may be null.
+     *
+     * @param referenceSnapshot
+     *            the snapshot of a previous run
+     */
+    public void setOfflineSnapshot(IntrospectionSnapshot referenceSnapshot) {
+        this.referenceSnapshot = referenceSnapshot;
+        this.offline = true;
+    }
+
+    /**
+     * Sets the snapshot of a previous run for online introspection. When the
+     * schema metadata cache knows the columns, primary key and table
+     * information of a table, and their fingerprint matches the fingerprint in
+     * the snapshot, the primary key and table information are taken from the
+     * snapshot. Otherwise the table is read from the database as usual.
+     *
+     * @param referenceSnapshot
+     *            the snapshot of a previous run
+     */
+    public void setReferenceSnapshot(IntrospectionSnapshot referenceSnapshot) {
+        this.referenceSnapshot = referenceSnapshot;
+    }
+
+    /**
+     * Calculates the fingerprint of the tables matching a table configuration
+     * from the schema metadata cache, without building introspected tables.
+     * The whole catalog/schema of the table is read on first use, so checking
+     * many tables of a schema costs one read.
+     *
+     * @param tc
+     *            the table configuration
+     * @return the fingerprint; an empty string if no table matches. Null if
+     *         there is no schema metadata cache, the table name contains
+     *         wildcards, or the cache does not know the primary key or table
+     *         information of a table - the table must then be introspected to
+     *         find out whether it changed.
+     * @throws SQLException
+     *             if the schema cannot be read
+     */
+    public String calculateSchemaFingerprint(TableConfiguration tc)
+            throws SQLException {
+        if (offline || schemaMetadataCache == null) {
+            return null;
+        }
+
+        ActualTableName localName = getLocalTableName(tc);
+        if (stringContainsPercent(localName.getSchema())
+                || stringContainsPercent(localName.getTableName())) {
+            return null;
+        }
+
+        Map<ActualTableName, List<ColumnRow>> rows = schemaMetadataCache.getColumns(
+                databaseMetaData, localName.getCatalog(), localName.getSchema(),
+                localName.getTableName());
+
+        // the same tables always give the same fingerprint
+        Map<String, String> fingerprints = new TreeMap<String, String>();
+        for (ActualTableName atn : rows.keySet()) {
+            String fingerprint = schemaMetadataCache.getFingerprint(
+                    localName.getCatalog(), localName.getSchema(), atn);
+            if (fingerprint == null) {
+                return null;
+            }
+            fingerprints.put(atn.toString(), fingerprint);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String fingerprint : fingerprints.values()) {
+            sb.append(fingerprint);
+            sb.append(' ');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Returns true if the table was read from the schema metadata cache and
+     * did not change since the reference snapshot was taken.
+     *
+     * @param atn
+     *            the actual table name
+     * @return true, if the table can be taken from the reference snapshot
+     */
+    private boolean isUnchangedSinceSnapshot(ActualTableName atn) {
+        if (offline || referenceSnapshot == null || schemaMetadataCache == null) {
+            return false;
+        }
+
+        String fingerprint = referenceSnapshot.getFingerprint(atn);
+        boolean unchanged = fingerprint != null
+                && fingerprint.equals(schemaMetadataCache.getFingerprint(
+                        columnScope.getCatalog(), columnScope.getSchema(), atn));
+
+        if (unchanged && logger.isDebugEnabled()) {
+            logger.debug("Table " + atn + " is unchanged since the snapshot"); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        return unchanged;
+    }
+
+    /**
+     * Sets a snapshot to which the raw metadata of every introspected table is
+     * added.
+     *
+     * @param recordingSnapshot
+     *            the recording snapshot
+     */
+    public void setRecordingSnapshot(IntrospectionSnapshot recordingSnapshot) {
+        this.recordingSnapshot = recordingSnapshot;
+    }
+
     /**
      * Calculate primary key.
      *
+     * @param atn
+     *            the actual table name
      * @param table
      *            the table
      * @param introspectedTable
      *            the introspected table
+     * @param fromSnapshot
+     *            if true, the primary key is taken from the reference snapshot
+     * @return the primary key columns, in key sequence order
+     */
+    private List<String> calculatePrimaryKey(ActualTableName atn,
+            FullyQualifiedTable table, IntrospectedTable introspectedTable,
+            boolean fromSnapshot) {
+        List<String> keyColumns = null;
+
+        if (offline || fromSnapshot) {
+            keyColumns = referenceSnapshot.getPrimaryKeyColumns(atn);
+        }
+
+        if (keyColumns == null && schemaMetadataCache != null) {
+            keyColumns = schemaMetadataCache.getPrimaryKeyColumns(
+                    table.getIntrospectedCatalog(), table.getIntrospectedSchema(),
+                    table.getIntrospectedTableName());
+        }
+
+        if (keyColumns == null) {
+            keyColumns = offline ? new ArrayList<String>() : readPrimaryKey(table);
+        }
+
+        for (String columnName : keyColumns) {
+            introspectedTable.addPrimaryKeyColumn(columnName);
+        }
+
+        return keyColumns;
+    }
+
+    /**
+     * Reads the primary key of a table from the database metadata.
+     *
+     * @param table
+     *            the table
+     * @return the primary key columns, in key sequence order
      */
-    private void calculatePrimaryKey(FullyQualifiedTable table,
-            IntrospectedTable introspectedTable) {
+    private List<String> readPrimaryKey(FullyQualifiedTable table) {
         ResultSet rs = null;
 
         try {
@@ -118,7 +309,7 @@ public class DatabaseIntrospector {
         } catch (SQLException e) {
             closeResultSet(rs);
             warnings.add(getString("Warning.15")); //$NON-NLS-1$
-            return;
+            return new ArrayList<String>();
         }
 
         try {
@@ -130,11 +321,10 @@ public class DatabaseIntrospector {
                 keyColumns.put(keySeq, columnName);
             }
             
-            for (String columnName : keyColumns.values()) {
-                introspectedTable.addPrimaryKeyColumn(columnName);
-            }
+            return new ArrayList<String>(keyColumns.values());
         } catch (SQLException e) {
             // ignore the primary key if there's any error
+            return new ArrayList<String>();
         } finally {
             closeResultSet(rs);
         }
@@ -527,46 +717,56 @@ public class DatabaseIntrospector {
      */
     private Map<ActualTableName, List<IntrospectedColumn>> getColumns(
             TableConfiguration tc) throws SQLException {
-        String localCatalog;
-        String localSchema;
-        String localTableName;
+        ActualTableName localName = getLocalTableName(tc);
+        String localCatalog = localName.getCatalog();
+        String localSchema = localName.getSchema();
+        String localTableName = localName.getTableName();
+        columnScope = localName;
+
+        Map<ActualTableName, List<ColumnRow>> rows;
+        if (offline) {
+            if (logger.isDebugEnabled()) {
+                String fullTableName = composeFullyQualifiedTableName(localCatalog, localSchema,
+                                localTableName, '.');
+                logger.debug(getString("Tracing.1", fullTableName)); //$NON-NLS-1$
+            }
 
-        boolean delimitIdentifiers = tc.isDelimitIdentifiers()
-                || stringContainsSpace(tc.getCatalog())
-                || stringContainsSpace(tc.getSchema())
-                || stringContainsSpace(tc.getTableName());
+            rows = referenceSnapshot.getColumns(localCatalog, localSchema,
+                    localTableName);
+        } else if (schemaMetadataCache != null
+                && !stringContainsPercent(localSchema)
+                && !stringContainsPercent(localTableName)) {
+            if (logger.isDebugEnabled()) {
+                String fullTableName = composeFullyQualifiedTableName(localCatalog, localSchema,
+                                localTableName, '.');
+                logger.debug(getString("Tracing.1", fullTableName)); //$NON-NLS-1$
+            }
 
-        if (delimitIdentifiers) {
-            localCatalog = tc.getCatalog();
-            localSchema = tc.getSchema();
-            localTableName = tc.getTableName();
-        } else if (databaseMetaData.storesLowerCaseIdentifiers()) {
-            localCatalog = tc.getCatalog() == null ? null : tc.getCatalog()
-                    .toLowerCase();
-            localSchema = tc.getSchema() == null ? null : tc.getSchema()
-                    .toLowerCase();
-            localTableName = tc.getTableName() == null ? null : tc
-                    .getTableName().toLowerCase();
-        } else if (databaseMetaData.storesUpperCaseIdentifiers()) {
-            localCatalog = tc.getCatalog() == null ? null : tc.getCatalog()
-                    .toUpperCase();
-            localSchema = tc.getSchema() == null ? null : tc.getSchema()
-                    .toUpperCase();
-            localTableName = tc.getTableName() == null ? null : tc
-                    .getTableName().toUpperCase();
+            // the cache matches table names exactly, so there is nothing to
+            // escape
+            rows = schemaMetadataCache.getColumns(databaseMetaData,
+                    localCatalog, localSchema, localTableName);
         } else {
-            localCatalog = tc.getCatalog();
-            localSchema = tc.getSchema();
-            localTableName = tc.getTableName();
-        }
-
-        if (tc.isWildcardEscapingEnabled()) {
-            String escapeString = databaseMetaData.getSearchStringEscape();
+            if (tc.isWildcardEscapingEnabled()) {
+                String escapeString = databaseMetaData.getSearchStringEscape();
+
+                StringBuilder sb = new StringBuilder();
+                StringTokenizer st;
+                if (localSchema != null) {
+                    st = new StringTokenizer(localSchema, "_%", true); //$NON-NLS-1$
+                    while (st.hasMoreTokens()) {
+                        String token = st.nextToken();
+                        if (token.equals("_") //$NON-NLS-1$
+                                || token.equals("%")) { //$NON-NLS-1$
+                            sb.append(escapeString);
+                        }
+                        sb.append(token);
+                    }
+                    localSchema = sb.toString();
+                }
 
-            StringBuilder sb = new StringBuilder();
-            StringTokenizer st;
-            if (localSchema != null) {
-                st = new StringTokenizer(localSchema, "_%", true); //$NON-NLS-1$
+                sb.setLength(0);
+                st = new StringTokenizer(localTableName, "_%", true); //$NON-NLS-1$
                 while (st.hasMoreTokens()) {
                     String token = st.nextToken();
                     if (token.equals("_") //$NON-NLS-1$
@@ -575,92 +775,75 @@ public class DatabaseIntrospector {
                     }
                     sb.append(token);
                 }
-                localSchema = sb.toString();
+                localTableName = sb.toString();
             }
 
-            sb.setLength(0);
-            st = new StringTokenizer(localTableName, "_%", true); //$NON-NLS-1$
-            while (st.hasMoreTokens()) {
-                String token = st.nextToken();
-                if (token.equals("_") //$NON-NLS-1$
-                        || token.equals("%")) { //$NON-NLS-1$
-                    sb.append(escapeString);
-                }
-                sb.append(token);
+            if (logger.isDebugEnabled()) {
+                String fullTableName = composeFullyQualifiedTableName(localCatalog, localSchema,
+                                localTableName, '.');
+                logger.debug(getString("Tracing.1", fullTableName)); //$NON-NLS-1$
             }
-            localTableName = sb.toString();
-        }
 
-        Map<ActualTableName, List<IntrospectedColumn>> answer = new HashMap<ActualTableName, List<IntrospectedColumn>>();
-
-        if (logger.isDebugEnabled()) {
-            String fullTableName = composeFullyQualifiedTableName(localCatalog, localSchema,
-                            localTableName, '.');
-            logger.debug(getString("Tracing.1", fullTableName)); //$NON-NLS-1$
-        }
+            rows = new HashMap<ActualTableName, List<ColumnRow>>();
+            ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
+                    localTableName, "%"); //$NON-NLS-1$
+            try {
+                for (ColumnRow row : ColumnRow.readAll(rs)) {
+                    List<ColumnRow> tableRows = rows.get(row.getActualTableName());
+                    if (tableRows == null) {
+                        tableRows = new ArrayList<ColumnRow>();
+                        rows.put(row.getActualTableName(), tableRows);
+                    }
 
-        ResultSet rs = databaseMetaData.getColumns(localCatalog, localSchema,
-                localTableName, "%"); //$NON-NLS-1$
-        
-        boolean supportsIsAutoIncrement = false;
-        boolean supportsIsGeneratedColumn = false;
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int colCount = rsmd.getColumnCount();
-        for (int i = 1; i <= colCount; i++) {
-            if ("IS_AUTOINCREMENT".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsAutoIncrement = true;
-            }
-            if ("IS_GENERATEDCOLUMN".equals(rsmd.getColumnName(i))) { //$NON-NLS-1$
-                supportsIsGeneratedColumn = true;
+                    tableRows.add(row);
+                }
+            } finally {
+                closeResultSet(rs);
             }
         }
 
-        while (rs.next()) {
-            IntrospectedColumn introspectedColumn = ObjectFactory
-                    .createIntrospectedColumn(context);
+        columnRows = rows;
 
-            introspectedColumn.setTableAlias(tc.getAlias());
-            introspectedColumn.setJdbcType(rs.getInt("DATA_TYPE")); //$NON-NLS-1$
-            introspectedColumn.setLength(rs.getInt("COLUMN_SIZE")); //$NON-NLS-1$
-            introspectedColumn.setActualColumnName(rs.getString("COLUMN_NAME")); //$NON-NLS-1$
-            introspectedColumn
-                    .setNullable(rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable); //$NON-NLS-1$
-            introspectedColumn.setScale(rs.getInt("DECIMAL_DIGITS")); //$NON-NLS-1$
-            introspectedColumn.setRemarks(rs.getString("REMARKS")); //$NON-NLS-1$
-            introspectedColumn.setDefaultValue(rs.getString("COLUMN_DEF")); //$NON-NLS-1$
-            
-            if (supportsIsAutoIncrement) {
-                introspectedColumn.setAutoIncrement("YES".equals(rs.getString("IS_AUTOINCREMENT"))); //$NON-NLS-1$ //$NON-NLS-2$
-            }
-            
-            if (supportsIsGeneratedColumn) {
-                introspectedColumn.setGeneratedColumn("YES".equals(rs.getString("IS_GENERATEDCOLUMN"))); //$NON-NLS-1$ //$NON-NLS-2$
-            }
+        Map<ActualTableName, List<IntrospectedColumn>> answer = new HashMap<ActualTableName, List<IntrospectedColumn>>();
 
-            ActualTableName atn = new ActualTableName(
-                    rs.getString("TABLE_CAT"), //$NON-NLS-1$
-                    rs.getString("TABLE_SCHEM"), //$NON-NLS-1$
-                    rs.getString("TABLE_NAME")); //$NON-NLS-1$
+        for (Map.Entry<ActualTableName, List<ColumnRow>> entry : rows.entrySet()) {
+            ActualTableName atn = entry.getKey();
+            List<IntrospectedColumn> columns = new ArrayList<IntrospectedColumn>();
+            answer.put(atn, columns);
+
+            for (ColumnRow row : entry.getValue()) {
+                IntrospectedColumn introspectedColumn = ObjectFactory
+                        .createIntrospectedColumn(context);
+
+                introspectedColumn.setTableAlias(tc.getAlias());
+                introspectedColumn.setJdbcType(row.getJdbcType());
+                introspectedColumn.setLength(row.getLength());
+                introspectedColumn.setActualColumnName(row.getColumnName());
+                introspectedColumn.setNullable(row.isNullable());
+                introspectedColumn.setScale(row.getScale());
+                introspectedColumn.setRemarks(row.getRemarks());
+                introspectedColumn.setDefaultValue(row.getDefaultValue());
+
+                if (row.getAutoIncrement() != null) {
+                    introspectedColumn.setAutoIncrement(row.getAutoIncrement());
+                }
 
-            List<IntrospectedColumn> columns = answer.get(atn);
-            if (columns == null) {
-                columns = new ArrayList<IntrospectedColumn>();
-                answer.put(atn, columns);
-            }
+                if (row.getGeneratedColumn() != null) {
+                    introspectedColumn.setGeneratedColumn(row.getGeneratedColumn());
+                }
 
-            columns.add(introspectedColumn);
+                columns.add(introspectedColumn);
 
-            if (logger.isDebugEnabled()) {
-                logger.debug(getString(
-                        "Tracing.2", //$NON-NLS-1$
-                        introspectedColumn.getActualColumnName(), Integer
-                                .toString(introspectedColumn.getJdbcType()),
-                        atn.toString()));
+                if (logger.isDebugEnabled()) {
+                    logger.debug(getString(
+                            "Tracing.2", //$NON-NLS-1$
+                            introspectedColumn.getActualColumnName(), Integer
+                                    .toString(introspectedColumn.getJdbcType()),
+                            atn.toString()));
+                }
             }
         }
 
-        closeResultSet(rs);
-
         if (answer.size() > 1
                 && !stringContainsSQLWildcard(localSchema)
                 && !stringContainsSQLWildcard(localTableName)) {
@@ -687,6 +870,55 @@ public class DatabaseIntrospector {
         return answer;
     }
 
+    /**
+     * Returns the catalog, schema and table name of a table configuration as
+     * they are passed to getColumns: folded to the case the database stores
+     * unquoted identifiers in, unless the identifiers are delimited.
+     *
+     * @param tc
+     *            the table configuration
+     * @return the local catalog, schema and table name
+     * @throws SQLException
+     *             the SQL exception
+     */
+    private ActualTableName getLocalTableName(TableConfiguration tc)
+            throws SQLException {
+        String localCatalog;
+        String localSchema;
+        String localTableName;
+
+        boolean delimitIdentifiers = tc.isDelimitIdentifiers()
+                || stringContainsSpace(tc.getCatalog())
+                || stringContainsSpace(tc.getSchema())
+                || stringContainsSpace(tc.getTableName());
+
+        if (delimitIdentifiers) {
+            localCatalog = tc.getCatalog();
+            localSchema = tc.getSchema();
+            localTableName = tc.getTableName();
+        } else if (storesLowerCaseIdentifiers()) {
+            localCatalog = tc.getCatalog() == null ? null : tc.getCatalog()
+                    .toLowerCase();
+            localSchema = tc.getSchema() == null ? null : tc.getSchema()
+                    .toLowerCase();
+            localTableName = tc.getTableName() == null ? null : tc
+                    .getTableName().toLowerCase();
+        } else if (storesUpperCaseIdentifiers()) {
+            localCatalog = tc.getCatalog() == null ? null : tc.getCatalog()
+                    .toUpperCase();
+            localSchema = tc.getSchema() == null ? null : tc.getSchema()
+                    .toUpperCase();
+            localTableName = tc.getTableName() == null ? null : tc
+                    .getTableName().toUpperCase();
+        } else {
+            localCatalog = tc.getCatalog();
+            localSchema = tc.getSchema();
+            localTableName = tc.getTableName();
+        }
+
+        return new ActualTableName(localCatalog, localSchema, localTableName);
+    }
+
     /**
      * Calculate introspected tables.
      *
@@ -738,9 +970,17 @@ public class DatabaseIntrospector {
                 introspectedTable.addColumn(introspectedColumn);
             }
 
-            calculatePrimaryKey(table, introspectedTable);
-            
-            enhanceIntrospectedTable(introspectedTable);
+            boolean unchanged = isUnchangedSinceSnapshot(atn);
+            List<String> keyColumns = calculatePrimaryKey(atn, table,
+                    introspectedTable, unchanged);
+
+            enhanceIntrospectedTable(atn, introspectedTable, unchanged);
+
+            if (recordingSnapshot != null) {
+                recordingSnapshot.addTable(atn, columnRows.get(atn), keyColumns,
+                        introspectedTable.getRemarks(),
+                        introspectedTable.getTableType());
+            }
 
             answer.add(introspectedTable);
         }
@@ -754,12 +994,36 @@ public class DatabaseIntrospector {
      * 
      * If there is any error, we just add a warning and continue.
      * 
+     * @param atn
      * @param introspectedTable
+     * @param fromSnapshot
+     *            if true, the remarks and type are taken from the reference
+     *            snapshot
      */
-    private void enhanceIntrospectedTable(IntrospectedTable introspectedTable) {
-        try {
-            FullyQualifiedTable fqt = introspectedTable.getFullyQualifiedTable();
+    private void enhanceIntrospectedTable(ActualTableName atn,
+            IntrospectedTable introspectedTable, boolean fromSnapshot) {
+        FullyQualifiedTable fqt = introspectedTable.getFullyQualifiedTable();
+
+        String[] tableInformation = null;
+        if (offline || fromSnapshot) {
+            tableInformation = referenceSnapshot.getTableInformation(atn);
+        }
+
+        if (tableInformation == null && schemaMetadataCache != null) {
+            tableInformation = schemaMetadataCache.getTableInformation(
+                    fqt.getIntrospectedCatalog(), fqt.getIntrospectedSchema(),
+                    fqt.getIntrospectedTableName());
+        }
+
+        if (tableInformation != null) {
+            introspectedTable.setRemarks(tableInformation[0]);
+            introspectedTable.setTableType(tableInformation[1]);
+            return;
+        } else if (offline) {
+            return;
+        }
 
+        try {
             ResultSet rs = databaseMetaData.getTables(fqt.getIntrospectedCatalog(), fqt.getIntrospectedSchema(),
                     fqt.getIntrospectedTableName(), null);
             if (rs.next()) {
@@ -773,4 +1037,45 @@ public class DatabaseIntrospector {
             warnings.add(getString("Warning.27", e.getMessage())); //$NON-NLS-1$
         }
     }
+
+    /**
+     * Returns true if unquoted identifiers are stored in lower case, either by
+     * the live database or, in offline mode, by the database the reference
+     * snapshot was taken from.
+     *
+     * @return true, if identifiers are stored in lower case
+     * @throws SQLException
+     *             the SQL exception
+     */
+    private boolean storesLowerCaseIdentifiers() throws SQLException {
+        return offline ? referenceSnapshot.storesLowerCaseIdentifiers()
+                : databaseMetaData.storesLowerCaseIdentifiers();
+    }
+
+    /**
+     * Returns true if unquoted identifiers are stored in upper case, either by
+     * the live database or, in offline mode, by the database the reference
+     * snapshot was taken from.
+     *
+     * @return true, if identifiers are stored in upper case
+     * @throws SQLException
+     *             the SQL exception
+     */
+    private boolean storesUpperCaseIdentifiers() throws SQLException {
+        return offline ? referenceSnapshot.storesUpperCaseIdentifiers()
+                : databaseMetaData.storesUpperCaseIdentifiers();
+    }
+
+    /**
+     * Returns true if the string contains the multi character SQL wildcard.
+     * Table names served from the schema metadata cache are matched exactly,
+     * so a single character wildcard ("_") is taken literally there.
+     *
+     * @param s
+     *            the string
+     * @return true, if the string contains "%"
+     */
+    private static boolean stringContainsPercent(String s) {
+        return s != null && s.indexOf('%') != -1;
+    }
 }
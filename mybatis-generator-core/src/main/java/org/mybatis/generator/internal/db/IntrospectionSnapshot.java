@@ -0,0 +1,463 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import static org.mybatis.generator.internal.util.DigestUtility.sha1;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class holds the raw database metadata of introspected tables: the
+ * column rows, primary key columns, remarks and table type. A snapshot can be
+ * saved to a compact, line oriented text file and loaded again by a later run.
+ * <p>
+ * A snapshot is recorded from a live database and read back by offline
+ * introspection. Every table carries a fingerprint of its columns, primary key,
+ * remarks and type. An online run that reads whole schemas through a
+ * {@link SchemaMetadataCache} compares the fingerprint of the schema read with
+ * the fingerprint in the snapshot, and takes the tables that did not change
+ * from the snapshot.
+ * <p>
+ * The snapshot is written as tab separated lines:
+ * 
+ * <pre>
+ * version  1
+ * identifiers  lower|upper|mixed
+ * table  catalog  schema  name  fingerprint  remarks  type
+ * column  name  jdbcType  length  scale  nullable  remarks  default  autoIncrement  generated
+ * key  column  column ...
+ * </pre>
+ * 
+ * Null values are written as <code>\N</code>. This class is thread safe.
+ * 
+ * @author fury
+ */
+public class IntrospectionSnapshot {
+
+    private static final String VERSION = "1"; //$NON-NLS-1$
+
+    private static final String NULL = "\\N"; //$NON-NLS-1$
+
+    private static final String ENCODING = "UTF-8"; //$NON-NLS-1$
+
+    private boolean storesLowerCaseIdentifiers;
+
+    private boolean storesUpperCaseIdentifiers;
+
+    /** Tables keyed by the string form of their actual name, so files are written in a stable order. */
+    private Map<String, TableSnapshot> tables;
+
+    public IntrospectionSnapshot() {
+        super();
+        tables = new TreeMap<String, TableSnapshot>();
+    }
+
+    public synchronized boolean storesLowerCaseIdentifiers() {
+        return storesLowerCaseIdentifiers;
+    }
+
+    public synchronized boolean storesUpperCaseIdentifiers() {
+        return storesUpperCaseIdentifiers;
+    }
+
+    /**
+     * Records how the database stores unquoted identifiers, so that offline
+     * introspection can fold table names the same way the live database would.
+     * 
+     * @param storesLowerCaseIdentifiers
+     *            the DatabaseMetaData value
+     * @param storesUpperCaseIdentifiers
+     *            the DatabaseMetaData value
+     */
+    public synchronized void setIdentifierCase(boolean storesLowerCaseIdentifiers,
+            boolean storesUpperCaseIdentifiers) {
+        this.storesLowerCaseIdentifiers = storesLowerCaseIdentifiers;
+        this.storesUpperCaseIdentifiers = storesUpperCaseIdentifiers;
+    }
+
+    /**
+     * Adds, or replaces, the metadata of a table.
+     * 
+     * @param actualTableName
+     *            the actual table name
+     * @param columns
+     *            the column rows, in database order
+     * @param primaryKeyColumns
+     *            the primary key columns, in key sequence order
+     * @param remarks
+     *            the table remarks, may be null
+     * @param tableType
+     *            the table type, may be null
+     */
+    public synchronized void addTable(ActualTableName actualTableName,
+            List<ColumnRow> columns, List<String> primaryKeyColumns,
+            String remarks, String tableType) {
+        TableSnapshot table = new TableSnapshot();
+        table.actualTableName = actualTableName;
+        table.columns = new ArrayList<ColumnRow>(columns);
+        table.primaryKeyColumns = new ArrayList<String>(primaryKeyColumns);
+        table.remarks = remarks;
+        table.tableType = tableType;
+        table.fingerprint = calculateFingerprint(columns, primaryKeyColumns,
+                remarks, tableType);
+        tables.put(actualTableName.toString(), table);
+    }
+
+    /**
+     * Adds every table of the other snapshot that is not in this snapshot.
+     * 
+     * @param other
+     *            the other snapshot
+     */
+    public synchronized void addMissingTables(IntrospectionSnapshot other) {
+        for (TableSnapshot table : other.getTables()) {
+            if (!tables.containsKey(table.actualTableName.toString())) {
+                tables.put(table.actualTableName.toString(), table);
+            }
+        }
+    }
+
+    private synchronized List<TableSnapshot> getTables() {
+        return new ArrayList<TableSnapshot>(tables.values());
+    }
+
+    /**
+     * Returns the columns of every table with exactly the specified name.
+     * A null catalog or schema matches any catalog or schema.
+     * 
+     * @param catalog
+     *            the catalog, may be null
+     * @param schema
+     *            the schema, may be null
+     * @param tableName
+     *            the exact table name
+     * @return the rows grouped by actual table name. Never null.
+     */
+    public synchronized Map<ActualTableName, List<ColumnRow>> getColumns(
+            String catalog, String schema, String tableName) {
+        Map<ActualTableName, List<ColumnRow>> answer = new HashMap<ActualTableName, List<ColumnRow>>();
+        for (TableSnapshot table : tables.values()) {
+            ActualTableName atn = table.actualTableName;
+            if (atn.getTableName().equals(tableName)
+                    && (catalog == null || catalog.equals(atn.getCatalog()))
+                    && (schema == null || schema.equals(atn.getSchema()))) {
+                answer.put(atn, new ArrayList<ColumnRow>(table.columns));
+            }
+        }
+
+        return answer;
+    }
+
+    /**
+     * @return the primary key columns of the table, or null if the table is
+     *         not in this snapshot
+     */
+    public synchronized List<String> getPrimaryKeyColumns(ActualTableName actualTableName) {
+        TableSnapshot table = tables.get(actualTableName.toString());
+        return table == null ? null : new ArrayList<String>(table.primaryKeyColumns);
+    }
+
+    /**
+     * @return an array holding the remarks and type of the table, or null if
+     *         the table is not in this snapshot
+     */
+    public synchronized String[] getTableInformation(ActualTableName actualTableName) {
+        TableSnapshot table = tables.get(actualTableName.toString());
+        return table == null ? null : new String[] { table.remarks, table.tableType };
+    }
+
+    /**
+     * @return the fingerprint of the table, or null if the table is not in
+     *         this snapshot
+     */
+    public synchronized String getFingerprint(ActualTableName actualTableName) {
+        TableSnapshot table = tables.get(actualTableName.toString());
+        return table == null ? null : table.fingerprint;
+    }
+
+    /**
+     * Writes this snapshot to a file, replacing any existing content.
+     * 
+     * @param file
+     *            the file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public synchronized void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file, false), ENCODING));
+        try {
+            writeLine(bw, "version", VERSION); //$NON-NLS-1$
+            String identifiers;
+            if (storesLowerCaseIdentifiers) {
+                identifiers = "lower"; //$NON-NLS-1$
+            } else if (storesUpperCaseIdentifiers) {
+                identifiers = "upper"; //$NON-NLS-1$
+            } else {
+                identifiers = "mixed"; //$NON-NLS-1$
+            }
+            writeLine(bw, "identifiers", identifiers); //$NON-NLS-1$
+
+            for (TableSnapshot table : tables.values()) {
+                writeLine(bw, "table", //$NON-NLS-1$
+                        table.actualTableName.getCatalog(),
+                        table.actualTableName.getSchema(),
+                        table.actualTableName.getTableName(),
+                        table.fingerprint, table.remarks, table.tableType);
+                for (ColumnRow row : table.columns) {
+                    writeLine(bw, "column", row.getColumnName(), //$NON-NLS-1$
+                            Integer.toString(row.getJdbcType()),
+                            Integer.toString(row.getLength()),
+                            Integer.toString(row.getScale()),
+                            Boolean.toString(row.isNullable()),
+                            row.getRemarks(), row.getDefaultValue(),
+                            row.getAutoIncrement() == null ? null : row.getAutoIncrement().toString(),
+                            row.getGeneratedColumn() == null ? null : row.getGeneratedColumn().toString());
+                }
+
+                String[] key = new String[table.primaryKeyColumns.size() + 1];
+                key[0] = "key"; //$NON-NLS-1$
+                for (int i = 0; i < table.primaryKeyColumns.size(); i++) {
+                    key[i + 1] = table.primaryKeyColumns.get(i);
+                }
+                writeLine(bw, key);
+            }
+        } finally {
+            bw.close();
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #save(File)}.
+     * 
+     * @param file
+     *            the file
+     * @return the snapshot
+     * @throws IOException
+     *             if the file cannot be read, or is not a snapshot file
+     */
+    public static IntrospectionSnapshot load(File file) throws IOException {
+        IntrospectionSnapshot answer = new IntrospectionSnapshot();
+
+        BufferedReader br = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), ENCODING));
+        try {
+            String line = br.readLine();
+            if (line == null || !VERSION.equals(getValue(splitLine(line), 1))) {
+                throw new IOException("Unsupported snapshot format in " + file); //$NON-NLS-1$
+            }
+
+            ActualTableName atn = null;
+            String[] tableFields = null;
+            List<ColumnRow> columns = null;
+            while ((line = br.readLine()) != null) {
+                if (line.length() == 0) {
+                    continue;
+                }
+
+                String[] fields = splitLine(line);
+                if ("identifiers".equals(fields[0])) { //$NON-NLS-1$
+                    answer.setIdentifierCase("lower".equals(getValue(fields, 1)), //$NON-NLS-1$
+                            "upper".equals(getValue(fields, 1))); //$NON-NLS-1$
+                } else if ("table".equals(fields[0])) { //$NON-NLS-1$
+                    tableFields = fields;
+                    atn = new ActualTableName(getValue(fields, 1),
+                            getValue(fields, 2), getValue(fields, 3));
+                    columns = new ArrayList<ColumnRow>();
+                } else if ("column".equals(fields[0]) && atn != null) { //$NON-NLS-1$
+                    String autoIncrement = getValue(fields, 8);
+                    String generatedColumn = getValue(fields, 9);
+                    columns.add(new ColumnRow(atn,
+                            Integer.parseInt(getValue(fields, 2)),
+                            Integer.parseInt(getValue(fields, 3)),
+                            getValue(fields, 1),
+                            Boolean.parseBoolean(getValue(fields, 5)),
+                            Integer.parseInt(getValue(fields, 4)),
+                            getValue(fields, 6), getValue(fields, 7),
+                            autoIncrement == null ? null : Boolean.valueOf(autoIncrement),
+                            generatedColumn == null ? null : Boolean.valueOf(generatedColumn)));
+                } else if ("key".equals(fields[0]) && atn != null) { //$NON-NLS-1$
+                    List<String> keyColumns = new ArrayList<String>();
+                    for (int i = 1; i < fields.length; i++) {
+                        keyColumns.add(getValue(fields, i));
+                    }
+                    answer.addTable(atn, columns, keyColumns,
+                            getValue(tableFields, 5), getValue(tableFields, 6));
+                    atn = null;
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid snapshot file " + file, e); //$NON-NLS-1$
+        } finally {
+            br.close();
+        }
+
+        return answer;
+    }
+
+    private static void writeLine(BufferedWriter bw, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                bw.write('\t');
+            }
+            bw.write(escape(fields[i]));
+        }
+        bw.newLine();
+    }
+
+    private static String[] splitLine(String line) {
+        return line.split("\t", -1); //$NON-NLS-1$
+    }
+
+    private static String getValue(String[] fields, int index) {
+        if (index >= fields.length) {
+            return null;
+        }
+
+        return unescape(fields[index]);
+    }
+
+    private static String escape(String s) {
+        if (s == null) {
+            return NULL;
+        }
+
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '\\':
+                sb.append("\\\\"); //$NON-NLS-1$
+                break;
+            case '\t':
+                sb.append("\\t"); //$NON-NLS-1$
+                break;
+            case '\n':
+                sb.append("\\n"); //$NON-NLS-1$
+                break;
+            case '\r':
+                sb.append("\\r"); //$NON-NLS-1$
+                break;
+            default:
+                sb.append(c);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static String unescape(String s) {
+        if (NULL.equals(s)) {
+            return null;
+        }
+
+        if (s.indexOf('\\') == -1) {
+            return s;
+        }
+
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < s.length()) {
+                char next = s.charAt(++i);
+                if (next == 't') {
+                    sb.append('\t');
+                } else if (next == 'n') {
+                    sb.append('\n');
+                } else if (next == 'r') {
+                    sb.append('\r');
+                } else {
+                    sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Calculates the fingerprint of the metadata of a table. Two tables have
+     * the same fingerprint if their columns, primary key, remarks and type are
+     * the same.
+     * 
+     * @param columns
+     *            the column rows, in database order
+     * @param primaryKeyColumns
+     *            the primary key columns, in key sequence order
+     * @param remarks
+     *            the table remarks, may be null
+     * @param tableType
+     *            the table type, may be null
+     * @return the fingerprint
+     */
+    public static String calculateFingerprint(List<ColumnRow> columns,
+            List<String> primaryKeyColumns, String remarks, String tableType) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(columns.size());
+        for (ColumnRow row : columns) {
+            sb.append('\n');
+            sb.append(escape(row.getColumnName())).append('\t');
+            sb.append(row.getJdbcType()).append('\t');
+            sb.append(row.getLength()).append('\t');
+            sb.append(row.getScale()).append('\t');
+            sb.append(row.isNullable()).append('\t');
+            sb.append(escape(row.getRemarks())).append('\t');
+            sb.append(escape(row.getDefaultValue())).append('\t');
+            sb.append(row.getAutoIncrement()).append('\t');
+            sb.append(row.getGeneratedColumn());
+        }
+
+        sb.append('\n');
+        for (String column : primaryKeyColumns) {
+            sb.append('\t').append(escape(column));
+        }
+        sb.append('\n').append(escape(remarks));
+        sb.append('\t').append(escape(tableType));
+
+        return sha1(sb.toString());
+    }
+
+    /**
+     * The metadata of one table.
+     */
+    private static class TableSnapshot {
+        private ActualTableName actualTableName;
+        private List<ColumnRow> columns;
+        private List<String> primaryKeyColumns;
+        private String remarks;
+        private String tableType;
+        private String fingerprint;
+    }
+}
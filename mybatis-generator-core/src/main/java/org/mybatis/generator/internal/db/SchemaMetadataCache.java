@@ -0,0 +1,410 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.db;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.mybatis.generator.logging.Log;
+import org.mybatis.generator.logging.LogFactory;
+
+/**
+ * This class holds the column, primary key and table metadata of whole
+ * schemas. Each catalog/schema combination is read in a single pass the first
+ * time a table in it is introspected, and every later table is served from
+ * memory instead of issuing its own <code>DatabaseMetaData</code> calls.
+ * <p>
+ * The JDBC specification requires a table name for
+ * <code>DatabaseMetaData.getPrimaryKeys</code>, so primary keys are read with a
+ * dialect query against <code>information_schema</code> on MySQL and
+ * <code>ALL_CONSTRAINTS</code> on Oracle. Other databases are asked for the
+ * primary keys of all tables with a null table name, which many drivers
+ * accept. If that fails, or returns nothing, the primary key lookup returns
+ * null and the caller should fall back to the per table call.
+ * <p>
+ * When the columns, primary key and table information of a table are all
+ * known, {@link #getFingerprint(String, String, ActualTableName)} returns the
+ * same fingerprint an {@link IntrospectionSnapshot} holds for the table.
+ * <p>
+ * This class is thread safe, so one instance can be shared by all the
+ * introspectors of a context.
+ * 
+ * @author fury
+ */
+public class SchemaMetadataCache {
+
+    private static final String MYSQL_PRIMARY_KEYS = "select TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION" //$NON-NLS-1$
+            + " from information_schema.KEY_COLUMN_USAGE" //$NON-NLS-1$
+            + " where CONSTRAINT_NAME = 'PRIMARY' and TABLE_SCHEMA = "; //$NON-NLS-1$
+
+    private static final String ORACLE_PRIMARY_KEYS = "select cc.TABLE_NAME, cc.COLUMN_NAME, cc.POSITION" //$NON-NLS-1$
+            + " from ALL_CONSTRAINTS c, ALL_CONS_COLUMNS cc" //$NON-NLS-1$
+            + " where c.CONSTRAINT_TYPE = 'P' and c.OWNER = ?" //$NON-NLS-1$
+            + " and cc.OWNER = c.OWNER and cc.CONSTRAINT_NAME = c.CONSTRAINT_NAME" //$NON-NLS-1$
+            + " and cc.TABLE_NAME = c.TABLE_NAME"; //$NON-NLS-1$
+
+    private Map<String, Scope> scopes;
+
+    private Log logger;
+
+    public SchemaMetadataCache() {
+        super();
+        scopes = new HashMap<String, Scope>();
+        logger = LogFactory.getLog(getClass());
+    }
+
+    /**
+     * Returns the columns of every table with exactly the specified name in
+     * the catalog/schema, reading the whole catalog/schema on first use.
+     * 
+     * @param databaseMetaData
+     *            metadata used if the catalog/schema has not been read yet
+     * @param catalog
+     *            the catalog, as it would be passed to getColumns
+     * @param schema
+     *            the schema, as it would be passed to getColumns
+     * @param tableName
+     *            the exact table name
+     * @return the rows grouped by actual table name. Never null.
+     * @throws SQLException
+     *             if the columns cannot be read
+     */
+    public Map<ActualTableName, List<ColumnRow>> getColumns(DatabaseMetaData databaseMetaData,
+            String catalog, String schema, String tableName) throws SQLException {
+        Scope scope = getScope(databaseMetaData, catalog, schema);
+        Map<ActualTableName, List<ColumnRow>> answer = scope.columns.get(tableName);
+        if (answer == null) {
+            answer = new HashMap<ActualTableName, List<ColumnRow>>();
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns the primary key columns of a table, in key sequence order.
+     * 
+     * @param catalog
+     *            the introspected catalog of the table
+     * @param schema
+     *            the introspected schema of the table
+     * @param tableName
+     *            the actual table name
+     * @return the primary key columns (empty if the table has no primary
+     *         key), or null if the primary keys of the table are not known
+     *         to this cache
+     */
+    public synchronized List<String> getPrimaryKeyColumns(String catalog,
+            String schema, String tableName) {
+        Scope scope = scopes.get(getScopeKey(catalog, schema));
+        if (scope == null || scope.primaryKeys == null
+                || scope.ambiguousTableNames.contains(tableName)) {
+            return null;
+        }
+
+        List<String> answer = scope.primaryKeys.get(tableName);
+        if (answer == null) {
+            answer = new ArrayList<String>();
+        }
+
+        return answer;
+    }
+
+    /**
+     * Returns the remarks and type of a table.
+     * 
+     * @param catalog
+     *            the introspected catalog of the table
+     * @param schema
+     *            the introspected schema of the table
+     * @param tableName
+     *            the actual table name
+     * @return an array holding REMARKS and TABLE_TYPE, or null if the table is
+     *         not known to this cache
+     */
+    public synchronized String[] getTableInformation(String catalog,
+            String schema, String tableName) {
+        Scope scope = scopes.get(getScopeKey(catalog, schema));
+        if (scope == null || scope.ambiguousTableNames.contains(tableName)) {
+            return null;
+        }
+
+        return scope.tables.get(tableName);
+    }
+
+    /**
+     * Returns the fingerprint of the metadata of a table, as calculated by
+     * {@link IntrospectionSnapshot#calculateFingerprint(List, List, String, String)}.
+     * 
+     * @param catalog
+     *            the catalog, as it was passed to getColumns
+     * @param schema
+     *            the schema, as it was passed to getColumns
+     * @param actualTableName
+     *            the actual table name
+     * @return the fingerprint, or null if the columns, primary key or table
+     *         information of the table are not known to this cache
+     */
+    public synchronized String getFingerprint(String catalog, String schema,
+            ActualTableName actualTableName) {
+        Scope scope = scopes.get(getScopeKey(catalog, schema));
+        if (scope == null || scope.primaryKeys == null) {
+            return null;
+        }
+
+        Map<ActualTableName, List<ColumnRow>> tables = scope.columns.get(actualTableName.getTableName());
+        List<ColumnRow> columns = tables == null ? null : tables.get(actualTableName);
+        List<String> primaryKeyColumns = getPrimaryKeyColumns(catalog, schema,
+                actualTableName.getTableName());
+        String[] tableInformation = getTableInformation(catalog, schema,
+                actualTableName.getTableName());
+        if (columns == null || primaryKeyColumns == null || tableInformation == null) {
+            return null;
+        }
+
+        return IntrospectionSnapshot.calculateFingerprint(columns,
+                primaryKeyColumns, tableInformation[0], tableInformation[1]);
+    }
+
+    private synchronized Scope getScope(DatabaseMetaData databaseMetaData,
+            String catalog, String schema) throws SQLException {
+        String key = getScopeKey(catalog, schema);
+        Scope scope = scopes.get(key);
+        if (scope == null) {
+            scope = readScope(databaseMetaData, catalog, schema);
+            scopes.put(key, scope);
+        }
+
+        return scope;
+    }
+
+    private Scope readScope(DatabaseMetaData databaseMetaData, String catalog,
+            String schema) throws SQLException {
+        Scope scope = new Scope();
+
+        ResultSet rs = databaseMetaData.getColumns(catalog, schema, "%", "%"); //$NON-NLS-1$ //$NON-NLS-2$
+        try {
+            for (ColumnRow row : ColumnRow.readAll(rs)) {
+                String tableName = row.getActualTableName().getTableName();
+                Map<ActualTableName, List<ColumnRow>> tables = scope.columns.get(tableName);
+                if (tables == null) {
+                    tables = new LinkedHashMap<ActualTableName, List<ColumnRow>>();
+                    scope.columns.put(tableName, tables);
+                }
+
+                List<ColumnRow> rows = tables.get(row.getActualTableName());
+                if (rows == null) {
+                    rows = new ArrayList<ColumnRow>();
+                    tables.put(row.getActualTableName(), rows);
+                }
+
+                rows.add(row);
+            }
+        } finally {
+            closeResultSet(rs);
+        }
+
+        for (Map.Entry<String, Map<ActualTableName, List<ColumnRow>>> entry : scope.columns.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                scope.ambiguousTableNames.add(entry.getKey());
+            }
+        }
+
+        rs = null;
+        try {
+            rs = databaseMetaData.getTables(catalog, schema, "%", null); //$NON-NLS-1$
+            while (rs.next()) {
+                scope.tables.put(rs.getString("TABLE_NAME"), new String[] { //$NON-NLS-1$
+                        rs.getString("REMARKS"), rs.getString("TABLE_TYPE") }); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+        } catch (SQLException e) {
+            // table information will be read per table
+            scope.tables.clear();
+        } finally {
+            closeResultSet(rs);
+        }
+
+        scope.primaryKeys = readPrimaryKeys(databaseMetaData, catalog, schema);
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Read metadata of " + scope.columns.size() //$NON-NLS-1$
+                    + " tables for catalog " + catalog + ", schema " + schema); //$NON-NLS-1$ //$NON-NLS-2$
+        }
+
+        return scope;
+    }
+
+    /**
+     * Reads the primary keys of a whole schema with a dialect query, or with a
+     * getPrimaryKeys call for all tables on other databases.
+     * 
+     * @return the key columns of every table, in key sequence order, or null if
+     *         the primary keys cannot be read
+     */
+    private Map<String, List<String>> readPrimaryKeys(DatabaseMetaData databaseMetaData,
+            String catalog, String schema) {
+        String sql;
+        String owner;
+        try {
+            String productName = databaseMetaData.getDatabaseProductName();
+            if ("MySQL".equalsIgnoreCase(productName)) { //$NON-NLS-1$
+                // MySQL reports databases as catalogs
+                if (catalog == null) {
+                    sql = MYSQL_PRIMARY_KEYS + "database()"; //$NON-NLS-1$
+                    owner = null;
+                } else {
+                    sql = MYSQL_PRIMARY_KEYS + "?"; //$NON-NLS-1$
+                    owner = catalog;
+                }
+            } else if ("Oracle".equalsIgnoreCase(productName) && schema != null) { //$NON-NLS-1$
+                sql = ORACLE_PRIMARY_KEYS;
+                owner = schema;
+            } else {
+                return readAllPrimaryKeys(databaseMetaData, catalog, schema);
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = databaseMetaData.getConnection().prepareStatement(sql);
+            if (owner != null) {
+                ps.setString(1, owner);
+            }
+
+            rs = ps.executeQuery();
+            Map<String, Map<Integer, String>> keyColumns = new HashMap<String, Map<Integer, String>>();
+            while (rs.next()) {
+                String tableName = rs.getString(1);
+                Map<Integer, String> columns = keyColumns.get(tableName);
+                if (columns == null) {
+                    // keep primary columns in key sequence order
+                    columns = new TreeMap<Integer, String>();
+                    keyColumns.put(tableName, columns);
+                }
+
+                columns.put(rs.getInt(3), rs.getString(2));
+            }
+
+            Map<String, List<String>> answer = new HashMap<String, List<String>>();
+            for (Map.Entry<String, Map<Integer, String>> entry : keyColumns.entrySet()) {
+                answer.put(entry.getKey(), new ArrayList<String>(entry.getValue().values()));
+            }
+
+            return answer;
+        } catch (SQLException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Cannot read primary keys in bulk, falling back to per table introspection: " //$NON-NLS-1$
+                        + e.getMessage());
+            }
+            return null;
+        } finally {
+            closeResultSet(rs);
+            if (ps != null) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the primary keys of a whole schema with a null table name. The
+     * JDBC specification does not allow a null table name, so an error or an
+     * empty result means the driver does not support it.
+     * 
+     * @return the key columns of every table, in key sequence order, or null
+     */
+    private Map<String, List<String>> readAllPrimaryKeys(DatabaseMetaData databaseMetaData,
+            String catalog, String schema) {
+        ResultSet rs = null;
+        try {
+            rs = databaseMetaData.getPrimaryKeys(catalog, schema, null);
+            Map<String, Map<Short, String>> keyColumns = new HashMap<String, Map<Short, String>>();
+            while (rs.next()) {
+                String tableName = rs.getString("TABLE_NAME"); //$NON-NLS-1$
+                Map<Short, String> columns = keyColumns.get(tableName);
+                if (columns == null) {
+                    // keep primary columns in key sequence order
+                    columns = new TreeMap<Short, String>();
+                    keyColumns.put(tableName, columns);
+                }
+
+                columns.put(rs.getShort("KEY_SEQ"), rs.getString("COLUMN_NAME")); //$NON-NLS-1$ //$NON-NLS-2$
+            }
+
+            if (keyColumns.isEmpty()) {
+                return null;
+            }
+
+            Map<String, List<String>> answer = new HashMap<String, List<String>>();
+            for (Map.Entry<String, Map<Short, String>> entry : keyColumns.entrySet()) {
+                answer.put(entry.getKey(), new ArrayList<String>(entry.getValue().values()));
+            }
+
+            return answer;
+        } catch (SQLException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Cannot read primary keys in bulk, falling back to per table introspection: " //$NON-NLS-1$
+                        + e.getMessage());
+            }
+            return null;
+        } finally {
+            closeResultSet(rs);
+        }
+    }
+
+    private static String getScopeKey(String catalog, String schema) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(catalog == null ? "" : catalog.length() + catalog); //$NON-NLS-1$
+        sb.append('.');
+        sb.append(schema == null ? "" : schema.length() + schema); //$NON-NLS-1$
+        return sb.toString();
+    }
+
+    private void closeResultSet(ResultSet rs) {
+        if (rs != null) {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * The metadata of one catalog/schema, indexed by actual table name.
+     */
+    private static class Scope {
+        private Map<String, Map<ActualTableName, List<ColumnRow>>> columns = new HashMap<String, Map<ActualTableName, List<ColumnRow>>>();
+        private Map<String, String[]> tables = new HashMap<String, String[]>();
+        private Map<String, List<String>> primaryKeys;
+        private Set<String> ambiguousTableNames = new HashSet<String>();
+    }
+}
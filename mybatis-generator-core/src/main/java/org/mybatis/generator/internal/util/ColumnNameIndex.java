@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A hash index of items by column name, with the matching rules used
+ * throughout the generator: delimited names match exactly, all other names
+ * match ignoring case (<code>String.equalsIgnoreCase</code>).
+ *
+ * <p>If several items match a name, the item added first wins - the same
+ * result as a linear scan over the items in insertion order.
+ *
+ * @param <T>
+ *            the type of the indexed items
+ */
+public class ColumnNameIndex<T> {
+
+    /** Delimited names to the position of the first item with that name. */
+    private final Map<String, Integer> exactNames = new HashMap<String, Integer>();
+
+    /** Case folded names to the position of the first item with that name. */
+    private final Map<String, Integer> foldedNames = new HashMap<String, Integer>();
+
+    private final List<T> items = new ArrayList<T>();
+
+    public ColumnNameIndex() {
+        super();
+    }
+
+    /**
+     * Adds an item.
+     *
+     * @param columnName
+     *            the column name of the item. Null names are ignored
+     * @param delimited
+     *            true if the name must match exactly
+     * @param item
+     *            the item
+     */
+    public void add(String columnName, boolean delimited, T item) {
+        Integer position = items.size();
+        items.add(item);
+        if (columnName == null) {
+            return;
+        }
+
+        if (delimited) {
+            if (!exactNames.containsKey(columnName)) {
+                exactNames.put(columnName, position);
+            }
+        } else {
+            String folded = foldCase(columnName);
+            if (!foldedNames.containsKey(folded)) {
+                foldedNames.put(folded, position);
+            }
+        }
+    }
+
+    /**
+     * Returns the first item that matches the column name.
+     *
+     * @param columnName
+     *            the column name
+     * @return the item, or null if no item matches
+     */
+    public T get(String columnName) {
+        if (columnName == null) {
+            return null;
+        }
+
+        Integer exact = exactNames.get(columnName);
+        Integer folded = foldedNames.isEmpty() ? null : foldedNames.get(foldCase(columnName));
+        if (exact == null && folded == null) {
+            return null;
+        } else if (exact == null) {
+            return items.get(folded);
+        } else if (folded == null) {
+            return items.get(exact);
+        } else {
+            return items.get(Math.min(exact, folded));
+        }
+    }
+
+    /**
+     * Returns the number of items added to the index.
+     *
+     * @return the size
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Folds the case of a string so that two strings are equal after folding if
+     * and only if <code>String.equalsIgnoreCase</code> considers them equal.
+     *
+     * @param s
+     *            the string
+     * @return the folded string
+     */
+    public static String foldCase(String s) {
+        int length = s.length();
+        int i = 0;
+        while (i < length) {
+            char c = s.charAt(i);
+            if (Character.toLowerCase(Character.toUpperCase(c)) != c) {
+                break;
+            }
+            i++;
+        }
+        if (i == length) {
+            // already folded - the usual case for lower case names
+            return s;
+        }
+
+        char[] chars = s.toCharArray();
+        for (; i < length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal.util;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility methods for calculating content fingerprints.
+ * 
+ * @author fury
+ */
+public class DigestUtility {
+
+    /**
+     * Utility class. No instances allowed
+     */
+    private DigestUtility() {
+        super();
+    }
+
+    /**
+     * Calculates the SHA-1 hash of the UTF-8 bytes of a string.
+     * 
+     * @param s
+     *            the string
+     * @return the hash as 40 lower case hex digits
+     */
+    public static String sha1(String s) {
+        try {
+            return sha1(s.getBytes("UTF-8")); //$NON-NLS-1$
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Calculates the SHA-1 hash of a byte array.
+     * 
+     * @param bytes
+     *            the bytes
+     * @return the hash as 40 lower case hex digits
+     */
+    public static String sha1(byte[] bytes) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-1
+            throw new RuntimeException(e);
+        }
+
+        return toHex(md.digest(bytes));
+    }
+
+    /**
+     * Formats bytes as lower case hex digits.
+     * 
+     * @param bytes
+     *            the bytes
+     * @return the hex string
+     */
+    public static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+
+        return sb.toString();
+    }
+}
@@ -18,12 +18,14 @@ package org.mybatis.generator.internal.util;
 
 import static org.mybatis.generator.internal.util.messages.Messages.getString;
 
+import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
 import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
 
 /**
  * Java element 生成工具
@@ -186,6 +188,220 @@ public class JavaElementGeneratorTools {
 		return type;
 	}
 
+	/**
+	 * 生成分块批量辅助类：默认分块大小常量 CHUNK_SIZE、私有构造方法和分块数方法 chunkCount
+	 * 
+	 * @param type
+	 *            辅助类全名
+	 * @param mapperType
+	 *            Mapper 接口
+	 * @param recordType
+	 *            记录类型
+	 * @param chunkSize
+	 *            默认分块大小
+	 * @return
+	 */
+	public static TopLevelClass generateBatchHelperClass(String type, FullyQualifiedJavaType mapperType,
+			FullyQualifiedJavaType recordType, int chunkSize) {
+		FullyQualifiedJavaType intType = FullyQualifiedJavaType.getIntInstance();
+		TopLevelClass helper = new TopLevelClass(type);
+		helper.setVisibility(JavaVisibility.PUBLIC);
+		helper.setFinal(true);
+		helper.addImportedType(mapperType);
+		helper.addImportedType(recordType);
+		helper.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+
+		helper.addField(generateStaticFinalField("CHUNK_SIZE", intType, String.valueOf(chunkSize)));
+
+		Method constructor = generateMethod(helper.getType().getShortName(), JavaVisibility.PRIVATE, null);
+		constructor.setConstructor(true);
+		constructor.addBodyLine("super();");
+		helper.addMethod(constructor);
+
+		// 空列表分块数为 0，不会调用 mapper
+		Method chunkCount = generateMethod("chunkCount", JavaVisibility.PRIVATE, intType,
+				new Parameter(intType, "size"), new Parameter(intType, "chunkSize"));
+		chunkCount.setStatic(true);
+		generateMethodBody(chunkCount,
+				"if (chunkSize <= 0) {",
+				"throw new IllegalArgumentException(\"chunkSize must be positive: \" + chunkSize);",
+				"}",
+				"return (size + chunkSize - 1) / chunkSize;");
+		helper.addMethod(chunkCount);
+		return helper;
+	}
+
+	/**
+	 * 辅助类中增加分块调用 mapper 批量方法的静态方法 methodName(mapper, parameters..., list, chunkSize)，返回每块的条数；
+	 * 空列表返回空数组，不调用 mapper
+	 * 
+	 * @param helper
+	 *            辅助类
+	 * @param methodName
+	 *            mapper 中的批量方法名
+	 * @param mapperType
+	 *            Mapper 接口
+	 * @param listType
+	 *            记录列表类型
+	 * @param withDefaultChunkSize
+	 *            是否同时增加使用 CHUNK_SIZE 的 methodName(mapper, list)
+	 * @param parameters
+	 *            批量方法在 list 之前的参数
+	 */
+	public static void addChunkedMethods(TopLevelClass helper, String methodName, FullyQualifiedJavaType mapperType,
+			FullyQualifiedJavaType listType, boolean withDefaultChunkSize, Parameter... parameters) {
+		FullyQualifiedJavaType countsType = new FullyQualifiedJavaType("int[]");
+		if (withDefaultChunkSize) {
+			Method method = generateMethod(methodName, JavaVisibility.PUBLIC, countsType,
+					new Parameter(mapperType, "mapper"), new Parameter(listType, "list"));
+			method.setStatic(true);
+			method.addBodyLine("return " + methodName + "(mapper, list, CHUNK_SIZE);");
+			helper.addMethod(method);
+		}
+
+		Method method = generateMethod(methodName, JavaVisibility.PUBLIC, countsType,
+				new Parameter(mapperType, "mapper"));
+		StringBuilder arguments = new StringBuilder();
+		for (Parameter parameter : parameters) {
+			method.addParameter(parameter);
+			arguments.append(parameter.getName()).append(", ");
+		}
+		method.addParameter(new Parameter(listType, "list"));
+		method.addParameter(new Parameter(FullyQualifiedJavaType.getIntInstance(), "chunkSize"));
+		method.setStatic(true);
+		generateMethodBody(method,
+				"int[] counts = new int[chunkCount(list.size(), chunkSize)];",
+				"for (int i = 0; i < counts.length; i++) {",
+				"int from = i * chunkSize;",
+				"counts[i] = mapper." + methodName + "(" + arguments
+						+ "list.subList(from, Math.min(from + chunkSize, list.size())));",
+				"}",
+				"return counts;");
+		helper.addMethod(method);
+	}
+
+	/**
+	 * 辅助类中增加 ExecutorType.BATCH 方式的静态方法：逐条执行单行语句复用 PreparedStatement，每 chunkSize 条 flush 一次，返回每块的条数
+	 * <ul>
+	 * <li>methodName(sqlSessionFactory, list, chunkSize, parameter)：打开 BATCH 会话，执行后提交并关闭</li>
+	 * <li>methodName(batchSqlSession, list, chunkSize, parameter)：使用调用方的 BATCH 会话，不提交</li>
+	 * </ul>
+	 * 
+	 * @param helper
+	 *            辅助类
+	 * @param methodName
+	 *            方法名
+	 * @param mapperType
+	 *            Mapper 接口
+	 * @param listType
+	 *            记录列表类型
+	 * @param parameter
+	 *            附加在最后的参数，可以为 null
+	 * @param rowLines
+	 *            处理第 j 条记录 list.get(j) 的语句
+	 */
+	public static void addBatchExecutorMethods(TopLevelClass helper, String methodName,
+			FullyQualifiedJavaType mapperType, FullyQualifiedJavaType listType, Parameter parameter,
+			String... rowLines) {
+		FullyQualifiedJavaType sqlSessionType = new FullyQualifiedJavaType("org.apache.ibatis.session.SqlSession");
+		FullyQualifiedJavaType sqlSessionFactoryType = new FullyQualifiedJavaType(
+				"org.apache.ibatis.session.SqlSessionFactory");
+		FullyQualifiedJavaType batchResultType = new FullyQualifiedJavaType("org.apache.ibatis.executor.BatchResult");
+		FullyQualifiedJavaType batchResultListType = FullyQualifiedJavaType.getNewListInstance();
+		batchResultListType.addTypeArgument(batchResultType);
+		FullyQualifiedJavaType countsType = new FullyQualifiedJavaType("int[]");
+		FullyQualifiedJavaType intType = FullyQualifiedJavaType.getIntInstance();
+		helper.addImportedType(sqlSessionType);
+		helper.addImportedType(sqlSessionFactoryType);
+		helper.addImportedType(batchResultType);
+		helper.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.session.ExecutorType"));
+		helper.addImportedType(new FullyQualifiedJavaType("java.sql.Statement"));
+		String arguments = parameter == null ? "" : ", " + parameter.getName();
+
+		// 打开 BATCH 会话，执行后提交并关闭
+		Method withFactory = generateMethod(methodName, JavaVisibility.PUBLIC, countsType,
+				new Parameter(sqlSessionFactoryType, "sqlSessionFactory"), new Parameter(listType, "list"),
+				new Parameter(intType, "chunkSize"));
+		if (parameter != null) {
+			withFactory.addParameter(parameter);
+		}
+		withFactory.setStatic(true);
+		generateMethodBody(withFactory,
+				"SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH, false);",
+				"try {",
+				"int[] counts = " + methodName + "(sqlSession, list, chunkSize" + arguments + ");",
+				"sqlSession.commit();",
+				"return counts;",
+				"} finally {",
+				"sqlSession.close();",
+				"}");
+		helper.addMethod(withFactory);
+
+		// 使用调用方的 BATCH 会话，不提交
+		Method withSession = generateMethod(methodName, JavaVisibility.PUBLIC, countsType,
+				new Parameter(sqlSessionType, "batchSqlSession"), new Parameter(listType, "list"),
+				new Parameter(intType, "chunkSize"));
+		if (parameter != null) {
+			withSession.addParameter(parameter);
+		}
+		withSession.setStatic(true);
+		generateMethodBody(withSession,
+				mapperType.getShortName() + " mapper = batchSqlSession.getMapper(" + mapperType.getShortName()
+						+ ".class);",
+				"int[] counts = new int[chunkCount(list.size(), chunkSize)];",
+				"for (int i = 0; i < counts.length; i++) {",
+				"int from = i * chunkSize;",
+				"int to = Math.min(from + chunkSize, list.size());",
+				"for (int j = from; j < to; j++) {");
+		generateMethodBody(withSession, rowLines);
+		generateMethodBody(withSession,
+				"}",
+				"counts[i] = updateCount(batchSqlSession.flushStatements());",
+				"}",
+				"return counts;");
+		helper.addMethod(withSession);
+
+		// 汇总一块的 update count，驱动未返回具体条数时（如 rewriteBatchedStatements）返回 Statement.SUCCESS_NO_INFO
+		Method updateCount = generateMethod("updateCount", JavaVisibility.PRIVATE, intType,
+				new Parameter(batchResultListType, "results"));
+		updateCount.setStatic(true);
+		generateMethodBody(updateCount,
+				"int count = 0;",
+				"for (BatchResult result : results) {",
+				"for (int updateCount : result.getUpdateCounts()) {",
+				"if (updateCount < 0) {",
+				"return Statement.SUCCESS_NO_INFO;",
+				"}",
+				"count += updateCount;",
+				"}",
+				"}",
+				"return count;");
+		helper.addMethod(updateCount);
+	}
+
+	/**
+	 * 为生成的辅助类加上注释：文件注释、字段注释和构造方法以外的方法注释
+	 * 
+	 * @param helper
+	 *            辅助类
+	 * @param commentGenerator
+	 *            注释工具
+	 * @param introspectedTable
+	 *            表
+	 */
+	public static void addHelperClassComments(TopLevelClass helper, CommentGenerator commentGenerator,
+			IntrospectedTable introspectedTable) {
+		commentGenerator.addJavaFileComment(helper);
+		for (Field field : helper.getFields()) {
+			commentGenerator.addFieldComment(field, introspectedTable);
+		}
+		for (Method method : helper.getMethods()) {
+			if (!method.isConstructor()) {
+				commentGenerator.addGeneralMethodComment(method, introspectedTable);
+			}
+		}
+	}
+
 	/**
 	 * 克隆方法
 	 * 
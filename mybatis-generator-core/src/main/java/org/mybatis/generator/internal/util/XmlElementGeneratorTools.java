@@ -319,6 +319,73 @@ public class XmlElementGeneratorTools {
 		return generateCommColumnsSelective(columns, prefix, bracket, 3);
 	}
 
+	/**
+	 * 生成批量更新的 case sets Ele：col = case pk when #{item.pk} then #{item.col} ... end
+	 * <p>
+	 * 联合主键时为 case when pk1 = #{item.pk1} and pk2 = #{item.pk2} then ...；selective 时值为 null 的行保持原值
+	 *
+	 * @param columns
+	 *            更新的列（与 generateSets 相同）
+	 * @param keyColumns
+	 *            主键列
+	 * @param collection
+	 *            集合参数名
+	 * @param item
+	 *            foreach item 名
+	 * @param selective
+	 * @return
+	 */
+	public static XmlElement generateCaseSets(List<IntrospectedColumn> columns, List<IntrospectedColumn> keyColumns,
+			String collection, String item, boolean selective) {
+		String prefix = item + ".";
+		StringBuilder caseOpen = new StringBuilder("case");
+		StringBuilder when = new StringBuilder("when ");
+		for (int i = 0; i < keyColumns.size(); i++) {
+			IntrospectedColumn keyColumn = keyColumns.get(i);
+			if (keyColumns.size() == 1) {
+				caseOpen.append(' ').append(MyBatis3FormattingUtilities.getEscapedColumnName(keyColumn));
+			} else {
+				if (i > 0) {
+					when.append(" and ");
+				}
+				when.append(MyBatis3FormattingUtilities.getEscapedColumnName(keyColumn)).append(" = ");
+			}
+			when.append(MyBatis3FormattingUtilities.getParameterClause(keyColumn, prefix));
+		}
+		when.append(" then");
+
+		XmlElement eleTrim = new XmlElement("trim");
+		eleTrim.addAttribute(new Attribute("prefix", "set"));
+		eleTrim.addAttribute(new Attribute("suffixOverrides", ","));
+		for (IntrospectedColumn introspectedColumn : columns) {
+			String columnName = MyBatis3FormattingUtilities.getEscapedColumnName(introspectedColumn);
+			XmlElement eleForeach = new XmlElement("foreach");
+			eleForeach.addAttribute(new Attribute("collection", collection));
+			eleForeach.addAttribute(new Attribute("item", item));
+			eleForeach.addAttribute(new Attribute("open", columnName + " = " + caseOpen + " "));
+			eleForeach.addAttribute(new Attribute("close", " end,"));
+			if (selective) {
+				eleForeach.addElement(new TextElement(when.toString()));
+				XmlElement eleChoose = new XmlElement("choose");
+				XmlElement eleWhen = new XmlElement("when");
+				eleWhen.addAttribute(new Attribute("test", introspectedColumn.getJavaProperty(prefix) + " != null"));
+				eleWhen.addElement(
+						new TextElement(MyBatis3FormattingUtilities.getParameterClause(introspectedColumn, prefix)));
+				eleChoose.addElement(eleWhen);
+				XmlElement eleOtherwise = new XmlElement("otherwise");
+				eleOtherwise.addElement(new TextElement(columnName));
+				eleChoose.addElement(eleOtherwise);
+				eleForeach.addElement(eleChoose);
+			} else {
+				eleForeach.addElement(new TextElement(
+						when + " " + MyBatis3FormattingUtilities.getParameterClause(introspectedColumn, prefix)));
+			}
+			eleTrim.addElement(eleForeach);
+		}
+
+		return eleTrim;
+	}
+
 	/**
 	 * 通用遍历columns
 	 * 
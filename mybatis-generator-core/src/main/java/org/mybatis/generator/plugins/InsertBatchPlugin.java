@@ -1,8 +1,10 @@
 package org.mybatis.generator.plugins;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.GeneratedJavaFile;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
@@ -20,11 +22,22 @@ import org.mybatis.generator.api.dom.xml.XmlElement;
 import org.mybatis.generator.codegen.mybatis3.ListUtilities;
 import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
 import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
 import org.mybatis.generator.internal.util.JavaElementGeneratorTools;
 import org.mybatis.generator.internal.util.XmlElementGeneratorTools;
 
 /**
  * 新增批量插入方法插件
+ * <p>
+ * 除 insertBatch/insertBatchSelective 外，每个表还会生成一个 XxxMapperBatchHelper 类（与 Mapper 同包）：
+ * <ul>
+ * <li>insertBatch/insertBatchSelective(mapper, list, chunkSize)：按固定大小分块调用批量插入，
+ * 避免超大列表拼出一条超长 SQL（如超过 MySQL max_allowed_packet），且 SQL 形状固定便于语句缓存</li>
+ * <li>insertWithBatchExecutor(...)：使用 ExecutorType.BATCH 复用单行 insert 的 PreparedStatement，
+ * 每 chunkSize 条 flush 一次</li>
+ * </ul>
+ * 以上方法均返回每块的插入条数。分块大小默认 500，可通过属性 chunkSize 配置。
  * 
  * @author fury
  * @date : 2017年11月17日 下午2:31:07
@@ -39,7 +52,13 @@ public class InsertBatchPlugin extends PluginAdapter {
 
 	public static final String USE_GENERATED_KEYS = "useGeneratedKeys"; // allowMultiQueries
 	// 读取配置文件中设置的是否插入返回主键key
-	public static Boolean useGeneratedKeys = Boolean.FALSE;
+	protected boolean useGeneratedKeys;
+
+	public static final String CHUNK_SIZE = "chunkSize"; // 分块大小
+	public static final int DEFAULT_CHUNK_SIZE = 500;
+	// 分块批量插入辅助类名后缀
+	public static final String BATCH_HELPER_SUFFIX = "BatchHelper";
+	protected int chunkSize = DEFAULT_CHUNK_SIZE;
 
 	@Override
 	public void setContext(Context context) {
@@ -52,9 +71,29 @@ public class InsertBatchPlugin extends PluginAdapter {
 	public boolean validate(List<String> warnings) {
 		String value = properties.getProperty(USE_GENERATED_KEYS); // $NON-NLS-1$
 		useGeneratedKeys = Boolean.valueOf(value);
+
+		String chunkSizeValue = properties.getProperty(CHUNK_SIZE);
+		if (chunkSizeValue != null) {
+			try {
+				chunkSize = Integer.parseInt(chunkSizeValue.trim());
+			} catch (NumberFormatException e) {
+				chunkSize = 0;
+			}
+			if (chunkSize <= 0) {
+				warnings.add("InsertBatchPlugin: " + CHUNK_SIZE + " must be a positive integer: " + chunkSizeValue);
+				return false;
+			}
+		}
 		return true;
 	}
 
+	/**
+	 * 是否插入返回主键key，取代原来的静态字段 useGeneratedKeys：每个插件实例读取自己 context 的配置
+	 */
+	public boolean isUseGeneratedKeys() {
+		return useGeneratedKeys;
+	}
+
 	/**
 	 * Java Client Methods 生成
 	 */
@@ -198,4 +237,44 @@ public class InsertBatchPlugin extends PluginAdapter {
 		return true;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * 生成分块批量插入辅助类 XxxMapperBatchHelper
+	 */
+	@Override
+	public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(IntrospectedTable introspectedTable) {
+		List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+		JavaClientGeneratorConfiguration clientConfiguration = context.getJavaClientGeneratorConfiguration();
+		if (clientConfiguration == null || introspectedTable.getMyBatis3JavaMapperType() == null) {
+			// 没有生成 Mapper 接口
+			return answer;
+		}
+
+		FullyQualifiedJavaType mapperType = new FullyQualifiedJavaType(introspectedTable.getMyBatis3JavaMapperType());
+		FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
+		FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+		listType.addTypeArgument(recordType);
+		FullyQualifiedJavaType stringListType = FullyQualifiedJavaType.getNewListInstance();
+		stringListType.addTypeArgument(FullyQualifiedJavaType.getStringInstance());
+
+		TopLevelClass helper = JavaElementGeneratorTools.generateBatchHelperClass(
+				mapperType.getFullyQualifiedName() + BATCH_HELPER_SUFFIX, mapperType, recordType, chunkSize);
+
+		// 1. insertBatch 分块
+		JavaElementGeneratorTools.addChunkedMethods(helper, INSERT_BATCH, mapperType, listType, true);
+
+		// 2. insertBatchSelective 分块
+		JavaElementGeneratorTools.addChunkedMethods(helper, INSERT_BATCH_SELECTIVE, mapperType, listType, false,
+				new Parameter(stringListType, "showField"));
+
+		// 3. ExecutorType.BATCH：复用单行 insert 的 PreparedStatement
+		if (introspectedTable.getRules().generateInsert()) {
+			JavaElementGeneratorTools.addBatchExecutorMethods(helper, "insertWithBatchExecutor", mapperType, listType,
+					null, "mapper.insert(list.get(j));");
+		}
+
+		JavaElementGeneratorTools.addHelperClassComments(helper, commentGenerator, introspectedTable);
+		answer.add(new GeneratedJavaFile(helper, clientConfiguration.getTargetProject(),
+				context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING), context.getJavaFormatter()));
+		return answer;
+	}
+}
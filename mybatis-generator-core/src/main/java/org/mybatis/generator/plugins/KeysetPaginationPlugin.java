@@ -0,0 +1,234 @@
+package org.mybatis.generator.plugins;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.internal.util.FormatTools;
+import org.mybatis.generator.internal.util.JavaElementGeneratorTools;
+import org.mybatis.generator.internal.util.StringUtility;
+import org.mybatis.generator.internal.util.XmlElementGeneratorTools;
+
+/**
+ * 键集（seek）分页插件
+ * <p>
+ * RowBounds 和 pageNumber/pageSize 都是 offset 分页，翻到越深的页数据库要跳过的行越多。
+ * 本插件为每个表生成 selectByExampleAfterKey(example, cursor, limit) 方法：按键列升序排序，
+ * 只查询键值大于游标（上一页最后一条记录）的数据，借助索引每页的代价与页数无关。
+ * <p>
+ * 键列默认为主键列，也可以在 table 上通过属性 keysetColumns 指定有索引的列组合（逗号分隔，按顺序），
+ * 列组合必须唯一（一般以主键结尾），且不能包含 BLOB 列。没有主键也没有配置键列的表不生成该方法。
+ * <p>
+ * 用法：第一页 cursor 传 null，之后传上一页的最后一条记录，返回条数小于 limit 时表示没有更多数据。
+ * 
+ * @author fury
+ * @date : 2026年10月18日 上午10:12:45
+ */
+public class KeysetPaginationPlugin extends PluginAdapter {
+	protected CommentGenerator commentGenerator; // 注释工具
+	// 键集分页方法
+	public static final String SELECT_BY_EXAMPLE_AFTER_KEY = "selectByExampleAfterKey";
+	// table 属性：键列组合
+	public static final String KEYSET_COLUMNS = "keysetColumns";
+
+	@Override
+	public void setContext(Context context) {
+		super.setContext(context);
+		commentGenerator = context.getCommentGenerator();
+	}
+
+	@Override
+	public boolean validate(List<String> warnings) {
+		return true;
+	}
+
+	/**
+	 * Java Client Methods 生成
+	 */
+	@Override
+	public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
+			IntrospectedTable introspectedTable) {
+		if (!introspectedTable.getRules().generateSelectByExampleWithoutBLOBs()
+				|| getKeyColumns(introspectedTable) == null) {
+			return true;
+		}
+
+		FullyQualifiedJavaType recordType = JavaElementGeneratorTools.getModelTypeWithoutBLOBs(introspectedTable);
+		FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+		listType.addTypeArgument(recordType);
+
+		Method method = JavaElementGeneratorTools.generateMethod(SELECT_BY_EXAMPLE_AFTER_KEY, JavaVisibility.DEFAULT,
+				listType,
+				new Parameter(new FullyQualifiedJavaType(introspectedTable.getExampleType()), "example",
+						"@Param(\"example\")"),
+				new Parameter(recordType, "cursor", "@Param(\"cursor\")"),
+				new Parameter(FullyQualifiedJavaType.getIntInstance(), "limit", "@Param(\"limit\")"));
+		commentGenerator.addGeneralMethodComment(method, introspectedTable);
+		interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param"));
+		FormatTools.addMethodWithBestPosition(interfaze, method);
+
+		return true;
+	}
+
+	/**
+	 * SQL Map Methods 生成
+	 */
+	@Override
+	public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+		if (!introspectedTable.getRules().generateSelectByExampleWithoutBLOBs()) {
+			return true;
+		}
+		List<IntrospectedColumn> keyColumns = getKeyColumns(introspectedTable);
+		XmlElement oredCriteria = getOredCriteriaElement(document, introspectedTable);
+		if (keyColumns == null || oredCriteria == null) {
+			return true;
+		}
+
+		XmlElement selectElement = new XmlElement("select");
+		commentGenerator.addComment(selectElement);
+		selectElement.addAttribute(new Attribute("id", SELECT_BY_EXAMPLE_AFTER_KEY));
+		selectElement.addAttribute(new Attribute("resultMap", introspectedTable.getBaseResultMapId()));
+		selectElement.addAttribute(new Attribute("parameterType", "map"));
+
+		selectElement.addElement(new TextElement("select"));
+		XmlElement distinctElement = new XmlElement("if");
+		distinctElement.addAttribute(new Attribute("test", "example != null and example.distinct"));
+		distinctElement.addElement(new TextElement("distinct"));
+		selectElement.addElement(distinctElement);
+		if (StringUtility.stringHasValue(introspectedTable.getSelectByExampleQueryId())) {
+			selectElement.addElement(
+					new TextElement("'" + introspectedTable.getSelectByExampleQueryId() + "' as QUERYID,"));
+		}
+		selectElement.addElement(XmlElementGeneratorTools.getBaseColumnListElement(introspectedTable));
+		selectElement.addElement(new TextElement("from " + introspectedTable.getAliasedFullyQualifiedTableNameAtRuntime()));
+
+		XmlElement whereElement = new XmlElement("where");
+		selectElement.addElement(whereElement);
+
+		// 键值大于游标
+		XmlElement cursorElement = new XmlElement("if");
+		cursorElement.addAttribute(new Attribute("test", "cursor != null"));
+		cursorElement.addElement(new TextElement(getSeekCondition(keyColumns, 0)));
+		whereElement.addElement(cursorElement);
+
+		// example 条件，与 Example_Where_Clause 相同，整体加括号后 and 在游标条件之后
+		XmlElement exampleElement = new XmlElement("if");
+		exampleElement.addAttribute(new Attribute("test", "example != null"));
+		XmlElement trimElement = new XmlElement("trim");
+		trimElement.addAttribute(new Attribute("prefix", "and ("));
+		trimElement.addAttribute(new Attribute("suffix", ")"));
+		trimElement.addElement(oredCriteria);
+		exampleElement.addElement(trimElement);
+		whereElement.addElement(exampleElement);
+
+		// 按键列排序，只取 limit 条
+		StringBuilder sb = new StringBuilder("order by ");
+		for (int i = 0; i < keyColumns.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(MyBatis3FormattingUtilities.getAliasedEscapedColumnName(keyColumns.get(i)));
+		}
+		selectElement.addElement(new TextElement(sb.toString()));
+		selectElement.addElement(new TextElement("limit #{limit}"));
+
+		FormatTools.addElementWithBestPosition(document.getRootElement(), selectElement);
+		return true;
+	}
+
+	/**
+	 * 生成 (k1, k2, ...) &gt; (v1, v2, ...) 条件，展开为
+	 * k1 &gt;= v1 and (k1 &gt; v1 or (k2 &gt;= v2 and (k2 &gt; v2 or ...)))，首列为范围条件，便于走索引
+	 */
+	private static String getSeekCondition(List<IntrospectedColumn> keyColumns, int index) {
+		IntrospectedColumn column = keyColumns.get(index);
+		String columnName = MyBatis3FormattingUtilities.getAliasedEscapedColumnName(column);
+		String value = MyBatis3FormattingUtilities.getParameterClause(column, "cursor.");
+		if (index == keyColumns.size() - 1) {
+			return columnName + " &gt; " + value;
+		}
+
+		return columnName + " &gt;= " + value + " and (" + columnName + " &gt; " + value + " or ("
+				+ getSeekCondition(keyColumns, index + 1) + "))";
+	}
+
+	/**
+	 * 复制 Example_Where_Clause 中的 oredCriteria 循环，参数改为 example.oredCriteria
+	 * 
+	 * @return 未生成 Example_Where_Clause 时返回 null
+	 */
+	private static XmlElement getOredCriteriaElement(Document document, IntrospectedTable introspectedTable) {
+		for (XmlElement sqlElement : XmlElementGeneratorTools.findXmlElements(document.getRootElement(), "sql")) {
+			if (!hasAttribute(sqlElement, "id", introspectedTable.getExampleWhereClauseId())) {
+				continue;
+			}
+			for (XmlElement whereElement : XmlElementGeneratorTools.findXmlElements(sqlElement, "where")) {
+				for (XmlElement foreachElement : XmlElementGeneratorTools.findXmlElements(whereElement, "foreach")) {
+					XmlElement answer = new XmlElement(foreachElement.getName());
+					for (Attribute attribute : foreachElement.getAttributes()) {
+						if ("collection".equals(attribute.getName())) {
+							answer.addAttribute(new Attribute("collection", "example.oredCriteria"));
+						} else {
+							answer.addAttribute(attribute);
+						}
+					}
+					for (Element element : foreachElement.getElements()) {
+						answer.addElement(element);
+					}
+					return answer;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean hasAttribute(XmlElement element, String name, String value) {
+		for (Attribute attribute : element.getAttributes()) {
+			if (name.equals(attribute.getName()) && value.equals(attribute.getValue())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * 键列：table 属性 keysetColumns 指定的列，否则为主键列
+	 * 
+	 * @return 没有可用键列时返回 null
+	 */
+	protected List<IntrospectedColumn> getKeyColumns(IntrospectedTable introspectedTable) {
+		String property = introspectedTable.getTableConfigurationProperty(KEYSET_COLUMNS);
+		if (!StringUtility.stringHasValue(property)) {
+			return introspectedTable.hasPrimaryKeyColumns() ? introspectedTable.getPrimaryKeyColumns() : null;
+		}
+
+		List<IntrospectedColumn> columns = new ArrayList<IntrospectedColumn>();
+		StringTokenizer st = new StringTokenizer(property, ",");
+		while (st.hasMoreTokens()) {
+			IntrospectedColumn column = introspectedTable.getColumn(st.nextToken().trim());
+			if (column == null || column.isBLOBColumn()) {
+				// 列不存在或为大文本列，无法作为键列
+				return null;
+			}
+			columns.add(column);
+		}
+		return columns.isEmpty() ? null : columns;
+	}
+}
@@ -0,0 +1,444 @@
+package org.mybatis.generator.plugins;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerClass;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.Element;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.JavaModelGeneratorConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.config.TableConfiguration;
+import org.mybatis.generator.internal.util.JavaElementGeneratorTools;
+
+/**
+ * 进程内二级缓存插件
+ * <p>
+ * 与 CachePlugin 只生成一个 &lt;cache&gt; 元素不同，本插件：
+ * <ul>
+ * <li>生成一个实现 org.apache.ibatis.cache.Cache 的 LocalCache 类（每个 context 一个），支持 LRU/FIFO 淘汰、
+ * 容量上限、TTL 过期，并统计命中/未命中/淘汰/过期次数（LocalCache.getInstance(namespace) 可取到统计）</li>
+ * <li>为每个表生成 &lt;cache type="...LocalCache"&gt;，容量、TTL、淘汰策略可按表配置（表属性优先于插件属性）</li>
+ * <li>逐条语句设置 useCache/flushCache：只有 cache_statements 中列出的查询（默认 selectByPrimaryKey）走缓存，
+ * 其余 select 设置 useCache="false"；insert/update/delete 设置 flushCache="true"。已有的属性不覆盖</li>
+ * </ul>
+ * 属性（插件或表上配置）：
+ * <ul>
+ * <li>cache_size：最大条目数，默认 1024</li>
+ * <li>cache_ttl：过期时间（毫秒），默认 0 表示不过期</li>
+ * <li>cache_eviction：LRU 或 FIFO，默认 LRU</li>
+ * <li>cache_statements：走缓存的 select id，逗号分隔，默认 selectByPrimaryKey</li>
+ * <li>cache_enabled：表上设置为 false 时该表不生成缓存</li>
+ * </ul>
+ * 插件属性 targetPackage/targetProject 指定 LocalCache 生成位置，默认与 Model 相同。
+ * <p>
+ * 注意：缓存返回的是同一个对象（相当于 readOnly="true"），调用方不能修改查询结果；
+ * 不要与 CachePlugin 同时使用；其他插件新增的语句也需要设置 useCache，因此本插件应配置在最后。
+ *
+ * @author fury
+ * @date : 2026年10月18日 上午10:12:40
+ */
+public class LocalCachePlugin extends PluginAdapter {
+	// 属性名
+	public static final String CACHE_SIZE = "cache_size";
+	public static final String CACHE_TTL = "cache_ttl";
+	public static final String CACHE_EVICTION = "cache_eviction";
+	public static final String CACHE_STATEMENTS = "cache_statements";
+	public static final String CACHE_ENABLED = "cache_enabled";
+	public static final String TARGET_PACKAGE = "targetPackage";
+	public static final String TARGET_PROJECT = "targetProject";
+
+	// 默认值
+	public static final String DEFAULT_SIZE = "1024";
+	public static final String DEFAULT_TTL = "0";
+	public static final String DEFAULT_EVICTION = "LRU";
+	public static final String DEFAULT_STATEMENTS = "selectByPrimaryKey";
+	// 生成的缓存类名
+	public static final String CACHE_CLASS_NAME = "LocalCache";
+
+	@Override
+	public boolean validate(List<String> warnings) {
+		boolean valid = validateProperties(properties, "plugin", warnings);
+		for (TableConfiguration tc : context.getTableConfigurations()) {
+			valid &= validateProperties(tc.getProperties(), "table " + tc.getTableName(), warnings);
+		}
+		return valid;
+	}
+
+	/**
+	 * 校验数值与淘汰策略属性
+	 */
+	private boolean validateProperties(Properties props, String owner, List<String> warnings) {
+		boolean valid = true;
+		String size = props.getProperty(CACHE_SIZE);
+		if (size != null && parseLong(size) <= 0) {
+			warnings.add("LocalCachePlugin: " + CACHE_SIZE + " of " + owner + " must be a positive integer: " + size);
+			valid = false;
+		}
+		String ttl = props.getProperty(CACHE_TTL);
+		if (ttl != null && parseLong(ttl) < 0) {
+			warnings.add("LocalCachePlugin: " + CACHE_TTL + " of " + owner + " must be a non-negative integer: " + ttl);
+			valid = false;
+		}
+		String eviction = props.getProperty(CACHE_EVICTION);
+		if (eviction != null && !"LRU".equalsIgnoreCase(eviction.trim())
+				&& !"FIFO".equalsIgnoreCase(eviction.trim())) {
+			warnings.add("LocalCachePlugin: " + CACHE_EVICTION + " of " + owner + " must be LRU or FIFO: " + eviction);
+			valid = false;
+		}
+		return valid;
+	}
+
+	private static long parseLong(String value) {
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			return -1L;
+		}
+	}
+
+	@Override
+	public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+		if ("false".equalsIgnoreCase(introspectedTable.getTableConfigurationProperty(CACHE_ENABLED))) {
+			return true;
+		}
+		XmlElement root = document.getRootElement();
+
+		Set<String> cachedStatements = new HashSet<String>();
+		for (String id : getProperty(introspectedTable, CACHE_STATEMENTS, DEFAULT_STATEMENTS).split(",")) {
+			if (id.trim().length() > 0) {
+				cachedStatements.add(id.trim());
+			}
+		}
+		// 逐条语句设置 useCache/flushCache
+		for (Element element : root.getElements()) {
+			if (!(element instanceof XmlElement)) {
+				continue;
+			}
+			XmlElement statement = (XmlElement) element;
+			String name = statement.getName();
+			if ("select".equals(name)) {
+				boolean cached = cachedStatements.contains(getAttributeValue(statement, "id"));
+				addAttributeIfAbsent(statement, "useCache", String.valueOf(cached));
+			} else if ("insert".equals(name) || "update".equals(name) || "delete".equals(name)) {
+				addAttributeIfAbsent(statement, "flushCache", "true");
+			}
+		}
+
+		XmlElement cache = new XmlElement("cache");
+		cache.addAttribute(new Attribute("type", getCacheType().getFullyQualifiedName()));
+		addCacheProperty(cache, "maxSize", getProperty(introspectedTable, CACHE_SIZE, DEFAULT_SIZE).trim());
+		addCacheProperty(cache, "ttl", getProperty(introspectedTable, CACHE_TTL, DEFAULT_TTL).trim());
+		addCacheProperty(cache, "eviction",
+				getProperty(introspectedTable, CACHE_EVICTION, DEFAULT_EVICTION).trim().toUpperCase());
+		context.getCommentGenerator().addComment(cache);
+		root.addElement(cache);
+		return true;
+	}
+
+	/**
+	 * 表属性优先，其次插件属性，最后默认值
+	 */
+	private String getProperty(IntrospectedTable introspectedTable, String name, String defaultValue) {
+		String value = introspectedTable.getTableConfigurationProperty(name);
+		if (value == null) {
+			value = properties.getProperty(name);
+		}
+		return value == null ? defaultValue : value;
+	}
+
+	private static String getAttributeValue(XmlElement element, String name) {
+		for (Attribute attribute : element.getAttributes()) {
+			if (name.equals(attribute.getName())) {
+				return attribute.getValue();
+			}
+		}
+		return null;
+	}
+
+	private static void addAttributeIfAbsent(XmlElement element, String name, String value) {
+		if (getAttributeValue(element, name) == null) {
+			element.addAttribute(new Attribute(name, value));
+		}
+	}
+
+	private static void addCacheProperty(XmlElement cache, String name, String value) {
+		XmlElement property = new XmlElement("property");
+		property.addAttribute(new Attribute("name", name));
+		property.addAttribute(new Attribute("value", value));
+		cache.addElement(property);
+	}
+
+	private FullyQualifiedJavaType getCacheType() {
+		String targetPackage = properties.getProperty(TARGET_PACKAGE);
+		if (targetPackage == null) {
+			targetPackage = context.getJavaModelGeneratorConfiguration().getTargetPackage();
+		}
+		return new FullyQualifiedJavaType(targetPackage + "." + CACHE_CLASS_NAME);
+	}
+
+	/**
+	 * 生成 LocalCache 类（每个 context 一个）
+	 */
+	@Override
+	public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles() {
+		List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+		JavaModelGeneratorConfiguration modelConfiguration = context.getJavaModelGeneratorConfiguration();
+		String targetProject = properties.getProperty(TARGET_PROJECT);
+		if (targetProject == null) {
+			targetProject = modelConfiguration.getTargetProject();
+		}
+
+		FullyQualifiedJavaType longType = new FullyQualifiedJavaType("long");
+		FullyQualifiedJavaType objectType = FullyQualifiedJavaType.getObjectInstance();
+		FullyQualifiedJavaType stringType = FullyQualifiedJavaType.getStringInstance();
+		FullyQualifiedJavaType entryType = new FullyQualifiedJavaType("CacheEntry");
+		FullyQualifiedJavaType entryMapType = new FullyQualifiedJavaType("EntryMap");
+
+		TopLevelClass cache = new TopLevelClass(getCacheType());
+		cache.setVisibility(JavaVisibility.PUBLIC);
+		cache.addSuperInterface(new FullyQualifiedJavaType("org.apache.ibatis.cache.Cache"));
+		cache.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.cache.Cache"));
+		cache.addImportedType(new FullyQualifiedJavaType("java.util.LinkedHashMap"));
+		cache.addImportedType(new FullyQualifiedJavaType("java.util.Map"));
+		cache.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.ConcurrentHashMap"));
+		cache.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.ConcurrentMap"));
+		cache.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.locks.ReadWriteLock"));
+		cache.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.locks.ReentrantReadWriteLock"));
+		context.getCommentGenerator().addJavaFileComment(cache);
+		cache.addJavaDocLine("/**");
+		cache.addJavaDocLine(" * MyBatis 进程内二级缓存：LRU/FIFO 淘汰、容量上限、TTL 过期，并统计命中/未命中/淘汰/过期次数。");
+		cache.addJavaDocLine(" * 返回的是缓存中的同一个对象，调用方不能修改。");
+		cache.addJavaDocLine(" * MyBatis 会用 LoggingCache 包装自定义缓存，统计请通过 getInstance(namespace) 获取。");
+		cache.addJavaDocLine(" */");
+
+		// 实例注册表：namespace -> 缓存
+		Field instances = JavaElementGeneratorTools.generateField("INSTANCES", JavaVisibility.PRIVATE,
+				new FullyQualifiedJavaType("ConcurrentMap<String, " + CACHE_CLASS_NAME + ">"),
+				"new ConcurrentHashMap<String, " + CACHE_CLASS_NAME + ">()");
+		instances.setStatic(true);
+		instances.setFinal(true);
+		cache.addField(instances);
+
+		Field id = JavaElementGeneratorTools.generateField("id", JavaVisibility.PRIVATE, stringType, null);
+		id.setFinal(true);
+		cache.addField(id);
+		Field lock = JavaElementGeneratorTools.generateField("readWriteLock", JavaVisibility.PRIVATE,
+				new FullyQualifiedJavaType("ReadWriteLock"), "new ReentrantReadWriteLock()");
+		lock.setFinal(true);
+		cache.addField(lock);
+		cache.addField(JavaElementGeneratorTools.generateField("maxSize", JavaVisibility.PRIVATE,
+				FullyQualifiedJavaType.getIntInstance(), DEFAULT_SIZE));
+		cache.addField(JavaElementGeneratorTools.generateField("ttl", JavaVisibility.PRIVATE,
+				longType, null));
+		cache.addField(JavaElementGeneratorTools.generateField("entries", JavaVisibility.PRIVATE, entryMapType,
+				"new EntryMap(true)"));
+		String[] counters = { "hits", "misses", "evictions", "expirations" };
+		for (String counter : counters) {
+			cache.addField(JavaElementGeneratorTools.generateField(counter, JavaVisibility.PRIVATE,
+					longType, null));
+		}
+
+		Method constructor = JavaElementGeneratorTools.generateMethod(CACHE_CLASS_NAME, JavaVisibility.PUBLIC, null,
+				new Parameter(stringType, "id"));
+		constructor.setConstructor(true);
+		JavaElementGeneratorTools.generateMethodBody(constructor,
+				"if (id == null) {",
+				"throw new IllegalArgumentException(\"Cache instances require an id\");",
+				"}",
+				"this.id = id;",
+				"INSTANCES.put(id, this);");
+		cache.addMethod(constructor);
+
+		Method getInstance = JavaElementGeneratorTools.generateMethod("getInstance", JavaVisibility.PUBLIC,
+				cache.getType(), new Parameter(stringType, "id"));
+		getInstance.setStatic(true);
+		getInstance.addJavaDocLine("/**");
+		getInstance.addJavaDocLine(" * 按 namespace 获取缓存实例（用于查看统计），不存在时返回 null");
+		getInstance.addJavaDocLine(" */");
+		JavaElementGeneratorTools.generateMethodBody(getInstance, "return INSTANCES.get(id);");
+		cache.addMethod(getInstance);
+
+		// <cache> 中 <property> 对应的 setter
+		Method setMaxSize = JavaElementGeneratorTools.generateMethod("setMaxSize", JavaVisibility.PUBLIC, null,
+				new Parameter(FullyQualifiedJavaType.getIntInstance(), "maxSize"));
+		setMaxSize.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(setMaxSize,
+				"if (maxSize <= 0) {",
+				"throw new IllegalArgumentException(\"maxSize must be positive: \" + maxSize);",
+				"}",
+				"this.maxSize = maxSize;");
+		cache.addMethod(setMaxSize);
+
+		Method setTtl = JavaElementGeneratorTools.generateMethod("setTtl", JavaVisibility.PUBLIC, null,
+				new Parameter(longType, "ttl"));
+		setTtl.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(setTtl,
+				"if (ttl < 0) {",
+				"throw new IllegalArgumentException(\"ttl must not be negative: \" + ttl);",
+				"}",
+				"this.ttl = ttl;");
+		cache.addMethod(setTtl);
+
+		Method setEviction = JavaElementGeneratorTools.generateMethod("setEviction", JavaVisibility.PUBLIC, null,
+				new Parameter(stringType, "eviction"));
+		setEviction.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(setEviction,
+				"EntryMap old = entries;",
+				"entries = new EntryMap(!\"FIFO\".equalsIgnoreCase(eviction));",
+				"entries.putAll(old);");
+		cache.addMethod(setEviction);
+
+		// Cache 接口实现
+		Method getId = JavaElementGeneratorTools.generateMethod("getId", JavaVisibility.PUBLIC, stringType);
+		JavaElementGeneratorTools.generateMethodBody(getId, "return id;");
+		addOverride(cache, getId);
+
+		Method putObject = JavaElementGeneratorTools.generateMethod("putObject", JavaVisibility.PUBLIC, null,
+				new Parameter(objectType, "key"), new Parameter(objectType, "value"));
+		putObject.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(putObject,
+				"long expiresAt = ttl > 0 ? System.currentTimeMillis() + ttl : Long.MAX_VALUE;",
+				"entries.put(key, new CacheEntry(value, expiresAt));");
+		addOverride(cache, putObject);
+
+		Method getObject = JavaElementGeneratorTools.generateMethod("getObject", JavaVisibility.PUBLIC, objectType,
+				new Parameter(objectType, "key"));
+		getObject.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(getObject,
+				"CacheEntry entry = entries.get(key);",
+				"if (entry == null) {",
+				"misses++;",
+				"return null;",
+				"}",
+				"if (entry.expiresAt <= System.currentTimeMillis()) {",
+				"entries.remove(key);",
+				"expirations++;",
+				"misses++;",
+				"return null;",
+				"}",
+				"hits++;",
+				"return entry.value;");
+		addOverride(cache, getObject);
+
+		Method removeObject = JavaElementGeneratorTools.generateMethod("removeObject", JavaVisibility.PUBLIC,
+				objectType, new Parameter(objectType, "key"));
+		removeObject.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(removeObject,
+				"CacheEntry entry = entries.remove(key);",
+				"return entry == null ? null : entry.value;");
+		addOverride(cache, removeObject);
+
+		Method clear = JavaElementGeneratorTools.generateMethod("clear", JavaVisibility.PUBLIC, null);
+		clear.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(clear, "entries.clear();");
+		addOverride(cache, clear);
+
+		Method getSize = JavaElementGeneratorTools.generateMethod("getSize", JavaVisibility.PUBLIC,
+				FullyQualifiedJavaType.getIntInstance());
+		getSize.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(getSize, "return entries.size();");
+		addOverride(cache, getSize);
+
+		Method getReadWriteLock = JavaElementGeneratorTools.generateMethod("getReadWriteLock",
+				JavaVisibility.PUBLIC, new FullyQualifiedJavaType("ReadWriteLock"));
+		JavaElementGeneratorTools.generateMethodBody(getReadWriteLock, "return readWriteLock;");
+		addOverride(cache, getReadWriteLock);
+
+		// 统计
+		for (String counter : counters) {
+			Method getter = JavaElementGeneratorTools.generateMethod(
+					"get" + Character.toUpperCase(counter.charAt(0)) + counter.substring(1), JavaVisibility.PUBLIC,
+					longType);
+			getter.setSynchronized(true);
+			JavaElementGeneratorTools.generateMethodBody(getter, "return " + counter + ";");
+			cache.addMethod(getter);
+		}
+
+		Method resetStatistics = JavaElementGeneratorTools.generateMethod("resetStatistics", JavaVisibility.PUBLIC,
+				null);
+		resetStatistics.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(resetStatistics,
+				"hits = 0;",
+				"misses = 0;",
+				"evictions = 0;",
+				"expirations = 0;");
+		cache.addMethod(resetStatistics);
+
+		Method toString = JavaElementGeneratorTools.generateMethod("toString", JavaVisibility.PUBLIC, stringType);
+		toString.setSynchronized(true);
+		JavaElementGeneratorTools.generateMethodBody(toString,
+				"return id + \" [size=\" + entries.size() + \", hits=\" + hits + \", misses=\" + misses"
+						+ " + \", evictions=\" + evictions + \", expirations=\" + expirations + \"]\";");
+		addOverride(cache, toString);
+
+		// 缓存条目
+		InnerClass entry = new InnerClass(entryType);
+		entry.setVisibility(JavaVisibility.PRIVATE);
+		entry.setStatic(true);
+		entry.setFinal(true);
+		Field value = JavaElementGeneratorTools.generateField("value", JavaVisibility.PRIVATE, objectType, null);
+		value.setFinal(true);
+		entry.addField(value);
+		Field expiresAt = JavaElementGeneratorTools.generateField("expiresAt", JavaVisibility.PRIVATE,
+				longType, null);
+		expiresAt.setFinal(true);
+		entry.addField(expiresAt);
+		Method entryConstructor = JavaElementGeneratorTools.generateMethod("CacheEntry", JavaVisibility.PRIVATE, null,
+				new Parameter(objectType, "value"), new Parameter(longType, "expiresAt"));
+		entryConstructor.setConstructor(true);
+		JavaElementGeneratorTools.generateMethodBody(entryConstructor,
+				"this.value = value;",
+				"this.expiresAt = expiresAt;");
+		entry.addMethod(entryConstructor);
+		cache.addInnerClass(entry);
+
+		// accessOrder=true 为 LRU，false 为 FIFO；超出 maxSize 时淘汰最老的条目
+		InnerClass entryMap = new InnerClass(entryMapType);
+		entryMap.setVisibility(JavaVisibility.PRIVATE);
+		entryMap.setFinal(true);
+		entryMap.setSuperClass(new FullyQualifiedJavaType("LinkedHashMap<Object, CacheEntry>"));
+		entryMap.addField(JavaElementGeneratorTools.generateStaticFinalField("serialVersionUID", longType, "1L"));
+		entryMap.getFields().get(0).setVisibility(JavaVisibility.PRIVATE);
+		Method entryMapConstructor = JavaElementGeneratorTools.generateMethod("EntryMap", JavaVisibility.PRIVATE,
+				null, new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(), "accessOrder"));
+		entryMapConstructor.setConstructor(true);
+		JavaElementGeneratorTools.generateMethodBody(entryMapConstructor, "super(16, 0.75f, accessOrder);");
+		entryMap.addMethod(entryMapConstructor);
+		Method removeEldestEntry = JavaElementGeneratorTools.generateMethod("removeEldestEntry",
+				JavaVisibility.PROTECTED, FullyQualifiedJavaType.getBooleanPrimitiveInstance(),
+				new Parameter(new FullyQualifiedJavaType("Map.Entry<Object, CacheEntry>"), "eldest"));
+		removeEldestEntry.addAnnotation("@Override");
+		JavaElementGeneratorTools.generateMethodBody(removeEldestEntry,
+				"if (size() > maxSize) {",
+				"evictions++;",
+				"return true;",
+				"}",
+				"return false;");
+		entryMap.addMethod(removeEldestEntry);
+		cache.addInnerClass(entryMap);
+
+		answer.add(new GeneratedJavaFile(cache, targetProject,
+				context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING), context.getJavaFormatter()));
+		return answer;
+	}
+
+	private static void addOverride(TopLevelClass topLevelClass, Method method) {
+		method.addAnnotation("@Override");
+		topLevelClass.addMethod(method);
+	}
+}
@@ -0,0 +1,362 @@
+package org.mybatis.generator.plugins;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.JavaBeansUtil;
+import org.mybatis.generator.internal.util.JavaElementGeneratorTools;
+
+/**
+ * 主键读穿透缓存装饰器插件
+ * <p>
+ * 为每个有主键的表生成 XxxMapperCachingDecorator（与 Mapper 同包），实现 Mapper 接口并委托给真正的 Mapper：
+ * <ul>
+ * <li>selectByPrimaryKey 先查缓存，未命中再查库并放入缓存（不缓存 null）</li>
+ * <li>只有一个 Model/主键类参数、或参数就是主键字段的写方法（updateByPrimaryKey*、deleteByPrimaryKey、
+ * UpsertPlugin 的 upsert/upsertSelective/upsertWithBLOBs、UpdateIncrementsPlugin 的 updateByPrimaryKeySelectiveSync 等）
+ * 执行后按主键淘汰；其他写方法（*ByExample、批量等）执行后清空整个缓存</li>
+ * <li>insert* 方法不淘汰（不缓存 null，新增行不会让已有缓存失效）；select*、count* 直接委托</li>
+ * <li>getHits/getMisses/getEvictions/getHitRate 提供命中率统计</li>
+ * </ul>
+ * 缓存为有界 ConcurrentHashMap，容量默认 1024（插件属性 maxSize，也可通过构造方法指定），满时随机淘汰一条。
+ * 读库期间如有写操作，读到的结果不会放入缓存（代数计数），避免旧值覆盖淘汰。
+ * <p>
+ * 注意：缓存返回的是同一个对象，调用方不能修改；事务回滚、其他进程/SQL 对表的修改不会淘汰缓存，只适合读多写少的字典类表。
+ * Mapper 方法在 contextGenerateAdditionalJavaFiles 时才读取，其他插件新增的方法都会包含在内，与插件配置顺序无关。
+ *
+ * @author fury
+ * @date : 2026年10月18日 上午11:05:26
+ */
+public class PrimaryKeyCacheDecoratorPlugin extends PluginAdapter {
+	// 装饰器类名后缀
+	public static final String DECORATOR_SUFFIX = "CachingDecorator";
+	// 读穿透缓存的方法
+	public static final String SELECT_BY_PRIMARY_KEY = "selectByPrimaryKey";
+	public static final String MAX_SIZE = "maxSize"; // 缓存容量
+	public static final int DEFAULT_MAX_SIZE = 1024;
+	protected int maxSize = DEFAULT_MAX_SIZE;
+
+	// 各表的 Mapper 接口（多线程生成时各表并发调用）
+	private final Map<IntrospectedTable, Interface> mappers = new ConcurrentHashMap<IntrospectedTable, Interface>();
+
+	@Override
+	public boolean validate(List<String> warnings) {
+		String maxSizeValue = properties.getProperty(MAX_SIZE);
+		if (maxSizeValue != null) {
+			try {
+				maxSize = Integer.parseInt(maxSizeValue.trim());
+			} catch (NumberFormatException e) {
+				maxSize = 0;
+			}
+			if (maxSize <= 0) {
+				warnings.add("PrimaryKeyCacheDecoratorPlugin: " + MAX_SIZE + " must be a positive integer: " + maxSizeValue);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
+			IntrospectedTable introspectedTable) {
+		if (introspectedTable.hasPrimaryKeyColumns()) {
+			mappers.put(introspectedTable, interfaze);
+		}
+		return true;
+	}
+
+	@Override
+	public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(IntrospectedTable introspectedTable) {
+		List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+		JavaClientGeneratorConfiguration clientConfiguration = context.getJavaClientGeneratorConfiguration();
+		Interface mapper = mappers.remove(introspectedTable);
+		if (clientConfiguration == null || mapper == null) {
+			return answer;
+		}
+		Method selectByPrimaryKey = null;
+		for (Method method : mapper.getMethods()) {
+			if (SELECT_BY_PRIMARY_KEY.equals(method.getName()) && getKeyExpression(method, introspectedTable) != null) {
+				selectByPrimaryKey = method;
+			}
+		}
+		if (selectByPrimaryKey == null) {
+			// 没有 selectByPrimaryKey，不需要缓存
+			return answer;
+		}
+
+		FullyQualifiedJavaType mapperType = mapper.getType();
+		FullyQualifiedJavaType valueType = selectByPrimaryKey.getReturnType();
+		FullyQualifiedJavaType intType = FullyQualifiedJavaType.getIntInstance();
+		FullyQualifiedJavaType longType = new FullyQualifiedJavaType("long");
+		FullyQualifiedJavaType objectType = FullyQualifiedJavaType.getObjectInstance();
+
+		TopLevelClass decorator = new TopLevelClass(mapperType.getFullyQualifiedName() + DECORATOR_SUFFIX);
+		decorator.setVisibility(JavaVisibility.PUBLIC);
+		decorator.addSuperInterface(mapperType);
+		decorator.addImportedType(mapperType);
+		decorator.addImportedType(valueType);
+		if (introspectedTable.getPrimaryKeyColumns().size() > 1) {
+			decorator.addImportedType(new FullyQualifiedJavaType("java.util.Arrays"));
+		}
+		decorator.addImportedType(new FullyQualifiedJavaType("java.util.Iterator"));
+		decorator.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.ConcurrentHashMap"));
+		decorator.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.ConcurrentMap"));
+		decorator.addImportedType(new FullyQualifiedJavaType("java.util.concurrent.atomic.AtomicLong"));
+		context.getCommentGenerator().addJavaFileComment(decorator);
+
+		Field maxSizeField = JavaElementGeneratorTools.generateStaticFinalField("DEFAULT_MAX_SIZE", intType,
+				String.valueOf(maxSize));
+		context.getCommentGenerator().addFieldComment(maxSizeField, introspectedTable);
+		decorator.addField(maxSizeField);
+		Field delegate = JavaElementGeneratorTools.generateField("delegate", JavaVisibility.PRIVATE, mapperType, null);
+		delegate.setFinal(true);
+		decorator.addField(delegate);
+		Field maxSizeInstance = JavaElementGeneratorTools.generateField("maxSize", JavaVisibility.PRIVATE, intType,
+				null);
+		maxSizeInstance.setFinal(true);
+		decorator.addField(maxSizeInstance);
+		String mapTypeArguments = "<Object, " + valueType.getShortName() + ">";
+		Field cache = JavaElementGeneratorTools.generateField("cache", JavaVisibility.PRIVATE,
+				new FullyQualifiedJavaType("ConcurrentMap" + mapTypeArguments),
+				"new ConcurrentHashMap" + mapTypeArguments + "()");
+		cache.setFinal(true);
+		decorator.addField(cache);
+		// generation：每次写操作加一，读库期间有写操作时不放入缓存
+		String[] counters = { "generation", "hits", "misses", "evictions" };
+		for (String counter : counters) {
+			Field field = JavaElementGeneratorTools.generateField(counter, JavaVisibility.PRIVATE,
+					new FullyQualifiedJavaType("AtomicLong"), "new AtomicLong()");
+			field.setFinal(true);
+			decorator.addField(field);
+		}
+
+		Method constructor = JavaElementGeneratorTools.generateMethod(decorator.getType().getShortName(),
+				JavaVisibility.PUBLIC, null, new Parameter(mapperType, "delegate"));
+		constructor.setConstructor(true);
+		JavaElementGeneratorTools.generateMethodBody(constructor, "this(delegate, DEFAULT_MAX_SIZE);");
+		addDecoratorMethod(decorator, constructor, introspectedTable);
+
+		constructor = JavaElementGeneratorTools.generateMethod(decorator.getType().getShortName(),
+				JavaVisibility.PUBLIC, null, new Parameter(mapperType, "delegate"), new Parameter(intType, "maxSize"));
+		constructor.setConstructor(true);
+		JavaElementGeneratorTools.generateMethodBody(constructor,
+				"if (delegate == null) {",
+				"throw new IllegalArgumentException(\"delegate must not be null\");",
+				"}",
+				"if (maxSize <= 0) {",
+				"throw new IllegalArgumentException(\"maxSize must be positive: \" + maxSize);",
+				"}",
+				"this.delegate = delegate;",
+				"this.maxSize = maxSize;");
+		addDecoratorMethod(decorator, constructor, introspectedTable);
+
+		// Mapper 方法
+		for (Method method : mapper.getMethods()) {
+			addDelegateMethod(decorator, method, valueType, introspectedTable);
+		}
+
+		// 统计
+		for (String counter : new String[] { "hits", "misses", "evictions" }) {
+			Method getter = JavaElementGeneratorTools.generateMethod(
+					"get" + Character.toUpperCase(counter.charAt(0)) + counter.substring(1), JavaVisibility.PUBLIC,
+					longType);
+			JavaElementGeneratorTools.generateMethodBody(getter, "return " + counter + ".get();");
+			addDecoratorMethod(decorator, getter, introspectedTable);
+		}
+		Method getHitRate = JavaElementGeneratorTools.generateMethod("getHitRate", JavaVisibility.PUBLIC,
+				new FullyQualifiedJavaType("double"));
+		JavaElementGeneratorTools.generateMethodBody(getHitRate,
+				"long hitCount = hits.get();",
+				"long total = hitCount + misses.get();",
+				"return total == 0 ? 0.0 : (double) hitCount / total;");
+		addDecoratorMethod(decorator, getHitRate, introspectedTable);
+		Method getSize = JavaElementGeneratorTools.generateMethod("getSize", JavaVisibility.PUBLIC, intType);
+		JavaElementGeneratorTools.generateMethodBody(getSize, "return cache.size();");
+		addDecoratorMethod(decorator, getSize, introspectedTable);
+
+		// 淘汰
+		Method invalidate = JavaElementGeneratorTools.generateMethod("invalidate", JavaVisibility.PUBLIC, null,
+				new Parameter(objectType, "key"));
+		JavaElementGeneratorTools.generateMethodBody(invalidate,
+				"generation.incrementAndGet();",
+				"if (key != null) {",
+				"cache.remove(key);",
+				"}");
+		addDecoratorMethod(decorator, invalidate, introspectedTable);
+		Method invalidateAll = JavaElementGeneratorTools.generateMethod("invalidateAll", JavaVisibility.PUBLIC, null);
+		JavaElementGeneratorTools.generateMethodBody(invalidateAll,
+				"generation.incrementAndGet();",
+				"cache.clear();");
+		addDecoratorMethod(decorator, invalidateAll, introspectedTable);
+
+		// 放入缓存：满时淘汰一条；放入后代数变化说明期间有写操作，撤销
+		Method put = JavaElementGeneratorTools.generateMethod("put", JavaVisibility.PRIVATE, null,
+				new Parameter(objectType, "key"), new Parameter(valueType, "value"),
+				new Parameter(longType, "observedGeneration"));
+		JavaElementGeneratorTools.generateMethodBody(put,
+				"if (cache.size() >= maxSize) {",
+				"Iterator<Object> iterator = cache.keySet().iterator();",
+				"if (iterator.hasNext()) {",
+				"iterator.next();",
+				"iterator.remove();",
+				"evictions.incrementAndGet();",
+				"}",
+				"}",
+				"cache.put(key, value);",
+				"if (generation.get() != observedGeneration) {",
+				"cache.remove(key, value);",
+				"}");
+		addDecoratorMethod(decorator, put, introspectedTable);
+
+		answer.add(new GeneratedJavaFile(decorator, clientConfiguration.getTargetProject(),
+				context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING), context.getJavaFormatter()));
+		return answer;
+	}
+
+	/**
+	 * 生成委托方法：selectByPrimaryKey 读穿透，写方法执行后淘汰
+	 */
+	private void addDelegateMethod(TopLevelClass decorator, Method method, FullyQualifiedJavaType valueType,
+			IntrospectedTable introspectedTable) {
+		Method delegateMethod = JavaElementGeneratorTools.generateMethod(method.getName(), JavaVisibility.PUBLIC,
+				method.getReturnType());
+		StringBuilder arguments = new StringBuilder();
+		for (Parameter parameter : method.getParameters()) {
+			delegateMethod.addParameter(new Parameter(parameter.getType(), parameter.getName()));
+			addImportedType(decorator, parameter.getType());
+			if (arguments.length() > 0) {
+				arguments.append(", ");
+			}
+			arguments.append(parameter.getName());
+		}
+		for (FullyQualifiedJavaType exception : method.getExceptions()) {
+			delegateMethod.addException(exception);
+			addImportedType(decorator, exception);
+		}
+		if (method.getReturnType() != null) {
+			addImportedType(decorator, method.getReturnType());
+		}
+		String call = "delegate." + method.getName() + "(" + arguments + ");";
+		String returnCall = method.getReturnType() == null ? call : "return " + call;
+		String name = method.getName();
+		String keyExpression = getKeyExpression(method, introspectedTable);
+
+		if (SELECT_BY_PRIMARY_KEY.equals(name) && keyExpression != null) {
+			// 读穿透
+			JavaElementGeneratorTools.generateMethodBody(delegateMethod,
+					"Object key = " + keyExpression + ";",
+					"if (key == null) {",
+					returnCall,
+					"}",
+					valueType.getShortName() + " value = cache.get(key);",
+					"if (value != null) {",
+					"hits.incrementAndGet();",
+					"return value;",
+					"}",
+					"misses.incrementAndGet();",
+					"long observedGeneration = generation.get();",
+					"value = " + call,
+					"if (value != null) {",
+					"put(key, value, observedGeneration);",
+					"}",
+					"return value;");
+		} else if (name.startsWith("select") || name.startsWith("count") || name.startsWith("insert")) {
+			delegateMethod.addBodyLine(returnCall);
+		} else {
+			// 写方法：无论成功与否都淘汰
+			delegateMethod.addBodyLine("try {");
+			delegateMethod.addBodyLine(returnCall);
+			delegateMethod.addBodyLine("} finally {");
+			delegateMethod.addBodyLine(keyExpression == null ? "invalidateAll();" : "invalidate(" + keyExpression + ");");
+			delegateMethod.addBodyLine("}");
+		}
+		delegateMethod.addAnnotation("@Override");
+		addDecoratorMethod(decorator, delegateMethod, introspectedTable);
+	}
+
+	/**
+	 * 主键表达式：单个主键时为主键值，联合主键时为 Arrays.asList(...)；方法参数不是主键/Model 时返回 null
+	 */
+	private String getKeyExpression(Method method, IntrospectedTable introspectedTable) {
+		List<IntrospectedColumn> primaryKeyColumns = introspectedTable.getPrimaryKeyColumns();
+		List<Parameter> parameters = method.getParameters();
+		List<String> values = new ArrayList<String>();
+		if (parameters.size() == 1) {
+			Parameter parameter = parameters.get(0);
+			String type = parameter.getType().getFullyQualifiedName();
+			if (primaryKeyColumns.size() == 1
+					&& type.equals(primaryKeyColumns.get(0).getFullyQualifiedJavaType().getFullyQualifiedName())) {
+				values.add(parameter.getName());
+			} else if (getModelTypes(introspectedTable).contains(type)) {
+				for (IntrospectedColumn column : primaryKeyColumns) {
+					values.add(parameter.getName() + "." + JavaBeansUtil.getGetterMethodName(column.getJavaProperty(),
+							column.getFullyQualifiedJavaType()) + "()");
+				}
+			} else {
+				return null;
+			}
+		} else if (parameters.size() == primaryKeyColumns.size()) {
+			// 没有主键类时，主键字段作为多个参数
+			for (int i = 0; i < parameters.size(); i++) {
+				if (!parameters.get(i).getName().equals(primaryKeyColumns.get(i).getJavaProperty())) {
+					return null;
+				}
+				values.add(parameters.get(i).getName());
+			}
+		} else {
+			return null;
+		}
+		if (values.size() == 1) {
+			return values.get(0);
+		}
+		StringBuilder sb = new StringBuilder("Arrays.asList(");
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(values.get(i));
+		}
+		return sb.append(")").toString();
+	}
+
+	private static Set<String> getModelTypes(IntrospectedTable introspectedTable) {
+		Set<String> types = new HashSet<String>();
+		types.add(introspectedTable.getBaseRecordType());
+		types.add(introspectedTable.getRecordWithBLOBsType());
+		types.add(introspectedTable.getPrimaryKeyType());
+		types.add(introspectedTable.getRules().calculateAllFieldsClass().getFullyQualifiedName());
+		return types;
+	}
+
+	/**
+	 * 导入类型（泛型参数分别导入）
+	 */
+	private static void addImportedType(TopLevelClass decorator, FullyQualifiedJavaType type) {
+		decorator.addImportedType(new FullyQualifiedJavaType(type.getFullyQualifiedNameWithoutTypeParameters()));
+		for (FullyQualifiedJavaType typeArgument : type.getTypeArguments()) {
+			addImportedType(decorator, typeArgument);
+		}
+	}
+
+	private void addDecoratorMethod(TopLevelClass decorator, Method method, IntrospectedTable introspectedTable) {
+		context.getCommentGenerator().addGeneralMethodComment(method, introspectedTable);
+		decorator.addMethod(method);
+	}
+}
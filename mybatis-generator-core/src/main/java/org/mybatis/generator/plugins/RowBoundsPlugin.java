@@ -16,10 +16,10 @@
 package org.mybatis.generator.plugins;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.mybatis.generator.api.FullyQualifiedTable;
 import org.mybatis.generator.api.IntrospectedTable;
@@ -46,8 +46,8 @@ public class RowBoundsPlugin extends PluginAdapter {
     private Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd;
 
     public RowBoundsPlugin() {
-        rowBounds = new FullyQualifiedJavaType("org.apache.ibatis.session.RowBounds"); //$NON-NLS-1$
-        elementsToAdd = new HashMap<FullyQualifiedTable, List<XmlElement>>();
+        rowBounds = FullyQualifiedJavaType.getInstance("org.apache.ibatis.session.RowBounds"); //$NON-NLS-1$
+        elementsToAdd = new ConcurrentHashMap<FullyQualifiedTable, List<XmlElement>>();
     }
     
     public boolean validate(List<String> warnings) {
@@ -1,5 +1,6 @@
 package org.mybatis.generator.plugins;
 
+import static org.mybatis.generator.internal.util.StringUtility.escapeStringForJava;
 import static org.mybatis.generator.internal.util.StringUtility.stringHasValue;
 
 import java.util.List;
@@ -8,7 +9,10 @@ import org.mybatis.generator.api.CommentGenerator;
 import org.mybatis.generator.api.IntrospectedColumn;
 import org.mybatis.generator.api.IntrospectedTable;
 import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.Field;
 import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.InnerClass;
+import org.mybatis.generator.api.dom.java.InnerEnum;
 import org.mybatis.generator.api.dom.java.Interface;
 import org.mybatis.generator.api.dom.java.JavaVisibility;
 import org.mybatis.generator.api.dom.java.Method;
@@ -26,6 +30,15 @@ import org.mybatis.generator.internal.util.XmlElementGeneratorTools;
 
 /**
  * 根据条件查询返回自定义字段插件
+ * <p>
+ * Example 类中生成列枚举 Column 和基于 BitSet 的投影类 Projection，查询方法以 Projection 指定返回的列：
+ * <ul>
+ * <li>列名来自生成的枚举常量，不再把调用方传入的字符串拼进 SQL（${column}），没有 SQL 注入风险</li>
+ * <li>同一组列（与传入顺序、重复无关）生成的 SQL 完全相同，可以复用预编译语句；投影的查询列在创建时拼好一次</li>
+ * <li>查询列以属性名为别名，结果用 resultType 自动映射，只填充查询的字段，不经过完整的 resultMap。
+ * 表中有列配置了 typeHandler 时仍使用 resultMap，查询列不加属性名别名，与 resultMap 的 column 一致，保证类型转换生效</li>
+ * </ul>
+ * 用法：mapper.selectByExampleShowField(UserExample.Projection.of(UserExample.Column.ID, UserExample.Column.NAME), example)
  * 
  * @author fury
  * @date : 2017年11月17日 下午3:24:23
@@ -39,6 +52,9 @@ public class SelectByExampleShowFieldPlugin extends PluginAdapter {
 	public static final String SELECT_BY_EXAMPLE_SHOWFIELD = "selectByExampleShowField";
 	// 根据需求查询需要返回的列
 	public static final String SELECT_ONE_BY_EXAMPLE_SHOW_FIELD = "selectOneByExampleShowField";
+	// Example 中的列枚举和投影类
+	public static final String COLUMN_ENUM = "Column";
+	public static final String PROJECTION_CLASS = "Projection";
 
 	@Override
 	public void setContext(Context context) {
@@ -63,10 +79,10 @@ public class SelectByExampleShowFieldPlugin extends PluginAdapter {
 	@Override
 	public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
 			IntrospectedTable introspectedTable) {
-		// 定义第一个入参数 List<String> showField
-		FullyQualifiedJavaType showField = FullyQualifiedJavaType.getNewListInstance();
-		showField.addTypeArgument(FullyQualifiedJavaType.getStringInstance());
-		Parameter parameter1 = new Parameter(showField, "showField", "@Param(\"showField\")");
+		// 定义第一个入参数 Projection projection
+		FullyQualifiedJavaType projection = getProjectionType(introspectedTable);
+		interfaze.addImportedType(projection);
+		Parameter parameter1 = new Parameter(projection, "projection", "@Param(\"projection\")");
 
 		// 1. 方法生成 selectByPrimaryKeyShowField
 		Method selectByPrimaryKeyShowField = JavaElementGeneratorTools.generateMethod(SELECT_BY_PRIMARYKEY_SHOWFIELD,
@@ -115,8 +131,7 @@ public class SelectByExampleShowFieldPlugin extends PluginAdapter {
 		// 定义返回类型
 		FullyQualifiedJavaType resultMap = introspectedTable.getRules().calculateAllFieldsClass();
 		Method selectOneByExampleShowField = JavaElementGeneratorTools.generateMethod(SELECT_ONE_BY_EXAMPLE_SHOW_FIELD,
-				JavaVisibility.DEFAULT, resultMap, new Parameter(showField, "showField", "@Param(\"showField\")"),
-				new Parameter(example, "example", "@Param(\"example\")"));
+				JavaVisibility.DEFAULT, resultMap, parameter1, new Parameter(example, "example", "@Param(\"example\")"));
 
 		commentGenerator.addGeneralMethodComment(selectOneByExampleShowField, introspectedTable);
 		// interface 增加方法
@@ -133,20 +148,15 @@ public class SelectByExampleShowFieldPlugin extends PluginAdapter {
 	 */
 	@Override
 	public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
-		// 生成返回字段节点
-		XmlElement columnsEle = new XmlElement("foreach");
-		columnsEle.addAttribute(new Attribute("collection", "showField"));
-		columnsEle.addAttribute(new Attribute("item", "column"));
-		columnsEle.addAttribute(new Attribute("separator", ","));
-		columnsEle.addElement(new TextElement("${column}"));
+		// 生成返回字段节点：投影创建时由列枚举拼好的查询列
+		TextElement columnsEle = new TextElement("${projection.selectList}");
 
 		// 1. selectByPrimaryKeyShowField
 		XmlElement selectByPrimaryKeyShowField = new XmlElement("select");
 		commentGenerator.addComment(selectByPrimaryKeyShowField);
 
 		selectByPrimaryKeyShowField.addAttribute(new Attribute("id", SELECT_BY_PRIMARYKEY_SHOWFIELD));
-		selectByPrimaryKeyShowField.addAttribute(new Attribute("resultType",
-				introspectedTable.getRules().calculateAllFieldsClass().getFullyQualifiedName()));
+		addResultAttribute(selectByPrimaryKeyShowField, introspectedTable);
 		selectByPrimaryKeyShowField.addAttribute(new Attribute("parameterType", "map"));
 
 		selectByPrimaryKeyShowField.addElement(new TextElement("select"));
@@ -182,7 +192,7 @@ public class SelectByExampleShowFieldPlugin extends PluginAdapter {
 		XmlElement selectByExampleShowField = new XmlElement("select");
 		commentGenerator.addComment(selectByExampleShowField);
 		selectByExampleShowField.addAttribute(new Attribute("id", SELECT_BY_EXAMPLE_SHOWFIELD));
-		selectByExampleShowField.addAttribute(new Attribute("resultMap", introspectedTable.getBaseResultMapId()));
+		addResultAttribute(selectByExampleShowField, introspectedTable);
 		selectByExampleShowField.addAttribute(new Attribute("parameterType", "map"));
 
 		selectByExampleShowField.addElement(new TextElement("select"));
@@ -216,7 +226,7 @@ public class SelectByExampleShowFieldPlugin extends PluginAdapter {
 		commentGenerator.addComment(selectOneByExampleShowField);
 
 		selectOneByExampleShowField.addAttribute(new Attribute("id", SELECT_ONE_BY_EXAMPLE_SHOW_FIELD));
-		selectOneByExampleShowField.addAttribute(new Attribute("resultMap", introspectedTable.getBaseResultMapId()));
+		addResultAttribute(selectOneByExampleShowField, introspectedTable);
 		selectOneByExampleShowField.addAttribute(new Attribute("parameterType", "map"));
 
 		selectOneByExampleShowField.addElement(new TextElement("select"));
@@ -242,4 +252,192 @@ public class SelectByExampleShowFieldPlugin extends PluginAdapter {
 
 		return true;
 	}
+
+	/**
+	 * Example 类中生成列枚举 Column 和投影类 Projection
+	 */
+	@Override
+	public boolean modelExampleClassGenerated(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+		topLevelClass.addInnerEnum(generateColumnEnum(topLevelClass, introspectedTable));
+		topLevelClass.addInnerClass(generateProjectionClass(topLevelClass, introspectedTable));
+		topLevelClass.addImportedType(new FullyQualifiedJavaType("java.util.BitSet"));
+		return true;
+	}
+
+	/**
+	 * 列枚举：每列一个常量，保存查询列；使用 resultType 时以属性名为别名，使用 resultMap 时与 resultMap 的 column 一致
+	 */
+	private InnerEnum generateColumnEnum(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+		InnerEnum columnEnum = new InnerEnum(new FullyQualifiedJavaType(COLUMN_ENUM));
+		columnEnum.setVisibility(JavaVisibility.PUBLIC);
+		commentGenerator.addEnumComment(columnEnum, introspectedTable);
+
+		boolean useResultMap = useResultMap(introspectedTable);
+		for (IntrospectedColumn introspectedColumn : introspectedTable.getAllColumns()) {
+			StringBuilder sb = new StringBuilder();
+			sb.append(getConstantName(introspectedColumn.getJavaProperty()));
+			sb.append("(\"");
+			if (useResultMap) {
+				// 与 resultMap 中的 column 相同，typeHandler 才能生效
+				sb.append(escapeStringForJava(MyBatis3FormattingUtilities.getSelectListPhrase(introspectedColumn)));
+			} else {
+				sb.append(escapeStringForJava(MyBatis3FormattingUtilities.getAliasedEscapedColumnName(introspectedColumn)));
+				sb.append(" as ");
+				sb.append(escapeStringForJava(context.getBeginningDelimiter()));
+				sb.append(introspectedColumn.getJavaProperty());
+				sb.append(escapeStringForJava(context.getEndingDelimiter()));
+			}
+			sb.append("\")");
+			columnEnum.addEnumConstant(sb.toString());
+		}
+
+		Field selectItem = JavaElementGeneratorTools.generateField("selectItem", JavaVisibility.PRIVATE,
+				FullyQualifiedJavaType.getStringInstance(), null);
+		selectItem.setFinal(true);
+		columnEnum.addField(selectItem);
+
+		Method constructor = JavaElementGeneratorTools.generateMethod(COLUMN_ENUM, JavaVisibility.PRIVATE, null,
+				new Parameter(FullyQualifiedJavaType.getStringInstance(), "selectItem"));
+		constructor.setConstructor(true);
+		constructor.addBodyLine("this.selectItem = selectItem;");
+		columnEnum.addMethod(constructor);
+
+		Method getSelectItem = JavaElementGeneratorTools.generateMethod("getSelectItem", JavaVisibility.PUBLIC,
+				FullyQualifiedJavaType.getStringInstance());
+		getSelectItem.addBodyLine("return selectItem;");
+		columnEnum.addMethod(getSelectItem);
+
+		return columnEnum;
+	}
+
+	/**
+	 * 投影类：以 BitSet 记录查询的列，查询列按枚举顺序拼接，同一组列的 SQL 相同
+	 */
+	private InnerClass generateProjectionClass(TopLevelClass topLevelClass, IntrospectedTable introspectedTable) {
+		FullyQualifiedJavaType columnType = new FullyQualifiedJavaType(COLUMN_ENUM);
+		FullyQualifiedJavaType bitSetType = new FullyQualifiedJavaType("java.util.BitSet");
+		FullyQualifiedJavaType projectionType = new FullyQualifiedJavaType(PROJECTION_CLASS);
+
+		InnerClass projection = new InnerClass(projectionType);
+		projection.setVisibility(JavaVisibility.PUBLIC);
+		projection.setStatic(true);
+		projection.setFinal(true);
+		commentGenerator.addClassComment(projection, introspectedTable);
+
+		Field columns = JavaElementGeneratorTools.generateField("columns", JavaVisibility.PRIVATE, bitSetType, null);
+		columns.setFinal(true);
+		projection.addField(columns);
+		Field selectList = JavaElementGeneratorTools.generateField("selectList", JavaVisibility.PRIVATE,
+				FullyQualifiedJavaType.getStringInstance(), null);
+		selectList.setFinal(true);
+		projection.addField(selectList);
+
+		Method constructor = JavaElementGeneratorTools.generateMethod(PROJECTION_CLASS, JavaVisibility.PRIVATE, null,
+				new Parameter(bitSetType, "columns"));
+		constructor.setConstructor(true);
+		JavaElementGeneratorTools.generateMethodBody(constructor,
+				"this.columns = columns;",
+				"StringBuilder sb = new StringBuilder();",
+				"for (Column column : Column.values()) {",
+				"if (columns.get(column.ordinal())) {",
+				"if (sb.length() > 0) {",
+				"sb.append(\", \");",
+				"}",
+				"sb.append(column.getSelectItem());",
+				"}",
+				"}",
+				"this.selectList = sb.toString();");
+		projection.addMethod(constructor);
+
+		Method of = JavaElementGeneratorTools.generateMethod("of", JavaVisibility.PUBLIC, projectionType,
+				new Parameter(columnType, "columns", true));
+		of.setStatic(true);
+		JavaElementGeneratorTools.generateMethodBody(of,
+				"if (columns.length == 0) {",
+				"throw new IllegalArgumentException(\"A projection needs at least one column\");",
+				"}",
+				"BitSet bits = new BitSet();",
+				"for (Column column : columns) {",
+				"bits.set(column.ordinal());",
+				"}",
+				"return new Projection(bits);");
+		projection.addMethod(of);
+
+		Method with = JavaElementGeneratorTools.generateMethod("with", JavaVisibility.PUBLIC, projectionType,
+				new Parameter(columnType, "column"));
+		JavaElementGeneratorTools.generateMethodBody(with,
+				"BitSet bits = (BitSet) columns.clone();",
+				"bits.set(column.ordinal());",
+				"return new Projection(bits);");
+		projection.addMethod(with);
+
+		Method contains = JavaElementGeneratorTools.generateMethod("contains", JavaVisibility.PUBLIC,
+				FullyQualifiedJavaType.getBooleanPrimitiveInstance(), new Parameter(columnType, "column"));
+		contains.addBodyLine("return columns.get(column.ordinal());");
+		projection.addMethod(contains);
+
+		Method getSelectList = JavaElementGeneratorTools.generateMethod("getSelectList", JavaVisibility.PUBLIC,
+				FullyQualifiedJavaType.getStringInstance());
+		getSelectList.addBodyLine("return selectList;");
+		projection.addMethod(getSelectList);
+
+		Method equals = JavaElementGeneratorTools.generateMethod("equals", JavaVisibility.PUBLIC,
+				FullyQualifiedJavaType.getBooleanPrimitiveInstance(),
+				new Parameter(FullyQualifiedJavaType.getObjectInstance(), "obj"));
+		equals.addAnnotation("@Override");
+		equals.addBodyLine("return obj instanceof Projection && columns.equals(((Projection) obj).columns);");
+		projection.addMethod(equals);
+
+		Method hashCode = JavaElementGeneratorTools.generateMethod("hashCode", JavaVisibility.PUBLIC,
+				FullyQualifiedJavaType.getIntInstance());
+		hashCode.addAnnotation("@Override");
+		hashCode.addBodyLine("return columns.hashCode();");
+		projection.addMethod(hashCode);
+
+		return projection;
+	}
+
+	/**
+	 * 列属性名转换为常量名，如 userName 转换为 USER_NAME
+	 */
+	private static String getConstantName(String javaProperty) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < javaProperty.length(); i++) {
+			char c = javaProperty.charAt(i);
+			if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(javaProperty.charAt(i - 1))) {
+				sb.append('_');
+			}
+			sb.append(Character.toUpperCase(c));
+		}
+		return sb.toString();
+	}
+
+	private static FullyQualifiedJavaType getProjectionType(IntrospectedTable introspectedTable) {
+		return new FullyQualifiedJavaType(introspectedTable.getExampleType() + "." + PROJECTION_CLASS);
+	}
+
+	/**
+	 * 返回类型：按别名自动映射到全字段 Model；有列配置 typeHandler 时使用 resultMap
+	 */
+	private static void addResultAttribute(XmlElement element, IntrospectedTable introspectedTable) {
+		if (useResultMap(introspectedTable)) {
+			element.addAttribute(new Attribute("resultMap", introspectedTable.hasBLOBColumns()
+					? introspectedTable.getResultMapWithBLOBsId() : introspectedTable.getBaseResultMapId()));
+		} else {
+			element.addAttribute(new Attribute("resultType",
+					introspectedTable.getRules().calculateAllFieldsClass().getFullyQualifiedName()));
+		}
+	}
+
+	/**
+	 * 表中有列配置了 typeHandler 时使用 resultMap，否则按别名自动映射
+	 */
+	private static boolean useResultMap(IntrospectedTable introspectedTable) {
+		for (IntrospectedColumn introspectedColumn : introspectedTable.getAllColumns()) {
+			if (stringHasValue(introspectedColumn.getTypeHandler())) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
@@ -0,0 +1,205 @@
+package org.mybatis.generator.plugins;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.FullyQualifiedTable;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.config.ConnectionFactoryConfiguration;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JDBCConnectionConfiguration;
+import org.mybatis.generator.internal.util.FormatTools;
+import org.mybatis.generator.internal.util.StringUtility;
+
+/**
+ * 流式查询插件
+ * <p>
+ * selectByExample/selectByExampleWithBLOBs 返回 List，导出大表时所有记录都会放在堆上。
+ * 本插件为这两个方法生成流式版本 selectByExampleWithResultHandler/selectByExampleWithBLOBsWithResultHandler：
+ * 方法增加 ResultHandler 参数、返回 void，逐行回调；对应的 select 设置 resultSetType="FORWARD_ONLY" 和 fetchSize，
+ * 驱动按批读取结果，内存占用与表大小无关。example 为空（或没有条件）时即为全表扫描。
+ * <p>
+ * 属性：
+ * <ul>
+ * <li>fetchSize：每批读取的行数。默认 MySQL 为 Integer.MIN_VALUE（MySQL 驱动只有该值才逐行流式读取），其他数据库为 1000</li>
+ * <li>generateCursorMethods：为 true 时同时生成返回 Cursor 的 selectByExampleWithCursor 方法（需要 MyBatis 3.4.0 及以上），默认 false</li>
+ * </ul>
+ * 
+ * @author fury
+ * @date : 2026年10月18日 上午11:03:17
+ */
+public class StreamingSelectPlugin extends PluginAdapter {
+	protected CommentGenerator commentGenerator; // 注释工具
+	// 方法名后缀
+	public static final String RESULT_HANDLER_SUFFIX = "WithResultHandler";
+	public static final String CURSOR_SUFFIX = "WithCursor";
+
+	public static final String FETCH_SIZE = "fetchSize"; // 每批读取行数
+	public static final String GENERATE_CURSOR_METHODS = "generateCursorMethods"; // 是否生成 Cursor 方法
+	// MySQL 驱动的流式读取 fetchSize
+	public static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+	public static final int DEFAULT_FETCH_SIZE = 1000;
+
+	private final FullyQualifiedJavaType resultHandler = new FullyQualifiedJavaType(
+			"org.apache.ibatis.session.ResultHandler");
+	private final FullyQualifiedJavaType cursor = new FullyQualifiedJavaType("org.apache.ibatis.cursor.Cursor");
+	protected int fetchSize;
+	protected boolean generateCursorMethods;
+	// 待加入 SQL Map 的节点（实例字段，多线程生成时按表区分）
+	private final Map<FullyQualifiedTable, List<XmlElement>> elementsToAdd = new ConcurrentHashMap<FullyQualifiedTable, List<XmlElement>>();
+
+	@Override
+	public void setContext(Context context) {
+		super.setContext(context);
+		commentGenerator = context.getCommentGenerator();
+	}
+
+	@Override
+	public boolean validate(List<String> warnings) {
+		String value = properties.getProperty(FETCH_SIZE);
+		if (StringUtility.stringHasValue(value)) {
+			try {
+				fetchSize = Integer.parseInt(value.trim());
+			} catch (NumberFormatException e) {
+				warnings.add("StreamingSelectPlugin: " + FETCH_SIZE + " must be an integer: " + value);
+				return false;
+			}
+		} else {
+			fetchSize = isMySql() ? MYSQL_STREAMING_FETCH_SIZE : DEFAULT_FETCH_SIZE;
+		}
+		generateCursorMethods = StringUtility.isTrue(properties.getProperty(GENERATE_CURSOR_METHODS));
+		return true;
+	}
+
+	/**
+	 * 根据驱动类或连接 URL 判断是否为 MySQL
+	 */
+	private boolean isMySql() {
+		String driverClass = null;
+		String connectionUrl = null;
+		JDBCConnectionConfiguration jdbcConnectionConfiguration = context.getJdbcConnectionConfiguration();
+		ConnectionFactoryConfiguration connectionFactoryConfiguration = context.getConnectionFactoryConfiguration();
+		if (jdbcConnectionConfiguration != null) {
+			driverClass = jdbcConnectionConfiguration.getDriverClass();
+			connectionUrl = jdbcConnectionConfiguration.getConnectionURL();
+		} else if (connectionFactoryConfiguration != null) {
+			driverClass = connectionFactoryConfiguration.getProperty("driverClass");
+			connectionUrl = connectionFactoryConfiguration.getProperty("connectionURL");
+		}
+		return (connectionUrl != null && connectionUrl.startsWith("jdbc:mysql:"))
+				|| (driverClass != null && driverClass.toLowerCase().contains("mysql"));
+	}
+
+	@Override
+	public boolean clientSelectByExampleWithoutBLOBsMethodGenerated(Method method, Interface interfaze,
+			IntrospectedTable introspectedTable) {
+		addStreamingMethods(method, interfaze, introspectedTable);
+		return true;
+	}
+
+	@Override
+	public boolean clientSelectByExampleWithBLOBsMethodGenerated(Method method, Interface interfaze,
+			IntrospectedTable introspectedTable) {
+		addStreamingMethods(method, interfaze, introspectedTable);
+		return true;
+	}
+
+	@Override
+	public boolean sqlMapSelectByExampleWithoutBLOBsElementGenerated(XmlElement element,
+			IntrospectedTable introspectedTable) {
+		saveStreamingElements(element, introspectedTable);
+		return true;
+	}
+
+	@Override
+	public boolean sqlMapSelectByExampleWithBLOBsElementGenerated(XmlElement element,
+			IntrospectedTable introspectedTable) {
+		saveStreamingElements(element, introspectedTable);
+		return true;
+	}
+
+	/**
+	 * 所有 select 节点生成后，加入之前保存的流式查询节点
+	 */
+	@Override
+	public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+		List<XmlElement> elements = elementsToAdd.remove(introspectedTable.getFullyQualifiedTable());
+		if (elements != null) {
+			for (XmlElement element : elements) {
+				FormatTools.addElementWithBestPosition(document.getRootElement(), element);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 复制查询方法：ResultHandler 版本返回 void，Cursor 版本返回 Cursor
+	 */
+	private void addStreamingMethods(Method method, Interface interfaze, IntrospectedTable introspectedTable) {
+		Method handlerMethod = new Method(method);
+		handlerMethod.setName(method.getName() + RESULT_HANDLER_SUFFIX);
+		handlerMethod.setReturnType(null);
+		handlerMethod.addParameter(new Parameter(resultHandler, "resultHandler"));
+		handlerMethod.getJavaDocLines().clear();
+		commentGenerator.addGeneralMethodComment(handlerMethod, introspectedTable);
+		interfaze.addImportedType(resultHandler);
+		FormatTools.addMethodWithBestPosition(interfaze, handlerMethod);
+
+		if (generateCursorMethods) {
+			FullyQualifiedJavaType cursorType = new FullyQualifiedJavaType(cursor.getFullyQualifiedName());
+			cursorType.addTypeArgument(method.getReturnType().getTypeArguments().get(0));
+			Method cursorMethod = new Method(method);
+			cursorMethod.setName(method.getName() + CURSOR_SUFFIX);
+			cursorMethod.setReturnType(cursorType);
+			cursorMethod.getJavaDocLines().clear();
+			commentGenerator.addGeneralMethodComment(cursorMethod, introspectedTable);
+			interfaze.addImportedType(cursor);
+			FormatTools.addMethodWithBestPosition(interfaze, cursorMethod);
+		}
+	}
+
+	/**
+	 * 复制查询节点，设置 resultSetType 和 fetchSize，保存到 sqlMapDocumentGenerated 时加入
+	 */
+	private void saveStreamingElements(XmlElement element, IntrospectedTable introspectedTable) {
+		List<XmlElement> elements = new ArrayList<XmlElement>();
+		elements.add(copyElement(element, RESULT_HANDLER_SUFFIX));
+		if (generateCursorMethods) {
+			elements.add(copyElement(element, CURSOR_SUFFIX));
+		}
+
+		List<XmlElement> saved = elementsToAdd.get(introspectedTable.getFullyQualifiedTable());
+		if (saved == null) {
+			elementsToAdd.put(introspectedTable.getFullyQualifiedTable(), elements);
+		} else {
+			saved.addAll(elements);
+		}
+	}
+
+	private XmlElement copyElement(XmlElement element, String suffix) {
+		XmlElement newElement = new XmlElement(element);
+		for (Iterator<Attribute> iterator = newElement.getAttributes().iterator(); iterator.hasNext();) {
+			Attribute attribute = iterator.next();
+			if ("id".equals(attribute.getName())) {
+				iterator.remove();
+				newElement.addAttribute(new Attribute("id", attribute.getValue() + suffix));
+				break;
+			}
+		}
+		newElement.addAttribute(new Attribute("resultSetType", "FORWARD_ONLY"));
+		newElement.addAttribute(new Attribute("fetchSize", String.valueOf(fetchSize)));
+		return newElement;
+	}
+}
@@ -0,0 +1,246 @@
+package org.mybatis.generator.plugins;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mybatis.generator.api.CommentGenerator;
+import org.mybatis.generator.api.GeneratedJavaFile;
+import org.mybatis.generator.api.IntrospectedColumn;
+import org.mybatis.generator.api.IntrospectedTable;
+import org.mybatis.generator.api.PluginAdapter;
+import org.mybatis.generator.api.dom.java.FullyQualifiedJavaType;
+import org.mybatis.generator.api.dom.java.Interface;
+import org.mybatis.generator.api.dom.java.JavaVisibility;
+import org.mybatis.generator.api.dom.java.Method;
+import org.mybatis.generator.api.dom.java.Parameter;
+import org.mybatis.generator.api.dom.java.TopLevelClass;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.mybatis3.ListUtilities;
+import org.mybatis.generator.codegen.mybatis3.MyBatis3FormattingUtilities;
+import org.mybatis.generator.config.Context;
+import org.mybatis.generator.config.JavaClientGeneratorConfiguration;
+import org.mybatis.generator.config.PropertyRegistry;
+import org.mybatis.generator.internal.util.JavaElementGeneratorTools;
+import org.mybatis.generator.internal.util.XmlElementGeneratorTools;
+
+/**
+ * 按主键批量更新插件
+ * <p>
+ * 新增 updateBatchByPrimaryKey/updateBatchByPrimaryKeySelective，一条 SQL 更新多行（MySQL、Oracle 等均支持）：
+ *
+ * <pre>
+ * update t set name = case id when #{item.id} then #{item.name} ... end, ... where id in (...)
+ * </pre>
+ *
+ * SET 的列与 updateByPrimaryKeyWithBLOBs 相同（XmlElementGeneratorTools.generateCaseSets）；selective 版本中值为 null 的行保持原值。
+ * <p>
+ * 每个表还会生成 XxxMapperUpdateBatchHelper 类（与 Mapper 同包）：
+ * <ul>
+ * <li>updateBatchByPrimaryKey/updateBatchByPrimaryKeySelective(mapper, list, chunkSize)：按固定大小分块，
+ * 避免 SQL 过长、参数过多（每行每列两个参数）以及 Oracle IN 列表超过 1000</li>
+ * <li>updateWithBatchExecutor(...)：使用 ExecutorType.BATCH 复用单行 updateByPrimaryKey(Selective) 的
+ * PreparedStatement，每 chunkSize 条 flush 一次</li>
+ * </ul>
+ * 以上方法均返回每块的更新条数，空列表返回空数组、不执行任何语句（直接调用 mapper 时 list 不能为空，否则生成 in ()）。
+ * 分块大小默认 200，可通过属性 chunkSize 配置。没有主键或没有非主键列的表不生成。
+ *
+ * @author fury
+ * @date : 2026年10月18日 下午1:40:12
+ */
+public class UpdateBatchPlugin extends PluginAdapter {
+	protected CommentGenerator commentGenerator; // 注释工具
+	// 方法名 updateBatchByPrimaryKey
+	public static final String UPDATE_BATCH_BY_PRIMARY_KEY = "updateBatchByPrimaryKey";
+	// 方法名 updateBatchByPrimaryKeySelective
+	public static final String UPDATE_BATCH_BY_PRIMARY_KEY_SELECTIVE = "updateBatchByPrimaryKeySelective";
+
+	public static final String CHUNK_SIZE = "chunkSize"; // 分块大小
+	public static final int DEFAULT_CHUNK_SIZE = 200;
+	// 分块批量更新辅助类名后缀
+	public static final String UPDATE_BATCH_HELPER_SUFFIX = "UpdateBatchHelper";
+	protected int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	@Override
+	public void setContext(Context context) {
+		super.setContext(context);
+		// 自定义
+		commentGenerator = context.getCommentGenerator();
+	}
+
+	@Override
+	public boolean validate(List<String> warnings) {
+		String chunkSizeValue = properties.getProperty(CHUNK_SIZE);
+		if (chunkSizeValue != null) {
+			try {
+				chunkSize = Integer.parseInt(chunkSizeValue.trim());
+			} catch (NumberFormatException e) {
+				chunkSize = 0;
+			}
+			if (chunkSize <= 0) {
+				warnings.add("UpdateBatchPlugin: " + CHUNK_SIZE + " must be a positive integer: " + chunkSizeValue);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 需要主键定位行，且至少有一个可更新的列
+	 */
+	private boolean isSupported(IntrospectedTable introspectedTable) {
+		return introspectedTable.hasPrimaryKeyColumns() && !getSetColumns(introspectedTable).isEmpty();
+	}
+
+	private static List<IntrospectedColumn> getSetColumns(IntrospectedTable introspectedTable) {
+		return ListUtilities.removeGeneratedAlwaysColumns(introspectedTable.getNonPrimaryKeyColumns());
+	}
+
+	/**
+	 * Java Client Methods 生成
+	 */
+	@Override
+	public boolean clientGenerated(Interface interfaze, TopLevelClass topLevelClass,
+			IntrospectedTable introspectedTable) {
+		if (!isSupported(introspectedTable)) {
+			return true;
+		}
+		FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+		listType.addTypeArgument(introspectedTable.getRules().calculateAllFieldsClass());
+		for (String methodName : new String[] { UPDATE_BATCH_BY_PRIMARY_KEY, UPDATE_BATCH_BY_PRIMARY_KEY_SELECTIVE }) {
+			Method method = JavaElementGeneratorTools.generateMethod(methodName, JavaVisibility.DEFAULT,
+					FullyQualifiedJavaType.getIntInstance(), new Parameter(listType, "list", "@Param(\"list\")"));
+			commentGenerator.addGeneralMethodComment(method, introspectedTable);
+			// 空列表生成的 in () 不是合法 SQL，在注释中说明
+			List<String> javaDocLines = method.getJavaDocLines();
+			if (!javaDocLines.isEmpty() && "/**".equals(javaDocLines.get(0))) {
+				javaDocLines.add(1, " * list 不能为空；使用 " + interfaze.getType().getShortName() + UPDATE_BATCH_HELPER_SUFFIX
+						+ " 时空列表不执行任何语句");
+				javaDocLines.add(2, " *");
+			}
+			// interface 增加方法
+			interfaze.addMethod(method);
+		}
+		interfaze.addImportedType(FullyQualifiedJavaType.getNewListInstance());
+		interfaze.addImportedType(new FullyQualifiedJavaType("org.apache.ibatis.annotations.Param"));
+		return true;
+	}
+
+	/**
+	 * SQL Map Methods 生成
+	 */
+	@Override
+	public boolean sqlMapDocumentGenerated(Document document, IntrospectedTable introspectedTable) {
+		if (!isSupported(introspectedTable)) {
+			return true;
+		}
+		document.getRootElement().addElement(generateUpdateBatch(introspectedTable, UPDATE_BATCH_BY_PRIMARY_KEY, false));
+		document.getRootElement()
+				.addElement(generateUpdateBatch(introspectedTable, UPDATE_BATCH_BY_PRIMARY_KEY_SELECTIVE, true));
+		return true;
+	}
+
+	private XmlElement generateUpdateBatch(IntrospectedTable introspectedTable, String id, boolean selective) {
+		XmlElement update = new XmlElement("update");
+		update.addAttribute(new Attribute("id", id));
+		// 参数类型
+		update.addAttribute(new Attribute("parameterType", "map"));
+		// 添加注释 必须添加注释
+		commentGenerator.addComment(update);
+
+		update.addElement(new TextElement("update " + introspectedTable.getFullyQualifiedTableNameAtRuntime()));
+		update.addElement(XmlElementGeneratorTools.generateCaseSets(getSetColumns(introspectedTable),
+				introspectedTable.getPrimaryKeyColumns(), "list", "item", selective));
+
+		// where 主键
+		List<IntrospectedColumn> keyColumns = introspectedTable.getPrimaryKeyColumns();
+		XmlElement foreach = new XmlElement("foreach");
+		foreach.addAttribute(new Attribute("collection", "list"));
+		foreach.addAttribute(new Attribute("item", "item"));
+		foreach.addAttribute(new Attribute("open", "("));
+		foreach.addAttribute(new Attribute("close", ")"));
+		if (keyColumns.size() == 1) {
+			IntrospectedColumn keyColumn = keyColumns.get(0);
+			update.addElement(
+					new TextElement("where " + MyBatis3FormattingUtilities.getEscapedColumnName(keyColumn) + " in"));
+			foreach.addAttribute(new Attribute("separator", ","));
+			foreach.addElement(new TextElement(MyBatis3FormattingUtilities.getParameterClause(keyColumn, "item.")));
+		} else {
+			update.addElement(new TextElement("where"));
+			foreach.addAttribute(new Attribute("separator", " or "));
+			StringBuilder sb = new StringBuilder("(");
+			for (int i = 0; i < keyColumns.size(); i++) {
+				if (i > 0) {
+					sb.append(" and ");
+				}
+				sb.append(MyBatis3FormattingUtilities.getEscapedColumnName(keyColumns.get(i)));
+				sb.append(" = ");
+				sb.append(MyBatis3FormattingUtilities.getParameterClause(keyColumns.get(i), "item."));
+			}
+			foreach.addElement(new TextElement(sb.append(")").toString()));
+		}
+		update.addElement(foreach);
+		return update;
+	}
+
+	/**
+	 * 生成分块批量更新辅助类 XxxMapperUpdateBatchHelper
+	 */
+	@Override
+	public List<GeneratedJavaFile> contextGenerateAdditionalJavaFiles(IntrospectedTable introspectedTable) {
+		List<GeneratedJavaFile> answer = new ArrayList<GeneratedJavaFile>();
+		JavaClientGeneratorConfiguration clientConfiguration = context.getJavaClientGeneratorConfiguration();
+		if (clientConfiguration == null || introspectedTable.getMyBatis3JavaMapperType() == null
+				|| !isSupported(introspectedTable)) {
+			// 没有生成 Mapper 接口
+			return answer;
+		}
+
+		FullyQualifiedJavaType mapperType = new FullyQualifiedJavaType(introspectedTable.getMyBatis3JavaMapperType());
+		FullyQualifiedJavaType recordType = introspectedTable.getRules().calculateAllFieldsClass();
+		FullyQualifiedJavaType listType = FullyQualifiedJavaType.getNewListInstance();
+		listType.addTypeArgument(recordType);
+
+		TopLevelClass helper = JavaElementGeneratorTools.generateBatchHelperClass(
+				mapperType.getFullyQualifiedName() + UPDATE_BATCH_HELPER_SUFFIX, mapperType, recordType, chunkSize);
+
+		// 1. 一条 case 语句更新一块
+		for (String methodName : new String[] { UPDATE_BATCH_BY_PRIMARY_KEY, UPDATE_BATCH_BY_PRIMARY_KEY_SELECTIVE }) {
+			JavaElementGeneratorTools.addChunkedMethods(helper, methodName, mapperType, listType, true);
+		}
+
+		// 2. ExecutorType.BATCH：复用单行 updateByPrimaryKey(Selective) 的 PreparedStatement
+		String updateMethod = introspectedTable.getRules().generateUpdateByPrimaryKeyWithBLOBs()
+				? introspectedTable.getUpdateByPrimaryKeyWithBLOBsStatementId()
+				: introspectedTable.getRules().generateUpdateByPrimaryKeyWithoutBLOBs()
+						? introspectedTable.getUpdateByPrimaryKeyStatementId() : null;
+		String updateSelectiveMethod = introspectedTable.getRules().generateUpdateByPrimaryKeySelective()
+				? introspectedTable.getUpdateByPrimaryKeySelectiveStatementId() : null;
+		// selective 为 true 时逐条调用 updateByPrimaryKeySelective，否则调用 updateByPrimaryKey(WithBLOBs)；
+		// 只生成了其中一种单行更新方法时忽略 selective
+		String[] rowLines;
+		if (updateMethod == null) {
+			rowLines = new String[] { "mapper." + updateSelectiveMethod + "(list.get(j));" };
+		} else if (updateSelectiveMethod == null) {
+			rowLines = new String[] { "mapper." + updateMethod + "(list.get(j));" };
+		} else {
+			rowLines = new String[] {
+					"if (selective) {",
+					"mapper." + updateSelectiveMethod + "(list.get(j));",
+					"} else {",
+					"mapper." + updateMethod + "(list.get(j));",
+					"}" };
+		}
+		if (updateMethod != null || updateSelectiveMethod != null) {
+			JavaElementGeneratorTools.addBatchExecutorMethods(helper, "updateWithBatchExecutor", mapperType, listType,
+					new Parameter(FullyQualifiedJavaType.getBooleanPrimitiveInstance(), "selective"), rowLines);
+		}
+
+		JavaElementGeneratorTools.addHelperClassComments(helper, commentGenerator, introspectedTable);
+		answer.add(new GeneratedJavaFile(helper, clientConfiguration.getTargetProject(),
+				context.getProperty(PropertyRegistry.CONTEXT_JAVA_FILE_ENCODING), context.getJavaFormatter()));
+		return answer;
+	}
+}
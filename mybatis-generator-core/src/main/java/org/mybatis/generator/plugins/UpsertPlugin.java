@@ -61,7 +61,7 @@ public class UpsertPlugin extends PluginAdapter {
 
 	public static final String PRO_ALLOW_MULTI_QUERIES = "allowMultiQueries"; // allowMultiQueries
 
-	private static Boolean allowMultiQueries = Boolean.FALSE; // 是否允许多sql提交
+	private boolean allowMultiQueries; // 是否允许多sql提交
 
 	@Override
 	public void setContext(Context context) {
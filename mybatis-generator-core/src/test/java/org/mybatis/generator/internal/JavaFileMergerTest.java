@@ -0,0 +1,123 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mybatis.generator.config.MergeConstants;
+
+public class JavaFileMergerTest {
+
+    private static final String NEW_MAPPER = "package demo;\n" //$NON-NLS-1$
+            + "\n" //$NON-NLS-1$
+            + "import java.util.List;\n" //$NON-NLS-1$
+            + "import org.apache.ibatis.annotations.SelectProvider;\n" //$NON-NLS-1$
+            + "import org.apache.ibatis.session.RowBounds;\n" //$NON-NLS-1$
+            + "\n" //$NON-NLS-1$
+            + "public interface FooMapper {\n" //$NON-NLS-1$
+            + "    /**\n" //$NON-NLS-1$
+            + "     * @mbggenerated\n" //$NON-NLS-1$
+            + "     */\n" //$NON-NLS-1$
+            + "    @SelectProvider(type=FooSqlProvider.class, method=\"selectByExample\")\n" //$NON-NLS-1$
+            + "    List<Foo> selectByExampleWithRowbounds(FooExample example, RowBounds rowBounds);\n" //$NON-NLS-1$
+            + "\n" //$NON-NLS-1$
+            + "    /**\n" //$NON-NLS-1$
+            + "     * @mbggenerated\n" //$NON-NLS-1$
+            + "     */\n" //$NON-NLS-1$
+            + "    @SelectProvider(type=FooSqlProvider.class, method=\"selectByExample\")\n" //$NON-NLS-1$
+            + "    List<Foo> selectByExample(FooExample example);\n" //$NON-NLS-1$
+            + "}\n"; //$NON-NLS-1$
+
+    @Test
+    public void testCustomAnnotatedMethodIsKeptWithGeneratedMethods() throws Exception {
+        String existing = "package demo;\n" //$NON-NLS-1$
+                + "\n" //$NON-NLS-1$
+                + "import java.util.List;\n" //$NON-NLS-1$
+                + "import org.apache.ibatis.annotations.SelectProvider;\n" //$NON-NLS-1$
+                + "import org.apache.ibatis.session.RowBounds;\n" //$NON-NLS-1$
+                + "\n" //$NON-NLS-1$
+                + "public interface FooMapper {\n" //$NON-NLS-1$
+                + "    /**\n" //$NON-NLS-1$
+                + "     * @mbggenerated\n" //$NON-NLS-1$
+                + "     */\n" //$NON-NLS-1$
+                + "    @SelectProvider(type=FooSqlProvider.class, method=\"selectByExample\")\n" //$NON-NLS-1$
+                + "    List<Foo> selectByExampleWithRowbounds(FooExample example, RowBounds rowBounds);\n" //$NON-NLS-1$
+                + "\n" //$NON-NLS-1$
+                + "    @SelectProvider(type=FooSqlProvider.class, method=\"selectByExample\")\n" //$NON-NLS-1$
+                + "    List<Foo> selectActive(FooExample example);\n" //$NON-NLS-1$
+                + "}\n"; //$NON-NLS-1$
+
+        String merged = JavaFileMerger.getMergedSource(NEW_MAPPER, existing,
+                MergeConstants.OLD_ELEMENT_TAGS, "FooMapper.java"); //$NON-NLS-1$
+
+        assertEquals(1, count(merged, "selectByExampleWithRowbounds(")); //$NON-NLS-1$
+        assertEquals(1, count(merged, "selectByExample(FooExample")); //$NON-NLS-1$
+        assertEquals(1, count(merged, "selectActive(FooExample")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testCustomizedGeneratedMethodReplacesNewMethod() throws Exception {
+        String existing = "package demo;\n" //$NON-NLS-1$
+                + "\n" //$NON-NLS-1$
+                + "import java.util.List;\n" //$NON-NLS-1$
+                + "import org.apache.ibatis.annotations.SelectProvider;\n" //$NON-NLS-1$
+                + "import org.apache.ibatis.session.RowBounds;\n" //$NON-NLS-1$
+                + "\n" //$NON-NLS-1$
+                + "public interface FooMapper {\n" //$NON-NLS-1$
+                + "    // the generated tag was removed - this method is kept as is\n" //$NON-NLS-1$
+                + "    @SelectProvider(type=FooSqlProvider.class, method=\"selectWithHint\")\n" //$NON-NLS-1$
+                + "    List<Foo> selectByExampleWithRowbounds(FooExample example, RowBounds rowBounds);\n" //$NON-NLS-1$
+                + "}\n"; //$NON-NLS-1$
+
+        String merged = JavaFileMerger.getMergedSource(NEW_MAPPER, existing,
+                MergeConstants.OLD_ELEMENT_TAGS, "FooMapper.java"); //$NON-NLS-1$
+
+        assertEquals(1, count(merged, "selectByExampleWithRowbounds(")); //$NON-NLS-1$
+        assertTrue(merged.contains("method=\"selectWithHint\"")); //$NON-NLS-1$
+        assertEquals(1, count(merged, "selectByExample(FooExample")); //$NON-NLS-1$
+    }
+
+    @Test
+    public void testNestedAnnotationArgumentsAreSkipped() throws Exception {
+        String existing = "package demo;\n" //$NON-NLS-1$
+                + "\n" //$NON-NLS-1$
+                + "public interface FooMapper {\n" //$NON-NLS-1$
+                + "    @Results({ @Result(column=\"id\", property=\"id\", id=true),\n" //$NON-NLS-1$
+                + "            @Result(column=\"name\", property=\"name\") })\n" //$NON-NLS-1$
+                + "    @org.apache.ibatis.annotations.Select(\"select id, name from foo\")\n" //$NON-NLS-1$
+                + "    List<Foo> selectAll();\n" //$NON-NLS-1$
+                + "}\n"; //$NON-NLS-1$
+
+        String merged = JavaFileMerger.getMergedSource(NEW_MAPPER, existing,
+                MergeConstants.OLD_ELEMENT_TAGS, "FooMapper.java"); //$NON-NLS-1$
+
+        assertEquals(1, count(merged, "selectAll()")); //$NON-NLS-1$
+        assertEquals(1, count(merged, "selectByExampleWithRowbounds(")); //$NON-NLS-1$
+        assertEquals(1, count(merged, "selectByExample(FooExample")); //$NON-NLS-1$
+    }
+
+    private static int count(String s, String part) {
+        int count = 0;
+        int index = s.indexOf(part);
+        while (index >= 0) {
+            count++;
+            index = s.indexOf(part, index + part.length());
+        }
+        return count;
+    }
+}
@@ -0,0 +1,87 @@
+/**
+ *    Copyright 2006-2016 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.mybatis.generator.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+import org.mybatis.generator.api.dom.xml.Attribute;
+import org.mybatis.generator.api.dom.xml.Document;
+import org.mybatis.generator.api.dom.xml.TextElement;
+import org.mybatis.generator.api.dom.xml.XmlElement;
+import org.mybatis.generator.codegen.XmlConstants;
+import org.xml.sax.InputSource;
+
+public class XmlFileMergerStaxTest {
+
+    private static final String EXISTING_MAPPER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" //$NON-NLS-1$
+            + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\"" //$NON-NLS-1$
+            + " \"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n" //$NON-NLS-1$
+            + "<mapper namespace=\"demo.FooMapper\">\n" //$NON-NLS-1$
+            + "  <select id=\"selectByPrimaryKey\" resultType=\"demo.Foo\">\n" //$NON-NLS-1$
+            + "    <!-- note -->\n" //$NON-NLS-1$
+            + "    <!-- another note -->\n" //$NON-NLS-1$
+            + "    <!--\n" //$NON-NLS-1$
+            + "      WARNING - @mbggenerated\n" //$NON-NLS-1$
+            + "    -->\n" //$NON-NLS-1$
+            + "    select id from foo where id = #{id}\n" //$NON-NLS-1$
+            + "  </select>\n" //$NON-NLS-1$
+            + "  <select id=\"selectActive\" resultType=\"demo.Foo\">\n" //$NON-NLS-1$
+            + "    <!-- custom -->\n" //$NON-NLS-1$
+            + "    select id from foo where active = 1\n" //$NON-NLS-1$
+            + "  </select>\n" //$NON-NLS-1$
+            + "</mapper>\n"; //$NON-NLS-1$
+
+    @Test
+    public void testLeadingCommentsBeforeGeneratedTag() throws Exception {
+        Document newDocument = new Document(XmlConstants.MYBATIS3_MAPPER_PUBLIC_ID,
+                XmlConstants.MYBATIS3_MAPPER_SYSTEM_ID);
+        XmlElement mapper = new XmlElement("mapper"); //$NON-NLS-1$
+        mapper.addAttribute(new Attribute("namespace", "demo.FooMapper")); //$NON-NLS-1$ //$NON-NLS-2$
+        XmlElement select = new XmlElement("select"); //$NON-NLS-1$
+        select.addAttribute(new Attribute("id", "selectByPrimaryKey")); //$NON-NLS-1$ //$NON-NLS-2$
+        select.addAttribute(new Attribute("resultType", "demo.Foo")); //$NON-NLS-1$ //$NON-NLS-2$
+        select.addElement(new TextElement("<!--")); //$NON-NLS-1$
+        select.addElement(new TextElement("  WARNING - @mbggenerated")); //$NON-NLS-1$
+        select.addElement(new TextElement("-->")); //$NON-NLS-1$
+        select.addElement(new TextElement("select id, name from foo where id = #{id}")); //$NON-NLS-1$
+        mapper.addElement(select);
+        newDocument.setRootElement(mapper);
+
+        String stax = XmlFileMergerStax.getMergedSource(newDocument,
+                new StringReader(EXISTING_MAPPER), "FooMapper.xml"); //$NON-NLS-1$
+        String jaxp = XmlFileMergerJaxp.getMergedSource(
+                new InputSource(new StringReader(newDocument.getFormattedContent())),
+                new InputSource(new StringReader(EXISTING_MAPPER)), "FooMapper.xml"); //$NON-NLS-1$
+
+        assertEquals(jaxp, stax);
+        assertEquals(1, count(stax, "id=\"selectByPrimaryKey\"")); //$NON-NLS-1$
+        assertEquals(1, count(stax, "id=\"selectActive\"")); //$NON-NLS-1$
+        assertEquals(1, count(stax, "select id, name from foo")); //$NON-NLS-1$
+    }
+
+    private static int count(String s, String part) {
+        int count = 0;
+        int index = s.indexOf(part);
+        while (index >= 0) {
+            count++;
+            index = s.indexOf(part, index + part.length());
+        }
+        return count;
+    }
+}